@@ -5,6 +5,7 @@ plugins {
     `my-spotbugs`
     `my-pitest`
     `my-test-percentage-printer`
+    `my-jmh`
     `my-artifact-publisher` apply false // We can only apply the plugin after the version has been determined.
 }
 
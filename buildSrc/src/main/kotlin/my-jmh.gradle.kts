@@ -0,0 +1,51 @@
+import org.gradle.kotlin.dsl.*
+
+/**
+ * This file contains the logic to configure the JMH benchmarks. The benchmarks live in their own source set "jmh"
+ * (src/jmh/java), so they are never part of the published artifact or the test run.
+ *
+ * All benchmarks can be executed with "gradle jmh". A subset can be selected by supplying a regular expression that
+ * matches the benchmark names: "gradle jmh -PjmhIncludes=MatchBenchmark". The allocation profiler (-prof gc) is always
+ * enabled, because allocations per operation are just as important as the throughput.
+ */
+plugins {
+    java
+}
+
+val jmhVersion = "1.26"
+
+val jmh by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations["jmhImplementation"].extendsFrom(configurations.implementation.get())
+
+dependencies {
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:$jmhVersion")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:$jmhVersion")
+}
+
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs the JMH benchmarks with the allocation profiler enabled."
+    dependsOn(jmh.classesTaskName)
+
+    classpath = jmh.runtimeClasspath
+    main = "org.openjdk.jmh.Main"
+
+    val resultFile = project.buildDir.resolve("reports/jmh/results.json")
+    doFirst {
+        resultFile.parentFile.mkdirs()
+    }
+    args("-prof", "gc", "-rf", "json", "-rff", resultFile.absolutePath)
+    if (project.hasProperty("jmhIncludes")) {
+        args(project.property("jmhIncludes").toString())
+    }
+}
+
+// The classes generated by the JMH annotation processor do not follow our own coding standards. We don't want SpotBugs
+// to analyze them. Checkstyle only checks the source files, so that one can stay enabled.
+tasks.matching { it.name == "spotbugsJmh" }.configureEach {
+    enabled = false
+}
@@ -0,0 +1,65 @@
+package io.github.ricoapon.readableregex.benchmark;
+
+import io.github.ricoapon.readableregex.ReadableRegex;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+
+/**
+ * The builders that are used throughout the benchmarks. Every method returns a new (unfinished) builder, so the
+ * benchmarks can decide themselves whether building is part of the measurement or not.
+ */
+public final class BenchmarkPatterns {
+    private BenchmarkPatterns() {
+    }
+
+    /**
+     * @return The URL example from the README. Matches for example {@code https://www.github.com}.
+     */
+    public static ReadableRegex<?> url() {
+        return regex()
+                .literal("http").literal("s").optional()
+                .literal("://")
+                .anyCharacterExcept(" ").zeroOrMore();
+    }
+
+    /**
+     * @return Pattern that matches a complete line generated by {@link LogLines#generate(int)}.
+     */
+    public static ReadableRegex<?> logLine() {
+        return regex()
+                .group("date", regex().digit().exactlyNTimes(4).literal("-").digit().exactlyNTimes(2).literal("-").digit().exactlyNTimes(2))
+                .whitespace()
+                .group("time", regex().digit().exactlyNTimes(2).literal(":").digit().exactlyNTimes(2).literal(":")
+                        .digit().exactlyNTimes(2).literal(".").digit().exactlyNTimes(3))
+                .whitespace()
+                .group("level", regex().oneOf(regex().literal("ERROR"), regex().literal("WARN"), regex().literal("INFO"), regex().literal("DEBUG")))
+                .whitespace()
+                .literal("[").group("thread", regex().anyCharacterExcept("]").oneOrMore()).literal("]")
+                .whitespace()
+                .group("logger", regex().anyCharacterOf("a-zA-Z.").oneOrMore())
+                .literal(" - ")
+                .group("message", regex().anything());
+    }
+
+    /**
+     * @return Pattern that finds error lines about a failing URL somewhere in a log line.
+     */
+    public static ReadableRegex<?> errorWithUrl() {
+        return regex()
+                .literal("ERROR").anything().reluctant()
+                .add(url())
+                .whitespace().literal("returned").whitespace()
+                .group("status", regex().digit().exactlyNTimes(3));
+    }
+
+    /**
+     * @return Pattern that matches a complete record generated by {@link LogLines#generateRecords(int)}.
+     */
+    public static ReadableRegex<?> record() {
+        return regex()
+                .literal("id=").group("id", regex().digit().oneOrMore())
+                .literal(" amount=").group("amount", regex().digit().oneOrMore().literal(".").digit().exactlyNTimes(2))
+                .literal(" currency=").group("currency", regex().word())
+                .literal(" paid=").group("paid", regex().oneOf(regex().literal("true"), regex().literal("false")));
+    }
+}
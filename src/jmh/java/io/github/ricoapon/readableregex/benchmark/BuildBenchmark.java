@@ -0,0 +1,53 @@
+package io.github.ricoapon.readableregex.benchmark;
+
+import io.github.ricoapon.readableregex.ReadableRegex;
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+
+/**
+ * Measures the cost of constructing patterns: calling the builder methods and compiling the result.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BuildBenchmark {
+    @Benchmark
+    public ReadableRegexPattern buildUrl() {
+        return BenchmarkPatterns.url().build();
+    }
+
+    @Benchmark
+    public ReadableRegexPattern buildLogLine() {
+        return BenchmarkPatterns.logLine().build();
+    }
+
+    @Benchmark
+    public ReadableRegexPattern buildErrorWithUrl() {
+        return BenchmarkPatterns.errorWithUrl().build();
+    }
+
+    /**
+     * Builds a pattern out of deeply nested fragments using {@link ReadableRegex#add(ReadableRegex)} and
+     * {@link ReadableRegex#oneOf(ReadableRegex[])}, which is how rule sets are typically composed.
+     */
+    @Benchmark
+    public ReadableRegexPattern buildNestedFragments() {
+        ReadableRegex<?> fragment = regex().digit();
+        for (int i = 0; i < 8; i++) {
+            fragment = regex().oneOf(regex().add(fragment).literal("a"), regex().literal("b").add(fragment));
+        }
+        return fragment.build();
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.ricoapon.readableregex.benchmark;
+
+import io.github.ricoapon.readableregex.PatternCache;
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of building patterns that are already in the {@link PatternCache}, using multiple threads at the same
+ * time. Compare with {@link BuildBenchmark} for the cost without cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class CachedBuildBenchmark {
+    @Setup
+    public void setUp() {
+        PatternCache.enable(100);
+    }
+
+    @TearDown
+    public void tearDown() {
+        PatternCache.disable();
+    }
+
+    @Benchmark
+    public ReadableRegexPattern buildUrl() {
+        return BenchmarkPatterns.url().build();
+    }
+
+    @Benchmark
+    public ReadableRegexPattern buildLogLine() {
+        return BenchmarkPatterns.logLine().build();
+    }
+
+    @Benchmark
+    public ReadableRegexPattern buildErrorWithUrl() {
+        return BenchmarkPatterns.errorWithUrl().build();
+    }
+}
@@ -0,0 +1,108 @@
+package io.github.ricoapon.readableregex.benchmark;
+
+import io.github.ricoapon.readableregex.PatternFlag;
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+
+/**
+ * Compares the JDK engine with the DFA engine that is enabled with {@link PatternFlag#DFA_ENGINE}: once for normal log
+ * lines and once for a pattern that makes the JDK engine backtrack exponentially.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DfaBenchmark {
+    @Param({"10", "20"})
+    private int pathologicalLength;
+
+    private String[] lines;
+    private ReadableRegexPattern logLineJdk;
+    private ReadableRegexPattern logLineDfa;
+    private ReadableRegexPattern errorWithUrlJdk;
+    private ReadableRegexPattern errorWithUrlDfa;
+    private String pathologicalText;
+    private ReadableRegexPattern pathologicalJdk;
+    private ReadableRegexPattern pathologicalDfa;
+
+    @Setup
+    public void setUp() {
+        lines = LogLines.generate(MatchBenchmark.NR_OF_LINES);
+        logLineJdk = BenchmarkPatterns.logLine().build();
+        logLineDfa = BenchmarkPatterns.logLine().buildWithFlags(PatternFlag.DFA_ENGINE);
+        errorWithUrlJdk = BenchmarkPatterns.errorWithUrl().build();
+        errorWithUrlDfa = BenchmarkPatterns.errorWithUrl().buildWithFlags(PatternFlag.DFA_ENGINE);
+
+        // (?:a|aa)+b tries every way to split the a's before it finds out that the b is missing.
+        pathologicalText = new String(new char[pathologicalLength]).replace('\0', 'a') + "c";
+        pathologicalJdk = regex().oneOf(regex().literal("a"), regex().literal("aa")).oneOrMore().literal("b").build();
+        pathologicalDfa = regex().oneOf(regex().literal("a"), regex().literal("aa")).oneOrMore().literal("b")
+                .buildWithFlags(PatternFlag.DFA_ENGINE);
+    }
+
+    private int countExactMatches(ReadableRegexPattern pattern) {
+        int count = 0;
+        for (String line : lines) {
+            if (pattern.matchesTextExactly(line)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private int countContainedMatches(ReadableRegexPattern pattern) {
+        int count = 0;
+        for (String line : lines) {
+            if (pattern.containsMatch(line)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int matchLogLineJdk() {
+        return countExactMatches(logLineJdk);
+    }
+
+    @Benchmark
+    public int matchLogLineDfa() {
+        return countExactMatches(logLineDfa);
+    }
+
+    @Benchmark
+    public int findErrorWithUrlJdk() {
+        return countContainedMatches(errorWithUrlJdk);
+    }
+
+    @Benchmark
+    public int findErrorWithUrlDfa() {
+        return countContainedMatches(errorWithUrlDfa);
+    }
+
+    @Benchmark
+    public boolean pathologicalJdk() {
+        return pathologicalJdk.containsMatch(pathologicalText);
+    }
+
+    @Benchmark
+    public boolean pathologicalDfa() {
+        return pathologicalDfa.containsMatch(pathologicalText);
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.ricoapon.readableregex.benchmark;
+
+import io.github.ricoapon.readableregex.FileMatcher;
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+
+/**
+ * Counts the errors in a log file of about 20 MB, once using {@link ReadableRegexPattern#fileMatcher} (which matches the
+ * memory-mapped bytes) and once by reading the file into a {@link String} first. Run with {@code -prof gc} to compare
+ * the allocations.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FileScanBenchmark {
+    private Path file;
+    private ReadableRegexPattern pattern;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Files.createTempFile("readable-regex", ".log");
+        Files.write(file, String.join("\n", LogLines.generate(150_000)).getBytes(StandardCharsets.UTF_8));
+        pattern = regex().literal("ERROR [").word().literal("] ").build();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.delete(file);
+    }
+
+    @Benchmark
+    public int scanMappedUtf8() throws IOException {
+        return count(pattern.fileMatcher(file, StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public int scanMappedLatin1() throws IOException {
+        return count(pattern.fileMatcher(file, StandardCharsets.ISO_8859_1));
+    }
+
+    @Benchmark
+    public int scanReadIntoString() throws IOException {
+        Matcher matcher = pattern.matches(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+        int count = 0;
+        while (matcher.find()) {
+            count++;
+        }
+        return count;
+    }
+
+    private static int count(FileMatcher matcher) {
+        int count = 0;
+        while (matcher.find()) {
+            count++;
+        }
+        return count;
+    }
+}
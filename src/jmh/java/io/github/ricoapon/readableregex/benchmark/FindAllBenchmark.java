@@ -0,0 +1,67 @@
+package io.github.ricoapon.readableregex.benchmark;
+
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+
+/**
+ * Sums the lengths of the numbers in all the log lines, by iterating the matches with a {@link Matcher} loop, with
+ * {@link ReadableRegexPattern#findAll(CharSequence)} (sequential and parallel) and with
+ * {@link ReadableRegexPattern#forEachMatch}. Run with {@code -prof gc} to compare the allocations per match.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FindAllBenchmark {
+    private String text;
+    private ReadableRegexPattern pattern;
+
+    @Setup
+    public void setUp() {
+        text = String.join("\n", LogLines.generate(16 * MatchBenchmark.NR_OF_LINES));
+        pattern = regex().digit().oneOrMore().build();
+    }
+
+    @Benchmark
+    public long matcherLoop() {
+        long sum = 0;
+        Matcher matcher = pattern.matches(text);
+        while (matcher.find()) {
+            sum += matcher.end() - matcher.start();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long findAll() {
+        return pattern.findAll(text).mapToLong(match -> match.end() - match.start()).sum();
+    }
+
+    @Benchmark
+    public long findAllParallel() {
+        return pattern.findAll(text).parallel().mapToLong(match -> match.end() - match.start()).sum();
+    }
+
+    @Benchmark
+    public long forEachMatch() {
+        long[] sum = new long[1];
+        pattern.forEachMatch(text, match -> sum[0] += match.end() - match.start());
+        return sum[0];
+    }
+}
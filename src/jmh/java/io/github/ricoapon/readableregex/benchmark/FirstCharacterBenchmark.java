@@ -0,0 +1,64 @@
+package io.github.ricoapon.readableregex.benchmark;
+
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+
+/**
+ * Counts the phone numbers in a long line of text with only a few numbers, once using
+ * {@link ReadableRegexPattern#countMatches} (which only tries the positions with a digit) and once using the
+ * {@link java.util.regex.Pattern} directly (which tries every position).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FirstCharacterBenchmark {
+    private static final String[] WORDS = {"call", "the", "office", "between", "nine", "and", "five", "well-known", "number"};
+
+    private String line;
+    private ReadableRegexPattern pattern;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < 100_000) {
+            sb.append(random.nextInt(200) == 0 ? "020-" + (1_000_000 + random.nextInt(9_000_000)) : WORDS[random.nextInt(WORDS.length)])
+                    .append(' ');
+        }
+        line = sb.toString();
+        pattern = regex().digit().exactlyNTimes(3).literal("-").digit().exactlyNTimes(7).build();
+    }
+
+    @Benchmark
+    public int countMatchesWithFirstCharacters() {
+        return pattern.countMatches(line);
+    }
+
+    @Benchmark
+    public int countWithPatternOnly() {
+        Matcher matcher = pattern.getUnderlyingPattern().matcher(line);
+        int count = 0;
+        while (matcher.find()) {
+            count++;
+        }
+        return count;
+    }
+}
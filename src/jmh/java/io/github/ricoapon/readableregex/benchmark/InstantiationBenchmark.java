@@ -0,0 +1,62 @@
+package io.github.ricoapon.readableregex.benchmark;
+
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static io.github.ricoapon.readableregex.RegexObjectInstantiation.instantiateObject;
+
+/**
+ * Measures the cost of instantiating a single object per record using
+ * {@link io.github.ricoapon.readableregex.RegexObjectInstantiation}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InstantiationBenchmark {
+    private static final int NR_OF_RECORDS = 1024;
+
+    private String[] records;
+    private ReadableRegexPattern record;
+    private int index;
+
+    /** Class that is instantiated for every record. */
+    public static class Payment {
+        public final int id;
+        public final double amount;
+        public final String currency;
+        public final boolean paid;
+
+        public Payment(int id, double amount, String currency, boolean paid) {
+            this.id = id;
+            this.amount = amount;
+            this.currency = currency;
+            this.paid = paid;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        records = LogLines.generateRecords(NR_OF_RECORDS);
+        record = BenchmarkPatterns.record().build();
+    }
+
+    @Benchmark
+    public Payment instantiateObjectPerRecord() {
+        index = (index + 1) % NR_OF_RECORDS;
+        return instantiateObject(record, records[index], Payment.class);
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.ricoapon.readableregex.benchmark;
+
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+
+/**
+ * Counts the occurrences of a large dictionary of keywords in log lines, once using
+ * {@link ReadableRegexPattern#countMatches} (which uses an Aho-Corasick automaton) and once using the
+ * {@link java.util.regex.Pattern} directly.
+ * <p>
+ * When the keywords are part of a larger expression, the {@link Pattern} is always used. This is measured with the
+ * rendered expression, in which the common prefixes of the keywords are factored out, and with a flat alternation that
+ * tries every keyword at every position.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class KeywordBenchmark {
+    private static final int NR_OF_KEYWORDS = 10_000;
+
+    private String[] lines;
+    private ReadableRegexPattern pattern;
+    private Pattern factoredPattern;
+    private Pattern flatPattern;
+
+    @Setup
+    public void setUp() {
+        lines = LogLines.generate(100);
+        List<String> keywords = new ArrayList<>();
+        for (int i = 0; i < NR_OF_KEYWORDS; i++) {
+            keywords.add("sku=" + (i * 7));
+        }
+        pattern = regex().oneOfLiterals(keywords).build();
+        factoredPattern = regex().oneOfLiterals(keywords).literal("&").build().getUnderlyingPattern();
+        flatPattern = Pattern.compile("(?:" + keywords.stream().map(Pattern::quote).collect(Collectors.joining("|")) + ")&");
+    }
+
+    @Benchmark
+    public int countWithAhoCorasick() {
+        int count = 0;
+        for (String line : lines) {
+            count += pattern.countMatches(line);
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int countWithPatternOnly() {
+        return count(pattern.getUnderlyingPattern());
+    }
+
+    @Benchmark
+    public int countInsideExpressionFactored() {
+        return count(factoredPattern);
+    }
+
+    @Benchmark
+    public int countInsideExpressionFlat() {
+        return count(flatPattern);
+    }
+
+    private int count(Pattern jdkPattern) {
+        int count = 0;
+        for (String line : lines) {
+            Matcher matcher = jdkPattern.matcher(line);
+            while (matcher.find()) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,106 @@
+package io.github.ricoapon.readableregex.benchmark;
+
+import io.github.ricoapon.readableregex.ReadableRegexLexer;
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+
+/**
+ * Tokenizes a small program, once using {@link ReadableRegexLexer} (which reads every token once) and once by trying
+ * the {@link java.util.regex.Pattern} of every type of token at every position and keeping the longest match.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LexerBenchmark {
+    private static final String[] KEYWORDS = {"if", "else", "while", "for", "return", "int", "class"};
+    private static final String[] STATEMENTS = {
+        "if (count >= 10) {", "x = y + 42;", "while (i < limit) {", "return total * 3.14;", "int value = 7;", "}",
+        "for (int j = 0; j <= n; j++) {", "else {"};
+
+    private String program;
+    private ReadableRegexLexer lexer;
+    private Matcher[] matchers;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < 100_000) {
+            sb.append(STATEMENTS[random.nextInt(STATEMENTS.length)]).append('\n');
+        }
+        program = sb.toString();
+
+        ReadableRegexLexer.Builder builder = ReadableRegexLexer.builder();
+        for (String keyword : KEYWORDS) {
+            builder.token(keyword.toUpperCase(), regex().literal(keyword));
+        }
+        List<ReadableRegexPattern> patterns = Arrays.asList(
+                regex().wordCharacter().oneOrMore().build(),
+                regex().digit().oneOrMore().literal(".").digit().oneOrMore().build(),
+                regex().anyCharacterOf("<>=").literal("=").optional().build(),
+                regex().anyCharacterOf("+*/;(){}-").build(),
+                regex().whitespace().oneOrMore().build());
+        for (int i = 0; i < patterns.size(); i++) {
+            builder.token("OTHER" + i, patterns.get(i));
+        }
+        lexer = builder.build();
+
+        matchers = new Matcher[KEYWORDS.length + patterns.size()];
+        for (int i = 0; i < KEYWORDS.length; i++) {
+            matchers[i] = regex().literal(KEYWORDS[i]).build().getUnderlyingPattern().matcher(program);
+        }
+        for (int i = 0; i < patterns.size(); i++) {
+            matchers[KEYWORDS.length + i] = patterns.get(i).getUnderlyingPattern().matcher(program);
+        }
+    }
+
+    @Benchmark
+    public int tokenizeWithLexer() {
+        ReadableRegexLexer.Tokenizer tokenizer = lexer.tokenizer(program);
+        int count = 0;
+        while (tokenizer.next()) {
+            count += tokenizer.type();
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int tokenizeByTryingEveryPattern() {
+        int count = 0;
+        int position = 0;
+        while (position < program.length()) {
+            int bestType = ReadableRegexLexer.UNKNOWN_TOKEN;
+            int bestEnd = position + 1;
+            for (int type = 0; type < matchers.length; type++) {
+                Matcher matcher = matchers[type].region(position, program.length());
+                if (matcher.lookingAt() && matcher.end() > bestEnd - (bestType < 0 ? 1 : 0)) {
+                    bestType = type;
+                    bestEnd = matcher.end();
+                }
+            }
+            count += bestType;
+            position = bestEnd;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.ricoapon.readableregex.benchmark;
+
+import java.util.Random;
+
+/**
+ * Generates realistic log lines that are used as input for the benchmarks. The lines are generated using a fixed seed,
+ * so every run of the benchmarks uses exactly the same input.
+ */
+public final class LogLines {
+    private static final String[] LEVELS = {"INFO", "INFO", "INFO", "DEBUG", "WARN", "ERROR"};
+    private static final String[] THREADS = {"main", "worker-1", "worker-2", "worker-3", "scheduler"};
+    private static final String[] LOGGERS = {"i.g.r.OrderService", "i.g.r.PaymentGateway", "o.h.SQL", "c.z.h.HikariPool"};
+    private static final String[] MESSAGES = {
+        "Payment of order %d failed: https://payments.example.com/api/v2/orders/%d returned 503",
+        "Order %d created for customer %d",
+        "Connection refused while calling http://inventory.internal:8080/stock?sku=%d&warehouse=%d",
+        "Processed batch %d in %d ms",
+        "select o.id, o.status from orders o where o.customer_id=%d and o.id=%d"
+    };
+
+    private LogLines() {
+    }
+
+    /**
+     * @param nrOfLines The number of lines to generate.
+     * @return Array of log lines in the format {@code yyyy-MM-dd HH:mm:ss.SSS LEVEL [thread] logger - message}.
+     */
+    public static String[] generate(int nrOfLines) {
+        Random random = new Random(42);
+        String[] lines = new String[nrOfLines];
+        for (int i = 0; i < nrOfLines; i++) {
+            lines[i] = String.format("2020-11-%02d %02d:%02d:%02d.%03d %s [%s] %s - %s",
+                    1 + random.nextInt(28), random.nextInt(24), random.nextInt(60), random.nextInt(60), random.nextInt(1000),
+                    LEVELS[random.nextInt(LEVELS.length)],
+                    THREADS[random.nextInt(THREADS.length)],
+                    LOGGERS[random.nextInt(LOGGERS.length)],
+                    String.format(MESSAGES[random.nextInt(MESSAGES.length)], random.nextInt(100_000), random.nextInt(100_000)));
+        }
+        return lines;
+    }
+
+    /**
+     * @param nrOfRecords The number of records to generate.
+     * @return Array of records in the format {@code id=<int> amount=<double> currency=<word> paid=<boolean>}.
+     */
+    public static String[] generateRecords(int nrOfRecords) {
+        Random random = new Random(42);
+        String[] records = new String[nrOfRecords];
+        for (int i = 0; i < nrOfRecords; i++) {
+            records[i] = "id=" + random.nextInt(100_000)
+                    + " amount=" + random.nextInt(10_000) + "." + random.nextInt(10) + random.nextInt(10)
+                    + " currency=" + (random.nextBoolean() ? "EUR" : "USD")
+                    + " paid=" + random.nextBoolean();
+        }
+        return records;
+    }
+}
@@ -0,0 +1,164 @@
+package io.github.ricoapon.readableregex.benchmark;
+
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.CharBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+
+/**
+ * Measures the throughput of matching already built patterns against log lines. Every invocation processes all the
+ * lines, so the score should be divided by {@link #NR_OF_LINES} to get the cost per line.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MatchBenchmark {
+    static final int NR_OF_LINES = 1024;
+
+    private String[] lines;
+    /** All the lines in a single buffer, without line separators. */
+    private CharBuffer buffer;
+    /** The start index of every line in {@link #buffer}, followed by the length of the buffer. */
+    private int[] lineStarts;
+    private ReadableRegexPattern url;
+    private ReadableRegexPattern logLine;
+    private ReadableRegexPattern errorWithUrl;
+
+    @Setup
+    public void setUp() {
+        lines = LogLines.generate(NR_OF_LINES);
+        lineStarts = new int[NR_OF_LINES + 1];
+        StringBuilder allLines = new StringBuilder();
+        for (int i = 0; i < NR_OF_LINES; i++) {
+            lineStarts[i] = allLines.length();
+            allLines.append(lines[i]);
+        }
+        lineStarts[NR_OF_LINES] = allLines.length();
+        buffer = CharBuffer.wrap(allLines);
+        url = BenchmarkPatterns.url().build();
+        logLine = BenchmarkPatterns.logLine().build();
+        errorWithUrl = BenchmarkPatterns.errorWithUrl().build();
+    }
+
+    @Benchmark
+    public int findUrl() {
+        int count = 0;
+        for (String line : lines) {
+            if (url.matches(line).find()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int findErrorWithUrl() {
+        int count = 0;
+        for (String line : lines) {
+            if (errorWithUrl.matches(line).find()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int matchesTextExactlyLogLine() {
+        int count = 0;
+        for (String line : lines) {
+            if (logLine.matchesTextExactly(line)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Same as {@link #matchesTextExactlyLogLine()}, but creates a new {@link Matcher} for every line.
+     */
+    @Benchmark
+    public int matchesTextExactlyLogLineNewMatcher() {
+        int count = 0;
+        for (String line : lines) {
+            if (logLine.matches(line).matches()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Matches every line directly on a view of the buffer.
+     */
+    @Benchmark
+    public int matchesTextExactlyLogLineInBuffer() {
+        int count = 0;
+        for (int i = 0; i < NR_OF_LINES; i++) {
+            if (logLine.matchesTextExactly(buffer.subSequence(lineStarts[i], lineStarts[i + 1]))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Same as {@link #matchesTextExactlyLogLineInBuffer()}, but copies every line into a {@link String} first.
+     */
+    @Benchmark
+    public int matchesTextExactlyLogLineCopiedFromBuffer() {
+        int count = 0;
+        for (int i = 0; i < NR_OF_LINES; i++) {
+            if (logLine.matchesTextExactly(buffer.subSequence(lineStarts[i], lineStarts[i + 1]).toString())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int countUrls() {
+        int count = 0;
+        for (String line : lines) {
+            count += url.countMatches(line);
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int extractLevelFromLogLine() {
+        int length = 0;
+        for (String line : lines) {
+            Matcher matcher = logLine.matches(line);
+            if (matcher.matches()) {
+                length += matcher.group("level").length();
+            }
+        }
+        return length;
+    }
+
+    @Benchmark
+    public int extractLevelFromLogLineReusableMatcher() {
+        int length = 0;
+        for (String line : lines) {
+            Matcher matcher = logLine.reusableMatcher(line);
+            if (matcher.matches()) {
+                length += matcher.group("level").length();
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.ricoapon.readableregex.benchmark;
+
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+
+/**
+ * Finds the failed payments in a log of about 40 MB, once using a single {@link Matcher} and once using
+ * {@link ReadableRegexPattern#parallelFindAll} with a pool of the given number of threads. The text is also scanned as a
+ * memory-mapped file. The throughput should scale with the number of threads, up to the number of cores.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelScanBenchmark {
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+
+    private String text;
+    private Path file;
+    private ReadableRegexPattern pattern;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() throws IOException {
+        text = String.join("\n", LogLines.generate(300_000));
+        file = Files.createTempFile("readable-regex", ".log");
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+        pattern = regex().literal("Payment of order ").group("order", regex().digit().oneOrMore())
+                .literal(" failed: ").anything().literal(" returned ").digit().exactlyNTimes(3).build();
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        pool.shutdown();
+        Files.delete(file);
+    }
+
+    @Benchmark
+    public int scanSequentially() {
+        Matcher matcher = pattern.matches(text);
+        int count = 0;
+        while (matcher.find()) {
+            count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int scanInParallel() {
+        return pool.submit(() -> pattern.parallelFindAll(text).size()).join();
+    }
+
+    @Benchmark
+    public int scanFileInParallel() {
+        return pool.submit(() -> {
+            try {
+                return pattern.parallelFindAll(file, StandardCharsets.UTF_8).size();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }).join();
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.ricoapon.readableregex.benchmark;
+
+import io.github.ricoapon.readableregex.PatternFlag;
+import io.github.ricoapon.readableregex.ReadableRegex;
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+
+/**
+ * Compares patterns with and without {@link PatternFlag#AUTO_POSSESSIVE}: once for matching log lines and once for
+ * searching an e-mail address in a text that does not contain one, which makes every word backtrack.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PossessiveBenchmark {
+    private String[] lines;
+    private ReadableRegexPattern logLineGreedy;
+    private ReadableRegexPattern logLinePossessive;
+    private String textWithoutEmail;
+    private ReadableRegexPattern emailGreedy;
+    private ReadableRegexPattern emailPossessive;
+
+    private static ReadableRegex<?> email() {
+        return regex().wordCharacter().oneOrMore().literal("@").wordCharacter().oneOrMore()
+                .literal(".").anyCharacterOf("a-z").atLeastNTimes(2);
+    }
+
+    @Setup
+    public void setUp() {
+        lines = LogLines.generate(MatchBenchmark.NR_OF_LINES);
+        logLineGreedy = BenchmarkPatterns.logLine().build();
+        logLinePossessive = BenchmarkPatterns.logLine().buildWithFlags(PatternFlag.AUTO_POSSESSIVE);
+
+        StringBuilder text = new StringBuilder();
+        for (String line : lines) {
+            text.append(line).append('\n');
+        }
+        textWithoutEmail = text.toString().replace('@', ' ');
+        emailGreedy = email().build();
+        emailPossessive = email().buildWithFlags(PatternFlag.AUTO_POSSESSIVE);
+    }
+
+    private int countExactMatches(ReadableRegexPattern pattern) {
+        int count = 0;
+        for (String line : lines) {
+            if (pattern.matchesTextExactly(line)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int matchLogLineGreedy() {
+        return countExactMatches(logLineGreedy);
+    }
+
+    @Benchmark
+    public int matchLogLinePossessive() {
+        return countExactMatches(logLinePossessive);
+    }
+
+    @Benchmark
+    public boolean findEmailGreedy() {
+        return emailGreedy.containsMatch(textWithoutEmail);
+    }
+
+    @Benchmark
+    public boolean findEmailPossessive() {
+        return emailPossessive.containsMatch(textWithoutEmail);
+    }
+}
@@ -0,0 +1,76 @@
+package io.github.ricoapon.readableregex.benchmark;
+
+import io.github.ricoapon.readableregex.PatternFlag;
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+
+/**
+ * Searches log lines for a pattern with a literal in the middle, once using {@link ReadableRegexPattern#containsMatch}
+ * (which first searches for the literal) and once using the {@link Pattern} directly. Only one in five lines contains
+ * the literal. The case-insensitive variant compares the ASCII letters of the literal case-insensitively.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrefilterBenchmark {
+    private String[] lines;
+    private ReadableRegexPattern pattern;
+    private ReadableRegexPattern caseInsensitivePattern;
+
+    @Setup
+    public void setUp() {
+        lines = LogLines.generate(MatchBenchmark.NR_OF_LINES);
+        pattern = regex().wordCharacter().oneOrMore().literal(" returned ").digit().exactlyNTimes(3).build();
+        caseInsensitivePattern = regex().wordCharacter().oneOrMore().literal(" Returned ").digit().exactlyNTimes(3)
+                .buildWithFlags(PatternFlag.CASE_INSENSITIVE);
+    }
+
+    private int countContainingMatch(ReadableRegexPattern pattern) {
+        int count = 0;
+        for (String line : lines) {
+            if (pattern.containsMatch(line)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int containsMatchWithPrefilter() {
+        return countContainingMatch(pattern);
+    }
+
+    @Benchmark
+    public int containsMatchCaseInsensitiveWithPrefilter() {
+        return countContainingMatch(caseInsensitivePattern);
+    }
+
+    @Benchmark
+    public int findWithPatternOnly() {
+        Pattern jdkPattern = pattern.getUnderlyingPattern();
+        int count = 0;
+        for (String line : lines) {
+            if (jdkPattern.matcher(line).find()) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
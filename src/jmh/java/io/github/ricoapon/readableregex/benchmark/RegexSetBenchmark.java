@@ -0,0 +1,81 @@
+package io.github.ricoapon.readableregex.benchmark;
+
+import io.github.ricoapon.readableregex.ReadableRegex;
+import io.github.ricoapon.readableregex.ReadableRegexSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+
+/**
+ * Matches log lines against a few hundred rules, once using {@link ReadableRegexSet#matchingIndices(CharSequence)}
+ * (which reads every line once) and once by calling {@link io.github.ricoapon.readableregex.ReadableRegexPattern#containsMatch}
+ * on every rule.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RegexSetBenchmark {
+    private static final int NR_OF_RULES = 300;
+
+    private String[] lines;
+    private ReadableRegexSet rules;
+
+    @Setup
+    public void setUp() {
+        lines = LogLines.generate(100);
+        List<ReadableRegex<?>> regexes = new ArrayList<>();
+        for (int i = 0; i < NR_OF_RULES; i++) {
+            switch (i % 3) {
+                case 0:
+                    regexes.add(regex().literal("Order " + (i * 331)).literal(" created"));
+                    break;
+                case 1:
+                    regexes.add(regex().literal("sku=").literal(Integer.toString(i * 97)).literal("&warehouse=").digit().oneOrMore());
+                    break;
+                default:
+                    regexes.add(regex().literal("batch ").digit().oneOrMore().literal(" in ").literal(Integer.toString(i)).literal(" ms"));
+                    break;
+            }
+        }
+        rules = ReadableRegexSet.of(regexes);
+    }
+
+    @Benchmark
+    public int matchWithSet() {
+        int count = 0;
+        for (String line : lines) {
+            count += rules.matchingIndices(line).cardinality();
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int matchOneByOne() {
+        int count = 0;
+        for (String line : lines) {
+            BitSet matching = new BitSet(rules.size());
+            for (int i = 0; i < rules.size(); i++) {
+                matching.set(i, rules.getPattern(i).containsMatch(line));
+            }
+            count += matching.cardinality();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,89 @@
+package io.github.ricoapon.readableregex.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Compares matching with the patterns that are built now against the same patterns as they were rendered before the
+ * builder simplified them: every literal in {@code \Q...\E} and every block in an unnamed group.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SimplificationBenchmark {
+    private static final String UNSIMPLIFIED_LOG_LINE = "(?<date>(?:\\d{4,4}(?:\\Q-\\E)\\d{2,2}(?:\\Q-\\E)\\d{2,2}))\\s"
+            + "(?<time>(?:\\d{2,2}(?:\\Q:\\E)\\d{2,2}(?:\\Q:\\E)\\d{2,2}(?:\\Q.\\E)\\d{3,3}))\\s"
+            + "(?<level>(?:(?:(?:\\QERROR\\E)|(?:\\QWARN\\E)|(?:\\QINFO\\E)|(?:\\QDEBUG\\E))))\\s"
+            + "(?:\\Q[\\E)(?<thread>(?:[^]]+))(?:\\Q]\\E)\\s(?<logger>(?:[a-zA-Z.]+))(?:\\Q - \\E)(?<message>(?:.*))";
+    private static final String UNSIMPLIFIED_ERROR_WITH_URL = "(?:\\QERROR\\E).*?"
+            + "(?:(?:\\Qhttp\\E)(?:\\Qs\\E)?(?:\\Q://\\E)[^ ]*)\\s(?:\\Qreturned\\E)\\s(?<status>(?:\\d{3,3}))";
+
+    private String[] lines;
+    private Pattern unsimplifiedLogLine;
+    private Pattern simplifiedLogLine;
+    private Pattern unsimplifiedErrorWithUrl;
+    private Pattern simplifiedErrorWithUrl;
+
+    @Setup
+    public void setUp() {
+        lines = LogLines.generate(MatchBenchmark.NR_OF_LINES);
+        unsimplifiedLogLine = Pattern.compile(UNSIMPLIFIED_LOG_LINE);
+        simplifiedLogLine = BenchmarkPatterns.logLine().build().getUnderlyingPattern();
+        unsimplifiedErrorWithUrl = Pattern.compile(UNSIMPLIFIED_ERROR_WITH_URL);
+        simplifiedErrorWithUrl = BenchmarkPatterns.errorWithUrl().build().getUnderlyingPattern();
+    }
+
+    private int countMatches(Pattern pattern) {
+        int count = 0;
+        for (String line : lines) {
+            if (pattern.matcher(line).matches()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private int countFinds(Pattern pattern) {
+        int count = 0;
+        for (String line : lines) {
+            if (pattern.matcher(line).find()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int matchLogLineUnsimplified() {
+        return countMatches(unsimplifiedLogLine);
+    }
+
+    @Benchmark
+    public int matchLogLineSimplified() {
+        return countMatches(simplifiedLogLine);
+    }
+
+    @Benchmark
+    public int findErrorWithUrlUnsimplified() {
+        return countFinds(unsimplifiedErrorWithUrl);
+    }
+
+    @Benchmark
+    public int findErrorWithUrlSimplified() {
+        return countFinds(simplifiedErrorWithUrl);
+    }
+}
@@ -0,0 +1,71 @@
+package io.github.ricoapon.readableregex.benchmark;
+
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import io.github.ricoapon.readableregex.Utf8Matcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+
+/**
+ * Finds the order numbers in 10,000 messages of UTF-8 bytes, once using {@link ReadableRegexPattern#utf8Matcher} (which
+ * matches the bytes) and once by decoding every message into a {@link String} first. Run with {@code -prof gc} to
+ * compare the allocations.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class Utf8MatchBenchmark {
+    private byte[][] messages;
+    private ReadableRegexPattern pattern;
+
+    @Setup
+    public void setUp() {
+        String[] lines = LogLines.generate(10_000);
+        messages = new byte[lines.length][];
+        for (int i = 0; i < lines.length; i++) {
+            // Not only ASCII, so that decoding cannot take a shortcut.
+            messages[i] = (lines[i] + " (r\u00e9essai " + i + ")").getBytes(StandardCharsets.UTF_8);
+        }
+        pattern = regex().literal("order ").group("order", regex().digit().oneOrMore()).build();
+    }
+
+    @Benchmark
+    public long decodeAndMatch() {
+        long sum = 0;
+        for (byte[] message : messages) {
+            Matcher matcher = pattern.matches(new String(message, StandardCharsets.UTF_8));
+            while (matcher.find()) {
+                sum += matcher.end(1);
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long matchBytes() {
+        long sum = 0;
+        for (byte[] message : messages) {
+            Utf8Matcher matcher = pattern.utf8Matcher(message);
+            while (matcher.find()) {
+                sum += matcher.end(1);
+            }
+        }
+        return sum;
+    }
+}
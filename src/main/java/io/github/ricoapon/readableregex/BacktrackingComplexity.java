@@ -0,0 +1,32 @@
+package io.github.ricoapon.readableregex;
+
+/**
+ * How the time a backtracking engine such as {@link java.util.regex.Pattern} needs to find out that a text does not
+ * match, grows with the length of the text in the worst case. See {@link ReadableRegexPattern#backtrackingComplexity()}.
+ */
+public enum BacktrackingComplexity {
+    /**
+     * The time is linear in the length of the text. Every part of the text can only be matched in a limited number of
+     * ways, for example {@code [a-z]+@[a-z]+}.
+     */
+    LINEAR,
+
+    /**
+     * The time is polynomial in the length of the text. This happens when two repetitions after each other can match
+     * the same text, for example {@code \w+\d+}: every split of a sequence of digits is tried.
+     */
+    POLYNOMIAL,
+
+    /**
+     * The time is exponential in the length of the text. This happens when a repetition can match the same text in
+     * more than one way, for example {@code (?:a|aa)+} or {@code (?:\w+\d?)+}: every combination is tried. Even a short
+     * text that does not match can take years.
+     */
+    EXPONENTIAL,
+
+    /**
+     * The expression contains constructs that cannot be analyzed, such as lookarounds, possessive quantifiers or regular
+     * expressions added as a string, or the expression is too large to analyze.
+     */
+    UNKNOWN
+}
@@ -0,0 +1,68 @@
+package io.github.ricoapon.readableregex;
+
+/**
+ * The result of a match in a file. The offsets are the positions of the bytes in the file, which can be larger than
+ * {@link Integer#MAX_VALUE}.
+ * <p>
+ * See {@link FileMatcher} and {@link ReadableRegexPattern#parallelFindAll(java.nio.file.Path, java.nio.charset.Charset)}.
+ */
+public interface FileMatchResult {
+    /**
+     * @return The position of the first byte of the match.
+     */
+    long start();
+
+    /**
+     * @param group The index of the group.
+     * @return The position of the first byte of the group, or {@code -1} if the group did not match anything.
+     */
+    long start(int group);
+
+    /**
+     * @param name The name of the group.
+     * @return The position of the first byte of the group, or {@code -1} if the group did not match anything.
+     * @throws IllegalArgumentException If there is no group with the given name.
+     */
+    long start(String name);
+
+    /**
+     * @return The position after the last byte of the match.
+     */
+    long end();
+
+    /**
+     * @param group The index of the group.
+     * @return The position after the last byte of the group, or {@code -1} if the group did not match anything.
+     */
+    long end(int group);
+
+    /**
+     * @param name The name of the group.
+     * @return The position after the last byte of the group, or {@code -1} if the group did not match anything.
+     * @throws IllegalArgumentException If there is no group with the given name.
+     */
+    long end(String name);
+
+    /**
+     * @return The text of the match.
+     */
+    String group();
+
+    /**
+     * @param group The index of the group.
+     * @return The text that was matched by the group, or {@code null} if the group did not match anything.
+     */
+    String group(int group);
+
+    /**
+     * @param name The name of the group.
+     * @return The text that was matched by the group, or {@code null} if the group did not match anything.
+     * @throws IllegalArgumentException If there is no group with the given name.
+     */
+    String group(String name);
+
+    /**
+     * @return The number of groups in the pattern.
+     */
+    int groupCount();
+}
@@ -0,0 +1,124 @@
+package io.github.ricoapon.readableregex;
+
+import io.github.ricoapon.readableregex.internal.ByteBufferCharSequence;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.regex.Matcher;
+
+/**
+ * Finds the matches of a pattern in a file, without reading the file onto the heap. The file is mapped into memory using
+ * {@link FileChannel#map}, and the characters are decoded from the mapped bytes when the pattern reads them. The
+ * operating system loads the pages of the file when they are needed and can drop them again, so files that are larger
+ * than the heap can be scanned.
+ * <p>
+ * Only US-ASCII, ISO-8859-1 and UTF-8 are supported. With UTF-8, the file is read once when the matcher is created to
+ * count the characters. Bytes that are not valid for the charset are matched as {@code U+FFFD}, one character per byte.
+ * <p>
+ * The offsets of the matches are the positions of the bytes in the file, so that you can seek back to a match in the
+ * original file. The methods that return the found match can only be called after {@link #find()} returned {@code true}
+ * and throw {@link IllegalStateException} otherwise.
+ * <p>
+ * The file can be at most {@link Integer#MAX_VALUE} bytes. Use {@link ReadableRegexPattern#streamMatcher} or
+ * {@link ReadableRegexPattern#parallelFindAll(Path, Charset)} for larger files. The file must not be changed while it
+ * is matched. This class should only be used by a single thread.
+ */
+public final class FileMatcher implements FileMatchResult {
+    private final ByteBufferCharSequence text;
+    private final Matcher matcher;
+    private boolean matchFound;
+
+    /**
+     * Constructor.
+     * @param pattern The pattern.
+     * @param path    The file.
+     * @param charset The charset of the file.
+     * @throws IOException If the file cannot be mapped.
+     */
+    FileMatcher(ReadableRegexPattern pattern, Path path, Charset charset) throws IOException {
+        MappedByteBuffer bytes;
+        // The mapping stays valid after the channel is closed.
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("The file " + path + " is larger than " + Integer.MAX_VALUE + " bytes.");
+            }
+            bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        this.text = ByteBufferCharSequence.of(bytes, charset);
+        this.matcher = pattern.matches(text);
+    }
+
+    /**
+     * Finds the next match.
+     * @return {@code true} if a match is found, or {@code false} if there are no more matches.
+     */
+    public boolean find() {
+        matchFound = matcher.find();
+        return matchFound;
+    }
+
+    private Matcher match() {
+        if (!matchFound) {
+            throw new IllegalStateException("No match available");
+        }
+        return matcher;
+    }
+
+    private long toOffset(int index) {
+        return index < 0 ? -1 : text.byteOffset(index);
+    }
+
+    @Override
+    public long start() {
+        return toOffset(match().start());
+    }
+
+    @Override
+    public long start(int group) {
+        return toOffset(match().start(group));
+    }
+
+    @Override
+    public long start(String name) {
+        return toOffset(match().start(name));
+    }
+
+    @Override
+    public long end() {
+        return toOffset(match().end());
+    }
+
+    @Override
+    public long end(int group) {
+        return toOffset(match().end(group));
+    }
+
+    @Override
+    public long end(String name) {
+        return toOffset(match().end(name));
+    }
+
+    @Override
+    public String group() {
+        return match().group();
+    }
+
+    @Override
+    public String group(int group) {
+        return match().group(group);
+    }
+
+    @Override
+    public String group(String name) {
+        return match().group(name);
+    }
+
+    @Override
+    public int groupCount() {
+        return matcher.groupCount();
+    }
+}
@@ -0,0 +1,97 @@
+package io.github.ricoapon.readableregex;
+
+import io.github.ricoapon.readableregex.internal.BudgetedCharSequence;
+
+import java.time.Duration;
+
+/**
+ * Limit on the work that matching a single text may do. Pass it to one of the methods of {@link ReadableRegexPattern}
+ * that accept a budget. When the budget is exceeded, matching is aborted with a {@link MatchBudgetExceededException}.
+ * <p>
+ * The number of steps is the number of times a character of the text is read. A backtracking engine reads the same
+ * characters over and over again, so this grows with the time that matching takes. The timeout is measured from the
+ * moment the method is called and is checked every 1024 steps.
+ * <p>
+ * A budget does not contain any state, so the same budget can be used for any number of texts and threads. Every call
+ * gets the full budget.
+ */
+public final class MatchBudget {
+    private final long maxSteps;
+
+    /** The timeout in nanoseconds, or {@link Long#MAX_VALUE} if there is no timeout. */
+    private final long timeoutNanos;
+
+    private MatchBudget(long maxSteps, long timeoutNanos) {
+        this.maxSteps = maxSteps;
+        this.timeoutNanos = timeoutNanos;
+    }
+
+    /**
+     * @param maxSteps The maximum number of steps. Must be positive.
+     * @return Budget with only a maximum number of steps.
+     */
+    public static MatchBudget ofSteps(long maxSteps) {
+        return new MatchBudget(Long.MAX_VALUE, Long.MAX_VALUE).withMaxSteps(maxSteps);
+    }
+
+    /**
+     * @param timeout The maximum time that matching may take. Must be positive.
+     * @return Budget with only a timeout.
+     */
+    public static MatchBudget ofTimeout(Duration timeout) {
+        return new MatchBudget(Long.MAX_VALUE, Long.MAX_VALUE).withTimeout(timeout);
+    }
+
+    /**
+     * @param maxSteps The maximum number of steps. Must be positive.
+     * @return Budget with the same timeout as this budget and the given maximum number of steps.
+     */
+    public MatchBudget withMaxSteps(long maxSteps) {
+        if (maxSteps <= 0) {
+            throw new IllegalArgumentException("The maximum number of steps must be positive, but was " + maxSteps);
+        }
+        return new MatchBudget(maxSteps, timeoutNanos);
+    }
+
+    /**
+     * @param timeout The maximum time that matching may take. Must be positive.
+     * @return Budget with the same maximum number of steps as this budget and the given timeout.
+     */
+    public MatchBudget withTimeout(Duration timeout) {
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("The timeout must be positive, but was " + timeout);
+        }
+        // Durations of more than 292 years do not fit in a long, which is the same as no timeout at all.
+        long nanos = timeout.getSeconds() >= Long.MAX_VALUE / 1_000_000_000L ? Long.MAX_VALUE : timeout.toNanos();
+        return new MatchBudget(maxSteps, nanos);
+    }
+
+    /**
+     * @return The maximum number of steps, or {@link Long#MAX_VALUE} if the number of steps is not limited.
+     */
+    public long getMaxSteps() {
+        return maxSteps;
+    }
+
+    /**
+     * @return The timeout, or {@code null} if there is no timeout.
+     */
+    public Duration getTimeout() {
+        return timeoutNanos == Long.MAX_VALUE ? null : Duration.ofNanos(timeoutNanos);
+    }
+
+    /**
+     * @param text The text to be matched.
+     * @return The text that throws {@link MatchBudgetExceededException} when it is read more than the budget allows. The
+     * timeout starts now.
+     */
+    CharSequence limit(CharSequence text) {
+        return new BudgetedCharSequence(text, maxSteps, timeoutNanos);
+    }
+
+    @Override
+    public String toString() {
+        return "MatchBudget{maxSteps=" + (maxSteps == Long.MAX_VALUE ? "unlimited" : maxSteps)
+                + ", timeout=" + (timeoutNanos == Long.MAX_VALUE ? "none" : Duration.ofNanos(timeoutNanos)) + "}";
+    }
+}
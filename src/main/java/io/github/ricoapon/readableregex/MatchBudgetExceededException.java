@@ -0,0 +1,14 @@
+package io.github.ricoapon.readableregex;
+
+/**
+ * Exception that will be thrown when matching a text takes more than the {@link MatchBudget} allows.
+ */
+public class MatchBudgetExceededException extends RuntimeException {
+    /**
+     * Constructor.
+     * @param message The message of the exception.
+     */
+    public MatchBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,51 @@
+package io.github.ricoapon.readableregex;
+
+import io.github.ricoapon.readableregex.internal.cache.PatternCacheImpl;
+
+/**
+ * Class with methods to configure the global cache of compiled patterns. The cache is disabled by default.
+ * <p>
+ * When the cache is enabled, {@link FinishBuilder#buildWithFlags(PatternFlag...)} first looks up the resulting regular
+ * expression, together with the enabled flags and groups, in the cache. If it is found, the pattern that was compiled
+ * before is returned, so that building the same expression again does not compile it again. Patterns are immutable and
+ * can be shared between threads.
+ * <p>
+ * The cache has a maximum size. When it is full, the patterns that have not been used for the longest time are removed.
+ */
+public interface PatternCache {
+    /**
+     * Enables the cache. If the cache was already enabled, all the patterns and statistics are removed.
+     * @param maximumSize The maximum number of patterns in the cache.
+     */
+    static void enable(int maximumSize) {
+        PatternCacheImpl.enable(maximumSize);
+    }
+
+    /**
+     * Disables the cache and removes all the patterns and statistics.
+     */
+    static void disable() {
+        PatternCacheImpl.disable();
+    }
+
+    /**
+     * @return Whether the cache is enabled.
+     */
+    static boolean isEnabled() {
+        return PatternCacheImpl.isEnabled();
+    }
+
+    /**
+     * Removes all the patterns from the cache. The statistics are not reset.
+     */
+    static void clear() {
+        PatternCacheImpl.clear();
+    }
+
+    /**
+     * @return The statistics of the cache. If the cache is disabled, all the values are zero.
+     */
+    static PatternCacheStatistics statistics() {
+        return PatternCacheImpl.statistics();
+    }
+}
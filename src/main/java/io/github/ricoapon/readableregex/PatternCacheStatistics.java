@@ -0,0 +1,67 @@
+package io.github.ricoapon.readableregex;
+
+/**
+ * Snapshot of the statistics of the cache of compiled patterns. See {@link PatternCache}.
+ */
+public final class PatternCacheStatistics {
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final int size;
+
+    /**
+     * Constructor.
+     * @param hitCount      The number of times a pattern was returned from the cache.
+     * @param missCount     The number of times a pattern was compiled, because it was not in the cache.
+     * @param evictionCount The number of patterns that have been removed to make room for new patterns.
+     * @param size          The number of patterns in the cache.
+     */
+    public PatternCacheStatistics(long hitCount, long missCount, long evictionCount, int size) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.size = size;
+    }
+
+    /**
+     * @return The number of times a pattern was returned from the cache.
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return The number of times a pattern was compiled, because it was not in the cache.
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return The number of patterns that have been removed to make room for new patterns.
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return The number of patterns in the cache.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return The fraction of requests that was returned from the cache. If there were no requests, this is {@code 1}.
+     */
+    public double getHitRate() {
+        long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    @Override
+    public String toString() {
+        return "PatternCacheStatistics{hitCount=" + hitCount + ", missCount=" + missCount +
+                ", evictionCount=" + evictionCount + ", size=" + size + "}";
+    }
+}
@@ -3,8 +3,8 @@ package io.github.ricoapon.readableregex;
 import java.util.regex.Pattern;
 
 /**
- * Enum representing all the possible flags of {@link java.util.regex.Pattern} that are useful for this library.
- * Flags can be enabled using the method {@link FinishBuilder#buildWithFlags(PatternFlag...)}.
+ * Enum representing all the possible flags of {@link java.util.regex.Pattern} that are useful for this library, and the
+ * flags of this library itself. Flags can be enabled using the method {@link FinishBuilder#buildWithFlags(PatternFlag...)}.
  */
 public enum PatternFlag {
     /** Enables case-insensitive matching. See {@link Pattern#CASE_INSENSITIVE} for more details. */
@@ -14,7 +14,44 @@ public enum PatternFlag {
     MULTILINE(Pattern.MULTILINE),
 
     /** Enables dotall mode. See {@link Pattern#DOTALL} for more details. */
-    DOT_ALL(Pattern.DOTALL);
+    DOT_ALL(Pattern.DOTALL),
+
+    /**
+     * Uses a DFA instead of {@link Pattern} for {@link ReadableRegexPattern#matchesTextExactly(CharSequence)} and
+     * {@link ReadableRegexPattern#containsMatch(CharSequence)}. The time these methods take is then linear in the length
+     * of the text, no matter how the pattern looks. Patterns that contain constructs the DFA does not support, such as
+     * lookarounds, possessive quantifiers, line anchors, word boundaries or regular expressions added as a string, always
+     * use {@link Pattern}. This flag has no effect on the {@link Pattern} itself.
+     */
+    DFA_ENGINE(0),
+
+    /**
+     * Uses a Pike VM instead of {@link Pattern} for {@link ReadableRegexPattern#exactMatch(CharSequence)} and
+     * {@link ReadableRegexPattern#firstMatch(CharSequence)}. The Pike VM finds the same match and groups as {@link Pattern}
+     * does, in time that is linear in the length of the text. It is also used for
+     * {@link ReadableRegexPattern#matchesTextExactly(CharSequence)} and {@link ReadableRegexPattern#containsMatch(CharSequence)},
+     * unless {@link #DFA_ENGINE} is enabled as well.
+     * <p>
+     * Patterns that contain lookarounds, possessive quantifiers, regular expressions added as a string, groups inside
+     * quantifiers that can repeat more than once or quantifiers that repeat something that can match the empty text
+     * always use {@link Pattern}. This flag has no effect on the {@link Pattern} itself.
+     */
+    PIKE_VM_ENGINE(0),
+
+    /**
+     * Throws an {@link IncorrectConstructionException} when the pattern is built, if matching can take time that is
+     * exponential in the length of the text. See {@link ReadableRegexPattern#backtrackingComplexity()}. This flag has no
+     * effect on the {@link Pattern} itself.
+     */
+    REJECT_EXPONENTIAL_BACKTRACKING(0),
+
+    /**
+     * Makes greedy quantifiers of a single character possessive, if what follows cannot start with one of the repeated
+     * characters. For example, {@code \d+-} becomes {@code (?>\d+)-}. This does not change what the pattern matches,
+     * but {@link Pattern} no longer backtracks into these quantifiers. The atomic group {@code (?>...)} has the same
+     * meaning as {@link QuantifierBuilder#possessive()}, but {@link Pattern} matches it faster.
+     */
+    AUTO_POSSESSIVE(0);
 
     /** The integer that is used for setting the flag on {@link java.util.regex.Pattern}. */
     private final int jdkPatternFlagCode;
@@ -24,7 +61,7 @@ public enum PatternFlag {
     }
 
     /**
-     * @return The integer of the flag used by the JDK class {@link Pattern}.
+     * @return The integer of the flag used by the JDK class {@link Pattern}, or {@code 0} if it is not a flag of {@link Pattern}.
      */
     public int getJdkPatternFlagCode() {
         return jdkPatternFlagCode;
@@ -0,0 +1,33 @@
+package io.github.ricoapon.readableregex;
+
+import java.util.regex.Matcher;
+import java.util.regex.MatchResult;
+
+/**
+ * The result of a match, including the text of every group. Unlike {@link Matcher}, the groups can also be retrieved by
+ * name, and the result does not change when the pattern is used again.
+ * <p>
+ * See {@link ReadableRegexPattern#exactMatch(CharSequence)} and {@link ReadableRegexPattern#firstMatch(CharSequence)}.
+ */
+public interface ReadableMatchResult extends MatchResult {
+    /**
+     * @param name The name of the group.
+     * @return The text that was matched by the group, or {@code null} if the group did not match anything.
+     * @throws IllegalArgumentException If there is no group with the given name.
+     */
+    String group(String name);
+
+    /**
+     * @param name The name of the group.
+     * @return The index of the first character of the group, or {@code -1} if the group did not match anything.
+     * @throws IllegalArgumentException If there is no group with the given name.
+     */
+    int start(String name);
+
+    /**
+     * @param name The name of the group.
+     * @return The index after the last character of the group, or {@code -1} if the group did not match anything.
+     * @throws IllegalArgumentException If there is no group with the given name.
+     */
+    int end(String name);
+}
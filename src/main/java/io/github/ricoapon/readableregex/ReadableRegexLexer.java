@@ -0,0 +1,223 @@
+package io.github.ricoapon.readableregex;
+
+import io.github.ricoapon.readableregex.internal.ReadableRegexLexerImpl;
+import io.github.ricoapon.readableregex.internal.ReadableRegexPatternImpl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Splits a text into tokens, where every type of token is described by a pattern.
+ * <p>
+ * At every position of the text, the token is the longest text that any of the patterns matches. If multiple patterns
+ * match the same longest text, the pattern that was added first wins. So if the keyword {@code if} is added before
+ * identifiers, {@code if} is a keyword and {@code iffy} is an identifier. Empty matches are ignored. If none of the
+ * patterns matches, the next character becomes a token of type {@link #UNKNOWN_TOKEN}.
+ * <p>
+ * All the patterns are combined into a single DFA, so every character of the text is read only once per token. The
+ * patterns can therefore not contain constructs the DFA does not support, such as lookarounds, possessive quantifiers,
+ * line anchors, word boundaries or regular expressions added as a string.
+ * <p>
+ * The tokens are returned as type and offsets: no {@link java.util.regex.Matcher} or substring is created per token.
+ */
+public interface ReadableRegexLexer {
+    /** The type of a character that none of the patterns matches. */
+    int UNKNOWN_TOKEN = -1;
+
+    /**
+     * @return Builder for a lexer.
+     */
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return The number of types of tokens. The types are numbered from 0 in the order in which they were added.
+     */
+    int nrOfTokenTypes();
+
+    /**
+     * @param type The type of token.
+     * @return The name of the type.
+     * @throws IndexOutOfBoundsException If there is no type with the number.
+     */
+    String tokenName(int type);
+
+    /**
+     * Returns a tokenizer that reads the tokens of the text one by one. The tokenizer should only be used by a single
+     * thread.
+     * @param text The text.
+     * @return The tokenizer.
+     */
+    Tokenizer tokenizer(CharSequence text);
+
+    /**
+     * @param text The text.
+     * @return All the tokens of the text.
+     */
+    default Tokens tokenize(CharSequence text) {
+        Tokenizer tokenizer = tokenizer(text);
+        Tokens tokens = new Tokens(this);
+        while (tokenizer.next()) {
+            tokens.add(tokenizer.type(), tokenizer.start(), tokenizer.end());
+        }
+        return tokens;
+    }
+
+    /**
+     * Reads the tokens of a text one by one. The methods {@link #type()}, {@link #start()} and {@link #end()} return
+     * the values of the token that was read by the last call of {@link #next()}.
+     */
+    interface Tokenizer {
+        /**
+         * Reads the next token.
+         * @return {@code true} if a token was read, or {@code false} if the end of the text was reached.
+         */
+        boolean next();
+
+        /**
+         * @return The type of the token, or {@link #UNKNOWN_TOKEN} if none of the patterns matches.
+         */
+        int type();
+
+        /**
+         * @return The index of the first character of the token.
+         */
+        int start();
+
+        /**
+         * @return The index after the last character of the token.
+         */
+        int end();
+    }
+
+    /**
+     * The tokens of a text, stored in arrays of primitives.
+     */
+    final class Tokens {
+        private final ReadableRegexLexer lexer;
+        private int[] types = new int[16];
+        private int[] starts = new int[16];
+        private int[] ends = new int[16];
+        private int size;
+
+        private Tokens(ReadableRegexLexer lexer) {
+            this.lexer = lexer;
+        }
+
+        private void add(int type, int start, int end) {
+            if (size == types.length) {
+                types = Arrays.copyOf(types, 2 * size);
+                starts = Arrays.copyOf(starts, 2 * size);
+                ends = Arrays.copyOf(ends, 2 * size);
+            }
+            types[size] = type;
+            starts[size] = start;
+            ends[size] = end;
+            size++;
+        }
+
+        private void checkIndex(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("No token " + index);
+            }
+        }
+
+        /**
+         * @return The number of tokens.
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @param index The index of the token.
+         * @return The type of the token, or {@link #UNKNOWN_TOKEN} if none of the patterns matches.
+         */
+        public int type(int index) {
+            checkIndex(index);
+            return types[index];
+        }
+
+        /**
+         * @param index The index of the token.
+         * @return The name of the type of the token, or {@code null} if none of the patterns matches.
+         */
+        public String name(int index) {
+            return type(index) == UNKNOWN_TOKEN ? null : lexer.tokenName(types[index]);
+        }
+
+        /**
+         * @param index The index of the token.
+         * @return The index of the first character of the token in the text.
+         */
+        public int start(int index) {
+            checkIndex(index);
+            return starts[index];
+        }
+
+        /**
+         * @param index The index of the token.
+         * @return The index after the last character of the token in the text.
+         */
+        public int end(int index) {
+            checkIndex(index);
+            return ends[index];
+        }
+    }
+
+    /**
+     * Builder for {@link ReadableRegexLexer}. The order in which the types of tokens are added, determines their number
+     * and their priority.
+     */
+    final class Builder {
+        private final List<String> names = new ArrayList<>();
+        private final List<ReadableRegexPattern> patterns = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a type of token. The expression is built without flags.
+         * @param name  The name of the type.
+         * @param regex The expression that the tokens of this type match.
+         * @return This builder.
+         */
+        public Builder token(String name, ReadableRegex<?> regex) {
+            return token(name, regex.build());
+        }
+
+        /**
+         * Adds a type of token. Only patterns that are built by this library can be used, because the lexer is created
+         * from the expressions they were built from.
+         * @param name    The name of the type.
+         * @param pattern The pattern that the tokens of this type match.
+         * @return This builder.
+         * @throws IllegalArgumentException If a type with the same name has already been added, or if the pattern is
+         *                                  not built by this library.
+         */
+        public Builder token(String name, ReadableRegexPattern pattern) {
+            Objects.requireNonNull(name);
+            Objects.requireNonNull(pattern);
+            if (!(pattern instanceof ReadableRegexPatternImpl)) {
+                throw new IllegalArgumentException("The pattern of token <" + name + "> is not built by this library, but is a "
+                        + pattern.getClass().getName() + ".");
+            } else if (names.contains(name)) {
+                throw new IllegalArgumentException("A token with name <" + name + "> has already been added.");
+            }
+            names.add(name);
+            patterns.add(pattern);
+            return this;
+        }
+
+        /**
+         * @return The lexer.
+         * @throws IllegalArgumentException If a pattern contains constructs that the DFA does not support.
+         */
+        public ReadableRegexLexer build() {
+            return new ReadableRegexLexerImpl(names, patterns);
+        }
+    }
+}
@@ -1,9 +1,25 @@
 package io.github.ricoapon.readableregex;
 
+import io.github.ricoapon.readableregex.internal.MatchSpliterator;
+import io.github.ricoapon.readableregex.internal.MatcherMatchResult;
+import io.github.ricoapon.readableregex.internal.ParallelScanner;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Wrapper of {@link Pattern} with some extra useful methods.
@@ -19,14 +35,334 @@ public interface ReadableRegexPattern {
      */
     Matcher matches(String text);
 
+    /**
+     * Same as {@link #matches(String)}, but for any {@link CharSequence}, so that for example the text in a
+     * {@link StringBuilder} does not have to be copied. Implementations should override this method, because the default
+     * copies the text into a {@link String}.
+     * @param text The text to be matched.
+     * @return {@link Matcher}
+     */
+    default Matcher matches(CharSequence text) {
+        return matches(text.toString());
+    }
+
+    /**
+     * Returns a {@link Matcher} for the text that is reused by every call of this method on the same thread. This avoids
+     * creating a new {@link Matcher} for every text.
+     * <p>
+     * The returned matcher is only valid until the next call of this method on the same thread. It should therefore
+     * never be stored or passed to other threads. The matcher keeps a reference to the text until the next call.
+     * @param text The text to be matched.
+     * @return {@link Matcher} that is reset to the given text.
+     */
+    default Matcher reusableMatcher(CharSequence text) {
+        return matches(text);
+    }
+
+    /**
+     * Same as {@link #reusableMatcher(CharSequence)}.
+     * @param text The text to be matched.
+     * @return {@link Matcher} that is reset to the given text.
+     */
+    default Matcher reusableMatcher(String text) {
+        return reusableMatcher((CharSequence) text);
+    }
+
     /**
      * @param text The text to be matched.
      * @return {@code true} if the pattern matches the full text, else {@code false}.
      */
-    default boolean matchesTextExactly(String text) {
+    default boolean matchesTextExactly(CharSequence text) {
         return matches(text).matches();
     }
 
+    /**
+     * Same as {@link #matchesTextExactly(CharSequence)}.
+     * @param text The text to be matched.
+     * @return {@code true} if the pattern matches the full text, else {@code false}.
+     */
+    default boolean matchesTextExactly(String text) {
+        return matchesTextExactly((CharSequence) text);
+    }
+
+    /**
+     * @param text The text to be matched.
+     * @return {@code true} if the pattern matches any part of the text, else {@code false}.
+     */
+    default boolean containsMatch(CharSequence text) {
+        return matches(text).find();
+    }
+
+    /**
+     * Same as {@link #containsMatch(CharSequence)}.
+     * @param text The text to be matched.
+     * @return {@code true} if the pattern matches any part of the text, else {@code false}.
+     */
+    default boolean containsMatch(String text) {
+        return containsMatch((CharSequence) text);
+    }
+
+    /**
+     * @param text The text to be matched.
+     * @return The result if the pattern matches the full text, else {@link Optional#empty()}.
+     */
+    default Optional<ReadableMatchResult> exactMatch(CharSequence text) {
+        Matcher matcher = matches(text);
+        return matcher.matches() ? Optional.of(new MatcherMatchResult(matcher)) : Optional.empty();
+    }
+
+    /**
+     * @param text The text to be matched.
+     * @return The result of the first part of the text that matches the pattern, or {@link Optional#empty()} if no part
+     * of the text matches.
+     */
+    default Optional<ReadableMatchResult> firstMatch(CharSequence text) {
+        Matcher matcher = matches(text);
+        return matcher.find() ? Optional.of(new MatcherMatchResult(matcher)) : Optional.empty();
+    }
+
+    /**
+     * @param text The text to be matched.
+     * @return The number of times the pattern matches the text. Matches do not overlap.
+     */
+    default int countMatches(CharSequence text) {
+        Matcher matcher = matches(text);
+        int count = 0;
+        while (matcher.find()) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Same as {@link #countMatches(CharSequence)}.
+     * @param text The text to be matched.
+     * @return The number of times the pattern matches the text. Matches do not overlap.
+     */
+    default int countMatches(String text) {
+        return countMatches((CharSequence) text);
+    }
+
+    /**
+     * Same as {@link #matches(CharSequence)}, but all the operations on the returned matcher together may not take more
+     * than the budget. Use this for texts that come from an untrusted source, so that a text that takes very long to
+     * match cannot block the thread.
+     * <p>
+     * After a {@link MatchBudgetExceededException} has been thrown, the state of the matcher is undefined.
+     * @param text   The text to be matched.
+     * @param budget The budget.
+     * @return {@link Matcher}
+     * @throws MatchBudgetExceededException If an operation on the matcher exceeds the budget.
+     */
+    default Matcher matches(CharSequence text, MatchBudget budget) {
+        return matches(budget.limit(text));
+    }
+
+    /**
+     * Same as {@link #matchesTextExactly(CharSequence)}, but aborts when the budget is exceeded.
+     * @param text   The text to be matched.
+     * @param budget The budget.
+     * @return {@code true} if the pattern matches the full text, else {@code false}.
+     * @throws MatchBudgetExceededException If matching exceeds the budget.
+     */
+    default boolean matchesTextExactly(CharSequence text, MatchBudget budget) {
+        return matchesTextExactly(budget.limit(text));
+    }
+
+    /**
+     * Same as {@link #containsMatch(CharSequence)}, but aborts when the budget is exceeded.
+     * @param text   The text to be matched.
+     * @param budget The budget.
+     * @return {@code true} if the pattern matches any part of the text, else {@code false}.
+     * @throws MatchBudgetExceededException If matching exceeds the budget.
+     */
+    default boolean containsMatch(CharSequence text, MatchBudget budget) {
+        return containsMatch(budget.limit(text));
+    }
+
+    /**
+     * Same as {@link #firstMatch(CharSequence)}, but aborts when the budget is exceeded.
+     * @param text   The text to be matched.
+     * @param budget The budget.
+     * @return The result of the first part of the text that matches the pattern, or {@link Optional#empty()} if no part
+     * of the text matches.
+     * @throws MatchBudgetExceededException If matching exceeds the budget.
+     */
+    default Optional<ReadableMatchResult> firstMatch(CharSequence text, MatchBudget budget) {
+        return firstMatch(budget.limit(text));
+    }
+
+    /**
+     * Returns a matcher that finds the matches in the text of the reader, while keeping at most 64K characters in
+     * memory. See {@link StreamMatcher} for more information.
+     * @param reader The reader to read the text from. It is closed when the matcher is closed.
+     * @return {@link StreamMatcher}
+     */
+    default StreamMatcher streamMatcher(Reader reader) {
+        return streamMatcher(reader, StreamMatcher.DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Returns a matcher that finds the matches in the text of the reader, while keeping at most the given number of
+     * characters in memory. Matches can be at most half this size. See {@link StreamMatcher} for more information.
+     * @param reader     The reader to read the text from. It is closed when the matcher is closed.
+     * @param bufferSize The size of the buffer in characters. Must be at least 16.
+     * @return {@link StreamMatcher}
+     */
+    default StreamMatcher streamMatcher(Reader reader, int bufferSize) {
+        return new StreamMatcher(this, reader, bufferSize);
+    }
+
+    /**
+     * Returns a matcher that finds the matches in the bytes of the channel, decoded using the charset. The offsets of the
+     * matches are counted in characters, not in bytes. See {@link StreamMatcher} for more information.
+     * @param channel The channel to read the bytes from. It is closed when the matcher is closed.
+     * @param charset The charset of the bytes.
+     * @return {@link StreamMatcher}
+     */
+    default StreamMatcher streamMatcher(ReadableByteChannel channel, Charset charset) {
+        return streamMatcher(Channels.newReader(channel, charset.newDecoder(), -1));
+    }
+
+    /**
+     * Returns a matcher that finds the matches in a file by mapping it into memory, without reading it onto the heap.
+     * The offsets of the matches are positions of bytes in the file. See {@link FileMatcher} for more information.
+     * @param path    The file.
+     * @param charset The charset of the file. Only US-ASCII, ISO-8859-1 and UTF-8 are supported.
+     * @return {@link FileMatcher}
+     * @throws IOException              If the file cannot be mapped.
+     * @throws IllegalArgumentException If the charset is not supported or the file is larger than 2 GB.
+     */
+    default FileMatcher fileMatcher(Path path, Charset charset) throws IOException {
+        return new FileMatcher(this, path, charset);
+    }
+
+    /**
+     * Returns a matcher that finds the matches in the bytes of a UTF-8 text, without decoding the text. The offsets of
+     * the matches are positions of bytes. See {@link Utf8Matcher} for more information.
+     * @param bytes The bytes of the text.
+     * @return {@link Utf8Matcher}
+     */
+    default Utf8Matcher utf8Matcher(byte[] bytes) {
+        return utf8Matcher(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Returns a matcher that finds the matches in the bytes of a UTF-8 text, without decoding the text. The offsets of
+     * the matches are positions of bytes, counted from the position of the buffer. See {@link Utf8Matcher} for more
+     * information.
+     * @param bytes The bytes of the text, from the position up to the limit of the buffer. The buffer itself is not changed.
+     * @return {@link Utf8Matcher}
+     */
+    default Utf8Matcher utf8Matcher(ByteBuffer bytes) {
+        return new Utf8Matcher(this, bytes);
+    }
+
+    /**
+     * Finds all the matches in the text, by splitting the text into chunks of lines that are matched in parallel. The
+     * matches are the same as the matches that {@link Matcher#find()} finds, and are returned in the same order.
+     * <p>
+     * The text is only split if the pattern is {@link #isLineOriented() line-oriented}. Other patterns are matched
+     * using a single thread. The chunks are matched on the {@link java.util.concurrent.ForkJoinPool} of parallel
+     * streams, which is the common pool unless this method is called from a task of another pool.
+     * @param text The text to be matched. It is read by multiple threads, so it must not be changed.
+     * @return All the matches.
+     */
+    default List<ReadableMatchResult> parallelFindAll(CharSequence text) {
+        return ParallelScanner.findAll(this, text, ParallelScanner.DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Finds all the matches in the file, by splitting the file into chunks of lines that are mapped into memory and
+     * matched in parallel. See {@link #parallelFindAll(CharSequence)} and {@link FileMatcher} for more information.
+     * <p>
+     * Files larger than 2 GB are supported, but only for line-oriented patterns.
+     * @param path    The file.
+     * @param charset The charset of the file. Only US-ASCII, ISO-8859-1 and UTF-8 are supported.
+     * @return All the matches, of which the offsets are positions of bytes in the file.
+     * @throws IOException              If the file cannot be read.
+     * @throws IllegalArgumentException If the charset is not supported or a chunk of the file is larger than 2 GB.
+     */
+    default List<FileMatchResult> parallelFindAll(Path path, Charset charset) throws IOException {
+        return ParallelScanner.findAll(this, path, charset, ParallelScanner.DEFAULT_FILE_CHUNK_SIZE);
+    }
+
+    /**
+     * Finds all the matches in the text, just like {@link Matcher#find()}. The matches are found lazily, while the
+     * stream is consumed, so finding only the first few matches of a large text does not match the rest of it.
+     * <p>
+     * The stream can be made {@link Stream#parallel() parallel}. The text is then split into parts of lines that are
+     * matched by different threads, if the pattern is {@link #isLineOriented() line-oriented}. Other patterns are
+     * matched using a single thread. The matches are the same in both cases, and an ordered stream keeps them in order.
+     * @param text The text to be matched. If the stream is parallel, the text is read by multiple threads, so it must
+     *             not be changed.
+     * @return The matches.
+     */
+    default Stream<ReadableMatchResult> findAll(CharSequence text) {
+        return StreamSupport.stream(new MatchSpliterator(this, text, 0, text.length()), false);
+    }
+
+    /**
+     * Performs the action for every match in the text, in order. Unlike {@link #findAll(CharSequence)}, no object is
+     * created per match: the action always receives the same result, which shows the current match. It is only valid
+     * during the call of the action and must not be stored.
+     * @param text   The text to be matched.
+     * @param action The action.
+     */
+    default void forEachMatch(CharSequence text, Consumer<? super ReadableMatchResult> action) {
+        Matcher matcher = matches(text);
+        ReadableMatchResult currentMatch = new MatcherMatchResult(matcher);
+        while (matcher.find()) {
+            action.accept(currentMatch);
+        }
+    }
+
+    /**
+     * Returns whether the pattern is line-oriented: no part of the expression, including lookarounds, can match a line
+     * feed. Matches can then never span multiple lines. This is determined when the pattern is built. Patterns that use
+     * {@link SyntacticSugarBuilder#lineBreak()}, {@link PatternFlag#DOT_ALL} with {@code anyCharacter()} or regular
+     * expressions added as a string are not line-oriented.
+     * @return Whether the pattern is line-oriented, or {@code false} if it is not known.
+     */
+    default boolean isLineOriented() {
+        return false;
+    }
+
+    /**
+     * Returns the minimum length of the texts that the pattern can match, counted in {@code char}s like
+     * {@link CharSequence#length()}. It is determined when the pattern is built. Texts that are shorter are rejected by
+     * {@link #matchesTextExactly(CharSequence)}, {@link #exactMatch(CharSequence)}, {@link #containsMatch(CharSequence)}
+     * and {@link #firstMatch(CharSequence)} without matching them.
+     * @return The minimum length, or {@code 0} if it is not known.
+     */
+    default int minimumMatchLength() {
+        return 0;
+    }
+
+    /**
+     * Returns the maximum length of the texts that the pattern can match, counted in {@code char}s like
+     * {@link CharSequence#length()}. It is determined when the pattern is built. Texts that are longer are rejected by
+     * {@link #matchesTextExactly(CharSequence)} and {@link #exactMatch(CharSequence)} without matching them.
+     * @return The maximum length, or {@link OptionalInt#empty()} if there is no maximum or it is not known.
+     */
+    default OptionalInt maximumMatchLength() {
+        return OptionalInt.empty();
+    }
+
+    /**
+     * Analyzes how the time {@link Pattern} needs to find out that a text does not match, grows with the length of the
+     * text in the worst case. Use this to find expressions that are vulnerable to catastrophic backtracking, for example
+     * in a unit test or with {@link PatternFlag#REJECT_EXPONENTIAL_BACKTRACKING}.
+     * <p>
+     * The result is an upper bound for {@link #matchesTextExactly(CharSequence)}. Methods that search for a match
+     * anywhere in the text try every position of the text, which can add another factor of the length of the text.
+     * Newer versions of the JDK avoid some of the exponential cases, but not all of them.
+     * @return The complexity, or {@link BacktrackingComplexity#UNKNOWN} if it cannot be determined.
+     */
+    default BacktrackingComplexity backtrackingComplexity() {
+        return BacktrackingComplexity.UNKNOWN;
+    }
+
     /**
      * @return All the {@link PatternFlag}s that are enabled on this pattern.
      */
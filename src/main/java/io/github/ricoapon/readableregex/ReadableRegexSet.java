@@ -0,0 +1,75 @@
+package io.github.ricoapon.readableregex;
+
+import io.github.ricoapon.readableregex.internal.ReadableRegexSetImpl;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Set of patterns that are matched against a text together. Use this instead of matching every pattern one by one
+ * when a text has to be checked against many patterns, for example a list of rules.
+ * <p>
+ * The patterns are combined into a single automaton, that reads the text only once. The time this takes is linear in
+ * the length of the text and hardly depends on the number of patterns. Patterns that contain constructs the automaton
+ * does not support, such as lookarounds, possessive quantifiers, line anchors, word boundaries or regular expressions
+ * added as a string, are matched one by one using their {@link ReadableRegexPattern}.
+ * <p>
+ * The patterns are identified by their index, which is the position of the builder they were built from.
+ */
+public interface ReadableRegexSet {
+    /**
+     * Builds all the expressions without flags and combines them into a set.
+     * @param regexes The expressions.
+     * @return The set.
+     */
+    static ReadableRegexSet of(ReadableRegex<?>... regexes) {
+        return of(Arrays.asList(regexes));
+    }
+
+    /**
+     * Builds all the expressions with the given flags and combines them into a set.
+     * @param regexes      The expressions.
+     * @param patternFlags The flags that every expression is built with.
+     * @return The set.
+     */
+    static ReadableRegexSet of(Collection<? extends ReadableRegex<?>> regexes, PatternFlag... patternFlags) {
+        List<ReadableRegexPattern> patterns = regexes.stream().map(regex -> regex.buildWithFlags(patternFlags))
+                .collect(Collectors.toList());
+        return new ReadableRegexSetImpl(patterns);
+    }
+
+    /**
+     * @return The number of patterns in the set.
+     */
+    int size();
+
+    /**
+     * @param index The index of the pattern.
+     * @return The pattern.
+     * @throws IndexOutOfBoundsException If there is no pattern with the index.
+     */
+    ReadableRegexPattern getPattern(int index);
+
+    /**
+     * @param text The text to be matched.
+     * @return The indices of the patterns that match any part of the text. Same as calling
+     * {@link ReadableRegexPattern#containsMatch(CharSequence)} on every pattern.
+     */
+    BitSet matchingIndices(CharSequence text);
+
+    /**
+     * @param text The text to be matched.
+     * @return The indices of the patterns that match the full text. Same as calling
+     * {@link ReadableRegexPattern#matchesTextExactly(CharSequence)} on every pattern.
+     */
+    BitSet exactlyMatchingIndices(CharSequence text);
+
+    /**
+     * @param text The text to be matched.
+     * @return {@code true} if any of the patterns matches any part of the text, else {@code false}.
+     */
+    boolean anyMatch(CharSequence text);
+}
@@ -14,12 +14,24 @@ public interface RegexObjectInstantiation {
      *     <li>All constructor parameters must be a primitive type, a boxed primitive type or {@link String}.</li>
      * </ul>
      * @param pattern The regular expression.
-     * @param data    The {@link String} containing the information in the format as defined in the {@code pattern}.
+     * @param data    The text containing the information in the format as defined in the {@code pattern}.
      * @param clazz   The class of the object to instantiate.
      * @param <T>     The type of  the object to instantiate.
      * @return Instance of {@link T}.
      */
-    static <T> T instantiateObject(ReadableRegexPattern pattern, String data, Class<T> clazz) {
+    static <T> T instantiateObject(ReadableRegexPattern pattern, CharSequence data, Class<T> clazz) {
         return new RegexObjectInstantiationImpl<T>().constructObject(pattern, data, clazz);
     }
+
+    /**
+     * Same as {@link #instantiateObject(ReadableRegexPattern, CharSequence, Class)}.
+     * @param pattern The regular expression.
+     * @param data    The text containing the information in the format as defined in the {@code pattern}.
+     * @param clazz   The class of the object to instantiate.
+     * @param <T>     The type of  the object to instantiate.
+     * @return Instance of {@link T}.
+     */
+    static <T> T instantiateObject(ReadableRegexPattern pattern, String data, Class<T> clazz) {
+        return instantiateObject(pattern, (CharSequence) data, clazz);
+    }
 }
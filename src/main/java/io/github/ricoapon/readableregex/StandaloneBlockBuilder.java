@@ -1,9 +1,11 @@
 package io.github.ricoapon.readableregex;
 
+import java.util.Collection;
+
 /**
  * Builder interface with all the methods that create standalone blocks in regular expressions. A standalone block
- * is something can be followed by a quantifier and is matched in its entirety. So for example: {@code \s} or
- * {@code (?:\Qa.c\E)}. But {@code ab} is not a standalone block, since adding the optional quantifier {@code ?}, for example, would make
+ * is something can be followed by a quantifier and is matched in its entirety. So for example: {@code \s} or the
+ * literal {@code a.c}, which becomes {@code (?:a\.c)} when it is followed by a quantifier. But {@code ab} is not a standalone block, since adding the optional quantifier {@code ?}, for example, would make
  * the expression {@code ab?}. This is different from {@code (ab)?}).
  */
 public interface StandaloneBlockBuilder<T extends ReadableRegex<T>> {
@@ -28,7 +30,7 @@ public interface StandaloneBlockBuilder<T extends ReadableRegex<T>> {
 
     /**
      * Appends the regular expression created using another builder instance to this builder. The regular expression
-     * is surrounded in a non-capturing group {@code (?:...)}.
+     * is a standalone block: when needed, it is surrounded in a non-capturing group {@code (?:...)}.
      * @param pattern The pattern.
      * @return This builder.
      */
@@ -66,6 +68,19 @@ public interface StandaloneBlockBuilder<T extends ReadableRegex<T>> {
      */
     T oneOf(ReadableRegex<?>... regexBuilders);
 
+    /**
+     * Adds either or block of literals. This is the same as {@link #oneOf(ReadableRegex[])} with a {@link #literal(String)}
+     * for every value, but it is much faster for a large number of literals: if the expression consists of only this
+     * block, the literals are searched for using an Aho-Corasick automaton. The time this takes depends on the length
+     * of the text, not on the number of literals.
+     * <p>
+     * Just like {@link #oneOf(ReadableRegex[])}, the literals are tried in order. So if multiple literals match at the
+     * same position, the first one in the collection is the match.
+     * @param literalValues The values of which one needs to match.
+     * @return This builder.
+     */
+    T oneOfLiterals(Collection<String> literalValues);
+
     /**
      * Adds a specified range. This is the same as {@code [a-z]}.
      * <p>
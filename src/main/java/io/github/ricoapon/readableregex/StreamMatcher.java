@@ -0,0 +1,275 @@
+package io.github.ricoapon.readableregex;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.util.Objects;
+import java.util.regex.Matcher;
+
+/**
+ * Finds the matches of a pattern in a {@link Reader}, without reading the full text into memory. The text is read into a
+ * buffer of a fixed size. Every time the buffer is full, the text before the position where the next match can start is
+ * discarded. Use this to scan files or streams that are too large to fit into a {@link String}.
+ * <p>
+ * The matches are the same as the matches that {@link Matcher#find()} finds in the full text, as long as matching does
+ * not need to read more than half the buffer ahead of the position where a match is tried. So a match must be at most
+ * half the size of the buffer. If more of the text is needed to decide whether there is a match at a position,
+ * {@link #find()} throws an {@link IllegalStateException}, since the text cannot be discarded without changing the
+ * matches. The exception is thrown again by every following call. One character before the position where a match is
+ * tried is always kept, so that word boundaries and line anchors work. If that character is the low surrogate of a
+ * pair, the high surrogate is kept as well. Lookbehinds cannot look further back than that.
+ * <p>
+ * Usage:
+ * <pre>
+ * try (StreamMatcher matcher = pattern.streamMatcher(reader)) {
+ *     while (matcher.find()) {
+ *         System.out.println(matcher.start() + ": " + matcher.group());
+ *     }
+ * }
+ * </pre>
+ * The offsets are the number of characters read before, counted in {@code char}s. They are {@code long}s, since the
+ * text can be longer than {@link Integer#MAX_VALUE}. The methods that return the found match can only be called after
+ * {@link #find()} returned {@code true} and throw {@link IllegalStateException} otherwise.
+ * <p>
+ * This class should only be used by a single thread.
+ */
+public final class StreamMatcher implements Closeable {
+    /** The size of the buffer if no size is specified. */
+    static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    private static final int MIN_BUFFER_SIZE = 16;
+
+    private final Reader reader;
+    private final char[] buffer;
+    private final CharBuffer view;
+    private final Matcher matcher;
+
+    /** The number of characters in the buffer. */
+    private int length;
+
+    /** The number of characters that have been discarded from the buffer. */
+    private long offset;
+
+    /** The index in the buffer from which the next match is searched. */
+    private int position;
+
+    private boolean endOfStream;
+    private boolean matchFound;
+
+    /**
+     * Constructor.
+     * @param pattern    The pattern.
+     * @param reader     The reader to read the text from.
+     * @param bufferSize The maximum number of characters that are kept in memory.
+     */
+    StreamMatcher(ReadableRegexPattern pattern, Reader reader, int bufferSize) {
+        if (bufferSize < MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException("The buffer size must be at least " + MIN_BUFFER_SIZE + ", but was " + bufferSize);
+        }
+        this.reader = Objects.requireNonNull(reader);
+        this.buffer = new char[bufferSize];
+        this.view = CharBuffer.wrap(buffer);
+        this.matcher = pattern.matches(view);
+        // The text before the buffer has been discarded, so the bounds of the region must not count as the start or the
+        // end of the text. The character before the region is still read by word boundaries and line anchors.
+        matcher.useTransparentBounds(true);
+        matcher.useAnchoringBounds(false);
+    }
+
+    /**
+     * Finds the next match. Reads the text until a match is found or the end of the text is reached.
+     * @return {@code true} if a match is found, or {@code false} if there are no more matches.
+     * @throws IOException           If reading the text fails.
+     * @throws IllegalStateException If more than half the buffer is needed to decide whether there is a match.
+     */
+    public boolean find() throws IOException {
+        if (matchFound) {
+            // Same as Matcher: after an empty match, the next match starts at least one character further.
+            position = matcher.end() == matcher.start() ? matcher.end() + 1 : matcher.end();
+            matchFound = false;
+        }
+        while (true) {
+            int end = availableLength();
+            if (position <= end) {
+                view.clear();
+                view.limit(end);
+                matcher.reset(view);
+                matcher.region(position, end);
+                boolean found = matcher.find();
+                if (!matcher.hitEnd() || endOfStream) {
+                    // Reading more of the text cannot change the result.
+                    matchFound = found;
+                    if (found || endOfStream) {
+                        return found;
+                    }
+                    position = end;
+                }
+            } else if (endOfStream) {
+                return false;
+            }
+            fill();
+        }
+    }
+
+    /**
+     * @return The number of characters in the buffer that can be matched. The high surrogate of a pair is only matched
+     * when the low surrogate has been read, since the JDK would otherwise match it as a single character.
+     */
+    private int availableLength() {
+        return !endOfStream && length > 0 && Character.isHighSurrogate(buffer[length - 1]) ? length - 1 : length;
+    }
+
+    /**
+     * Discards the text before the position, except for one character, and reads as much of the text as fits into the
+     * buffer. At most half the buffer is kept after the position, so that there is always room to read more. If the
+     * text after the position is longer, the position is first moved forward past the positions where no match can
+     * start, see {@link #skipPositionsWithoutMatch(int, int)}.
+     */
+    private void fill() throws IOException {
+        int start = Math.min(position, length);
+        int maxStart = length - buffer.length / 2;
+        if (start < maxStart) {
+            skipPositionsWithoutMatch(start, maxStart);
+            start = maxStart;
+            position = maxStart;
+        }
+
+        int discard = Math.max(start - 1, 0);
+        if (discard > 0 && Character.isLowSurrogate(buffer[discard]) && Character.isHighSurrogate(buffer[discard - 1])) {
+            // The character before the position is read as a full code point.
+            discard--;
+        }
+        System.arraycopy(buffer, discard, buffer, 0, length - discard);
+        length -= discard;
+        offset += discard;
+        position -= discard;
+
+        int read = reader.read(buffer, length, buffer.length - length);
+        if (read < 0) {
+            endOfStream = true;
+        } else {
+            length += read;
+        }
+    }
+
+    /**
+     * Checks that no match can start before {@code to}, no matter what text follows. {@link Matcher#find()} sets
+     * {@link Matcher#hitEnd()} as soon as it reaches the end of the buffer, so it cannot tell which positions depend on
+     * the text that has not been read yet. Every position is therefore tried separately.
+     * @param from The first position to check.
+     * @param to   The position after the last position to check.
+     * @throws IllegalStateException If a match can start at one of the positions. The state of this object is not
+     *                               changed, so that the exception is thrown again by every following call of {@link #find()}.
+     */
+    private void skipPositionsWithoutMatch(int from, int to) {
+        int end = availableLength();
+        view.clear();
+        view.limit(end);
+        matcher.reset(view);
+        for (int i = from; i < to; i++) {
+            if (matcher.region(i, end).lookingAt() || matcher.hitEnd()) {
+                throw new IllegalStateException("Cannot find out whether a match starts at offset " + (offset + i)
+                        + " without keeping more than half the buffer of " + buffer.length + " characters. Use a larger buffer.");
+            }
+        }
+    }
+
+    private Matcher match() {
+        if (!matchFound) {
+            throw new IllegalStateException("No match available");
+        }
+        return matcher;
+    }
+
+    private long toOffset(int index) {
+        return index < 0 ? -1 : offset + index;
+    }
+
+    /**
+     * @return The offset of the first character of the match.
+     */
+    public long start() {
+        return offset + match().start();
+    }
+
+    /**
+     * @param group The index of the group.
+     * @return The offset of the first character of the group, or {@code -1} if the group did not match anything.
+     */
+    public long start(int group) {
+        return toOffset(match().start(group));
+    }
+
+    /**
+     * @param name The name of the group.
+     * @return The offset of the first character of the group, or {@code -1} if the group did not match anything.
+     * @throws IllegalArgumentException If there is no group with the given name.
+     */
+    public long start(String name) {
+        return toOffset(match().start(name));
+    }
+
+    /**
+     * @return The offset after the last character of the match.
+     */
+    public long end() {
+        return offset + match().end();
+    }
+
+    /**
+     * @param group The index of the group.
+     * @return The offset after the last character of the group, or {@code -1} if the group did not match anything.
+     */
+    public long end(int group) {
+        return toOffset(match().end(group));
+    }
+
+    /**
+     * @param name The name of the group.
+     * @return The offset after the last character of the group, or {@code -1} if the group did not match anything.
+     * @throws IllegalArgumentException If there is no group with the given name.
+     */
+    public long end(String name) {
+        return toOffset(match().end(name));
+    }
+
+    /**
+     * @return The text of the match.
+     */
+    public String group() {
+        return match().group();
+    }
+
+    /**
+     * @param group The index of the group.
+     * @return The text that was matched by the group, or {@code null} if the group did not match anything.
+     */
+    public String group(int group) {
+        return match().group(group);
+    }
+
+    /**
+     * @param name The name of the group.
+     * @return The text that was matched by the group, or {@code null} if the group did not match anything.
+     * @throws IllegalArgumentException If there is no group with the given name.
+     */
+    public String group(String name) {
+        return match().group(name);
+    }
+
+    /**
+     * @return The number of groups in the pattern.
+     */
+    public int groupCount() {
+        return matcher.groupCount();
+    }
+
+    /**
+     * Closes the reader.
+     * @throws IOException If closing the reader fails.
+     */
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
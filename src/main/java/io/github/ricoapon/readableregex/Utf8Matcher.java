@@ -0,0 +1,185 @@
+package io.github.ricoapon.readableregex;
+
+import io.github.ricoapon.readableregex.internal.ByteBufferCharSequence;
+import io.github.ricoapon.readableregex.internal.ReadableRegexPatternImpl;
+import io.github.ricoapon.readableregex.internal.engine.PikeVm;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Finds the matches of a pattern in the bytes of a UTF-8 text, without decoding the text into a {@link String}. The
+ * characters of the pattern are compiled into automata that consume the bytes of their UTF-8 encodings, so that the
+ * bytes can be matched directly. The matches and groups are the same as the ones {@link Matcher#find()} finds in the
+ * decoded text.
+ * <p>
+ * The offsets of the matches are the positions of the bytes, counted from the position of the buffer. The text of a
+ * group is only decoded when it is requested. The methods that return the found match can only be called after
+ * {@link #find()} returned {@code true} and throw {@link IllegalStateException} otherwise.
+ * <p>
+ * Patterns that cannot be matched on bytes are matched by {@link Pattern}, on characters that are decoded from the bytes
+ * when they are read. These are the patterns that {@link PatternFlag#PIKE_VM_ENGINE} does not support either, such as
+ * patterns with lookarounds. The bytes should be valid UTF-8: invalid bytes never match when the bytes are matched
+ * directly, and are matched as {@code U+FFFD} otherwise.
+ * <p>
+ * The bytes must not be changed while they are matched. This class should only be used by a single thread.
+ */
+public final class Utf8Matcher implements ReadableMatchResult {
+    private final ByteBuffer bytes;
+    private final List<String> groups;
+
+    /** The Pike VM that matches the bytes, or {@code null} if {@link #matcher} is used instead. */
+    private final PikeVm pikeVm;
+
+    /** The bytes with one {@code char} per byte, matched by {@link #pikeVm}. */
+    private final CharSequence byteText;
+
+    /** The decoded text, matched by {@link #matcher}. */
+    private final ByteBufferCharSequence decodedText;
+    private final Matcher matcher;
+
+    /** The position from which {@link #pikeVm} searches the next match. */
+    private int position;
+
+    /** The positions of the groups of the found match, or {@code null} if there is no match. */
+    private int[] slots;
+
+    /**
+     * Constructor.
+     * @param pattern The pattern.
+     * @param bytes   The bytes from the position up to the limit of the buffer. The buffer itself is not changed.
+     */
+    Utf8Matcher(ReadableRegexPattern pattern, ByteBuffer bytes) {
+        this.bytes = bytes.slice();
+        this.groups = pattern.groups();
+        this.pikeVm = pattern instanceof ReadableRegexPatternImpl ? ((ReadableRegexPatternImpl) pattern).utf8PikeVm() : null;
+        if (pikeVm != null) {
+            this.byteText = ByteBufferCharSequence.of(this.bytes, StandardCharsets.ISO_8859_1);
+            this.decodedText = null;
+            this.matcher = null;
+        } else {
+            this.byteText = null;
+            this.decodedText = ByteBufferCharSequence.of(this.bytes, StandardCharsets.UTF_8);
+            this.matcher = pattern.matches(decodedText);
+        }
+    }
+
+    /**
+     * Finds the next match.
+     * @return {@code true} if a match is found, or {@code false} if there are no more matches.
+     */
+    public boolean find() {
+        if (pikeVm == null) {
+            slots = matcher.find() ? byteOffsetsOfGroups() : null;
+            return slots != null;
+        }
+
+        slots = position <= byteText.length() ? pikeVm.find(byteText, position) : null;
+        if (slots != null) {
+            // Same as Matcher: after an empty match, the next match starts at least one code point further.
+            position = slots[1] > slots[0] ? slots[1] : nextCodePoint(slots[1]);
+        }
+        return slots != null;
+    }
+
+    private int nextCodePoint(int index) {
+        int next = index + 1;
+        while (next < byteText.length() && (byteText.charAt(next) & 0xC0) == 0x80) {
+            next++;
+        }
+        return next;
+    }
+
+    private int[] byteOffsetsOfGroups() {
+        int[] result = new int[2 * matcher.groupCount() + 2];
+        for (int group = 0; group <= matcher.groupCount(); group++) {
+            int start = matcher.start(group);
+            result[2 * group] = start < 0 ? -1 : decodedText.byteOffset(start);
+            result[2 * group + 1] = start < 0 ? -1 : decodedText.byteOffset(matcher.end(group));
+        }
+        return result;
+    }
+
+    private int[] match() {
+        if (slots == null) {
+            throw new IllegalStateException("No match available");
+        }
+        return slots;
+    }
+
+    private int slot(int index) {
+        int[] match = match();
+        if (index < 0 || index >= match.length) {
+            throw new IndexOutOfBoundsException("No group " + index / 2);
+        }
+        return match[index];
+    }
+
+    private int groupIndex(String name) {
+        int index = name != null ? groups.indexOf(name) : -1;
+        if (index < 0) {
+            throw new IllegalArgumentException("No group with name <" + name + ">");
+        }
+        return index + 1;
+    }
+
+    @Override
+    public int start() {
+        return slot(0);
+    }
+
+    @Override
+    public int start(int group) {
+        return slot(2 * group);
+    }
+
+    @Override
+    public int start(String name) {
+        return start(groupIndex(name));
+    }
+
+    @Override
+    public int end() {
+        return slot(1);
+    }
+
+    @Override
+    public int end(int group) {
+        return slot(2 * group + 1);
+    }
+
+    @Override
+    public int end(String name) {
+        return end(groupIndex(name));
+    }
+
+    @Override
+    public String group() {
+        return group(0);
+    }
+
+    @Override
+    public String group(int group) {
+        int start = start(group);
+        if (start < 0) {
+            return null;
+        }
+        ByteBuffer groupBytes = bytes.duplicate();
+        groupBytes.position(start);
+        groupBytes.limit(end(group));
+        return StandardCharsets.UTF_8.decode(groupBytes).toString();
+    }
+
+    @Override
+    public String group(String name) {
+        return group(groupIndex(name));
+    }
+
+    @Override
+    public int groupCount() {
+        return matcher != null ? matcher.groupCount() : groups.size();
+    }
+}
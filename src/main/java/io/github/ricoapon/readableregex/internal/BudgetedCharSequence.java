@@ -0,0 +1,73 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.MatchBudget;
+import io.github.ricoapon.readableregex.MatchBudgetExceededException;
+
+/**
+ * Text that counts how often its characters are read and throws {@link MatchBudgetExceededException} when the
+ * {@link MatchBudget} is exceeded. All the engines read the text using {@link #charAt(int)}, so this limits every engine
+ * without changing it.
+ * <p>
+ * Only {@link #charAt(int)} is counted. The subsequences that are created for the groups of a match are not limited.
+ */
+public final class BudgetedCharSequence implements CharSequence {
+    /** The number of steps after which the time is checked. Getting the time is much slower than reading a character. */
+    public static final int CHECK_INTERVAL = 1024;
+
+    private final CharSequence text;
+    private final long maxSteps;
+    private final long startNanos;
+
+    /** The timeout in nanoseconds, or {@link Long#MAX_VALUE} if there is no timeout. */
+    private final long timeoutNanos;
+
+    private long remainingSteps;
+
+    /** The number of steps until the time is checked again. */
+    private long stepsUntilCheck;
+
+    /**
+     * Constructor. The timeout starts when the object is created.
+     * @param text         The text.
+     * @param maxSteps     The maximum number of steps, or {@link Long#MAX_VALUE} if it is not limited.
+     * @param timeoutNanos The timeout in nanoseconds, or {@link Long#MAX_VALUE} if there is no timeout.
+     */
+    public BudgetedCharSequence(CharSequence text, long maxSteps, long timeoutNanos) {
+        this.text = text;
+        this.maxSteps = maxSteps;
+        this.timeoutNanos = timeoutNanos;
+        this.startNanos = timeoutNanos == Long.MAX_VALUE ? 0 : System.nanoTime();
+        this.remainingSteps = maxSteps;
+        this.stepsUntilCheck = timeoutNanos == Long.MAX_VALUE ? Long.MAX_VALUE : CHECK_INTERVAL;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (--remainingSteps < 0) {
+            remainingSteps = 0;
+            throw new MatchBudgetExceededException("Matching took more than " + maxSteps + " steps");
+        }
+        if (--stepsUntilCheck == 0) {
+            stepsUntilCheck = CHECK_INTERVAL;
+            if (System.nanoTime() - startNanos > timeoutNanos) {
+                throw new MatchBudgetExceededException("Matching took more than " + timeoutNanos / 1_000_000 + " ms");
+            }
+        }
+        return text.charAt(index);
+    }
+
+    @Override
+    public int length() {
+        return text.length();
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return text.subSequence(start, end);
+    }
+
+    @Override
+    public String toString() {
+        return text.toString();
+    }
+}
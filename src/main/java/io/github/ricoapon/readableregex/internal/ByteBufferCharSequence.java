@@ -0,0 +1,253 @@
+package io.github.ricoapon.readableregex.internal;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Text of which the characters are decoded from the bytes of a {@link ByteBuffer} when they are read, so that the bytes
+ * of for example a memory-mapped file can be matched without copying them onto the heap. The text is never decoded as a
+ * whole, except by {@link #toString()}.
+ * <p>
+ * Only US-ASCII, ISO-8859-1 and UTF-8 are supported. With US-ASCII and ISO-8859-1 every byte is one character. Bytes
+ * that are not valid for the charset are decoded as {@code U+FFFD}, one character per byte.
+ * <p>
+ * The UTF-8 text remembers the position of the last character that was read, so this class should only be used by a
+ * single thread.
+ */
+public abstract class ByteBufferCharSequence implements CharSequence {
+    private static final char REPLACEMENT_CHARACTER = '\uFFFD';
+
+    /** The bytes, starting at index 0. */
+    final ByteBuffer bytes;
+
+    private ByteBufferCharSequence(ByteBuffer bytes) {
+        this.bytes = bytes;
+    }
+
+    /**
+     * @param bytes   The bytes from the position up to the limit of the buffer. The buffer itself is not changed.
+     * @param charset The charset of the bytes.
+     * @return The text.
+     * @throws IllegalArgumentException If the charset is not supported.
+     */
+    public static ByteBufferCharSequence of(ByteBuffer bytes, Charset charset) {
+        if (charset.equals(StandardCharsets.UTF_8)) {
+            // Most texts only contain ASCII characters, in which case UTF-8 is the same as ASCII.
+            ByteBuffer slice = bytes.slice();
+            return isAscii(slice) ? new SingleByte(slice, true) : new Utf8(slice);
+        } else if (charset.equals(StandardCharsets.ISO_8859_1) || charset.equals(StandardCharsets.US_ASCII)) {
+            return new SingleByte(bytes.slice(), charset.equals(StandardCharsets.US_ASCII));
+        }
+        throw new IllegalArgumentException("The charset " + charset + " is not supported. Only US-ASCII, ISO-8859-1 and UTF-8 are supported.");
+    }
+
+    private static boolean isAscii(ByteBuffer bytes) {
+        for (int i = 0; i < bytes.limit(); i++) {
+            if (bytes.get(i) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param index The index of a character, or the length of the text.
+     * @return The index of the first byte of the character, or the number of bytes if the index is the length of the text.
+     */
+    public abstract int byteOffset(int index);
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length() || start > end) {
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length());
+        }
+        StringBuilder sb = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            sb.append(charAt(i));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return subSequence(0, length()).toString();
+    }
+
+    /**
+     * US-ASCII or ISO-8859-1, where the index of a character is the same as the index of its byte.
+     */
+    private static final class SingleByte extends ByteBufferCharSequence {
+        private final boolean ascii;
+
+        private SingleByte(ByteBuffer bytes, boolean ascii) {
+            super(bytes);
+            this.ascii = ascii;
+        }
+
+        @Override
+        public char charAt(int index) {
+            byte b = bytes.get(index);
+            return b < 0 && ascii ? REPLACEMENT_CHARACTER : (char) (b & 0xFF);
+        }
+
+        @Override
+        public int length() {
+            return bytes.limit();
+        }
+
+        @Override
+        public int byteOffset(int index) {
+            return index;
+        }
+    }
+
+    /**
+     * UTF-8. Characters are decoded starting from the last character that was read, which is fast since matching mostly
+     * reads characters close to each other. The positions of every {@link #CHECKPOINT_INTERVAL}-th character are stored,
+     * so that characters further away are found without decoding the full text.
+     */
+    private static final class Utf8 extends ByteBufferCharSequence {
+        private static final int CHECKPOINT_INTERVAL = 1024;
+
+        private final int length;
+
+        /** The first character and byte of the code point that contains character {@code i * CHECKPOINT_INTERVAL}. */
+        private final int[] checkpointCharacters;
+        private final int[] checkpointBytes;
+
+        /** The first character and byte of the code point that was read last. */
+        private int cursorCharacter;
+        private int cursorByte;
+
+        private Utf8(ByteBuffer bytes) {
+            super(bytes);
+            int nrOfCheckpoints = bytes.limit() / CHECKPOINT_INTERVAL + 1;
+            int[] characters = new int[nrOfCheckpoints];
+            int[] byteIndices = new int[nrOfCheckpoints];
+            int character = 0;
+            int checkpoint = 0;
+            for (int b = 0; b < bytes.limit(); ) {
+                int decoded = decode(b);
+                int nrOfCharacters = Character.charCount(decoded >>> 3);
+                while (checkpoint * CHECKPOINT_INTERVAL < character + nrOfCharacters) {
+                    characters[checkpoint] = character;
+                    byteIndices[checkpoint] = b;
+                    checkpoint++;
+                }
+                character += nrOfCharacters;
+                b += decoded & 7;
+            }
+            this.length = character;
+            this.checkpointCharacters = characters;
+            this.checkpointBytes = byteIndices;
+        }
+
+        private boolean isContinuation(int index) {
+            return index < bytes.limit() && (bytes.get(index) & 0xC0) == 0x80;
+        }
+
+        /**
+         * @param index The index of the first byte.
+         * @return The code point shifted left by three, combined with the number of bytes it is encoded with.
+         */
+        private int decode(int index) {
+            int b0 = bytes.get(index) & 0xFF;
+            if (b0 < 0x80) {
+                return b0 << 3 | 1;
+            }
+            int nrOfBytes;
+            int codePoint;
+            if (b0 >= 0xC2 && b0 <= 0xDF) {
+                nrOfBytes = 2;
+                codePoint = b0 & 0x1F;
+            } else if (b0 >= 0xE0 && b0 <= 0xEF) {
+                nrOfBytes = 3;
+                codePoint = b0 & 0x0F;
+            } else if (b0 >= 0xF0 && b0 <= 0xF4) {
+                nrOfBytes = 4;
+                codePoint = b0 & 0x07;
+            } else {
+                return REPLACEMENT_CHARACTER << 3 | 1;
+            }
+            for (int i = 1; i < nrOfBytes; i++) {
+                if (!isContinuation(index + i)) {
+                    return REPLACEMENT_CHARACTER << 3 | 1;
+                }
+                codePoint = codePoint << 6 | (bytes.get(index + i) & 0x3F);
+            }
+            // Overlong encodings, surrogates and code points above U+10FFFF are not valid.
+            boolean valid = nrOfBytes == 3 ? codePoint >= 0x800 && !Character.isSurrogate((char) codePoint)
+                    : nrOfBytes != 4 || (codePoint >= 0x10000 && codePoint <= Character.MAX_CODE_POINT);
+            return valid ? codePoint << 3 | nrOfBytes : REPLACEMENT_CHARACTER << 3 | 1;
+        }
+
+        /**
+         * Moves the cursor to the code point before it. A byte that does not continue a sequence always starts a code
+         * point, so this finds the same code points as decoding forwards.
+         */
+        private void moveBackwards() {
+            int start = cursorByte - 1;
+            while (start > cursorByte - 4 && start > 0 && isContinuation(start)) {
+                start--;
+            }
+            int decoded = decode(start);
+            if ((decoded & 7) != cursorByte - start) {
+                // The byte before the cursor does not belong to a valid sequence.
+                start = cursorByte - 1;
+                decoded = decode(start);
+            }
+            cursorByte = start;
+            cursorCharacter -= Character.charCount(decoded >>> 3);
+        }
+
+        /**
+         * Moves the cursor to the code point that contains the character.
+         * @return The decoded code point, see {@link #decode(int)}.
+         */
+        private int seek(int index) {
+            if (index < cursorCharacter - CHECKPOINT_INTERVAL || index >= cursorCharacter + CHECKPOINT_INTERVAL) {
+                cursorCharacter = checkpointCharacters[index / CHECKPOINT_INTERVAL];
+                cursorByte = checkpointBytes[index / CHECKPOINT_INTERVAL];
+            }
+            while (index < cursorCharacter) {
+                moveBackwards();
+            }
+            while (true) {
+                int decoded = decode(cursorByte);
+                int nrOfCharacters = Character.charCount(decoded >>> 3);
+                if (index < cursorCharacter + nrOfCharacters) {
+                    return decoded;
+                }
+                cursorCharacter += nrOfCharacters;
+                cursorByte += decoded & 7;
+            }
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+            }
+            int codePoint = seek(index) >>> 3;
+            if (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                return (char) codePoint;
+            }
+            return index == cursorCharacter ? Character.highSurrogate(codePoint) : Character.lowSurrogate(codePoint);
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public int byteOffset(int index) {
+            if (index == length) {
+                return bytes.limit();
+            }
+            int decoded = seek(index);
+            return index == cursorCharacter ? cursorByte : cursorByte + (decoded & 7);
+        }
+    }
+}
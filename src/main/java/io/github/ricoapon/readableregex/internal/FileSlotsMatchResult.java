@@ -0,0 +1,105 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.FileMatchResult;
+
+import java.util.List;
+
+/**
+ * {@link FileMatchResult} that stores the positions and the texts of the groups, so that it does not depend on the
+ * mapping of the file anymore.
+ */
+public class FileSlotsMatchResult implements FileMatchResult {
+    /** The start and end of group {@code i} are at the indices {@code 2i} and {@code 2i + 1}. */
+    private final long[] slots;
+
+    /** The text of every group, or {@code null} if the group did not match anything. */
+    private final String[] texts;
+
+    /** Maps group index - 1 to the name. */
+    private final List<String> groups;
+
+    /**
+     * Constructor.
+     * @param slots  The start and end of every group, where group 0 is the full match. If a group did not match
+     *               anything, the start and end are {@code -1}.
+     * @param texts  The text of every group.
+     * @param groups The names of the groups.
+     */
+    public FileSlotsMatchResult(long[] slots, String[] texts, List<String> groups) {
+        this.slots = slots;
+        this.texts = texts;
+        this.groups = groups;
+    }
+
+    private int groupIndex(String name) {
+        int index = name != null ? groups.indexOf(name) : -1;
+        if (index < 0) {
+            throw new IllegalArgumentException("No group with name <" + name + ">");
+        }
+        return index + 1;
+    }
+
+    private void checkGroup(int group) {
+        if (group < 0 || group > groupCount()) {
+            throw new IndexOutOfBoundsException("No group " + group);
+        }
+    }
+
+    @Override
+    public long start() {
+        return slots[0];
+    }
+
+    @Override
+    public long start(int group) {
+        checkGroup(group);
+        return slots[2 * group];
+    }
+
+    @Override
+    public long start(String name) {
+        return start(groupIndex(name));
+    }
+
+    @Override
+    public long end() {
+        return slots[1];
+    }
+
+    @Override
+    public long end(int group) {
+        checkGroup(group);
+        return slots[2 * group + 1];
+    }
+
+    @Override
+    public long end(String name) {
+        return end(groupIndex(name));
+    }
+
+    @Override
+    public String group() {
+        return texts[0];
+    }
+
+    @Override
+    public String group(int group) {
+        checkGroup(group);
+        return texts[group];
+    }
+
+    @Override
+    public String group(String name) {
+        return group(groupIndex(name));
+    }
+
+    @Override
+    public int groupCount() {
+        return texts.length - 1;
+    }
+
+    @Override
+    public String toString() {
+        return "FileSlotsMatchResult[" + group() + "]";
+    }
+}
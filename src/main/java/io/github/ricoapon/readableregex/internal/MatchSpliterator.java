@@ -0,0 +1,124 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.ReadableMatchResult;
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+
+/**
+ * {@link Spliterator} of the matches of a pattern in a part of a text. The matches are found lazily, one match per call
+ * of {@link #tryAdvance(Consumer)}.
+ * <p>
+ * Just like in {@link ParallelScanner}, the part is split right after a line feed if the pattern is
+ * {@link ReadableRegexPattern#isLineOriented() line-oriented}, and every part is matched as a region of the text with
+ * transparent and non-anchoring bounds. The matches of all the parts together are then exactly the same as the matches
+ * that {@link Matcher#find()} finds in the full text. Other patterns are never split.
+ */
+public final class MatchSpliterator implements Spliterator<ReadableMatchResult> {
+    /** The minimum number of characters a part must have left to be split. Smaller parts are faster to match directly. */
+    static final int MINIMUM_SPLIT_SIZE = 1 << 14;
+
+    private final ReadableRegexPattern pattern;
+    private final CharSequence text;
+    private final int minimumSplitSize;
+
+    /** The index from which the next match is searched. */
+    private int position;
+
+    /** The index after the last character of the part. */
+    private int end;
+
+    /** The matcher of the region from {@link #position} up to {@link #end}, or {@code null} if it has not been created yet. */
+    private Matcher matcher;
+
+    /**
+     * Constructor.
+     * @param pattern The pattern.
+     * @param text    The text. If the matches are consumed by multiple threads, it must not be changed.
+     * @param start   The index of the first character of the part.
+     * @param end     The index after the last character of the part.
+     */
+    public MatchSpliterator(ReadableRegexPattern pattern, CharSequence text, int start, int end) {
+        this(pattern, text, start, end, MINIMUM_SPLIT_SIZE);
+    }
+
+    /**
+     * Constructor.
+     * @param pattern          The pattern.
+     * @param text             The text.
+     * @param start            The index of the first character of the part.
+     * @param end              The index after the last character of the part.
+     * @param minimumSplitSize The minimum number of characters a part must have left to be split.
+     */
+    MatchSpliterator(ReadableRegexPattern pattern, CharSequence text, int start, int end, int minimumSplitSize) {
+        this.pattern = pattern;
+        this.text = text;
+        this.position = start;
+        this.end = end;
+        this.minimumSplitSize = minimumSplitSize;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super ReadableMatchResult> action) {
+        if (position > end) {
+            return false;
+        } else if (matcher == null) {
+            matcher = ParallelScanner.region(pattern, text, position, end);
+        }
+        if (!matcher.find() || ParallelScanner.belongsToNextChunk(matcher, end, text.length())) {
+            position = end + 1;
+            return false;
+        }
+        int[] slots = new int[2 * matcher.groupCount() + 2];
+        for (int group = 0; group <= matcher.groupCount(); group++) {
+            slots[2 * group] = matcher.start(group);
+            slots[2 * group + 1] = matcher.end(group);
+        }
+        // Same as Matcher: after an empty match, the next match starts at least one character further.
+        position = slots[1] > slots[0] ? slots[1] : slots[1] + 1;
+        action.accept(new SlotsMatchResult(text, slots, pattern.groups()));
+        return true;
+    }
+
+    @Override
+    public Spliterator<ReadableMatchResult> trySplit() {
+        if (!pattern.isLineOriented() || end - position < minimumSplitSize) {
+            return null;
+        }
+        int lineFeed = indexOfLineFeed(position + (end - position) / 2);
+        if (lineFeed < 0) {
+            lineFeed = indexOfLineFeed(position);
+        }
+        if (lineFeed < 0 || lineFeed + 1 >= end) {
+            return null;
+        }
+        // The returned spliterator takes the lines before the line feed, so that the matches stay in order. This
+        // spliterator continues after it, with a new matcher for the smaller region.
+        MatchSpliterator firstPart = new MatchSpliterator(pattern, text, position, lineFeed + 1, minimumSplitSize);
+        position = lineFeed + 1;
+        matcher = null;
+        return firstPart;
+    }
+
+    private int indexOfLineFeed(int from) {
+        for (int i = from; i < end; i++) {
+            if (text.charAt(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public long estimateSize() {
+        // The number of matches is unknown, but it is proportional to the number of characters that are left.
+        return Math.max(end - position, 0);
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+}
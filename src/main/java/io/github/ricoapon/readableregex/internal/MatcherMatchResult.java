@@ -0,0 +1,75 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.ReadableMatchResult;
+
+import java.util.regex.Matcher;
+
+/**
+ * {@link ReadableMatchResult} of a {@link Matcher} that has found a match. The matcher must not be used for anything else.
+ */
+public class MatcherMatchResult implements ReadableMatchResult {
+    private final Matcher matcher;
+
+    /**
+     * Constructor.
+     * @param matcher The matcher that has found a match.
+     */
+    public MatcherMatchResult(Matcher matcher) {
+        this.matcher = matcher;
+    }
+
+    @Override
+    public int start() {
+        return matcher.start();
+    }
+
+    @Override
+    public int start(int group) {
+        return matcher.start(group);
+    }
+
+    @Override
+    public int start(String name) {
+        return matcher.start(name);
+    }
+
+    @Override
+    public int end() {
+        return matcher.end();
+    }
+
+    @Override
+    public int end(int group) {
+        return matcher.end(group);
+    }
+
+    @Override
+    public int end(String name) {
+        return matcher.end(name);
+    }
+
+    @Override
+    public String group() {
+        return matcher.group();
+    }
+
+    @Override
+    public String group(int group) {
+        return matcher.group(group);
+    }
+
+    @Override
+    public String group(String name) {
+        return matcher.group(name);
+    }
+
+    @Override
+    public int groupCount() {
+        return matcher.groupCount();
+    }
+
+    @Override
+    public String toString() {
+        return matcher.toString();
+    }
+}
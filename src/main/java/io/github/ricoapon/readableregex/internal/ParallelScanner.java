@@ -0,0 +1,194 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.FileMatchResult;
+import io.github.ricoapon.readableregex.ReadableMatchResult;
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.LongUnaryOperator;
+import java.util.regex.Matcher;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Finds all the matches of a pattern in a text by splitting the text into chunks and matching the chunks in parallel on
+ * the {@link java.util.concurrent.ForkJoinPool} of parallel streams.
+ * <p>
+ * This is only done for patterns that are {@link ReadableRegexPattern#isLineOriented() line-oriented}. Their matches
+ * cannot contain a line feed, so the text is split right after line feeds. Every chunk is matched as a region of the
+ * text with transparent and non-anchoring bounds, so that lookarounds and anchors see the text around the chunk. The
+ * matches are then exactly the same as the matches that {@link Matcher#find()} finds in the full text. Other patterns
+ * are matched as a single chunk.
+ * <p>
+ * Files are split the same way, using the positions of the bytes. Every chunk is mapped into memory separately,
+ * together with the byte before and after it, so that files larger than 2 GB can be scanned.
+ */
+public final class ParallelScanner {
+    /** The approximate number of characters per chunk of a text. */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    /** The approximate number of bytes per chunk of a file. */
+    public static final int DEFAULT_FILE_CHUNK_SIZE = 16 << 20;
+
+    private ParallelScanner() {
+    }
+
+    /**
+     * @param pattern   The pattern.
+     * @param text      The text. It is read by multiple threads at the same time, so it must not be changed.
+     * @param chunkSize The approximate number of characters per chunk.
+     * @return All the matches in order.
+     */
+    public static List<ReadableMatchResult> findAll(ReadableRegexPattern pattern, CharSequence text, int chunkSize) {
+        List<Long> boundaries = boundaries(pattern, text.length(), chunkSize, from -> {
+            for (int i = (int) from; i < text.length(); i++) {
+                if (text.charAt(i) == '\n') {
+                    return (long) i;
+                }
+            }
+            return -1L;
+        });
+        return inParallel(boundaries.size() - 1, chunk -> {
+            int start = boundaries.get(chunk).intValue();
+            int end = boundaries.get(chunk + 1).intValue();
+            List<ReadableMatchResult> results = new ArrayList<>();
+            Matcher matcher = region(pattern, text, start, end);
+            while (matcher.find() && !belongsToNextChunk(matcher, end, text.length())) {
+                int[] slots = new int[2 * matcher.groupCount() + 2];
+                for (int group = 0; group <= matcher.groupCount(); group++) {
+                    slots[2 * group] = matcher.start(group);
+                    slots[2 * group + 1] = matcher.end(group);
+                }
+                results.add(new SlotsMatchResult(text, slots, pattern.groups()));
+            }
+            return results;
+        });
+    }
+
+    /**
+     * @param pattern   The pattern.
+     * @param path      The file. It must not be changed while it is matched.
+     * @param charset   The charset of the file. See {@link ByteBufferCharSequence} for the supported charsets.
+     * @param chunkSize The approximate number of bytes per chunk.
+     * @return All the matches in order.
+     * @throws IOException If the file cannot be read.
+     */
+    public static List<FileMatchResult> findAll(ReadableRegexPattern pattern, Path path, Charset charset, int chunkSize) throws IOException {
+        // Reject unsupported charsets before reading the file.
+        ByteBufferCharSequence.of(ByteBuffer.allocate(0), charset);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(8192);
+            List<Long> boundaries = boundaries(pattern, channel.size(), chunkSize, from -> indexOfLineFeed(channel, buffer, from));
+            return inParallel(boundaries.size() - 1, chunk -> scanFileChunk(pattern, channel, charset, boundaries.get(chunk), boundaries.get(chunk + 1)));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static List<FileMatchResult> scanFileChunk(ReadableRegexPattern pattern, FileChannel channel, Charset charset, long start, long end) {
+        try {
+            long size = channel.size();
+            // Map the line feed before and the character after the chunk as well, for the lookarounds and anchors.
+            long mapStart = Math.max(start - 1, 0);
+            long mapEnd = Math.min(end + 1, size);
+            if (mapEnd - mapStart > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("A chunk of " + (end - start) + " bytes cannot be mapped. Files larger than "
+                        + Integer.MAX_VALUE + " bytes can only be split for line-oriented patterns with shorter lines.");
+            }
+            ByteBufferCharSequence text = ByteBufferCharSequence.of(channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd - mapStart), charset);
+            int regionStart = start > mapStart ? 1 : 0;
+            int regionEnd = end < mapEnd ? text.length() - 1 : text.length();
+
+            List<FileMatchResult> results = new ArrayList<>();
+            Matcher matcher = region(pattern, text, regionStart, regionEnd);
+            while (matcher.find() && !belongsToNextChunk(matcher, regionEnd, text.length())) {
+                long[] slots = new long[2 * matcher.groupCount() + 2];
+                String[] texts = new String[matcher.groupCount() + 1];
+                for (int group = 0; group <= matcher.groupCount(); group++) {
+                    int groupStart = matcher.start(group);
+                    slots[2 * group] = groupStart < 0 ? -1 : mapStart + text.byteOffset(groupStart);
+                    slots[2 * group + 1] = groupStart < 0 ? -1 : mapStart + text.byteOffset(matcher.end(group));
+                    texts[group] = matcher.group(group);
+                }
+                results.add(new FileSlotsMatchResult(slots, texts, pattern.groups()));
+            }
+            return results;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long indexOfLineFeed(FileChannel channel, ByteBuffer buffer, long from) {
+        try {
+            long position = from;
+            while (true) {
+                buffer.clear();
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    return -1;
+                }
+                for (int i = 0; i < read; i++) {
+                    // In all the supported charsets, this byte is always a line feed.
+                    if (buffer.get(i) == '\n') {
+                        return position + i;
+                    }
+                }
+                position += read;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param pattern         The pattern.
+     * @param length          The length of the text.
+     * @param chunkSize       The approximate size of a chunk.
+     * @param indexOfLineFeed Function that returns the index of the first line feed at or after an index, or {@code -1}.
+     * @return The index of the start of every chunk, followed by the length of the text.
+     */
+    private static List<Long> boundaries(ReadableRegexPattern pattern, long length, int chunkSize, LongUnaryOperator indexOfLineFeed) {
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+        if (pattern.isLineOriented()) {
+            long target = chunkSize;
+            while (target < length) {
+                long lineFeed = indexOfLineFeed.applyAsLong(target);
+                if (lineFeed < 0 || lineFeed + 1 >= length) {
+                    break;
+                }
+                boundaries.add(lineFeed + 1);
+                target = lineFeed + 1 + chunkSize;
+            }
+        }
+        boundaries.add(length);
+        return boundaries;
+    }
+
+    private static <T> List<T> inParallel(int nrOfChunks, IntFunction<List<T>> scanChunk) {
+        return IntStream.range(0, nrOfChunks).parallel()
+                .mapToObj(scanChunk)
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
+    static Matcher region(ReadableRegexPattern pattern, CharSequence text, int start, int end) {
+        return pattern.matches(text).useTransparentBounds(true).useAnchoringBounds(false).region(start, end);
+    }
+
+    /**
+     * An empty match at the end of a chunk is also found at the start of the next chunk.
+     */
+    static boolean belongsToNextChunk(Matcher matcher, int end, int length) {
+        return matcher.start() == end && end < length;
+    }
+}
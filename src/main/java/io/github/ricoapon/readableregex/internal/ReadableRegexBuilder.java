@@ -1,42 +1,90 @@
 package io.github.ricoapon.readableregex.internal;
 
+import io.github.ricoapon.readableregex.BacktrackingComplexity;
+import io.github.ricoapon.readableregex.IncorrectConstructionException;
 import io.github.ricoapon.readableregex.PatternFlag;
 import io.github.ricoapon.readableregex.ReadableRegex;
 import io.github.ricoapon.readableregex.ReadableRegexPattern;
-
+import io.github.ricoapon.readableregex.internal.ast.AlternationNode;
+import io.github.ricoapon.readableregex.internal.ast.AnchorNode;
+import io.github.ricoapon.readableregex.internal.ast.CharacterClassNode;
+import io.github.ricoapon.readableregex.internal.ast.GroupNode;
+import io.github.ricoapon.readableregex.internal.ast.LiteralNode;
+import io.github.ricoapon.readableregex.internal.ast.QuantifierNode;
+import io.github.ricoapon.readableregex.internal.ast.RawRegexNode;
+import io.github.ricoapon.readableregex.internal.ast.RegexNode;
+import io.github.ricoapon.readableregex.internal.ast.RegexNodes;
+import io.github.ricoapon.readableregex.internal.ast.RegexRenderer;
+import io.github.ricoapon.readableregex.internal.ast.RegexSimplifier;
+import io.github.ricoapon.readableregex.internal.ast.SequenceNode;
+import io.github.ricoapon.readableregex.internal.cache.PatternCacheImpl;
+import io.github.ricoapon.readableregex.internal.engine.PossessiveRewriter;
+
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
  * Implementation that builds the regular expressions.
+ * <p>
+ * Every method adds a node to a tree of {@link RegexNode}s. The tree is only simplified and rendered into a regular
+ * expression when the pattern is built.
  */
 public abstract class ReadableRegexBuilder<T extends ReadableRegex<T>> implements ReadableRegex<T> {
-    /** The internal regular expression. This field should only be modified using the {@link #_addRegex(String)} method. */
-    private final StringBuilder regexBuilder = new StringBuilder();
+    /** Pattern that matches valid group names. */
+    private static final Pattern VALID_GROUP_NAME = Pattern.compile("[a-zA-Z][a-zA-Z0-9]*");
 
-    /** Indicates whether the flag {@link PatternFlag#MULTILINE} should be enabled when building the pattern object. */
-    private boolean enableMultilineFlag = false;
+    /**
+     * The groups that have been started, but not yet ended. The last element contains the top level of the expression
+     * and is never removed. This field should only be modified using the methods starting with an underscore.
+     */
+    private final Deque<OpenGroup> openGroups = new ArrayDeque<>();
 
-    /** List of group names in order. If the name is {@code null}, it means it is an unnamed group. */
-    private final List<String> groups = new ArrayList<>();
+    /**
+     * Constructor.
+     */
+    public ReadableRegexBuilder() {
+        openGroups.push(new OpenGroup(null, null));
+    }
 
     @SuppressWarnings("MagicConstant")
     @Override
     public ReadableRegexPattern buildWithFlags(PatternFlag... patternFlags) {
-        int flags = Arrays.stream(patternFlags).map(PatternFlag::getJdkPatternFlagCode)
-                .reduce(0, (integer, integer2) -> integer | integer2);
+        RegexNode rootNode = RegexSimplifier.simplify(_rootNode());
+
+        Set<PatternFlag> flags = EnumSet.noneOf(PatternFlag.class);
+        flags.addAll(Arrays.asList(patternFlags));
 
-        // If we should enable multiline, make sure it is part of the flags variable.
-        if (enableMultilineFlag && (flags & PatternFlag.MULTILINE.getJdkPatternFlagCode()) == 0) {
-            flags = flags | PatternFlag.MULTILINE.getJdkPatternFlagCode();
+        // If we should enable multiline, make sure it is part of the flags.
+        if (RegexNodes.containsLineAnchor(rootNode)) {
+            flags.add(PatternFlag.MULTILINE);
         }
 
-        Pattern pattern = Pattern.compile(regexBuilder.toString(), flags);
-        return new ReadableRegexPatternImpl(pattern, groups);
+        // The pattern keeps the tree without possessive quantifiers. When it is added to another builder, what follows
+        // it may change, so the quantifiers are determined again.
+        RegexNode renderedNode = flags.contains(PatternFlag.AUTO_POSSESSIVE) ? PossessiveRewriter.rewrite(rootNode, flags) : rootNode;
+        PatternCacheImpl.Key key = new PatternCacheImpl.Key(RegexRenderer.render(renderedNode), flags,
+                RegexNodes.capturingGroupNames(rootNode), rootNode);
+        ReadableRegexPattern pattern = PatternCacheImpl.get(key, k -> {
+            int jdkFlags = k.getFlags().stream().map(PatternFlag::getJdkPatternFlagCode)
+                    .reduce(0, (integer, integer2) -> integer | integer2);
+            return new ReadableRegexPatternImpl(Pattern.compile(k.getRegex(), jdkFlags), k.getFlags(), k.getGroups(), k.getRootNode());
+        });
+
+        if (flags.contains(PatternFlag.REJECT_EXPONENTIAL_BACKTRACKING)
+                && pattern.backtrackingComplexity() == BacktrackingComplexity.EXPONENTIAL) {
+            throw new IncorrectConstructionException("Matching the expression " + pattern + " can take time that is "
+                    + "exponential in the length of the text. Make sure that repetitions cannot match the same text in more than one way.");
+        }
+        return pattern;
     }
 
     /**
@@ -48,99 +96,175 @@ public abstract class ReadableRegexBuilder<T extends ReadableRegex<T>> implement
     }
 
     /**
-     * Adds the regular expression to {@link #regexBuilder}.
-     * @param regex The regular expression.
+     * This method is used when this builder is added to another builder, so that the pattern is only compiled once.
+     * @return The root of the tree of everything that has been added to this builder.
+     */
+    RegexNode _rootNode() {
+        if (openGroups.size() != 1) {
+            throw new IncorrectConstructionException("Not all groups that have been started are closed.");
+        }
+        return new SequenceNode(openGroups.peek().nodes);
+    }
+
+    /**
+     * Adds the node to the group that was started last.
+     * @param node The node.
      * @return This builder.
      */
-    private T _addRegex(String regex) {
-        Objects.requireNonNull(regex);
-        regexBuilder.append(regex);
+    private T _addNode(RegexNode node) {
+        openGroups.peek().nodes.add(node);
+        return thisT();
+    }
+
+    /**
+     * Replaces the last added node with a quantifier around this node.
+     * @param min The minimum number of repetitions.
+     * @param max The maximum number of repetitions.
+     * @return This builder.
+     */
+    private T _addQuantifier(int min, int max) {
+        List<RegexNode> nodes = openGroups.peek().nodes;
+        if (nodes.isEmpty()) {
+            throw new IncorrectConstructionException("There is no block to apply the quantifier to.");
+        }
+        nodes.set(nodes.size() - 1, new QuantifierNode(nodes.get(nodes.size() - 1), min, max, QuantifierNode.Type.GREEDY));
+        return thisT();
+    }
+
+    /**
+     * Changes the type of the last added quantifier.
+     * @param type The new type.
+     * @return This builder.
+     */
+    private T _changeQuantifierType(QuantifierNode.Type type) {
+        List<RegexNode> nodes = openGroups.peek().nodes;
+        if (nodes.isEmpty() || !(nodes.get(nodes.size() - 1) instanceof QuantifierNode)) {
+            throw new IncorrectConstructionException("There is no quantifier to make reluctant or possessive.");
+        }
+        nodes.set(nodes.size() - 1, ((QuantifierNode) nodes.get(nodes.size() - 1)).withType(type));
         return thisT();
     }
 
+    /**
+     * Starts a new group. All nodes that are added after this call are placed inside this group.
+     * @param type The type of group.
+     * @param name The name of the group, or {@code null}.
+     * @return This builder.
+     */
+    private T _startGroup(GroupNode.Type type, String name) {
+        openGroups.push(new OpenGroup(type, name));
+        return thisT();
+    }
+
+    /**
+     * @param regexBuilder The builder.
+     * @return The root of the tree of the builder. If the builder is not an instance of this class, it is built instead.
+     */
+    private static RegexNode _toNode(ReadableRegex<?> regexBuilder) {
+        if (regexBuilder instanceof ReadableRegexBuilder) {
+            return ((ReadableRegexBuilder<?>) regexBuilder)._rootNode();
+        }
+        return _toNode(regexBuilder.build());
+    }
+
+    /**
+     * @param pattern The pattern.
+     * @return The root of the tree the pattern was built from. If this is not known, the pattern is added as raw regex.
+     */
+    private static RegexNode _toNode(ReadableRegexPattern pattern) {
+        if (pattern instanceof ReadableRegexPatternImpl) {
+            return ((ReadableRegexPatternImpl) pattern).getRootNode();
+        }
+        return new RawRegexNode(pattern.toString());
+    }
+
     @Override
     public T regexFromString(String regex) {
-        return _addRegex(regex);
+        Objects.requireNonNull(regex);
+        return _addNode(new RawRegexNode(regex));
+    }
+
+    @Override
+    public T add(ReadableRegex<?> regexBuilder) {
+        Objects.requireNonNull(regexBuilder);
+        // Wrap in an unnamed group, to make sure that the added expression stays a separate block.
+        return _addNode(new GroupNode(GroupNode.Type.NON_CAPTURING, null, _toNode(regexBuilder)));
     }
 
     @Override
     public T add(ReadableRegexPattern pattern) {
         Objects.requireNonNull(pattern);
-        String regexToInclude = pattern.toString();
-
-        // Wrap in an unnamed group, to make sure that quantifiers work on the entire block.
-        return _addRegex("(?:" + regexToInclude + ")");
+        // Wrap in an unnamed group, to make sure that the pattern stays a separate block.
+        return _addNode(new GroupNode(GroupNode.Type.NON_CAPTURING, null, _toNode(pattern)));
     }
 
     @Override
     public T literal(String literalValue) {
         Objects.requireNonNull(literalValue);
-        // Surround input with \Q\E to make sure that all the meta characters are escaped.
-        // Wrap in an unnamed group, to make sure that quantifiers work on the entire block.
-        return _addRegex("(?:\\Q" + literalValue + "\\E)");
+        return _addNode(new LiteralNode(literalValue));
     }
 
     @Override
     public T digit() {
-        return _addRegex("\\d");
+        return _addNode(new CharacterClassNode("\\d"));
     }
 
     @Override
     public T whitespace() {
-        return _addRegex("\\s");
+        return _addNode(new CharacterClassNode("\\s"));
     }
 
     @Override
     public T tab() {
-        return _addRegex("\\t");
+        return _addNode(new CharacterClassNode("\\t"));
     }
 
     @Override
     public T oneOf(ReadableRegex<?>... regexBuilders) {
-        String middlePart = Arrays.stream(regexBuilders)
-                .map(ReadableRegex::build)
-                .map(ReadableRegexPattern::toString)
-                .collect(Collectors.joining("|"));
+        List<RegexNode> alternatives = Arrays.stream(regexBuilders)
+                .map(regexBuilder -> new GroupNode(GroupNode.Type.NON_CAPTURING, null, _toNode(regexBuilder)))
+                .collect(Collectors.toList());
 
-        return _addRegex("(?:" + middlePart + ")");
+        return _addNode(new AlternationNode(alternatives));
     }
 
     @Override
-    public T range(char... boundaries) {
-        if (boundaries.length % 2 != 0) {
-            throw new IllegalArgumentException("You have to supply an even amount of boundaries.");
-        } else if (boundaries.length == 0) {
-            throw new IllegalArgumentException("An empty range is pointless. Please supply boundaries!");
+    public T oneOfLiterals(Collection<String> literalValues) {
+        Objects.requireNonNull(literalValues);
+        if (literalValues.isEmpty()) {
+            throw new IllegalArgumentException("An empty collection of literals is pointless. Please supply literals!");
         }
 
-        StringBuilder expression = new StringBuilder("[");
-        for (int i = 0; i < boundaries.length; i += 2) {
-            expression.append(boundaries[i])
-                    .append('-')
-                    .append(boundaries[i + 1]);
-        }
-        expression.append("]");
+        List<RegexNode> alternatives = literalValues.stream()
+                .map(literalValue -> new LiteralNode(Objects.requireNonNull(literalValue)))
+                .collect(Collectors.toList());
+        return _addNode(new AlternationNode(alternatives));
+    }
 
-        return _addRegex(expression.toString());
+    @Override
+    public T range(char... boundaries) {
+        return _addNode(new CharacterClassNode("[" + _boundariesToString(boundaries) + "]"));
     }
 
     @Override
     public T notInRange(char... boundaries) {
+        return _addNode(new CharacterClassNode("[^" + _boundariesToString(boundaries) + "]"));
+    }
+
+    private String _boundariesToString(char... boundaries) {
         if (boundaries.length % 2 != 0) {
             throw new IllegalArgumentException("You have to supply an even amount of boundaries.");
         } else if (boundaries.length == 0) {
             throw new IllegalArgumentException("An empty range is pointless. Please supply boundaries!");
         }
 
-        StringBuilder expression = new StringBuilder("[^");
+        StringBuilder expression = new StringBuilder();
         for (int i = 0; i < boundaries.length; i += 2) {
             expression.append(boundaries[i])
                     .append('-')
                     .append(boundaries[i + 1]);
         }
-        expression.append("]");
-
-        return _addRegex(expression.toString());
+        return expression.toString();
     }
 
     @Override
@@ -150,7 +274,7 @@ public abstract class ReadableRegexBuilder<T extends ReadableRegex<T>> implement
             throw new IllegalArgumentException("An empty range is pointless. Please supply boundaries!");
         }
 
-        return _addRegex("[" + characters + "]");
+        return _addNode(new CharacterClassNode("[" + characters + "]"));
     }
 
     @Override
@@ -160,85 +284,77 @@ public abstract class ReadableRegexBuilder<T extends ReadableRegex<T>> implement
             throw new IllegalArgumentException("An empty range is pointless. Please supply boundaries!");
         }
 
-        return _addRegex("[^" + characters + "]");
+        return _addNode(new CharacterClassNode("[^" + characters + "]"));
     }
 
     @Override
     public T wordCharacter() {
-        return _addRegex("\\w");
+        return _addNode(new CharacterClassNode("\\w"));
     }
 
     @Override
     public T nonWordCharacter() {
-        return _addRegex("\\W");
+        return _addNode(new CharacterClassNode("\\W"));
     }
 
     @Override
     public T wordBoundary() {
-        return _addRegex("\\b");
+        return _addNode(new AnchorNode(AnchorNode.Type.WORD_BOUNDARY));
     }
 
     @Override
     public T nonWordBoundary() {
-        return _addRegex("\\B");
+        return _addNode(new AnchorNode(AnchorNode.Type.NON_WORD_BOUNDARY));
     }
 
     @Override
     public T anyCharacter() {
-        return _addRegex(".");
+        return _addNode(new CharacterClassNode("."));
     }
 
     @Override
     public T startOfLine() {
-        enableMultilineFlag = true;
-        // Surround with an unnamed group, to make sure that it can be followed up with quantifiers.
-        return _addRegex("(?:^)");
+        return _addNode(new AnchorNode(AnchorNode.Type.START_OF_LINE));
     }
 
     @Override
     public T startOfInput() {
-        return _addRegex("\\A");
+        return _addNode(new AnchorNode(AnchorNode.Type.START_OF_INPUT));
     }
 
     @Override
     public T endOfLine() {
-        enableMultilineFlag = true;
-        // Surround with an unnamed group, to make sure that it can be followed up with quantifiers.
-        return _addRegex("(?:$)");
+        return _addNode(new AnchorNode(AnchorNode.Type.END_OF_LINE));
     }
 
     @Override
     public T endOfInput() {
-        return _addRegex("\\z");
+        return _addNode(new AnchorNode(AnchorNode.Type.END_OF_INPUT));
     }
 
     @Override
     public T oneOrMore() {
-        return _addRegex("+");
+        return _addQuantifier(1, QuantifierNode.UNBOUNDED);
     }
 
     @Override
     public T optional() {
-        return _addRegex("?");
+        return _addQuantifier(0, 1);
     }
 
     @Override
     public T zeroOrMore() {
-        return _addRegex("*");
+        return _addQuantifier(0, QuantifierNode.UNBOUNDED);
     }
 
-    private T _countRange(int n, Integer m) {
+    private T _countRange(int n, int m) {
         if (n < 0 || m <= 0) {
             throw new IllegalArgumentException("The number of times the block should repeat must be larger than zero.");
         } else if (n > m) {
             throw new IllegalArgumentException("The ranges of the repeating block must be valid. Please make n smaller than m.");
         }
 
-        if (Integer.MAX_VALUE == m) {
-            return _addRegex("{" + n + ",}");
-        }
-
-        return _addRegex("{" + n + "," + m + "}");
+        return _addQuantifier(n, m);
     }
 
     @Override
@@ -248,7 +364,7 @@ public abstract class ReadableRegexBuilder<T extends ReadableRegex<T>> implement
 
     @Override
     public T atLeastNTimes(int n) {
-        return _countRange(n, Integer.MAX_VALUE);
+        return _countRange(n, QuantifierNode.UNBOUNDED);
     }
 
     @Override
@@ -258,59 +374,80 @@ public abstract class ReadableRegexBuilder<T extends ReadableRegex<T>> implement
 
     @Override
     public T reluctant() {
-        return _addRegex("?");
+        return _changeQuantifierType(QuantifierNode.Type.RELUCTANT);
     }
 
     @Override
     public T possessive() {
-        return _addRegex("+");
+        return _changeQuantifierType(QuantifierNode.Type.POSSESSIVE);
     }
 
     @Override
     public T startGroup() {
-        groups.add(null);
-        return _addRegex("(");
+        return _startGroup(GroupNode.Type.CAPTURING, null);
     }
 
     @Override
     public T startGroup(String groupName) {
         Objects.requireNonNull(groupName);
-        if (!Pattern.matches("[a-zA-Z][a-zA-Z0-9]*", groupName)) {
+        if (!VALID_GROUP_NAME.matcher(groupName).matches()) {
             throw new IllegalArgumentException("The group name '" + groupName + "' is not valid: it should start with a letter " +
                     "and only contain letters and digits.");
         }
 
-        groups.add(groupName);
-        return _addRegex("(?<" + groupName + ">");
+        return _startGroup(GroupNode.Type.CAPTURING, groupName);
     }
 
     @Override
     public T startUnnamedGroup() {
-        return _addRegex("(?:");
+        return _startGroup(GroupNode.Type.NON_CAPTURING, null);
     }
 
     @Override
     public T startPositiveLookbehind() {
-        return _addRegex("(?<=");
+        return _startGroup(GroupNode.Type.POSITIVE_LOOKBEHIND, null);
     }
 
     @Override
     public T startNegativeLookbehind() {
-        return _addRegex("(?<!");
+        return _startGroup(GroupNode.Type.NEGATIVE_LOOKBEHIND, null);
     }
 
     @Override
     public T startPositiveLookahead() {
-        return _addRegex("(?=");
+        return _startGroup(GroupNode.Type.POSITIVE_LOOKAHEAD, null);
     }
 
     @Override
     public T startNegativeLookahead() {
-        return _addRegex("(?!");
+        return _startGroup(GroupNode.Type.NEGATIVE_LOOKAHEAD, null);
     }
 
     @Override
     public T endGroup() {
-        return _addRegex(")");
+        if (openGroups.size() == 1) {
+            throw new IncorrectConstructionException("There is no group to end.");
+        }
+        OpenGroup group = openGroups.pop();
+        return _addNode(new GroupNode(group.type, group.name, new SequenceNode(group.nodes)));
+    }
+
+    /**
+     * Group that has been started, but not yet ended.
+     */
+    private static class OpenGroup {
+        /** The type of the group, or {@code null} for the top level of the expression. */
+        private final GroupNode.Type type;
+
+        /** The name of the group, or {@code null}. */
+        private final String name;
+
+        /** The nodes inside the group that have been added so far. */
+        private final List<RegexNode> nodes = new ArrayList<>();
+
+        private OpenGroup(GroupNode.Type type, String name) {
+            this.type = type;
+            this.name = name;
+        }
     }
 }
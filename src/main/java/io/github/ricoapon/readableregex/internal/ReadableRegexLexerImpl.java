@@ -0,0 +1,116 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.PatternFlag;
+import io.github.ricoapon.readableregex.ReadableRegexLexer;
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import io.github.ricoapon.readableregex.internal.ast.RegexNode;
+import io.github.ricoapon.readableregex.internal.engine.Dfa;
+import io.github.ricoapon.readableregex.internal.engine.Nfa;
+import io.github.ricoapon.readableregex.internal.engine.NfaCompiler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Implementation of {@link ReadableRegexLexer}.
+ */
+public final class ReadableRegexLexerImpl implements ReadableRegexLexer {
+    private final List<String> names;
+
+    /** The automaton of all the patterns, of which the pattern of a match state is the type of token. */
+    private final Dfa dfa;
+
+    /**
+     * Constructor.
+     * @param names    The names of the types of tokens.
+     * @param patterns The pattern of every type. These must be instances of {@link ReadableRegexPatternImpl}.
+     */
+    public ReadableRegexLexerImpl(List<String> names, List<ReadableRegexPattern> patterns) {
+        this.names = Collections.unmodifiableList(new ArrayList<>(names));
+
+        List<RegexNode> rootNodes = new ArrayList<>();
+        List<Set<PatternFlag>> flags = new ArrayList<>();
+        for (int i = 0; i < patterns.size(); i++) {
+            RegexNode rootNode = ((ReadableRegexPatternImpl) patterns.get(i)).getRootNode();
+            Set<PatternFlag> patternFlags = patterns.get(i).enabledFlags();
+            Nfa nfa = NfaCompiler.compile(rootNode, patternFlags);
+            if (nfa == null || Dfa.create(nfa) == null) {
+                throw new IllegalArgumentException("The pattern " + patterns.get(i) + " of token <" + names.get(i)
+                        + "> contains constructs that cannot be matched with a DFA.");
+            }
+            rootNodes.add(rootNode);
+            flags.add(patternFlags);
+        }
+        this.dfa = rootNodes.isEmpty() ? null : Dfa.create(NfaCompiler.compileAll(rootNodes, flags));
+    }
+
+    @Override
+    public int nrOfTokenTypes() {
+        return names.size();
+    }
+
+    @Override
+    public String tokenName(int type) {
+        return names.get(type);
+    }
+
+    @Override
+    public Tokenizer tokenizer(CharSequence text) {
+        return new DfaTokenizer(dfa, text);
+    }
+
+    @Override
+    public String toString() {
+        return names.toString();
+    }
+
+    /**
+     * Tokenizer that uses the DFA to find the longest match at the end of the previous token.
+     */
+    private static final class DfaTokenizer implements Tokenizer {
+        private final Dfa dfa;
+        private final CharSequence text;
+        private int type = UNKNOWN_TOKEN;
+        private int start;
+        private int end;
+
+        private DfaTokenizer(Dfa dfa, CharSequence text) {
+            this.dfa = dfa;
+            this.text = text;
+        }
+
+        @Override
+        public boolean next() {
+            if (end >= text.length()) {
+                return false;
+            }
+            start = end;
+            long match = dfa != null ? dfa.longestMatch(text, start) : -1;
+            if (match < 0) {
+                type = UNKNOWN_TOKEN;
+                end = start + Character.charCount(Character.codePointAt(text, start));
+            } else {
+                type = (int) match;
+                end = (int) (match >>> 32);
+            }
+            return true;
+        }
+
+        @Override
+        public int type() {
+            return type;
+        }
+
+        @Override
+        public int start() {
+            return start;
+        }
+
+        @Override
+        public int end() {
+            return end;
+        }
+    }
+}
@@ -3,6 +3,9 @@ package io.github.ricoapon.readableregex.internal;
 import io.github.ricoapon.readableregex.PatternFlag;
 import io.github.ricoapon.readableregex.ReadableRegex;
 import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import io.github.ricoapon.readableregex.internal.ast.RegexNode;
+
+import java.util.Collection;
 
 import static io.github.ricoapon.readableregex.internal.MethodOrderChecker.Method.*;
 
@@ -28,6 +31,13 @@ public class ReadableRegexOrderChecker<T extends ReadableRegex<T>> extends Reada
         return super.buildWithFlags(patternFlags);
     }
 
+    @Override
+    RegexNode _rootNode() {
+        // Adding this builder to another builder finishes it as well.
+        methodOrderChecker.checkCallingMethod(FINISH);
+        return super._rootNode();
+    }
+
     @Override
     public T regexFromString(String regex) {
         // We are not actually sure that the regex is a standalone block. If we don't do this however, it is never possible
@@ -36,6 +46,12 @@ public class ReadableRegexOrderChecker<T extends ReadableRegex<T>> extends Reada
         return super.regexFromString(regex);
     }
 
+    @Override
+    public T add(ReadableRegex<?> regexBuilder) {
+        methodOrderChecker.checkCallingMethod(STANDALONE_BLOCK);
+        return super.add(regexBuilder);
+    }
+
     @Override
     public T add(ReadableRegexPattern pattern) {
         methodOrderChecker.checkCallingMethod(STANDALONE_BLOCK);
@@ -72,6 +88,12 @@ public class ReadableRegexOrderChecker<T extends ReadableRegex<T>> extends Reada
         return super.oneOf(regexBuilders);
     }
 
+    @Override
+    public T oneOfLiterals(Collection<String> literalValues) {
+        methodOrderChecker.checkCallingMethod(STANDALONE_BLOCK);
+        return super.oneOfLiterals(literalValues);
+    }
+
     @Override
     public T range(char... boundaries) {
         methodOrderChecker.checkCallingMethod(STANDALONE_BLOCK);
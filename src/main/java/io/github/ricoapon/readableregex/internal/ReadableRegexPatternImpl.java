@@ -1,40 +1,364 @@
 package io.github.ricoapon.readableregex.internal;
 
+import io.github.ricoapon.readableregex.BacktrackingComplexity;
 import io.github.ricoapon.readableregex.PatternFlag;
+import io.github.ricoapon.readableregex.ReadableMatchResult;
 import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import io.github.ricoapon.readableregex.internal.ast.RegexNode;
+import io.github.ricoapon.readableregex.internal.ast.RegexRenderer;
+import io.github.ricoapon.readableregex.internal.engine.AhoCorasick;
+import io.github.ricoapon.readableregex.internal.engine.BacktrackingAnalyzer;
+import io.github.ricoapon.readableregex.internal.engine.Dfa;
+import io.github.ricoapon.readableregex.internal.engine.FirstCharacterFilter;
+import io.github.ricoapon.readableregex.internal.engine.LineOrientation;
+import io.github.ricoapon.readableregex.internal.engine.LiteralPrefilter;
+import io.github.ricoapon.readableregex.internal.engine.MatchLength;
+import io.github.ricoapon.readableregex.internal.engine.Nfa;
+import io.github.ricoapon.readableregex.internal.engine.NfaCompiler;
+import io.github.ricoapon.readableregex.internal.engine.PikeVm;
 
-import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 /**
  * Implementation of {@link ReadableRegexPattern}.
  */
 public class ReadableRegexPatternImpl implements ReadableRegexPattern {
+    /** The number of positions that are tried using {@link #firstCharacters}, before it can be given up. */
+    private static final int MINIMUM_NR_OF_ATTEMPTS = 16;
+
+    /** The average distance between the tried positions, below which {@link #firstCharacters} is given up. */
+    private static final int MINIMUM_DISTANCE_BETWEEN_ATTEMPTS = 8;
+
     private final Pattern pattern;
 
+    /** All the flags that are enabled, including the ones that are not flags of {@link Pattern}. */
+    private final Set<PatternFlag> flags;
+
     /** Maps group index to the name. If the name is null, it means it is an unnamed group. */
     private final List<String> groups;
 
-    public ReadableRegexPatternImpl(Pattern pattern, List<String> groups) {
+    /** The root of the tree the pattern was built from. */
+    private final RegexNode rootNode;
+
+    /** Matcher per thread that is returned by {@link #reusableMatcher(CharSequence)}. */
+    private final ThreadLocal<Matcher> reusableMatcher;
+
+    /** Matcher per thread that is used by the methods that do not return a matcher. It is reset to an empty text after use. */
+    private final ThreadLocal<Matcher> internalMatcher;
+
+    /** The DFA that is used instead of {@link #pattern} when possible, or {@code null} if it cannot be used. */
+    private final Dfa dfa;
+
+    /** The Pike VM that is used instead of {@link #pattern} when possible, or {@code null} if it cannot be used. */
+    private final PikeVm pikeVm;
+
+    /** The automaton that is used instead of {@link #pattern} if the pattern is an alternation of literals, or {@code null}. */
+    private final AhoCorasick ahoCorasick;
+
+    /** The bounds of the length of the texts that can be matched. */
+    private final MatchLength matchLength;
+
+    /** Search for a literal that every match contains, or {@code null} if there is no such literal. */
+    private final LiteralPrefilter prefilter;
+
+    /** The characters a match can start with, or {@code null} if every position of the text has to be tried. */
+    private final FirstCharacterFilter firstCharacters;
+
+    /** The result of {@link #isLineOriented()}. */
+    private final boolean lineOriented;
+
+    /** The result of {@link #utf8PikeVm()}, or {@code null} if it has not been compiled yet. */
+    private volatile Optional<PikeVm> utf8PikeVm;
+
+    /** The result of {@link #backtrackingComplexity()}, or {@code null} if it has not been determined yet. */
+    private volatile BacktrackingComplexity backtrackingComplexity;
+
+    public ReadableRegexPatternImpl(Pattern pattern, Set<PatternFlag> flags, List<String> groups, RegexNode rootNode) {
         this.pattern = pattern;
+        this.flags = Collections.unmodifiableSet(flags.isEmpty() ? EnumSet.noneOf(PatternFlag.class) : EnumSet.copyOf(flags));
         this.groups = Collections.unmodifiableList(groups);
+        this.rootNode = rootNode;
+        this.dfa = flags.contains(PatternFlag.DFA_ENGINE) ? _createDfa(rootNode, flags) : null;
+        this.pikeVm = flags.contains(PatternFlag.PIKE_VM_ENGINE) ? _createPikeVm(rootNode, flags) : null;
+        this.ahoCorasick = AhoCorasick.create(rootNode, flags);
+        this.matchLength = MatchLength.of(rootNode, flags);
+        this.prefilter = LiteralPrefilter.create(rootNode, flags);
+        this.firstCharacters = FirstCharacterFilter.create(rootNode, flags);
+        this.lineOriented = LineOrientation.isLineOriented(rootNode, flags);
+        this.reusableMatcher = ThreadLocal.withInitial(() -> pattern.matcher(""));
+        this.internalMatcher = ThreadLocal.withInitial(() -> pattern.matcher(""));
+    }
+
+    private static Dfa _createDfa(RegexNode rootNode, Set<PatternFlag> flags) {
+        Nfa nfa = NfaCompiler.compile(rootNode, flags);
+        return nfa != null ? Dfa.create(nfa) : null;
+    }
+
+    private static PikeVm _createPikeVm(RegexNode rootNode, Set<PatternFlag> flags) {
+        Nfa nfa = NfaCompiler.compileForSubmatches(rootNode, flags);
+        return nfa != null ? new PikeVm(nfa) : null;
+    }
+
+    /**
+     * The Pike VM is only compiled when it is needed. If multiple threads do it at the same time, they get equal results.
+     * @return The Pike VM that matches the bytes of UTF-8 texts, or {@code null} if the pattern cannot be compiled into
+     * one. See {@link NfaCompiler#compileForUtf8Submatches(RegexNode, Set)}.
+     */
+    public PikeVm utf8PikeVm() {
+        if (utf8PikeVm == null) {
+            Nfa nfa = NfaCompiler.compileForUtf8Submatches(rootNode, flags);
+            utf8PikeVm = Optional.ofNullable(nfa != null ? new PikeVm(nfa, true) : null);
+        }
+        return utf8PikeVm.orElse(null);
+    }
+
+    /**
+     * @return The root of the tree the pattern was built from. This is used to add the pattern to another builder.
+     */
+    RegexNode getRootNode() {
+        return rootNode;
+    }
+
+    /**
+     * @return Whether the DFA is used instead of {@link Pattern} when possible.
+     */
+    boolean usesDfa() {
+        return dfa != null;
+    }
+
+    /**
+     * @return Whether the Pike VM is used instead of {@link Pattern} when possible.
+     */
+    boolean usesPikeVm() {
+        return pikeVm != null;
+    }
+
+    /**
+     * @return Whether the Aho-Corasick automaton is used instead of {@link Pattern}.
+     */
+    boolean usesAhoCorasick() {
+        return ahoCorasick != null;
     }
 
     @Override
     public Matcher matches(String text) {
+        return matches((CharSequence) text);
+    }
+
+    @Override
+    public Matcher matches(CharSequence text) {
         return pattern.matcher(text);
     }
 
+    @Override
+    public Matcher reusableMatcher(CharSequence text) {
+        Matcher matcher = reusableMatcher.get();
+        // Undo all the changes that could have been made to the matcher since the previous call.
+        if (matcher.pattern() != pattern) {
+            matcher.usePattern(pattern);
+        }
+        return matcher.reset(text).useAnchoringBounds(true).useTransparentBounds(false);
+    }
+
+    /**
+     * @param text The text to be matched.
+     * @return Whether the text is too short or does not contain the literal that every match contains, so there cannot
+     * be a match.
+     */
+    private boolean cannotContainMatch(CharSequence text) {
+        return text.length() < matchLength.getMin() || (prefilter != null && prefilter.indexIn(text, 0) < 0);
+    }
+
+    /**
+     * @param text The text to be matched.
+     * @return The matcher of this thread that is reset to the given text. Call {@link #release(Matcher)} after use.
+     */
+    private Matcher acquire(CharSequence text) {
+        return internalMatcher.get().reset(text);
+    }
+
+    /**
+     * Resets the matcher to an empty text, so that the text that was matched can be garbage collected.
+     * @param matcher The matcher.
+     */
+    private static void release(Matcher matcher) {
+        matcher.reset("").useTransparentBounds(false).useAnchoringBounds(true);
+    }
+
+    /**
+     * Finds the next match, just like {@link Matcher#find()}. If it is known which characters a match can start with,
+     * the matcher is only used at the positions of the text with one of these characters.
+     * @param matcher The matcher of the text.
+     * @param text    The text.
+     * @param from    The index to start searching from. This must be the end of the previous match.
+     * @return Whether a match is found. If so, the matcher contains the match.
+     */
+    private boolean find(Matcher matcher, CharSequence text, int from) {
+        if (firstCharacters == null) {
+            return matcher.find();
+        }
+        // The region is only used to choose the position. Lookarounds and anchors still use the full text.
+        matcher.useTransparentBounds(true).useAnchoringBounds(false);
+        int length = text.length();
+        int attempts = 0;
+        for (int i = firstCharacters.indexIn(text, from); i >= 0; i = firstCharacters.indexIn(text, i + 1)) {
+            if (matcher.region(i, length).lookingAt()) {
+                return true;
+            }
+            // Starting the matcher has some overhead. If most positions can start a match, it is faster to let the
+            // matcher try all the positions itself.
+            if (++attempts >= MINIMUM_NR_OF_ATTEMPTS && attempts * MINIMUM_DISTANCE_BETWEEN_ATTEMPTS > i - from) {
+                return matcher.region(i + 1, length).find();
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean matchesTextExactly(CharSequence text) {
+        if (!matchLength.allows(text.length())) {
+            return false;
+        } else if (ahoCorasick != null) {
+            return ahoCorasick.matchesExactly(text);
+        } else if (dfa != null) {
+            return dfa.matchesExactly(text);
+        } else if (pikeVm != null) {
+            return pikeVm.matchExactly(text) != null;
+        }
+
+        Matcher matcher = acquire(text);
+        try {
+            return matcher.matches();
+        } finally {
+            release(matcher);
+        }
+    }
+
+    @Override
+    public boolean containsMatch(CharSequence text) {
+        if (cannotContainMatch(text)) {
+            return false;
+        } else if (ahoCorasick != null) {
+            return ahoCorasick.find(text, 0) != null;
+        } else if (dfa != null) {
+            return dfa.containsMatch(text);
+        } else if (pikeVm != null) {
+            return pikeVm.find(text, 0) != null;
+        }
+
+        Matcher matcher = acquire(text);
+        try {
+            return find(matcher, text, 0);
+        } finally {
+            release(matcher);
+        }
+    }
+
+    @Override
+    public Optional<ReadableMatchResult> exactMatch(CharSequence text) {
+        if (!matchLength.allows(text.length())) {
+            return Optional.empty();
+        } else if (ahoCorasick != null) {
+            return ahoCorasick.matchesExactly(text)
+                    ? Optional.of(new SlotsMatchResult(text, new int[]{0, text.length()}, groups)) : Optional.empty();
+        } else if (pikeVm == null) {
+            return ReadableRegexPattern.super.exactMatch(text);
+        } else if (dfa != null && !dfa.matchesExactly(text)) {
+            // The DFA is faster in finding out that there is no match.
+            return Optional.empty();
+        }
+        int[] slots = pikeVm.matchExactly(text);
+        return slots != null ? Optional.of(new SlotsMatchResult(text, slots, groups)) : Optional.empty();
+    }
+
+    @Override
+    public Optional<ReadableMatchResult> firstMatch(CharSequence text) {
+        if (cannotContainMatch(text)) {
+            return Optional.empty();
+        } else if (ahoCorasick != null) {
+            int[] slots = ahoCorasick.find(text, 0);
+            return slots != null ? Optional.of(new SlotsMatchResult(text, slots, groups)) : Optional.empty();
+        } else if (pikeVm == null) {
+            Matcher matcher = matches(text);
+            return find(matcher, text, 0) ? Optional.of(new MatcherMatchResult(matcher)) : Optional.empty();
+        } else if (dfa != null && !dfa.containsMatch(text)) {
+            return Optional.empty();
+        }
+        int[] slots = pikeVm.find(text, 0);
+        return slots != null ? Optional.of(new SlotsMatchResult(text, slots, groups)) : Optional.empty();
+    }
+
+    @Override
+    public int countMatches(CharSequence text) {
+        if (ahoCorasick != null) {
+            int count = 0;
+            for (int[] slots = ahoCorasick.find(text, 0); slots != null; slots = ahoCorasick.find(text, slots[1])) {
+                count++;
+            }
+            return count;
+        }
+
+        Matcher matcher = acquire(text);
+        try {
+            int count = 0;
+            int literalIndex = -1;
+            while (true) {
+                int from = count == 0 ? 0 : matcher.end();
+                if (prefilter != null) {
+                    // The next match starts after the previous one, so it contains an occurrence of the literal there.
+                    if (literalIndex < from) {
+                        literalIndex = prefilter.indexIn(text, from);
+                    }
+                    if (literalIndex < 0) {
+                        return count;
+                    }
+                }
+                if (!find(matcher, text, from)) {
+                    return count;
+                }
+                count++;
+            }
+        } finally {
+            release(matcher);
+        }
+    }
+
+    @Override
+    public int minimumMatchLength() {
+        return matchLength.getMin();
+    }
+
+    @Override
+    public OptionalInt maximumMatchLength() {
+        return matchLength.getMax() == MatchLength.UNBOUNDED ? OptionalInt.empty() : OptionalInt.of(matchLength.getMax());
+    }
+
+    @Override
+    public boolean isLineOriented() {
+        return lineOriented;
+    }
+
+    @Override
+    public BacktrackingComplexity backtrackingComplexity() {
+        // The analysis is only done when needed. If multiple threads do it at the same time, they get the same result.
+        if (backtrackingComplexity == null) {
+            // The JDK runs the rendered expression, in which duplicate literals have been removed from alternations.
+            Nfa nfa = NfaCompiler.compile(RegexRenderer.factorLiteralAlternations(rootNode), flags);
+            backtrackingComplexity = nfa != null ? BacktrackingAnalyzer.analyze(nfa) : BacktrackingComplexity.UNKNOWN;
+        }
+        return backtrackingComplexity;
+    }
+
     @Override
     public Set<PatternFlag> enabledFlags() {
-        return Arrays.stream(PatternFlag.values())
-                .filter(flag -> (pattern.flags() & flag.getJdkPatternFlagCode()) != 0)
-                .collect(Collectors.toSet());
+        return flags;
     }
 
     @Override
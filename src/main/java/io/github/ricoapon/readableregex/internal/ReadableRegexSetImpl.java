@@ -0,0 +1,122 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.PatternFlag;
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import io.github.ricoapon.readableregex.ReadableRegexSet;
+import io.github.ricoapon.readableregex.internal.ast.RegexNode;
+import io.github.ricoapon.readableregex.internal.engine.Dfa;
+import io.github.ricoapon.readableregex.internal.engine.Nfa;
+import io.github.ricoapon.readableregex.internal.engine.NfaCompiler;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+
+/**
+ * Implementation of {@link ReadableRegexSet}.
+ */
+public final class ReadableRegexSetImpl implements ReadableRegexSet {
+    private final List<ReadableRegexPattern> patterns;
+
+    /** The automaton of all the patterns it supports, or {@code null} if it does not support any pattern. */
+    private final Dfa dfa;
+
+    /** The index in the set of every pattern of the {@link #dfa}. */
+    private final int[] dfaIndices;
+
+    /** The indices of the patterns that are not supported by the {@link #dfa}. */
+    private final int[] otherIndices;
+
+    /**
+     * Constructor.
+     * @param patterns The patterns. Patterns that are not instances of {@link ReadableRegexPatternImpl} are matched one
+     *                 by one.
+     */
+    public ReadableRegexSetImpl(List<ReadableRegexPattern> patterns) {
+        this.patterns = new ArrayList<>(patterns);
+
+        List<RegexNode> rootNodes = new ArrayList<>();
+        List<Set<PatternFlag>> flags = new ArrayList<>();
+        List<Integer> dfaIndexList = new ArrayList<>();
+        BitSet otherIndexSet = new BitSet();
+        for (int i = 0; i < patterns.size(); i++) {
+            ReadableRegexPattern pattern = patterns.get(i);
+            if (pattern instanceof ReadableRegexPatternImpl
+                    && Dfa.supportsAnchorsOf(((ReadableRegexPatternImpl) pattern).getRootNode())) {
+                rootNodes.add(((ReadableRegexPatternImpl) pattern).getRootNode());
+                flags.add(pattern.enabledFlags());
+                dfaIndexList.add(i);
+            } else {
+                otherIndexSet.set(i);
+            }
+        }
+
+        // The trees are only compiled once. The trees that cannot be compiled are matched one by one as well.
+        BitSet unsupported = new BitSet();
+        Nfa nfa = rootNodes.isEmpty() ? null : NfaCompiler.compileAll(rootNodes, flags, unsupported);
+        for (int i = unsupported.nextSetBit(0); i >= 0; i = unsupported.nextSetBit(i + 1)) {
+            otherIndexSet.set(dfaIndexList.get(i));
+        }
+        this.dfa = nfa == null ? null : Dfa.create(nfa);
+        this.dfaIndices = dfaIndexList.stream().mapToInt(Integer::intValue).toArray();
+        this.otherIndices = otherIndexSet.stream().toArray();
+    }
+
+    @Override
+    public int size() {
+        return patterns.size();
+    }
+
+    @Override
+    public ReadableRegexPattern getPattern(int index) {
+        return patterns.get(index);
+    }
+
+    @Override
+    public BitSet matchingIndices(CharSequence text) {
+        return _matchingIndices(text, Dfa::matchingPatterns, ReadableRegexPattern::containsMatch);
+    }
+
+    @Override
+    public BitSet exactlyMatchingIndices(CharSequence text) {
+        return _matchingIndices(text, Dfa::exactlyMatchingPatterns, ReadableRegexPattern::matchesTextExactly);
+    }
+
+    private BitSet _matchingIndices(CharSequence text, BiFunction<Dfa, CharSequence, BitSet> dfaMatcher,
+                                    BiPredicate<ReadableRegexPattern, CharSequence> patternMatcher) {
+        BitSet result = new BitSet(patterns.size());
+        if (dfa != null) {
+            BitSet dfaPatterns = dfaMatcher.apply(dfa, text);
+            for (int i = dfaPatterns.nextSetBit(0); i >= 0; i = dfaPatterns.nextSetBit(i + 1)) {
+                result.set(dfaIndices[i]);
+            }
+        }
+        for (int index : otherIndices) {
+            if (patternMatcher.test(patterns.get(index), text)) {
+                result.set(index);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean anyMatch(CharSequence text) {
+        if (dfa != null && dfa.containsMatch(text)) {
+            return true;
+        }
+        for (int index : otherIndices) {
+            if (patterns.get(index).containsMatch(text)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return patterns.toString();
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.ReadableMatchResult;
+
+import java.util.List;
+
+/**
+ * {@link ReadableMatchResult} of the positions of the groups that are found by a matching engine of this library.
+ */
+public class SlotsMatchResult implements ReadableMatchResult {
+    private final CharSequence text;
+
+    /** The start and end of group {@code i} are at the indices {@code 2i} and {@code 2i + 1}. */
+    private final int[] slots;
+
+    /** Maps group index - 1 to the name. */
+    private final List<String> groups;
+
+    /**
+     * Constructor.
+     * @param text   The text that was matched.
+     * @param slots  The start and end of every group, where group 0 is the full match. If a group did not match
+     *               anything, the start and end are {@code -1}.
+     * @param groups The names of the groups.
+     */
+    public SlotsMatchResult(CharSequence text, int[] slots, List<String> groups) {
+        this.text = text;
+        this.slots = slots;
+        this.groups = groups;
+    }
+
+    private int groupIndex(String name) {
+        int index = name != null ? groups.indexOf(name) : -1;
+        if (index < 0) {
+            throw new IllegalArgumentException("No group with name <" + name + ">");
+        }
+        return index + 1;
+    }
+
+    private void checkGroup(int group) {
+        if (group < 0 || group > groupCount()) {
+            throw new IndexOutOfBoundsException("No group " + group);
+        }
+    }
+
+    @Override
+    public int start() {
+        return slots[0];
+    }
+
+    @Override
+    public int start(int group) {
+        checkGroup(group);
+        return slots[2 * group];
+    }
+
+    @Override
+    public int start(String name) {
+        return start(groupIndex(name));
+    }
+
+    @Override
+    public int end() {
+        return slots[1];
+    }
+
+    @Override
+    public int end(int group) {
+        checkGroup(group);
+        return slots[2 * group + 1];
+    }
+
+    @Override
+    public int end(String name) {
+        return end(groupIndex(name));
+    }
+
+    @Override
+    public String group() {
+        return group(0);
+    }
+
+    @Override
+    public String group(int group) {
+        checkGroup(group);
+        int start = slots[2 * group];
+        return start < 0 ? null : text.subSequence(start, slots[2 * group + 1]).toString();
+    }
+
+    @Override
+    public String group(String name) {
+        return group(groupIndex(name));
+    }
+
+    @Override
+    public int groupCount() {
+        return slots.length / 2 - 1;
+    }
+
+    @Override
+    public String toString() {
+        return "SlotsMatchResult[" + group() + "]";
+    }
+}
@@ -0,0 +1,47 @@
+package io.github.ricoapon.readableregex.internal.ast;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Either or construction: exactly one of the alternatives must match. The alternatives are tried in order.
+ */
+public final class AlternationNode implements RegexNode {
+    private final List<RegexNode> alternatives;
+
+    /**
+     * Constructor.
+     * @param alternatives The alternatives in order. The list is copied.
+     */
+    public AlternationNode(List<RegexNode> alternatives) {
+        this.alternatives = Collections.unmodifiableList(new ArrayList<>(alternatives));
+    }
+
+    @Override
+    public <R> R accept(RegexNodeVisitor<R> visitor) {
+        return visitor.visitAlternation(this);
+    }
+
+    @Override
+    public List<RegexNode> children() {
+        return alternatives;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return alternatives.equals(((AlternationNode) o).alternatives);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(alternatives);
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.ricoapon.readableregex.internal.ast;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Zero-width assertion on the position inside the text, for example {@code ^} or {@code \b}.
+ */
+public final class AnchorNode implements RegexNode {
+    /** The types of anchors. */
+    public enum Type {
+        /** {@code ^}, which requires {@link io.github.ricoapon.readableregex.PatternFlag#MULTILINE} to match the start of a line. */
+        START_OF_LINE,
+        /** {@code $}, which requires {@link io.github.ricoapon.readableregex.PatternFlag#MULTILINE} to match the end of a line. */
+        END_OF_LINE,
+        /** {@code \A}. */
+        START_OF_INPUT,
+        /** {@code \z}. */
+        END_OF_INPUT,
+        /** {@code \b}. */
+        WORD_BOUNDARY,
+        /** {@code \B}. */
+        NON_WORD_BOUNDARY
+    }
+
+    private final Type type;
+
+    /**
+     * Constructor.
+     * @param type The type of anchor.
+     */
+    public AnchorNode(Type type) {
+        this.type = Objects.requireNonNull(type);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return Whether this anchor is {@link Type#START_OF_LINE} or {@link Type#END_OF_LINE}.
+     */
+    public boolean isLineAnchor() {
+        return type == Type.START_OF_LINE || type == Type.END_OF_LINE;
+    }
+
+    @Override
+    public <R> R accept(RegexNodeVisitor<R> visitor) {
+        return visitor.visitAnchor(this);
+    }
+
+    @Override
+    public List<RegexNode> children() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return type == ((AnchorNode) o).type;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type);
+    }
+}
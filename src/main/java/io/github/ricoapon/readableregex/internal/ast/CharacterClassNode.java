@@ -0,0 +1,51 @@
+package io.github.ricoapon.readableregex.internal.ast;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A single character out of a set of characters, for example {@code \d}, {@code [a-z]} or {@code .}.
+ */
+public final class CharacterClassNode implements RegexNode {
+    /** The class written in the syntax of {@link java.util.regex.Pattern}. */
+    private final String regex;
+
+    /**
+     * Constructor.
+     * @param regex The class written in the syntax of {@link java.util.regex.Pattern}.
+     */
+    public CharacterClassNode(String regex) {
+        this.regex = Objects.requireNonNull(regex);
+    }
+
+    public String getRegex() {
+        return regex;
+    }
+
+    @Override
+    public <R> R accept(RegexNodeVisitor<R> visitor) {
+        return visitor.visitCharacterClass(this);
+    }
+
+    @Override
+    public List<RegexNode> children() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return regex.equals(((CharacterClassNode) o).regex);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(regex);
+    }
+}
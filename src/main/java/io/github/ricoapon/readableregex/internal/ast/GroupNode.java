@@ -0,0 +1,96 @@
+package io.github.ricoapon.readableregex.internal.ast;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Group around another node. Depending on the type, the group captures the match or only asserts the match.
+ */
+public final class GroupNode implements RegexNode {
+    /** The types of groups. */
+    public enum Type {
+        /** {@code (...)} or {@code (?<name>...)}. */
+        CAPTURING,
+        /** {@code (?:...)}. */
+        NON_CAPTURING,
+        /** {@code (?>...)}, which never gives back what it has matched. */
+        ATOMIC,
+        /** {@code (?<=...)}. */
+        POSITIVE_LOOKBEHIND,
+        /** {@code (?<!...)}. */
+        NEGATIVE_LOOKBEHIND,
+        /** {@code (?=...)}. */
+        POSITIVE_LOOKAHEAD,
+        /** {@code (?!...)}. */
+        NEGATIVE_LOOKAHEAD;
+
+        /**
+         * @return Whether this type of group is a lookahead or lookbehind.
+         */
+        public boolean isLookaround() {
+            return this != CAPTURING && this != NON_CAPTURING && this != ATOMIC;
+        }
+    }
+
+    private final Type type;
+
+    /** The name of the group. Can only be non-null if {@link #type} is {@link Type#CAPTURING}. */
+    private final String name;
+
+    private final RegexNode child;
+
+    /**
+     * Constructor.
+     * @param type  The type of group.
+     * @param name  The name of the group, or {@code null} if the group has no name.
+     * @param child The node inside the group.
+     */
+    public GroupNode(Type type, String name, RegexNode child) {
+        if (name != null && type != Type.CAPTURING) {
+            throw new IllegalArgumentException("Only capturing groups can have a name.");
+        }
+        this.type = Objects.requireNonNull(type);
+        this.name = name;
+        this.child = Objects.requireNonNull(child);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public RegexNode getChild() {
+        return child;
+    }
+
+    @Override
+    public <R> R accept(RegexNodeVisitor<R> visitor) {
+        return visitor.visitGroup(this);
+    }
+
+    @Override
+    public List<RegexNode> children() {
+        return Collections.singletonList(child);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        GroupNode groupNode = (GroupNode) o;
+        return type == groupNode.type && Objects.equals(name, groupNode.name) && child.equals(groupNode.child);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, name, child);
+    }
+}
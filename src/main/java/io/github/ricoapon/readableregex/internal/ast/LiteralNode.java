@@ -0,0 +1,50 @@
+package io.github.ricoapon.readableregex.internal.ast;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Text that must be matched literally. None of the characters have a special meaning.
+ */
+public final class LiteralNode implements RegexNode {
+    private final String value;
+
+    /**
+     * Constructor.
+     * @param value The text to match.
+     */
+    public LiteralNode(String value) {
+        this.value = Objects.requireNonNull(value);
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    @Override
+    public <R> R accept(RegexNodeVisitor<R> visitor) {
+        return visitor.visitLiteral(this);
+    }
+
+    @Override
+    public List<RegexNode> children() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return value.equals(((LiteralNode) o).value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(value);
+    }
+}
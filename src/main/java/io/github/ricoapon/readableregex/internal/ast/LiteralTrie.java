@@ -0,0 +1,133 @@
+package io.github.ricoapon.readableregex.internal.ast;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Factors the common prefixes out of an alternation of literals, so that {@code foo|fob|bar} becomes
+ * {@code fo(?:o|b)|bar}. The JDK tries the alternatives of an alternation one by one. After factoring, the literals
+ * that do not match the first characters are skipped together, so the time needed per position of the text depends on
+ * the length of the literals instead of the number of literals.
+ * <p>
+ * The alternatives of an alternation are tried in order, so the order in which literals can match at the same position
+ * must not change. Two literals can only match at the same position if they start with the same character, or with
+ * characters that only differ in case when the case is ignored. A literal is therefore only merged into an earlier
+ * branch, if no branch after it can match at the same position. Literals that occur more than once are removed, since
+ * the second occurrence can never match where the first did not. The literals are not sorted.
+ */
+final class LiteralTrie {
+    /**
+     * The branches of this node in order. A branch is either a code point followed by another node, or the end of a
+     * literal, which is stored as a {@code null} code point. Code points are used instead of characters, because the
+     * JDK does not match half of a surrogate pair.
+     */
+    private final List<Integer> codePoints = new ArrayList<>();
+    private final List<LiteralTrie> children = new ArrayList<>();
+
+    private LiteralTrie() {
+    }
+
+    /**
+     * @param values The values of the literals in order.
+     * @return A tree that matches exactly the same as an alternation of the literals, with the common prefixes factored
+     * out. If nothing could be factored out, the alternation itself is returned.
+     */
+    static RegexNode factor(List<String> values) {
+        LiteralTrie root = new LiteralTrie();
+        for (String value : values) {
+            root.add(value, 0);
+        }
+        return root.toNode();
+    }
+
+    private void add(String value, int index) {
+        Integer c = index < value.length() ? value.codePointAt(index) : null;
+        int branch = mergeableBranch(c);
+        if (branch < 0) {
+            codePoints.add(c);
+            children.add(c == null ? null : new LiteralTrie());
+            branch = codePoints.size() - 1;
+        } else if (c == null) {
+            // The same literal has been added before.
+            return;
+        }
+        if (c != null) {
+            children.get(branch).add(value, index + Character.charCount(c));
+        }
+    }
+
+    /**
+     * @param c The next code point of the literal, or {@code null} for its end.
+     * @return The branch that the literal can be added to without changing the order in which the literals are tried,
+     * or {@code -1} if there is none. For the end of the literal, this is the end of the same literal added before.
+     */
+    private int mergeableBranch(Integer c) {
+        if (c == null) {
+            return codePoints.indexOf(null);
+        }
+        for (int i = codePoints.size() - 1; i >= 0; i--) {
+            Integer other = codePoints.get(i);
+            if (c.equals(other)) {
+                return i;
+            } else if (other == null || equalIgnoringCase(c, other)) {
+                // The literal would skip a branch that can match at the same position.
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean equalIgnoringCase(int c1, int c2) {
+        return Character.toLowerCase(c1) == Character.toLowerCase(c2) || Character.toUpperCase(c1) == Character.toUpperCase(c2);
+    }
+
+    /**
+     * @return The node that matches the remainder of the literals after this trie node.
+     */
+    private RegexNode toNode() {
+        if (codePoints.size() == 1) {
+            return branchToNode(0);
+        } else if (codePoints.size() == 2 && codePoints.contains(null)) {
+            // The end of the literal and one other branch. The order determines whether the branch is preferred.
+            boolean endIsLast = codePoints.get(1) == null;
+            return new QuantifierNode(branchToNode(endIsLast ? 0 : 1), 0, 1,
+                    endIsLast ? QuantifierNode.Type.GREEDY : QuantifierNode.Type.RELUCTANT);
+        }
+        List<RegexNode> alternatives = new ArrayList<>();
+        for (int i = 0; i < codePoints.size(); i++) {
+            alternatives.add(branchToNode(i));
+        }
+        return new AlternationNode(alternatives);
+    }
+
+    private RegexNode branchToNode(int branch) {
+        if (codePoints.get(branch) == null) {
+            return new LiteralNode("");
+        }
+        // Follow the nodes with only a single code point, so that they become one literal.
+        StringBuilder prefix = new StringBuilder().appendCodePoint(codePoints.get(branch));
+        LiteralTrie node = children.get(branch);
+        while (node.codePoints.size() == 1 && node.codePoints.get(0) != null) {
+            prefix.appendCodePoint(node.codePoints.get(0));
+            node = node.children.get(0);
+        }
+        LiteralNode literal = new LiteralNode(prefix.toString());
+        if (node.codePoints.size() == 1) {
+            return literal;
+        }
+        return new SequenceNode(Arrays.asList(literal, node.toNode()));
+    }
+
+    /**
+     * @param node The node.
+     * @return The values of the literals, if the node is an alternation of at least two literals, else {@code null}.
+     */
+    static List<String> literalsOf(AlternationNode node) {
+        if (node.children().size() < 2 || !node.children().stream().allMatch(child -> child instanceof LiteralNode)) {
+            return null;
+        }
+        return node.children().stream().map(child -> ((LiteralNode) child).getValue()).collect(Collectors.toList());
+    }
+}
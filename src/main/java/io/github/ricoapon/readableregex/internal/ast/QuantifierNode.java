@@ -0,0 +1,106 @@
+package io.github.ricoapon.readableregex.internal.ast;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Repetition of another node, for example {@code X+} or {@code X{2,5}?}.
+ */
+public final class QuantifierNode implements RegexNode {
+    /** Value of {@link #max} that indicates that there is no upper bound. */
+    public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    /** The types of quantifiers. */
+    public enum Type {
+        /** Matches as much as possible, but gives back if needed. */
+        GREEDY,
+        /** Matches as little as possible. */
+        RELUCTANT,
+        /** Matches as much as possible and never gives back. */
+        POSSESSIVE
+    }
+
+    private final RegexNode child;
+    private final int min;
+
+    /** The maximum number of repetitions, or {@link #UNBOUNDED}. */
+    private final int max;
+
+    private final Type type;
+
+    /**
+     * Constructor.
+     * @param child The node to repeat.
+     * @param min   The minimum number of repetitions.
+     * @param max   The maximum number of repetitions, or {@link #UNBOUNDED}.
+     * @param type  The type of quantifier.
+     */
+    public QuantifierNode(RegexNode child, int min, int max, Type type) {
+        if (min < 0 || max < min) {
+            throw new IllegalArgumentException("Invalid repetition bounds {" + min + "," + max + "}.");
+        }
+        this.child = Objects.requireNonNull(child);
+        this.min = min;
+        this.max = max;
+        this.type = Objects.requireNonNull(type);
+    }
+
+    public RegexNode getChild() {
+        return child;
+    }
+
+    public int getMin() {
+        return min;
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return Whether there is no upper bound on the number of repetitions.
+     */
+    public boolean isUnbounded() {
+        return max == UNBOUNDED;
+    }
+
+    /**
+     * @param newType The new type.
+     * @return Copy of this node with a different type.
+     */
+    public QuantifierNode withType(Type newType) {
+        return new QuantifierNode(child, min, max, newType);
+    }
+
+    @Override
+    public <R> R accept(RegexNodeVisitor<R> visitor) {
+        return visitor.visitQuantifier(this);
+    }
+
+    @Override
+    public List<RegexNode> children() {
+        return Collections.singletonList(child);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        QuantifierNode that = (QuantifierNode) o;
+        return min == that.min && max == that.max && type == that.type && child.equals(that.child);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(child, min, max, type);
+    }
+}
@@ -0,0 +1,54 @@
+package io.github.ricoapon.readableregex.internal.ast;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Regular expression that is added as is, without knowing anything about its structure. This is the result of
+ * {@link io.github.ricoapon.readableregex.StandaloneBlockBuilder#regexFromString(String)}.
+ * <p>
+ * Because the structure is unknown, nodes around it may not be changed in any way that could alter the meaning of the
+ * concatenated expression.
+ */
+public final class RawRegexNode implements RegexNode {
+    private final String regex;
+
+    /**
+     * Constructor.
+     * @param regex The regular expression.
+     */
+    public RawRegexNode(String regex) {
+        this.regex = Objects.requireNonNull(regex);
+    }
+
+    public String getRegex() {
+        return regex;
+    }
+
+    @Override
+    public <R> R accept(RegexNodeVisitor<R> visitor) {
+        return visitor.visitRawRegex(this);
+    }
+
+    @Override
+    public List<RegexNode> children() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return regex.equals(((RawRegexNode) o).regex);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(regex);
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.ricoapon.readableregex.internal.ast;
+
+import java.util.List;
+
+/**
+ * Node in the tree representation of a regular expression. All implementations are immutable.
+ */
+public interface RegexNode {
+    /**
+     * Calls the method of the visitor that corresponds to the type of this node.
+     * @param visitor The visitor.
+     * @param <R>     The return type of the visitor.
+     * @return The result of the visitor.
+     */
+    <R> R accept(RegexNodeVisitor<R> visitor);
+
+    /**
+     * @return The direct children of this node in order. Empty if this node has no children.
+     */
+    List<RegexNode> children();
+}
@@ -0,0 +1,55 @@
+package io.github.ricoapon.readableregex.internal.ast;
+
+/**
+ * Visitor for all the types of {@link RegexNode}.
+ * @param <R> The return type of the visitor.
+ */
+public interface RegexNodeVisitor<R> {
+    /**
+     * @param node The node to visit.
+     * @return The result.
+     */
+    R visitSequence(SequenceNode node);
+
+    /**
+     * @param node The node to visit.
+     * @return The result.
+     */
+    R visitLiteral(LiteralNode node);
+
+    /**
+     * @param node The node to visit.
+     * @return The result.
+     */
+    R visitCharacterClass(CharacterClassNode node);
+
+    /**
+     * @param node The node to visit.
+     * @return The result.
+     */
+    R visitGroup(GroupNode node);
+
+    /**
+     * @param node The node to visit.
+     * @return The result.
+     */
+    R visitQuantifier(QuantifierNode node);
+
+    /**
+     * @param node The node to visit.
+     * @return The result.
+     */
+    R visitAlternation(AlternationNode node);
+
+    /**
+     * @param node The node to visit.
+     * @return The result.
+     */
+    R visitAnchor(AnchorNode node);
+
+    /**
+     * @param node The node to visit.
+     * @return The result.
+     */
+    R visitRawRegex(RawRegexNode node);
+}
@@ -0,0 +1,71 @@
+package io.github.ricoapon.readableregex.internal.ast;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utility methods for collecting information from a tree of {@link RegexNode}s.
+ */
+public final class RegexNodes {
+    private RegexNodes() {
+    }
+
+    /**
+     * Collects the names of all the capturing groups in the order in which they are opened. Groups inside
+     * {@link RawRegexNode}s are unknown and therefore not included.
+     * @param node The root of the tree.
+     * @return List of group names. If the name is {@code null}, it is an unnamed group.
+     */
+    public static List<String> capturingGroupNames(RegexNode node) {
+        List<String> groupNames = new ArrayList<>();
+        collectCapturingGroupNames(node, groupNames);
+        return groupNames;
+    }
+
+    private static void collectCapturingGroupNames(RegexNode node, List<String> groupNames) {
+        if (node instanceof GroupNode && ((GroupNode) node).getType() == GroupNode.Type.CAPTURING) {
+            groupNames.add(((GroupNode) node).getName());
+        }
+        for (RegexNode child : node.children()) {
+            collectCapturingGroupNames(child, groupNames);
+        }
+    }
+
+    /**
+     * @param node The root of the tree.
+     * @return Whether the tree contains {@link AnchorNode.Type#START_OF_LINE} or {@link AnchorNode.Type#END_OF_LINE}.
+     */
+    public static boolean containsLineAnchor(RegexNode node) {
+        if (node instanceof AnchorNode && ((AnchorNode) node).isLineAnchor()) {
+            return true;
+        }
+        for (RegexNode child : node.children()) {
+            if (containsLineAnchor(child)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param node The root of the tree.
+     * @return Whether the tree can match the empty text. For {@link RawRegexNode}s this is unknown, so they are assumed
+     * to match the empty text.
+     */
+    public static boolean canMatchEmpty(RegexNode node) {
+        if (node instanceof LiteralNode) {
+            return ((LiteralNode) node).getValue().isEmpty();
+        } else if (node instanceof CharacterClassNode) {
+            return false;
+        } else if (node instanceof SequenceNode) {
+            return node.children().stream().allMatch(RegexNodes::canMatchEmpty);
+        } else if (node instanceof AlternationNode) {
+            return node.children().stream().anyMatch(RegexNodes::canMatchEmpty);
+        } else if (node instanceof GroupNode) {
+            return ((GroupNode) node).getType().isLookaround() || canMatchEmpty(((GroupNode) node).getChild());
+        } else if (node instanceof QuantifierNode) {
+            return ((QuantifierNode) node).getMin() == 0 || canMatchEmpty(((QuantifierNode) node).getChild());
+        }
+        return true;
+    }
+}
@@ -0,0 +1,243 @@
+package io.github.ricoapon.readableregex.internal.ast;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Renders a tree of {@link RegexNode}s into the syntax of {@link java.util.regex.Pattern}.
+ * <p>
+ * Unnamed groups are only added where they are needed: around a block that is repeated by a quantifier and consists of
+ * more than one element, and around an alternation that is part of a larger sequence.
+ * <p>
+ * The common prefixes of alternations of literals are factored out, see {@link LiteralTrie}.
+ */
+public final class RegexRenderer implements RegexNodeVisitor<Void> {
+    /** Characters that have a special meaning outside of a character class. */
+    private static final String META_CHARACTERS = "\\^$.|?*+()[]{}";
+
+    /**
+     * Characters that are ignored or start a comment when {@link java.util.regex.Pattern#COMMENTS} is enabled, for
+     * example with {@code (?x)} in a regex that is added as a string. These are escaped as well, so that literals
+     * always match themselves. The whitespace characters that are not visible are written as escape sequences.
+     */
+    private static final String COMMENTS_MODE_CHARACTERS = " #\t\n\u000B\f\r";
+    private static final String[] COMMENTS_MODE_ESCAPES = {"\\ ", "\\#", "\\t", "\\n", "\\x0B", "\\f", "\\r"};
+
+    /** All the nodes are appended to this object. */
+    private final StringBuilder regex = new StringBuilder();
+
+    private RegexRenderer() {
+    }
+
+    /**
+     * @param node The root of the tree.
+     * @return The regular expression.
+     */
+    public static String render(RegexNode node) {
+        RegexRenderer renderer = new RegexRenderer();
+        factorLiteralAlternations(node).accept(renderer);
+        return renderer.regex.toString();
+    }
+
+    /**
+     * Factors the common prefixes out of every alternation of literals, see {@link LiteralTrie}. This is the tree that
+     * {@link #render(RegexNode)} renders, so analyses of what the rendered expression does should use it as well.
+     * @param node The root of the tree.
+     * @return The root of the factored tree. The given tree is not modified.
+     */
+    public static RegexNode factorLiteralAlternations(RegexNode node) {
+        if (node instanceof AlternationNode) {
+            List<String> literals = LiteralTrie.literalsOf((AlternationNode) node);
+            if (literals != null) {
+                return LiteralTrie.factor(literals);
+            }
+            return new AlternationNode(factorChildren(node));
+        } else if (node instanceof SequenceNode) {
+            return new SequenceNode(factorChildren(node));
+        } else if (node instanceof GroupNode) {
+            GroupNode group = (GroupNode) node;
+            return new GroupNode(group.getType(), group.getName(), factorLiteralAlternations(group.getChild()));
+        } else if (node instanceof QuantifierNode) {
+            QuantifierNode quantifier = (QuantifierNode) node;
+            return new QuantifierNode(factorLiteralAlternations(quantifier.getChild()), quantifier.getMin(),
+                    quantifier.getMax(), quantifier.getType());
+        }
+        return node;
+    }
+
+    private static List<RegexNode> factorChildren(RegexNode node) {
+        return node.children().stream().map(RegexRenderer::factorLiteralAlternations).collect(Collectors.toList());
+    }
+
+    /**
+     * @param node The node.
+     * @return Whether the rendered node is a single block, such that a quantifier directly after it applies to the
+     * entire node. The contents of a {@link RawRegexNode} are unknown and are considered to be a single block.
+     */
+    private static boolean isSingleBlock(RegexNode node) {
+        if (node instanceof LiteralNode) {
+            String value = ((LiteralNode) node).getValue();
+            return value.codePointCount(0, value.length()) == 1;
+        } else if (node instanceof SequenceNode) {
+            return node.children().size() == 1 && isSingleBlock(node.children().get(0));
+        }
+        return node instanceof CharacterClassNode || node instanceof GroupNode || node instanceof RawRegexNode;
+    }
+
+    /**
+     * Appends the node.
+     * @param node        The node.
+     * @param singleBlock Whether the node should be rendered as a single block. If needed, it is surrounded with an
+     *                    unnamed group.
+     */
+    private void append(RegexNode node, boolean singleBlock) {
+        if (singleBlock && !isSingleBlock(node)) {
+            regex.append("(?:");
+            node.accept(this);
+            regex.append(')');
+        } else {
+            node.accept(this);
+        }
+    }
+
+    @Override
+    public Void visitSequence(SequenceNode node) {
+        List<RegexNode> children = node.children();
+        if (children.size() == 1) {
+            append(children.get(0), false);
+            return null;
+        }
+
+        for (int i = 0; i < children.size(); i++) {
+            RegexNode child = children.get(i);
+            // A raw regex may start with a quantifier, which should apply to the entire previous node.
+            boolean followedByRawRegex = i + 1 < children.size() && children.get(i + 1) instanceof RawRegexNode;
+            append(child, followedByRawRegex || child instanceof AlternationNode || child instanceof SequenceNode);
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitLiteral(LiteralNode node) {
+        String value = node.getValue();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            int commentsModeIndex = COMMENTS_MODE_CHARACTERS.indexOf(c);
+            if (commentsModeIndex >= 0) {
+                regex.append(COMMENTS_MODE_ESCAPES[commentsModeIndex]);
+                continue;
+            } else if (META_CHARACTERS.indexOf(c) >= 0) {
+                regex.append('\\');
+            }
+            regex.append(c);
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitCharacterClass(CharacterClassNode node) {
+        regex.append(node.getRegex());
+        return null;
+    }
+
+    @Override
+    public Void visitGroup(GroupNode node) {
+        regex.append(groupPrefix(node));
+        append(node.getChild(), false);
+        regex.append(')');
+        return null;
+    }
+
+    @Override
+    public Void visitQuantifier(QuantifierNode node) {
+        append(node.getChild(), true);
+        appendQuantifier(node);
+        return null;
+    }
+
+    @Override
+    public Void visitAlternation(AlternationNode node) {
+        boolean first = true;
+        for (RegexNode alternative : node.children()) {
+            if (!first) {
+                regex.append('|');
+            }
+            append(alternative, false);
+            first = false;
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitAnchor(AnchorNode node) {
+        switch (node.getType()) {
+            case START_OF_LINE:
+                regex.append('^');
+                break;
+            case END_OF_LINE:
+                regex.append('$');
+                break;
+            case START_OF_INPUT:
+                regex.append("\\A");
+                break;
+            case END_OF_INPUT:
+                regex.append("\\z");
+                break;
+            case WORD_BOUNDARY:
+                regex.append("\\b");
+                break;
+            default:
+                regex.append("\\B");
+                break;
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitRawRegex(RawRegexNode node) {
+        regex.append(node.getRegex());
+        return null;
+    }
+
+    private static String groupPrefix(GroupNode node) {
+        switch (node.getType()) {
+            case CAPTURING:
+                return node.getName() == null ? "(" : "(?<" + node.getName() + ">";
+            case NON_CAPTURING:
+                return "(?:";
+            case ATOMIC:
+                return "(?>";
+            case POSITIVE_LOOKBEHIND:
+                return "(?<=";
+            case NEGATIVE_LOOKBEHIND:
+                return "(?<!";
+            case POSITIVE_LOOKAHEAD:
+                return "(?=";
+            default:
+                return "(?!";
+        }
+    }
+
+    private void appendQuantifier(QuantifierNode node) {
+        int min = node.getMin();
+        if (min == 0 && node.getMax() == 1) {
+            regex.append('?');
+        } else if (min == 0 && node.isUnbounded()) {
+            regex.append('*');
+        } else if (min == 1 && node.isUnbounded()) {
+            regex.append('+');
+        } else if (min == node.getMax()) {
+            regex.append('{').append(min).append('}');
+        } else if (node.isUnbounded()) {
+            regex.append('{').append(min).append(",}");
+        } else {
+            regex.append('{').append(min).append(',').append(node.getMax()).append('}');
+        }
+
+        if (node.getType() == QuantifierNode.Type.RELUCTANT) {
+            regex.append('?');
+        } else if (node.getType() == QuantifierNode.Type.POSSESSIVE) {
+            regex.append('+');
+        }
+    }
+}
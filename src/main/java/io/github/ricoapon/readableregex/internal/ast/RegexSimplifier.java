@@ -0,0 +1,131 @@
+package io.github.ricoapon.readableregex.internal.ast;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Rewrites a tree of {@link RegexNode}s into an equivalent tree with fewer nodes:
+ * <ul>
+ *     <li>unnamed groups are removed, since the {@link RegexRenderer} adds groups only where a quantifier needs them;</li>
+ *     <li>nested sequences are flattened and adjacent literals are merged into a single literal;</li>
+ *     <li>quantifiers that repeat a block exactly once and alternations with a single alternative are removed.</li>
+ * </ul>
+ * The contents of a {@link RawRegexNode} are unknown. A group around such a node is therefore never removed, so the
+ * node stays a separate block. A raw regex can also start with a quantifier, which applies to the block before it. The
+ * node before a raw regex is therefore never merged with its neighbours or flattened into the sequence, so that the
+ * {@link RegexRenderer} can render it as the same block as before.
+ */
+public final class RegexSimplifier implements RegexNodeVisitor<RegexNode> {
+    private static final RegexSimplifier INSTANCE = new RegexSimplifier();
+
+    private RegexSimplifier() {
+    }
+
+    /**
+     * @param node The root of the tree.
+     * @return The root of the simplified tree. The given tree is not modified.
+     */
+    public static RegexNode simplify(RegexNode node) {
+        return node.accept(INSTANCE);
+    }
+
+    /**
+     * @param node The node.
+     * @return Whether the node is, or is a sequence that directly contains, a {@link RawRegexNode}.
+     */
+    private static boolean containsTopLevelRawRegex(RegexNode node) {
+        if (node instanceof RawRegexNode) {
+            return true;
+        }
+        return node instanceof SequenceNode && node.children().stream().anyMatch(RegexSimplifier::containsTopLevelRawRegex);
+    }
+
+    @Override
+    public RegexNode visitSequence(SequenceNode node) {
+        List<RegexNode> nodes = new ArrayList<>();
+        List<RegexNode> children = node.children();
+        for (int i = 0; i < children.size(); i++) {
+            RegexNode child = children.get(i).accept(this);
+            if (i + 1 < children.size() && children.get(i + 1) instanceof RawRegexNode) {
+                nodes.add(child);
+            } else {
+                addToSequence(nodes, child);
+            }
+        }
+
+        return nodes.size() == 1 ? nodes.get(0) : new SequenceNode(nodes);
+    }
+
+    private void addToSequence(List<RegexNode> nodes, RegexNode node) {
+        if (node instanceof SequenceNode && !containsTopLevelRawRegex(node)) {
+            for (RegexNode child : node.children()) {
+                addToSequence(nodes, child);
+            }
+        } else if (node instanceof LiteralNode) {
+            String value = ((LiteralNode) node).getValue();
+            int last = nodes.size() - 1;
+            if (value.isEmpty()) {
+                return;
+            }
+            if (last >= 0 && nodes.get(last) instanceof LiteralNode) {
+                nodes.set(last, new LiteralNode(((LiteralNode) nodes.get(last)).getValue() + value));
+            } else {
+                nodes.add(node);
+            }
+        } else {
+            nodes.add(node);
+        }
+    }
+
+    @Override
+    public RegexNode visitLiteral(LiteralNode node) {
+        return node;
+    }
+
+    @Override
+    public RegexNode visitCharacterClass(CharacterClassNode node) {
+        return node;
+    }
+
+    @Override
+    public RegexNode visitGroup(GroupNode node) {
+        RegexNode child = node.getChild().accept(this);
+        if (node.getType() == GroupNode.Type.NON_CAPTURING && !containsTopLevelRawRegex(child)) {
+            return child;
+        }
+        return new GroupNode(node.getType(), node.getName(), child);
+    }
+
+    @Override
+    public RegexNode visitQuantifier(QuantifierNode node) {
+        RegexNode child = node.getChild().accept(this);
+        // A possessive quantifier also prevents backtracking into the block, so it cannot be removed.
+        if (node.getMin() == 1 && node.getMax() == 1 && node.getType() != QuantifierNode.Type.POSSESSIVE) {
+            return child;
+        }
+        return new QuantifierNode(child, node.getMin(), node.getMax(), node.getType());
+    }
+
+    @Override
+    public RegexNode visitAlternation(AlternationNode node) {
+        List<RegexNode> alternatives = node.children().stream()
+                .map(alternative -> alternative.accept(this))
+                .collect(Collectors.toList());
+
+        if (alternatives.size() == 1 && !containsTopLevelRawRegex(alternatives.get(0))) {
+            return alternatives.get(0);
+        }
+        return new AlternationNode(alternatives);
+    }
+
+    @Override
+    public RegexNode visitAnchor(AnchorNode node) {
+        return node;
+    }
+
+    @Override
+    public RegexNode visitRawRegex(RawRegexNode node) {
+        return node;
+    }
+}
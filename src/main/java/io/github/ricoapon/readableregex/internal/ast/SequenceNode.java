@@ -0,0 +1,47 @@
+package io.github.ricoapon.readableregex.internal.ast;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Concatenation of nodes: all the children must match one after another.
+ */
+public final class SequenceNode implements RegexNode {
+    private final List<RegexNode> children;
+
+    /**
+     * Constructor.
+     * @param children The nodes in order. The list is copied.
+     */
+    public SequenceNode(List<RegexNode> children) {
+        this.children = Collections.unmodifiableList(new ArrayList<>(children));
+    }
+
+    @Override
+    public <R> R accept(RegexNodeVisitor<R> visitor) {
+        return visitor.visitSequence(this);
+    }
+
+    @Override
+    public List<RegexNode> children() {
+        return children;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return children.equals(((SequenceNode) o).children);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(children);
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Immutable tree representation of regular expressions that are constructed using the builder.
+ */
+package io.github.ricoapon.readableregex.internal.ast;
@@ -0,0 +1,143 @@
+package io.github.ricoapon.readableregex.internal.cache;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Cache with a maximum number of entries that can be used by multiple threads at the same time.
+ * <p>
+ * The entries are divided over segments based on the hash code of the key. Every segment has its own lock, so threads
+ * only wait on each other when they use the same segment. When a segment is full, the entry of that segment that was
+ * used least recently is evicted.
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+public final class ConcurrentLruCache<K, V> {
+    /** The maximum number of segments. Must be a power of two. */
+    private static final int MAXIMUM_NR_OF_SEGMENTS = 16;
+
+    private final List<Segment> segments = new ArrayList<>();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * Constructor.
+     * @param maximumSize The maximum number of entries in the cache.
+     */
+    public ConcurrentLruCache(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("The maximum size of the cache must be larger than zero.");
+        }
+
+        int nrOfSegments = Integer.highestOneBit(Math.min(MAXIMUM_NR_OF_SEGMENTS, maximumSize));
+        for (int i = 0; i < nrOfSegments; i++) {
+            segments.add(new Segment(maximumSize / nrOfSegments + (i < maximumSize % nrOfSegments ? 1 : 0)));
+        }
+    }
+
+    private Segment segmentFor(Object key) {
+        int hash = key.hashCode();
+        return segments.get((hash ^ (hash >>> 16)) & (segments.size() - 1));
+    }
+
+    /**
+     * Returns the value of the key. If the key is not in the cache, the value is created using the loader and added.
+     * <p>
+     * The loader is called without holding any lock. If multiple threads load the same key at the same time, all
+     * threads return the value that was added first.
+     * @param key    The key.
+     * @param loader Function that creates the value for a key.
+     * @return The value.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        Segment segment = segmentFor(key);
+        V value;
+        synchronized (segment) {
+            value = segment.get(key);
+        }
+        if (value != null) {
+            hitCount.increment();
+            return value;
+        }
+
+        missCount.increment();
+        V loadedValue = loader.apply(key);
+        synchronized (segment) {
+            V existingValue = segment.putIfAbsent(key, loadedValue);
+            return existingValue != null ? existingValue : loadedValue;
+        }
+    }
+
+    /**
+     * Removes all the entries. The statistics are not reset.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * @return The number of entries in the cache.
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return The number of times {@link #get(Object, Function)} returned a value that was already in the cache.
+     */
+    public long hitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * @return The number of times {@link #get(Object, Function)} had to load the value.
+     */
+    public long missCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * @return The number of entries that have been removed to make room for new entries.
+     */
+    public long evictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * Part of the cache with its own maximum size. Entries are ordered from least recently used to most recently used.
+     */
+    private final class Segment extends LinkedHashMap<K, V> {
+        private static final long serialVersionUID = 1L;
+
+        private final int maximumSize;
+
+        private Segment(int maximumSize) {
+            super(16, 0.75f, true);
+            this.maximumSize = maximumSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            if (size() > maximumSize) {
+                evictionCount.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
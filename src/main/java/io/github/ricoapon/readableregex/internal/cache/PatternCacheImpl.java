@@ -0,0 +1,141 @@
+package io.github.ricoapon.readableregex.internal.cache;
+
+import io.github.ricoapon.readableregex.PatternCache;
+import io.github.ricoapon.readableregex.PatternCacheStatistics;
+import io.github.ricoapon.readableregex.PatternFlag;
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import io.github.ricoapon.readableregex.internal.ast.RegexNode;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Implementation of {@link PatternCache}.
+ */
+public final class PatternCacheImpl {
+    /** The cache, or {@code null} if the cache is disabled. */
+    private static volatile ConcurrentLruCache<Key, ReadableRegexPattern> cache;
+
+    private PatternCacheImpl() {
+    }
+
+    /**
+     * See {@link PatternCache#enable(int)}.
+     * @param maximumSize The maximum number of patterns in the cache.
+     */
+    public static void enable(int maximumSize) {
+        cache = new ConcurrentLruCache<>(maximumSize);
+    }
+
+    /**
+     * See {@link PatternCache#disable()}.
+     */
+    public static void disable() {
+        cache = null;
+    }
+
+    /**
+     * @return Whether the cache is enabled.
+     */
+    public static boolean isEnabled() {
+        return cache != null;
+    }
+
+    /**
+     * See {@link PatternCache#clear()}.
+     */
+    public static void clear() {
+        ConcurrentLruCache<Key, ReadableRegexPattern> currentCache = cache;
+        if (currentCache != null) {
+            currentCache.clear();
+        }
+    }
+
+    /**
+     * @return See {@link PatternCache#statistics()}.
+     */
+    public static PatternCacheStatistics statistics() {
+        ConcurrentLruCache<Key, ReadableRegexPattern> currentCache = cache;
+        if (currentCache == null) {
+            return new PatternCacheStatistics(0, 0, 0, 0);
+        }
+        return new PatternCacheStatistics(currentCache.hitCount(), currentCache.missCount(),
+                currentCache.evictionCount(), currentCache.size());
+    }
+
+    /**
+     * Returns the pattern from the cache. If the cache is disabled or the pattern is not in the cache, it is compiled.
+     * @param key      The key of the pattern.
+     * @param compiler Function that compiles the pattern of the key.
+     * @return The pattern.
+     */
+    public static ReadableRegexPattern get(Key key, Function<Key, ReadableRegexPattern> compiler) {
+        ConcurrentLruCache<Key, ReadableRegexPattern> currentCache = cache;
+        if (currentCache == null) {
+            return compiler.apply(key);
+        }
+        return currentCache.get(key, compiler);
+    }
+
+    /**
+     * Everything that determines the compiled pattern. The tree is part of the key, because different trees can render
+     * to the same regular expression, while the pattern keeps its tree for splicing it into other builders and for
+     * analysing it.
+     */
+    public static final class Key {
+        private final String regex;
+        private final Set<PatternFlag> flags;
+        private final List<String> groups;
+        private final RegexNode rootNode;
+
+        /**
+         * Constructor.
+         * @param regex    The regular expression.
+         * @param flags    The enabled flags.
+         * @param groups   The names of the groups.
+         * @param rootNode The root of the tree the regular expression is rendered from.
+         */
+        public Key(String regex, Set<PatternFlag> flags, List<String> groups, RegexNode rootNode) {
+            this.regex = regex;
+            this.flags = flags;
+            this.groups = groups;
+            this.rootNode = rootNode;
+        }
+
+        public String getRegex() {
+            return regex;
+        }
+
+        public Set<PatternFlag> getFlags() {
+            return flags;
+        }
+
+        public List<String> getGroups() {
+            return groups;
+        }
+
+        public RegexNode getRootNode() {
+            return rootNode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return regex.equals(key.regex) && flags.equals(key.flags) && groups.equals(key.groups)
+                    && rootNode.equals(key.rootNode);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(regex, flags, groups, rootNode);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Caching of compiled patterns.
+ */
+package io.github.ricoapon.readableregex.internal.cache;
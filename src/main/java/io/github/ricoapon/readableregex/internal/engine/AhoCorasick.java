@@ -0,0 +1,242 @@
+package io.github.ricoapon.readableregex.internal.engine;
+
+import io.github.ricoapon.readableregex.PatternFlag;
+import io.github.ricoapon.readableregex.internal.ast.AlternationNode;
+import io.github.ricoapon.readableregex.internal.ast.LiteralNode;
+import io.github.ricoapon.readableregex.internal.ast.RegexNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick automaton that finds the literals of an alternation such as {@code (?:foo|bar|baz)} in a text. The time
+ * needed to search is linear in the length of the text and does not depend on the number of literals, whereas the JDK
+ * tries every literal at every position of the text.
+ * <p>
+ * The automaton finds the same match as the JDK: the match that starts first and, of the literals that match at that
+ * position, the one that comes first in the alternation.
+ * <p>
+ * The trie is stored in primitive arrays. The states are numbered in breadth-first order and the edges of every state
+ * are stored next to each other, sorted by character, so that the edge for a character is found using a binary search.
+ */
+public final class AhoCorasick {
+    /** The state in which no character of a literal has been read. */
+    private static final int ROOT = 0;
+
+    /** The edges of state {@code s} are stored at the indices {@code edgeStarts[s]} up to {@code edgeStarts[s + 1]}. */
+    private final int[] edgeStarts;
+    private final char[] edgeCharacters;
+    private final int[] edgeTargets;
+
+    /** The next state of the root for every ASCII character. */
+    private final int[] rootTargets = new int[128];
+
+    /** The longest proper suffix of every state that is also a state. */
+    private final int[] failures;
+
+    /** The number of characters of every state. */
+    private final int[] depths;
+
+    /** The index in the alternation of the literal that ends in every state, or {@code -1} if no literal ends there. */
+    private final int[] literals;
+
+    /** The longest proper suffix of every state in which a literal ends, or {@code -1} if there is none. */
+    private final int[] outputs;
+
+    /** The maximum number of characters of a literal. */
+    private final int maxLength;
+
+    private final boolean caseInsensitive;
+
+    private AhoCorasick(List<String> values, boolean caseInsensitive) {
+        this.caseInsensitive = caseInsensitive;
+
+        // Build the trie with maps first. The literals that occur more than once keep their first index.
+        List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        List<Integer> literalList = new ArrayList<>();
+        children.add(new TreeMap<>());
+        literalList.add(-1);
+        int longest = 0;
+        for (int i = 0; i < values.size(); i++) {
+            String value = values.get(i);
+            longest = Math.max(longest, value.length());
+            int state = ROOT;
+            for (int j = 0; j < value.length(); j++) {
+                char c = fold(value.charAt(j));
+                Integer next = children.get(state).get(c);
+                if (next == null) {
+                    next = children.size();
+                    children.add(new TreeMap<>());
+                    literalList.add(-1);
+                    children.get(state).put(c, next);
+                }
+                state = next;
+            }
+            if (literalList.get(state) < 0) {
+                literalList.set(state, i);
+            }
+        }
+        this.maxLength = longest;
+
+        // Number the states in breadth-first order, so that the failure of a state is always numbered before it.
+        int nrOfStates = children.size();
+        int[] order = new int[nrOfStates];
+        int[] newIds = new int[nrOfStates];
+        int size = 1;
+        for (int i = 0; i < size; i++) {
+            for (int child : children.get(order[i]).values()) {
+                newIds[child] = size;
+                order[size++] = child;
+            }
+        }
+
+        this.edgeStarts = new int[nrOfStates + 1];
+        this.edgeCharacters = new char[nrOfStates - 1];
+        this.edgeTargets = new int[nrOfStates - 1];
+        this.failures = new int[nrOfStates];
+        this.depths = new int[nrOfStates];
+        this.literals = new int[nrOfStates];
+        this.outputs = new int[nrOfStates];
+        int nrOfEdges = 0;
+        for (int state = 0; state < nrOfStates; state++) {
+            edgeStarts[state] = nrOfEdges;
+            literals[state] = literalList.get(order[state]);
+            for (Map.Entry<Character, Integer> edge : children.get(order[state]).entrySet()) {
+                edgeCharacters[nrOfEdges] = edge.getKey();
+                edgeTargets[nrOfEdges] = newIds[edge.getValue()];
+                nrOfEdges++;
+            }
+        }
+        edgeStarts[nrOfStates] = nrOfEdges;
+        for (char c = 0; c < 128; c++) {
+            rootTargets[c] = Math.max(child(ROOT, c), ROOT);
+        }
+
+        Arrays.fill(outputs, -1);
+        for (int state = 0; state < nrOfStates; state++) {
+            for (int edge = edgeStarts[state]; edge < edgeStarts[state + 1]; edge++) {
+                int target = edgeTargets[edge];
+                depths[target] = depths[state] + 1;
+                failures[target] = state == ROOT ? ROOT : next(failures[state], edgeCharacters[edge]);
+                int failure = failures[target];
+                outputs[target] = literals[failure] >= 0 ? failure : outputs[failure];
+            }
+        }
+    }
+
+    /**
+     * @param rootNode The root of the tree.
+     * @param flags    The flags that the pattern is compiled with.
+     * @return The automaton, or {@code null} if the tree is not an alternation of at least two literals. Literals that
+     * are empty or contain surrogates are not supported either.
+     */
+    public static AhoCorasick create(RegexNode rootNode, Set<PatternFlag> flags) {
+        if (!(rootNode instanceof AlternationNode) || rootNode.children().size() < 2) {
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        for (RegexNode alternative : rootNode.children()) {
+            if (!(alternative instanceof LiteralNode)) {
+                return null;
+            }
+            String value = ((LiteralNode) alternative).getValue();
+            if (value.isEmpty() || value.chars().anyMatch(c -> Character.isSurrogate((char) c))) {
+                return null;
+            }
+            values.add(value);
+        }
+        return new AhoCorasick(values, flags.contains(PatternFlag.CASE_INSENSITIVE));
+    }
+
+    /**
+     * The JDK only ignores the case of ASCII characters, unless Unicode case folding is enabled.
+     */
+    private char fold(char c) {
+        return caseInsensitive && c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    /**
+     * @return The target of the edge of the state with the character, or {@code -1} if there is no such edge.
+     */
+    private int child(int state, char c) {
+        int low = edgeStarts[state];
+        int high = edgeStarts[state + 1] - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char middleCharacter = edgeCharacters[middle];
+            if (middleCharacter < c) {
+                low = middle + 1;
+            } else if (middleCharacter > c) {
+                high = middle - 1;
+            } else {
+                return edgeTargets[middle];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return The state after reading the (folded) character, following failures until an edge is found.
+     */
+    private int next(int state, char c) {
+        while (true) {
+            if (state == ROOT) {
+                return c < 128 ? rootTargets[c] : Math.max(child(ROOT, c), ROOT);
+            }
+            int target = child(state, c);
+            if (target >= 0) {
+                return target;
+            }
+            state = failures[state];
+        }
+    }
+
+    /**
+     * @param text The text.
+     * @return Whether the full text is one of the literals.
+     */
+    public boolean matchesExactly(CharSequence text) {
+        int state = ROOT;
+        for (int i = 0; i < text.length() && state >= 0; i++) {
+            state = child(state, fold(text.charAt(i)));
+        }
+        return state >= 0 && literals[state] >= 0;
+    }
+
+    /**
+     * @param text The text.
+     * @param from The index to start searching from.
+     * @return The start and end of the first match, or {@code null} if there is no match.
+     */
+    public int[] find(CharSequence text, int from) {
+        int bestStart = Integer.MAX_VALUE;
+        int bestLiteral = -1;
+        int bestEnd = -1;
+        int state = ROOT;
+        int length = text.length();
+        // A match that starts at or before the best start, ends at most the maximum length after it.
+        for (int i = from; i < length && i - maxLength < bestStart; i++) {
+            state = next(state, fold(text.charAt(i)));
+            for (int output = literals[state] >= 0 ? state : outputs[state]; output >= 0; output = outputs[output]) {
+                int start = i + 1 - depths[output];
+                if (start < bestStart || (start == bestStart && literals[output] < bestLiteral)) {
+                    bestStart = start;
+                    bestLiteral = literals[output];
+                    bestEnd = i + 1;
+                }
+            }
+        }
+        return bestLiteral >= 0 ? new int[]{bestStart, bestEnd} : null;
+    }
+
+    /**
+     * @return The number of states of the trie.
+     */
+    int nrOfStates() {
+        return depths.length;
+    }
+}
@@ -0,0 +1,108 @@
+package io.github.ricoapon.readableregex.internal.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Divides all code points into classes, such that all code points in the same class are accepted by exactly the same
+ * {@link Nfa#CHAR} states. The {@link Dfa} only has to store a transition per class instead of per code point.
+ */
+final class Alphabet {
+    /** The class of every ASCII character. */
+    private final int[] asciiClasses = new int[128];
+
+    /** The first code point of every interval. The intervals cover all code points. */
+    private final int[] intervalStarts;
+
+    /** The class of every interval. */
+    private final int[] intervalClasses;
+
+    /** A code point that belongs to the class, for every class. */
+    private final int[] representatives;
+
+    /**
+     * Constructor.
+     * @param nfa The automaton.
+     */
+    Alphabet(Nfa nfa) {
+        Set<CharSet> uniqueCharSets = new LinkedHashSet<>();
+        TreeSet<Integer> boundaries = new TreeSet<>();
+        boundaries.add(0);
+        for (int state = 0; state < nfa.size(); state++) {
+            if (nfa.type(state) != Nfa.CHAR) {
+                continue;
+            }
+            CharSet charSet = nfa.charSet(state);
+            uniqueCharSets.add(charSet);
+            for (int i = 0; i < charSet.nrOfRanges(); i++) {
+                boundaries.add(charSet.rangeStart(i));
+                if (charSet.rangeEnd(i) < CharSet.MAX_CODE_POINT) {
+                    boundaries.add(charSet.rangeEnd(i) + 1);
+                }
+            }
+        }
+
+        List<CharSet> charSets = new ArrayList<>(uniqueCharSets);
+
+        // Intervals that are in exactly the same sets belong to the same class.
+        intervalStarts = boundaries.stream().mapToInt(Integer::intValue).toArray();
+        intervalClasses = new int[intervalStarts.length];
+        Map<BitSet, Integer> classes = new HashMap<>();
+        List<Integer> representativeList = new ArrayList<>();
+        for (int i = 0; i < intervalStarts.length; i++) {
+            BitSet membership = new BitSet();
+            for (int j = 0; j < charSets.size(); j++) {
+                if (charSets.get(j).contains(intervalStarts[i])) {
+                    membership.set(j);
+                }
+            }
+            Integer classIndex = classes.get(membership);
+            if (classIndex == null) {
+                classIndex = classes.size();
+                classes.put(membership, classIndex);
+                representativeList.add(intervalStarts[i]);
+            }
+            intervalClasses[i] = classIndex;
+        }
+        representatives = representativeList.stream().mapToInt(Integer::intValue).toArray();
+
+        for (int c = 0; c < asciiClasses.length; c++) {
+            asciiClasses[c] = classOfInterval(c);
+        }
+    }
+
+    private int classOfInterval(int codePoint) {
+        int index = Arrays.binarySearch(intervalStarts, codePoint);
+        return intervalClasses[index >= 0 ? index : -index - 2];
+    }
+
+    /**
+     * @param codePoint The code point.
+     * @return The class of the code point.
+     */
+    int classOf(int codePoint) {
+        return codePoint < 128 ? asciiClasses[codePoint] : classOfInterval(codePoint);
+    }
+
+    /**
+     * @return The number of classes.
+     */
+    int size() {
+        return representatives.length;
+    }
+
+    /**
+     * @param classIndex The class.
+     * @return A code point that belongs to the class.
+     */
+    int representative(int classIndex) {
+        return representatives[classIndex];
+    }
+}
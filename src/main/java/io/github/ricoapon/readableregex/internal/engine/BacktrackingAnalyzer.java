@@ -0,0 +1,428 @@
+package io.github.ricoapon.readableregex.internal.engine;
+
+import io.github.ricoapon.readableregex.BacktrackingComplexity;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Determines the {@link BacktrackingComplexity} of an {@link Nfa}.
+ * <p>
+ * The automaton is first converted into a graph without the states that do not consume a character: every
+ * {@link Nfa#CHAR} state becomes a node and the edges that enter a node are labeled with the characters of that node.
+ * A backtracking engine tries every path through this graph that matches the text, so the time it needs depends on the
+ * number of paths that match the same text:
+ * <ul>
+ *     <li>The number is exponential if a cycle can be followed in two different ways with the same text. This is the
+ *     case if a strongly connected component of the product of the graph with itself contains both a pair of equal nodes
+ *     and a pair of different nodes, or if two edges between the same nodes are part of a cycle.</li>
+ *     <li>Otherwise, the number is polynomial if there are two different nodes {@code p} and {@code q} and a text that
+ *     leads from {@code p} to {@code p}, from {@code p} to {@code q} and from {@code q} to {@code q}.</li>
+ * </ul>
+ * Anchors are assumed to always hold, so the result is an upper bound.
+ */
+public final class BacktrackingAnalyzer {
+    /** The maximum number of steps the analysis may take. Larger automata are not analyzed. */
+    static final int MAXIMUM_NR_OF_STEPS = 1_000_000;
+
+    private final Nfa nfa;
+
+    /** The state of every node. Node 0 is the start of the automaton and does not have a state. */
+    private final List<Integer> nodeStates = new ArrayList<>();
+
+    /** The node of every state, or {@code -1} if the state is not a node (yet). */
+    private final int[] nodeOfState;
+
+    /** The nodes that can be reached from every node by consuming a single character. */
+    private final List<int[]> successors = new ArrayList<>();
+
+    /** Whether an edge of {@link #successors} can be followed in more than one way. */
+    private final List<boolean[]> ambiguousEdges = new ArrayList<>();
+
+    /** The classes of the {@link Alphabet} that are accepted by every node. */
+    private final List<BitSet> labels = new ArrayList<>();
+
+    /** The strongly connected component of every node. */
+    private final int[] components;
+
+    /** Whether every node is part of a cycle. */
+    private final boolean[] onCycle;
+
+    private int nrOfSteps;
+
+    private BacktrackingAnalyzer(Nfa nfa) {
+        this.nfa = nfa;
+        this.nodeOfState = new int[nfa.size()];
+        Arrays.fill(nodeOfState, -1);
+        buildGraph();
+        this.components = stronglyConnectedComponents(successors);
+        this.onCycle = new boolean[successors.size()];
+        int[] componentSizes = new int[successors.size()];
+        for (int component : components) {
+            componentSizes[component]++;
+        }
+        for (int node = 0; node < successors.size(); node++) {
+            onCycle[node] = componentSizes[components[node]] > 1;
+            for (int successor : successors.get(node)) {
+                onCycle[node] |= successor == node;
+            }
+        }
+    }
+
+    /**
+     * @param nfa The automaton.
+     * @return How the time a backtracking engine needs grows with the length of the text.
+     */
+    public static BacktrackingComplexity analyze(Nfa nfa) {
+        try {
+            BacktrackingAnalyzer analyzer = new BacktrackingAnalyzer(nfa);
+            if (analyzer.hasExponentialAmbiguity()) {
+                return BacktrackingComplexity.EXPONENTIAL;
+            }
+            return analyzer.hasPolynomialAmbiguity() ? BacktrackingComplexity.POLYNOMIAL : BacktrackingComplexity.LINEAR;
+        } catch (TooManySteps e) {
+            return BacktrackingComplexity.UNKNOWN;
+        }
+    }
+
+    private void step() {
+        if (++nrOfSteps > MAXIMUM_NR_OF_STEPS) {
+            throw new TooManySteps();
+        }
+    }
+
+    private int nodeOf(int state) {
+        if (nodeOfState[state] < 0) {
+            nodeOfState[state] = nodeStates.size();
+            nodeStates.add(state);
+        }
+        return nodeOfState[state];
+    }
+
+    private void buildGraph() {
+        Alphabet alphabet = new Alphabet(nfa);
+        nodeStates.add(-1);
+        // Nodes are added while the graph is built, so the loop ends when all reachable nodes have been handled.
+        for (int node = 0; node < nodeStates.size(); node++) {
+            int state = nodeStates.get(node);
+            addEdges(node == 0 ? nfa.startState() : nfa.next1(state));
+
+            BitSet label = new BitSet();
+            for (int classIndex = 0; node > 0 && classIndex < alphabet.size(); classIndex++) {
+                step();
+                label.set(classIndex, nfa.charSet(state).contains(alphabet.representative(classIndex)));
+            }
+            labels.add(label);
+        }
+    }
+
+    /**
+     * Adds the edges to all the {@link Nfa#CHAR} states that can be reached without consuming a character.
+     * @param from The state to start from.
+     */
+    private void addEdges(int from) {
+        // The number of ways every state can be entered. A state that can be entered in two ways can be reached in two ways.
+        Map<Integer, Integer> inDegrees = new HashMap<>();
+        Deque<Integer> stack = new ArrayDeque<>();
+        inDegrees.put(from, 1);
+        stack.push(from);
+        while (!stack.isEmpty()) {
+            step();
+            for (int next : epsilonSuccessors(stack.pop())) {
+                if (inDegrees.merge(next, 1, Integer::sum) == 1) {
+                    stack.push(next);
+                }
+            }
+        }
+
+        Set<Integer> ambiguousStates = new HashSet<>();
+        inDegrees.forEach((state, inDegree) -> {
+            if (inDegree > 1) {
+                stack.push(state);
+            }
+        });
+        while (!stack.isEmpty()) {
+            step();
+            int state = stack.pop();
+            if (ambiguousStates.add(state)) {
+                for (int next : epsilonSuccessors(state)) {
+                    stack.push(next);
+                }
+            }
+        }
+
+        List<Integer> targets = new ArrayList<>();
+        for (int state : inDegrees.keySet()) {
+            if (nfa.type(state) == Nfa.CHAR) {
+                targets.add(state);
+            }
+        }
+        int[] edges = new int[targets.size()];
+        boolean[] ambiguous = new boolean[targets.size()];
+        for (int i = 0; i < targets.size(); i++) {
+            edges[i] = nodeOf(targets.get(i));
+            ambiguous[i] = ambiguousStates.contains(targets.get(i));
+        }
+        successors.add(edges);
+        ambiguousEdges.add(ambiguous);
+    }
+
+    private int[] epsilonSuccessors(int state) {
+        switch (nfa.type(state)) {
+            case Nfa.SPLIT:
+                return new int[]{nfa.next1(state), nfa.next2(state)};
+            case Nfa.SAVE:
+            case Nfa.ASSERT:
+                return new int[]{nfa.next1(state)};
+            default:
+                return new int[0];
+        }
+    }
+
+    private boolean overlap(int node1, int node2) {
+        return labels.get(node1).intersects(labels.get(node2));
+    }
+
+    private boolean overlap(int node1, int node2, int node3) {
+        BitSet intersection = (BitSet) labels.get(node1).clone();
+        intersection.and(labels.get(node2));
+        return intersection.intersects(labels.get(node3));
+    }
+
+    private boolean hasExponentialAmbiguity() {
+        for (int node = 0; node < successors.size(); node++) {
+            for (int i = 0; i < successors.get(node).length; i++) {
+                if (ambiguousEdges.get(node)[i] && components[node] == components[successors.get(node)[i]]) {
+                    return true;
+                }
+            }
+        }
+
+        Set<Integer> handledComponents = new HashSet<>();
+        for (int node = 0; node < successors.size(); node++) {
+            if (onCycle[node] && handledComponents.add(components[node]) && hasAmbiguousCycle(components[node])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param component The strongly connected component.
+     * @return Whether the pairs of nodes of the component that can be reached from a pair of equal nodes, contain a
+     * cycle with both equal and different nodes.
+     */
+    private boolean hasAmbiguousCycle(int component) {
+        int nrOfNodes = successors.size();
+        Map<Long, Integer> pairIds = new HashMap<>();
+        List<Long> pairs = new ArrayList<>();
+        for (int node = 0; node < nrOfNodes; node++) {
+            if (components[node] == component) {
+                pairIds.put((long) node * nrOfNodes + node, pairs.size());
+                pairs.add((long) node * nrOfNodes + node);
+            }
+        }
+
+        List<int[]> pairSuccessors = new ArrayList<>();
+        for (int i = 0; i < pairs.size(); i++) {
+            int node1 = (int) (pairs.get(i) / nrOfNodes);
+            int node2 = (int) (pairs.get(i) % nrOfNodes);
+            List<Integer> nextPairs = new ArrayList<>();
+            for (int next1 : successors.get(node1)) {
+                for (int next2 : successors.get(node2)) {
+                    step();
+                    if (components[next1] == component && components[next2] == component && overlap(next1, next2)) {
+                        long pair = (long) next1 * nrOfNodes + next2;
+                        Integer id = pairIds.get(pair);
+                        if (id == null) {
+                            id = pairs.size();
+                            pairIds.put(pair, id);
+                            pairs.add(pair);
+                        }
+                        nextPairs.add(id);
+                    }
+                }
+            }
+            pairSuccessors.add(nextPairs.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        int[] pairComponents = stronglyConnectedComponents(pairSuccessors);
+        BitSet withEqualNodes = new BitSet();
+        BitSet withDifferentNodes = new BitSet();
+        for (int i = 0; i < pairs.size(); i++) {
+            boolean equalNodes = pairs.get(i) / nrOfNodes == pairs.get(i) % nrOfNodes;
+            (equalNodes ? withEqualNodes : withDifferentNodes).set(pairComponents[i]);
+        }
+        return withEqualNodes.intersects(withDifferentNodes);
+    }
+
+    private boolean hasPolynomialAmbiguity() {
+        List<int[]> predecessors = new ArrayList<>();
+        List<List<Integer>> predecessorLists = new ArrayList<>();
+        for (int node = 0; node < successors.size(); node++) {
+            predecessorLists.add(new ArrayList<>());
+        }
+        for (int node = 0; node < successors.size(); node++) {
+            for (int successor : successors.get(node)) {
+                predecessorLists.get(successor).add(node);
+            }
+        }
+        for (List<Integer> predecessorList : predecessorLists) {
+            predecessors.add(predecessorList.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        for (int q = 0; q < successors.size(); q++) {
+            if (!onCycle[q]) {
+                continue;
+            }
+            BitSet reachesQ = reachableNodes(q, predecessors);
+            for (int p = 0; p < successors.size(); p++) {
+                if (onCycle[p] && components[p] != components[q] && reachesQ.get(p) && hasPolynomialPath(p, q, reachesQ)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private BitSet reachableNodes(int from, List<int[]> edges) {
+        BitSet reached = new BitSet();
+        Deque<Integer> stack = new ArrayDeque<>();
+        reached.set(from);
+        stack.push(from);
+        while (!stack.isEmpty()) {
+            for (int next : edges.get(stack.pop())) {
+                step();
+                if (!reached.get(next)) {
+                    reached.set(next);
+                    stack.push(next);
+                }
+            }
+        }
+        return reached;
+    }
+
+    /**
+     * @param p        The first node.
+     * @param q        The second node.
+     * @param reachesQ The nodes from which {@code q} can be reached.
+     * @return Whether there is a text that leads from {@code p} to {@code p}, from {@code p} to {@code q} and from
+     * {@code q} to {@code q}.
+     */
+    private boolean hasPolynomialPath(int p, int q, BitSet reachesQ) {
+        long nrOfNodes = successors.size();
+        long target = (p * nrOfNodes + q) * nrOfNodes + q;
+        Set<Long> visited = new HashSet<>();
+        Deque<Long> queue = new ArrayDeque<>();
+        long start = (p * nrOfNodes + p) * nrOfNodes + q;
+        visited.add(start);
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            long triple = queue.poll();
+            int node1 = (int) (triple / nrOfNodes / nrOfNodes);
+            int node2 = (int) (triple / nrOfNodes % nrOfNodes);
+            int node3 = (int) (triple % nrOfNodes);
+            for (int next1 : successors.get(node1)) {
+                for (int next2 : successors.get(node2)) {
+                    for (int next3 : successors.get(node3)) {
+                        step();
+                        if (components[next1] != components[p] || !reachesQ.get(next2) || components[next3] != components[q]
+                                || !overlap(next1, next2, next3)) {
+                            continue;
+                        }
+                        long nextTriple = (next1 * nrOfNodes + next2) * nrOfNodes + next3;
+                        if (nextTriple == target) {
+                            return true;
+                        } else if (visited.add(nextTriple)) {
+                            queue.add(nextTriple);
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tarjan's algorithm, without recursion so that large graphs do not overflow the stack.
+     * @param edges The successors of every node.
+     * @return The strongly connected component of every node. The components are numbered from 0.
+     */
+    static int[] stronglyConnectedComponents(List<int[]> edges) {
+        int nrOfNodes = edges.size();
+        int[] indices = new int[nrOfNodes];
+        int[] lowLinks = new int[nrOfNodes];
+        int[] components = new int[nrOfNodes];
+        boolean[] onStack = new boolean[nrOfNodes];
+        Arrays.fill(indices, -1);
+        int[] stack = new int[nrOfNodes];
+        int stackSize = 0;
+        int[] callNodes = new int[nrOfNodes];
+        int[] callEdges = new int[nrOfNodes];
+        int callSize = 0;
+        int nextIndex = 0;
+        int nrOfComponents = 0;
+
+        for (int root = 0; root < nrOfNodes; root++) {
+            if (indices[root] >= 0) {
+                continue;
+            }
+            indices[root] = nextIndex;
+            lowLinks[root] = nextIndex++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+            callNodes[callSize] = root;
+            callEdges[callSize++] = 0;
+
+            while (callSize > 0) {
+                int node = callNodes[callSize - 1];
+                int[] nodeEdges = edges.get(node);
+                if (callEdges[callSize - 1] < nodeEdges.length) {
+                    int next = nodeEdges[callEdges[callSize - 1]++];
+                    if (indices[next] < 0) {
+                        indices[next] = nextIndex;
+                        lowLinks[next] = nextIndex++;
+                        stack[stackSize++] = next;
+                        onStack[next] = true;
+                        callNodes[callSize] = next;
+                        callEdges[callSize++] = 0;
+                    } else if (onStack[next]) {
+                        lowLinks[node] = Math.min(lowLinks[node], indices[next]);
+                    }
+                    continue;
+                }
+
+                callSize--;
+                if (lowLinks[node] == indices[node]) {
+                    int member;
+                    do {
+                        member = stack[--stackSize];
+                        onStack[member] = false;
+                        components[member] = nrOfComponents;
+                    } while (member != node);
+                    nrOfComponents++;
+                }
+                if (callSize > 0) {
+                    int parent = callNodes[callSize - 1];
+                    lowLinks[parent] = Math.min(lowLinks[parent], lowLinks[node]);
+                }
+            }
+        }
+        return components;
+    }
+
+    /**
+     * Thrown when the analysis takes too many steps.
+     */
+    private static final class TooManySteps extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+    }
+}
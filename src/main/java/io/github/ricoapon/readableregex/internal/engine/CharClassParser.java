@@ -0,0 +1,189 @@
+package io.github.ricoapon.readableregex.internal.engine;
+
+/**
+ * Parses the regex of a {@link io.github.ricoapon.readableregex.internal.ast.CharacterClassNode} into a {@link CharSet}.
+ * <p>
+ * Only the syntax that is common for the builder is supported: {@code .}, the predefined classes {@code \d}, {@code \s}
+ * and {@code \w} (and their negations), escaped characters and a single level of brackets with characters and ranges.
+ * Everything else, such as nested classes, intersections and Unicode properties, is not supported.
+ */
+public final class CharClassParser {
+    private final String regex;
+    private final boolean caseInsensitive;
+    private int position;
+
+    private CharClassParser(String regex, boolean caseInsensitive) {
+        this.regex = regex;
+        this.caseInsensitive = caseInsensitive;
+    }
+
+    /**
+     * @param regex           The class written in the syntax of {@link java.util.regex.Pattern}.
+     * @param caseInsensitive Whether {@link java.util.regex.Pattern#CASE_INSENSITIVE} is enabled.
+     * @param dotAll          Whether {@link java.util.regex.Pattern#DOTALL} is enabled.
+     * @return The characters that are matched by the class, or {@code null} if the syntax is not supported.
+     */
+    public static CharSet parse(String regex, boolean caseInsensitive, boolean dotAll) {
+        if (regex.equals(".")) {
+            return dotAll ? CharSet.ALL : CharSet.DOT;
+        }
+
+        CharClassParser parser = new CharClassParser(regex, caseInsensitive);
+        CharSet result;
+        try {
+            result = regex.startsWith("[") ? parser.parseBrackets() : parser.parseEscape();
+        } catch (UnsupportedSyntax e) {
+            return null;
+        }
+        return parser.position == regex.length() ? result : null;
+    }
+
+    private boolean hasNext() {
+        return position < regex.length();
+    }
+
+    private int peek() {
+        if (!hasNext()) {
+            throw new UnsupportedSyntax();
+        }
+        return regex.codePointAt(position);
+    }
+
+    private int next() {
+        int codePoint = peek();
+        position += Character.charCount(codePoint);
+        return codePoint;
+    }
+
+    private CharSet fold(CharSet charSet) {
+        return caseInsensitive ? charSet.withAsciiCaseFolding() : charSet;
+    }
+
+    private CharSet parseBrackets() {
+        next();
+        boolean negated = false;
+        if (hasNext() && peek() == '^') {
+            next();
+            negated = true;
+        }
+
+        CharSet result = CharSet.EMPTY;
+        boolean first = true;
+        while (first || peek() != ']') {
+            result = result.union(parseBracketItem(first));
+            first = false;
+        }
+        next();
+
+        // The case of the characters is folded before the class is negated, just like the JDK does.
+        return negated ? result.complement() : result;
+    }
+
+    private CharSet parseBracketItem(boolean first) {
+        int codePoint = peek();
+        if (codePoint == '[' || (codePoint == '&' && regex.startsWith("&&", position))) {
+            throw new UnsupportedSyntax();
+        }
+
+        int start;
+        if (codePoint == '\\') {
+            next();
+            int escaped = next();
+            CharSet predefinedClass = predefinedClass(escaped);
+            if (predefinedClass != null) {
+                // A predefined class cannot be the start of a range, so a dash after it is a normal character.
+                return predefinedClass;
+            }
+            start = escapedCharacter(escaped);
+        } else {
+            start = next();
+            if (start == ']' && !first) {
+                throw new UnsupportedSyntax();
+            }
+        }
+
+        if (!regex.startsWith("-", position) || regex.startsWith("-]", position)) {
+            return fold(CharSet.of(start));
+        }
+        next();
+
+        int end = next();
+        if (end == '\\') {
+            end = escapedCharacter(next());
+        } else if (end == '[') {
+            throw new UnsupportedSyntax();
+        }
+
+        if (start > end) {
+            throw new UnsupportedSyntax();
+        }
+        return fold(CharSet.range(start, end));
+    }
+
+    private CharSet parseEscape() {
+        next();
+        int escaped = next();
+        CharSet predefinedClass = predefinedClass(escaped);
+        return predefinedClass != null ? predefinedClass : fold(CharSet.of(escapedCharacter(escaped)));
+    }
+
+    /**
+     * @param codePoint The character after the backslash.
+     * @return The characters of the predefined class, or {@code null} if it is not a predefined class.
+     */
+    private static CharSet predefinedClass(int codePoint) {
+        switch (codePoint) {
+            case 'd':
+                return CharSet.DIGIT;
+            case 'D':
+                return CharSet.DIGIT.complement();
+            case 's':
+                return CharSet.WHITESPACE;
+            case 'S':
+                return CharSet.WHITESPACE.complement();
+            case 'w':
+                return CharSet.WORD;
+            case 'W':
+                return CharSet.WORD.complement();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @param codePoint The character after the backslash.
+     * @return The character that is matched by the escape.
+     */
+    private static int escapedCharacter(int codePoint) {
+        switch (codePoint) {
+            case 't':
+                return '\t';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 'f':
+                return '\f';
+            case 'a':
+                return 0x07;
+            case 'e':
+                return 0x1B;
+            default:
+                break;
+        }
+
+        if ((codePoint >= 'a' && codePoint <= 'z') || (codePoint >= 'A' && codePoint <= 'Z')
+                || (codePoint >= '0' && codePoint <= '9')) {
+            // Escapes such as \p{L}, \x41 or \0101 are not supported.
+            throw new UnsupportedSyntax();
+        }
+        return codePoint;
+    }
+
+    /**
+     * Thrown when the regex contains syntax that is not supported.
+     */
+    private static final class UnsupportedSyntax extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+    }
+}
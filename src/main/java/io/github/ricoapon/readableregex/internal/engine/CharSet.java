@@ -0,0 +1,254 @@
+package io.github.ricoapon.readableregex.internal.engine;
+
+import java.util.Arrays;
+
+/**
+ * Immutable set of code points, stored as sorted and non-overlapping ranges.
+ */
+public final class CharSet {
+    /** The highest code point. */
+    public static final int MAX_CODE_POINT = Character.MAX_CODE_POINT;
+
+    /** The empty set. */
+    public static final CharSet EMPTY = new CharSet(new int[0]);
+
+    /** The set with all code points. */
+    public static final CharSet ALL = range(0, MAX_CODE_POINT);
+
+    /** The characters matched by {@code \d}. */
+    public static final CharSet DIGIT = range('0', '9');
+
+    /** The characters matched by {@code \w}. */
+    public static final CharSet WORD = ofRanges('0', '9', 'A', 'Z', '_', '_', 'a', 'z');
+
+    /** The characters matched by {@code \s}. */
+    public static final CharSet WHITESPACE = ofRanges('\t', '\r', ' ', ' ');
+
+    /** The line terminators. These are not matched by {@code .}, unless {@link java.util.regex.Pattern#DOTALL} is enabled. */
+    public static final CharSet LINE_TERMINATOR = ofRanges('\n', '\n', '\r', '\r', 0x85, 0x85, 0x2028, 0x2029);
+
+    /** The characters matched by {@code .}, if {@link java.util.regex.Pattern#DOTALL} is not enabled. */
+    public static final CharSet DOT = LINE_TERMINATOR.complement();
+
+    /** Pairs of inclusive boundaries: {@code [start0, end0, start1, end1, ...]}. */
+    private final int[] ranges;
+
+    /** Bits of the ASCII characters {@code 0-63} that are in the set. */
+    private final long asciiLow;
+
+    /** Bits of the ASCII characters {@code 64-127} that are in the set. */
+    private final long asciiHigh;
+
+    private CharSet(int[] ranges) {
+        this.ranges = ranges;
+        long low = 0;
+        long high = 0;
+        for (int c = 0; c < 128; c++) {
+            if (containsSlow(c)) {
+                if (c < 64) {
+                    low |= 1L << c;
+                } else {
+                    high |= 1L << (c - 64);
+                }
+            }
+        }
+        this.asciiLow = low;
+        this.asciiHigh = high;
+    }
+
+    /**
+     * @param codePoint The code point.
+     * @return Set containing only the code point.
+     */
+    public static CharSet of(int codePoint) {
+        return range(codePoint, codePoint);
+    }
+
+    /**
+     * @param start The first code point of the range.
+     * @param end   The last code point of the range.
+     * @return Set containing all code points from {@code start} up to and including {@code end}.
+     */
+    public static CharSet range(int start, int end) {
+        return ofRanges(start, end);
+    }
+
+    /**
+     * @param boundaries Pairs of inclusive boundaries. The ranges may overlap and do not have to be sorted.
+     * @return Set containing all code points inside the ranges.
+     */
+    public static CharSet ofRanges(int... boundaries) {
+        if (boundaries.length % 2 != 0) {
+            throw new IllegalArgumentException("The boundaries must be given in pairs.");
+        }
+
+        long[] sortedRanges = new long[boundaries.length / 2];
+        for (int i = 0; i < boundaries.length; i += 2) {
+            if (boundaries[i] > boundaries[i + 1]) {
+                throw new IllegalArgumentException("The start of a range cannot be after the end.");
+            }
+            sortedRanges[i / 2] = ((long) boundaries[i] << 32) | boundaries[i + 1];
+        }
+        Arrays.sort(sortedRanges);
+
+        int[] merged = new int[boundaries.length];
+        int size = 0;
+        for (long range : sortedRanges) {
+            int start = (int) (range >>> 32);
+            int end = (int) range;
+            if (size > 0 && start <= merged[size - 1] + 1) {
+                merged[size - 1] = Math.max(merged[size - 1], end);
+            } else {
+                merged[size++] = start;
+                merged[size++] = end;
+            }
+        }
+        return new CharSet(Arrays.copyOf(merged, size));
+    }
+
+    /**
+     * @param codePoint The code point.
+     * @return Whether the code point is in the set.
+     */
+    public boolean contains(int codePoint) {
+        if (codePoint < 64) {
+            return (asciiLow & (1L << codePoint)) != 0;
+        } else if (codePoint < 128) {
+            return (asciiHigh & (1L << (codePoint - 64))) != 0;
+        }
+        return containsSlow(codePoint);
+    }
+
+    private boolean containsSlow(int codePoint) {
+        int low = 0;
+        int high = ranges.length / 2 - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (codePoint < ranges[2 * middle]) {
+                high = middle - 1;
+            } else if (codePoint > ranges[2 * middle + 1]) {
+                low = middle + 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return Whether the set does not contain any code point.
+     */
+    public boolean isEmpty() {
+        return ranges.length == 0;
+    }
+
+    /**
+     * @return The number of ranges.
+     */
+    public int nrOfRanges() {
+        return ranges.length / 2;
+    }
+
+    /**
+     * @param index The index of the range.
+     * @return The first code point of the range.
+     */
+    public int rangeStart(int index) {
+        return ranges[2 * index];
+    }
+
+    /**
+     * @param index The index of the range.
+     * @return The last code point of the range.
+     */
+    public int rangeEnd(int index) {
+        return ranges[2 * index + 1];
+    }
+
+    /**
+     * @param other The other set.
+     * @return Set with all code points that are in this set or in the other set.
+     */
+    public CharSet union(CharSet other) {
+        int[] boundaries = Arrays.copyOf(ranges, ranges.length + other.ranges.length);
+        System.arraycopy(other.ranges, 0, boundaries, ranges.length, other.ranges.length);
+        return ofRanges(boundaries);
+    }
+
+    /**
+     * @return Set with all code points that are not in this set.
+     */
+    public CharSet complement() {
+        int[] boundaries = new int[ranges.length + 2];
+        int size = 0;
+        int next = 0;
+        for (int i = 0; i < ranges.length; i += 2) {
+            if (ranges[i] > next) {
+                boundaries[size++] = next;
+                boundaries[size++] = ranges[i] - 1;
+            }
+            next = ranges[i + 1] + 1;
+        }
+        if (next <= MAX_CODE_POINT) {
+            boundaries[size++] = next;
+            boundaries[size++] = MAX_CODE_POINT;
+        }
+        return new CharSet(Arrays.copyOf(boundaries, size));
+    }
+
+    /**
+     * @param other The other set.
+     * @return Set with all code points that are in both sets.
+     */
+    public CharSet intersection(CharSet other) {
+        return complement().union(other.complement()).complement();
+    }
+
+    /**
+     * Adds the other case of all ASCII letters in the set. This is how {@link java.util.regex.Pattern#CASE_INSENSITIVE}
+     * works if {@link java.util.regex.Pattern#UNICODE_CASE} is not enabled.
+     * @return Set with all code points of this set and the other case of the ASCII letters.
+     */
+    public CharSet withAsciiCaseFolding() {
+        CharSet upper = intersection(range('a', 'z'));
+        CharSet lower = intersection(range('A', 'Z'));
+        int[] boundaries = new int[ranges.length + upper.ranges.length + lower.ranges.length];
+        System.arraycopy(ranges, 0, boundaries, 0, ranges.length);
+        int size = ranges.length;
+        for (int i = 0; i < upper.ranges.length; i++) {
+            boundaries[size++] = upper.ranges[i] - 'a' + 'A';
+        }
+        for (int i = 0; i < lower.ranges.length; i++) {
+            boundaries[size++] = lower.ranges[i] - 'A' + 'a';
+        }
+        return ofRanges(boundaries);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return Arrays.equals(ranges, ((CharSet) o).ranges);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(ranges);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("[");
+        for (int i = 0; i < ranges.length; i += 2) {
+            result.append(String.format("\\x{%x}", ranges[i]));
+            if (ranges[i + 1] != ranges[i]) {
+                result.append(String.format("-\\x{%x}", ranges[i + 1]));
+            }
+        }
+        return result.append(']').toString();
+    }
+}
@@ -0,0 +1,451 @@
+package io.github.ricoapon.readableregex.internal.engine;
+
+import io.github.ricoapon.readableregex.internal.ast.AnchorNode;
+import io.github.ricoapon.readableregex.internal.ast.RegexNode;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Deterministic finite automaton that is constructed lazily from an {@link Nfa}. Matching takes time that is linear in
+ * the length of the text, because every character is handled at most once and never backtracked.
+ * <p>
+ * Every state of the DFA is a set of NFA states. The states and transitions are created while matching, the first time
+ * they are needed. They are stored per thread, so that threads never have to wait on each other. The number of stored
+ * states is limited: when the limit is reached, all the states are thrown away and created again when needed.
+ * <p>
+ * The DFA can only tell whether the text matches, not where the match is or what the groups contain. The only
+ * supported anchors are {@link AnchorNode.Type#START_OF_INPUT} and {@link AnchorNode.Type#END_OF_INPUT}.
+ * <p>
+ * If the automaton was compiled from several trees, the DFA can also tell which of the trees match. Every DFA state
+ * knows the patterns of the {@link Nfa#MATCH} states it contains, so all the trees are matched in a single pass.
+ */
+public final class Dfa {
+    /** The maximum number of states that is stored per thread. */
+    static final int MAXIMUM_NR_OF_CACHED_STATES = 1000;
+
+    /** The state from which no match is possible anymore. */
+    private static final int DEAD_STATE = 0;
+
+    /** Marks transitions that have not been created yet. */
+    private static final int UNKNOWN_STATE = -1;
+
+    private final Nfa nfa;
+    private final Alphabet alphabet;
+
+    /** The NFA states of the first DFA state. */
+    private final int[] startStates;
+
+    /** The NFA states that are added to every DFA state when searching for a match anywhere in the text. */
+    private final int[] restartStates;
+
+    /** The patterns that match the empty text. */
+    private final int[] emptyTextPatterns;
+
+    /** The number of different patterns of the {@link Nfa#MATCH} states. */
+    private final int nrOfPatterns;
+
+    private final ThreadLocal<Cache> anchoredCache;
+    private final ThreadLocal<Cache> unanchoredCache;
+
+    private Dfa(Nfa nfa) {
+        this.nfa = nfa;
+        this.alphabet = new Alphabet(nfa);
+        this.startStates = closure(new int[]{nfa.startState()}, true, false);
+        this.restartStates = closure(new int[]{nfa.startState()}, false, false);
+        this.emptyTextPatterns = patternsOf(closure(new int[]{nfa.startState()}, true, true));
+        this.nrOfPatterns = (int) IntStream.range(0, nfa.size()).filter(state -> nfa.type(state) == Nfa.MATCH)
+                .map(nfa::pattern).distinct().count();
+        this.anchoredCache = ThreadLocal.withInitial(() -> clear(new Cache(false)));
+        this.unanchoredCache = ThreadLocal.withInitial(() -> clear(new Cache(true)));
+    }
+
+    /**
+     * @param nfa The automaton.
+     * @return The DFA, or {@code null} if the automaton contains anchors that are not supported.
+     */
+    public static Dfa create(Nfa nfa) {
+        for (int state = 0; state < nfa.size(); state++) {
+            if (nfa.type(state) == Nfa.ASSERT && !isSupported(nfa.anchor(state))) {
+                return null;
+            }
+        }
+        return new Dfa(nfa);
+    }
+
+    /**
+     * @param node The root of the tree.
+     * @return Whether the tree only contains anchors that are supported. If the tree can be compiled, {@link #create(Nfa)}
+     * then never returns {@code null} for the automaton.
+     */
+    public static boolean supportsAnchorsOf(RegexNode node) {
+        if (node instanceof AnchorNode && !isSupported(((AnchorNode) node).getType())) {
+            return false;
+        }
+        return node.children().stream().allMatch(Dfa::supportsAnchorsOf);
+    }
+
+    private static boolean isSupported(AnchorNode.Type anchor) {
+        return anchor == AnchorNode.Type.START_OF_INPUT || anchor == AnchorNode.Type.END_OF_INPUT;
+    }
+
+    /**
+     * @param text The text.
+     * @return Whether the full text matches.
+     */
+    public boolean matchesExactly(CharSequence text) {
+        if (text.length() == 0) {
+            return emptyTextPatterns.length > 0;
+        }
+
+        Cache cache = anchoredCache.get();
+        int state = cache.startState;
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = codePointAt(text, i);
+            i += Character.charCount(codePoint);
+            state = next(cache, state, alphabet.classOf(codePoint));
+            if (state == DEAD_STATE) {
+                return false;
+            }
+        }
+        return cache.acceptingAtEnd[state];
+    }
+
+    /**
+     * @param text The text.
+     * @return Whether any part of the text matches.
+     */
+    public boolean containsMatch(CharSequence text) {
+        if (text.length() == 0) {
+            return emptyTextPatterns.length > 0;
+        }
+
+        Cache cache = unanchoredCache.get();
+        int state = cache.startState;
+        for (int i = 0; i < text.length(); ) {
+            if (cache.accepting[state]) {
+                return true;
+            } else if (state == DEAD_STATE) {
+                return false;
+            }
+            int codePoint = codePointAt(text, i);
+            i += Character.charCount(codePoint);
+            state = next(cache, state, alphabet.classOf(codePoint));
+        }
+        return cache.acceptingAtEnd[state];
+    }
+
+    /**
+     * @param text The text.
+     * @return The patterns of the {@link Nfa#MATCH} states that the full text reaches.
+     */
+    public BitSet exactlyMatchingPatterns(CharSequence text) {
+        BitSet result = new BitSet(nrOfPatterns);
+        if (text.length() == 0) {
+            addPatterns(result, emptyTextPatterns);
+            return result;
+        }
+
+        Cache cache = anchoredCache.get();
+        int state = cache.startState;
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = codePointAt(text, i);
+            i += Character.charCount(codePoint);
+            state = next(cache, state, alphabet.classOf(codePoint));
+            if (state == DEAD_STATE) {
+                return result;
+            }
+        }
+        addPatterns(result, cache.patternsAtEnd[state]);
+        return result;
+    }
+
+    /**
+     * @param text The text.
+     * @return The patterns of the {@link Nfa#MATCH} states that any part of the text reaches. The text is read until
+     * its end, or until all the patterns have been found.
+     */
+    public BitSet matchingPatterns(CharSequence text) {
+        BitSet result = new BitSet(nrOfPatterns);
+        if (text.length() == 0) {
+            addPatterns(result, emptyTextPatterns);
+            return result;
+        }
+
+        Cache cache = unanchoredCache.get();
+        int state = cache.startState;
+        int nrOfFoundPatterns = 0;
+        for (int i = 0; i < text.length(); ) {
+            nrOfFoundPatterns += addPatterns(result, cache.patterns[state]);
+            if (nrOfFoundPatterns == nrOfPatterns || state == DEAD_STATE) {
+                return result;
+            }
+            int codePoint = codePointAt(text, i);
+            i += Character.charCount(codePoint);
+            state = next(cache, state, alphabet.classOf(codePoint));
+        }
+        addPatterns(result, cache.patternsAtEnd[state]);
+        return result;
+    }
+
+    /**
+     * Finds the longest text that starts at the index and reaches a {@link Nfa#MATCH} state. Empty matches are ignored.
+     * @param text The text.
+     * @param from The index where the match starts.
+     * @return {@code -1} if there is no match, else the end of the match in the upper 32 bits and the lowest pattern of
+     * the {@link Nfa#MATCH} states that the match reaches in the lower 32 bits.
+     */
+    public long longestMatch(CharSequence text, int from) {
+        Cache cache = anchoredCache.get();
+        int state = from == 0 ? cache.startState : cache.restartState;
+        long result = -1;
+        for (int i = from; i < text.length(); ) {
+            int codePoint = codePointAt(text, i);
+            i += Character.charCount(codePoint);
+            state = next(cache, state, alphabet.classOf(codePoint));
+            if (state == DEAD_STATE) {
+                return result;
+            }
+            int[] patterns = i == text.length() ? cache.patternsAtEnd[state] : cache.patterns[state];
+            if (patterns.length > 0) {
+                result = ((long) i << 32) | patterns[0];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param result   The patterns found so far.
+     * @param patterns The patterns to add.
+     * @return The number of patterns that were not in the result yet.
+     */
+    private static int addPatterns(BitSet result, int[] patterns) {
+        int nrOfAddedPatterns = 0;
+        for (int pattern : patterns) {
+            if (!result.get(pattern)) {
+                result.set(pattern);
+                nrOfAddedPatterns++;
+            }
+        }
+        return nrOfAddedPatterns;
+    }
+
+    private static int codePointAt(CharSequence text, int index) {
+        char c = text.charAt(index);
+        return Character.isHighSurrogate(c) ? Character.codePointAt(text, index) : c;
+    }
+
+    /**
+     * Follows all the states that do not consume a character.
+     * @param seeds   The states to start with.
+     * @param atStart Whether the current position is the start of the text.
+     * @param atEnd   Whether the current position is the end of the text.
+     * @return The sorted {@link Nfa#CHAR} and {@link Nfa#MATCH} states that are reached. If the position is not the end
+     * of the text, the {@link AnchorNode.Type#END_OF_INPUT} assertions that are reached are included as well.
+     */
+    private int[] closure(int[] seeds, boolean atStart, boolean atEnd) {
+        boolean[] visited = new boolean[nfa.size()];
+        int[] stack = new int[nfa.size()];
+        int[] result = new int[nfa.size()];
+        int stackSize = 0;
+        int resultSize = 0;
+        for (int seed : seeds) {
+            if (!visited[seed]) {
+                visited[seed] = true;
+                stack[stackSize++] = seed;
+            }
+        }
+
+        while (stackSize > 0) {
+            int state = stack[--stackSize];
+            int next1 = -1;
+            int next2 = -1;
+            switch (nfa.type(state)) {
+                case Nfa.SPLIT:
+                    next1 = nfa.next1(state);
+                    next2 = nfa.next2(state);
+                    break;
+                case Nfa.SAVE:
+                    next1 = nfa.next1(state);
+                    break;
+                case Nfa.ASSERT:
+                    if (nfa.anchor(state) == AnchorNode.Type.START_OF_INPUT ? atStart : atEnd) {
+                        next1 = nfa.next1(state);
+                    } else if (nfa.anchor(state) == AnchorNode.Type.END_OF_INPUT) {
+                        result[resultSize++] = state;
+                    }
+                    break;
+                default:
+                    result[resultSize++] = state;
+                    break;
+            }
+            for (int next : new int[]{next1, next2}) {
+                if (next >= 0 && !visited[next]) {
+                    visited[next] = true;
+                    stack[stackSize++] = next;
+                }
+            }
+        }
+
+        int[] sortedResult = Arrays.copyOf(result, resultSize);
+        Arrays.sort(sortedResult);
+        return sortedResult;
+    }
+
+    /**
+     * @param states The NFA states.
+     * @return The sorted patterns of the {@link Nfa#MATCH} states, without duplicates.
+     */
+    private int[] patternsOf(int[] states) {
+        return Arrays.stream(states).filter(state -> nfa.type(state) == Nfa.MATCH).map(nfa::pattern).distinct().sorted()
+                .toArray();
+    }
+
+    /**
+     * Removes all the states from the cache, except for the dead state and the start states.
+     * @param cache The cache.
+     * @return The cache.
+     */
+    private Cache clear(Cache cache) {
+        cache.stateIds.clear();
+        cache.nfaStates = new int[16][];
+        cache.transitions = new int[16 * alphabet.size()];
+        cache.accepting = new boolean[16];
+        cache.acceptingAtEnd = new boolean[16];
+        cache.patterns = new int[16][];
+        cache.patternsAtEnd = new int[16][];
+        cache.nrOfStates = 0;
+        addState(cache, new int[0]);
+        cache.startState = addState(cache, startStates);
+        cache.restartState = addState(cache, restartStates);
+        return cache;
+    }
+
+    /**
+     * @param cache  The cache.
+     * @param states The NFA states.
+     * @return The DFA state of the NFA states. The state is added to the cache if it does not exist yet.
+     */
+    private int addState(Cache cache, int[] states) {
+        StateKey key = new StateKey(states);
+        Integer existingId = cache.stateIds.get(key);
+        if (existingId != null) {
+            return existingId;
+        }
+
+        if (cache.nrOfStates == cache.nfaStates.length) {
+            int newLength = 2 * cache.nrOfStates;
+            cache.nfaStates = Arrays.copyOf(cache.nfaStates, newLength);
+            cache.transitions = Arrays.copyOf(cache.transitions, newLength * alphabet.size());
+            cache.accepting = Arrays.copyOf(cache.accepting, newLength);
+            cache.acceptingAtEnd = Arrays.copyOf(cache.acceptingAtEnd, newLength);
+            cache.patterns = Arrays.copyOf(cache.patterns, newLength);
+            cache.patternsAtEnd = Arrays.copyOf(cache.patternsAtEnd, newLength);
+        }
+
+        int id = cache.nrOfStates++;
+        cache.nfaStates[id] = states;
+        Arrays.fill(cache.transitions, id * alphabet.size(), (id + 1) * alphabet.size(),
+                states.length == 0 ? DEAD_STATE : UNKNOWN_STATE);
+        cache.patterns[id] = patternsOf(states);
+        cache.patternsAtEnd[id] = patternsOf(closure(states, false, true));
+        cache.accepting[id] = cache.patterns[id].length > 0;
+        cache.acceptingAtEnd[id] = cache.patternsAtEnd[id].length > 0;
+        cache.stateIds.put(key, id);
+        return id;
+    }
+
+    /**
+     * @param cache      The cache.
+     * @param state      The current state.
+     * @param classIndex The class of the next character.
+     * @return The state after the character has been consumed.
+     */
+    private int next(Cache cache, int state, int classIndex) {
+        int nextState = cache.transitions[state * alphabet.size() + classIndex];
+        return nextState != UNKNOWN_STATE ? nextState : createTransition(cache, state, classIndex);
+    }
+
+    private int createTransition(Cache cache, int state, int classIndex) {
+        int codePoint = alphabet.representative(classIndex);
+        int[] currentStates = cache.nfaStates[state];
+        int[] seeds = new int[currentStates.length + (cache.unanchored ? restartStates.length : 0)];
+        int nrOfSeeds = 0;
+        for (int nfaState : currentStates) {
+            if (nfa.type(nfaState) == Nfa.CHAR && nfa.charSet(nfaState).contains(codePoint)) {
+                seeds[nrOfSeeds++] = nfa.next1(nfaState);
+            }
+        }
+        if (cache.unanchored) {
+            System.arraycopy(restartStates, 0, seeds, nrOfSeeds, restartStates.length);
+            nrOfSeeds += restartStates.length;
+        }
+        int[] nextStates = closure(Arrays.copyOf(seeds, nrOfSeeds), false, false);
+
+        if (cache.nrOfStates >= MAXIMUM_NR_OF_CACHED_STATES) {
+            clear(cache);
+            return addState(cache, nextStates);
+        }
+        int nextState = addState(cache, nextStates);
+        cache.transitions[state * alphabet.size() + classIndex] = nextState;
+        return nextState;
+    }
+
+    /**
+     * The states and transitions that have been created by a single thread. This class does not refer to the
+     * {@link Dfa}, so that the thread does not keep the {@link Dfa} alive after it is no longer used.
+     */
+    private static final class Cache {
+        /** Whether the match can start anywhere in the text. */
+        private final boolean unanchored;
+
+        private final Map<StateKey, Integer> stateIds = new HashMap<>();
+        private int[][] nfaStates;
+
+        /** The next state for every state and class, stored as {@code transitions[state * nrOfClasses + class]}. */
+        private int[] transitions;
+        private boolean[] accepting;
+        private boolean[] acceptingAtEnd;
+
+        /** The patterns of the {@link Nfa#MATCH} states of every state. */
+        private int[][] patterns;
+
+        /** The patterns of the {@link Nfa#MATCH} states that every state reaches at the end of the text. */
+        private int[][] patternsAtEnd;
+        private int nrOfStates;
+        private int startState;
+
+        /** The state to start with at any other position than the start of the text. */
+        private int restartState;
+
+        private Cache(boolean unanchored) {
+            this.unanchored = unanchored;
+        }
+    }
+
+    /**
+     * Set of NFA states that can be used as key of a map.
+     */
+    private static final class StateKey {
+        private final int[] states;
+        private final int hashCode;
+
+        private StateKey(int[] states) {
+            this.states = states;
+            this.hashCode = Arrays.hashCode(states);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof StateKey && Arrays.equals(states, ((StateKey) o).states);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
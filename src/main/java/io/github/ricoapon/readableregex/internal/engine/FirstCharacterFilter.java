@@ -0,0 +1,184 @@
+package io.github.ricoapon.readableregex.internal.engine;
+
+import io.github.ricoapon.readableregex.PatternFlag;
+import io.github.ricoapon.readableregex.internal.ast.AlternationNode;
+import io.github.ricoapon.readableregex.internal.ast.AnchorNode;
+import io.github.ricoapon.readableregex.internal.ast.CharacterClassNode;
+import io.github.ricoapon.readableregex.internal.ast.GroupNode;
+import io.github.ricoapon.readableregex.internal.ast.LiteralNode;
+import io.github.ricoapon.readableregex.internal.ast.QuantifierNode;
+import io.github.ricoapon.readableregex.internal.ast.RawRegexNode;
+import io.github.ricoapon.readableregex.internal.ast.RegexNode;
+import io.github.ricoapon.readableregex.internal.ast.SequenceNode;
+
+import java.util.Set;
+
+/**
+ * The characters that a match of the expression can start with. When searching for a match, only the positions of the
+ * text with one of these characters have to be tried. Checking a character is much faster than starting the engine.
+ * <p>
+ * ASCII characters are looked up in a bitmap. Other characters are looked up in the {@link CharSet}, which is only
+ * needed for texts that are not ASCII.
+ * <p>
+ * Anchors and lookarounds do not consume characters, so the first character is determined by what follows them. Trees
+ * that contain a regular expression added as a string are not supported, because the expression can change the meaning
+ * of the nodes around it.
+ */
+public final class FirstCharacterFilter {
+    /**
+     * The maximum number of ASCII characters in the set. If a match can start with more characters, most positions of
+     * a typical text have to be tried anyway and the engine is faster in checking them itself.
+     */
+    static final int MAXIMUM_NR_OF_ASCII_CHARACTERS = 32;
+
+    /** Bit {@code c} is set if the match can start with the ASCII character {@code c}. */
+    private final long[] asciiBitmap = new long[2];
+
+    private final CharSet characters;
+
+    private FirstCharacterFilter(CharSet characters) {
+        this.characters = characters;
+        for (int c = 0; c < 128; c++) {
+            if (characters.contains(c)) {
+                asciiBitmap[c >>> 6] |= 1L << c;
+            }
+        }
+    }
+
+    /**
+     * @param rootNode The root of the tree.
+     * @param flags    The flags that the pattern is compiled with.
+     * @return The filter, or {@code null} if the characters a match starts with are unknown, if the tree can match the
+     * empty text or if a match can start with too many characters.
+     */
+    public static FirstCharacterFilter create(RegexNode rootNode, Set<PatternFlag> flags) {
+        if (containsRawRegex(rootNode)) {
+            return null;
+        }
+        First first = new Builder(flags).first(rootNode);
+        if (first == null || first.canBeEmpty) {
+            return null;
+        }
+        FirstCharacterFilter filter = new FirstCharacterFilter(first.characters);
+        int nrOfAsciiCharacters = Long.bitCount(filter.asciiBitmap[0]) + Long.bitCount(filter.asciiBitmap[1]);
+        return nrOfAsciiCharacters <= MAXIMUM_NR_OF_ASCII_CHARACTERS ? filter : null;
+    }
+
+    private static boolean containsRawRegex(RegexNode node) {
+        return node instanceof RawRegexNode || node.children().stream().anyMatch(FirstCharacterFilter::containsRawRegex);
+    }
+
+    /**
+     * @param text  The text.
+     * @param index The index in the text.
+     * @return Whether a match can start at the index.
+     */
+    public boolean canStartAt(CharSequence text, int index) {
+        char c = text.charAt(index);
+        if (c < 128) {
+            return (asciiBitmap[c >>> 6] & (1L << c)) != 0;
+        }
+        return characters.contains(Character.codePointAt(text, index));
+    }
+
+    /**
+     * @param text The text.
+     * @param from The index to start searching from.
+     * @return The first index at or after {@code from} where a match can start, or {@code -1} if there is none.
+     */
+    public int indexIn(CharSequence text, int from) {
+        int length = text.length();
+        for (int i = from; i < length; i++) {
+            if (canStartAt(text, i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The characters that a part of the expression can start with.
+     */
+    private static final class First {
+        private static final First EMPTY = new First(CharSet.EMPTY, true);
+
+        private final CharSet characters;
+
+        /** Whether the part can match the empty text, so that whatever follows can also be the start. */
+        private final boolean canBeEmpty;
+
+        private First(CharSet characters, boolean canBeEmpty) {
+            this.characters = characters;
+            this.canBeEmpty = canBeEmpty;
+        }
+    }
+
+    /**
+     * Determines the first characters of nodes. A result of {@code null} means that the first characters are unknown.
+     */
+    private static final class Builder {
+        private final boolean caseInsensitive;
+        private final boolean dotAll;
+
+        private Builder(Set<PatternFlag> flags) {
+            this.caseInsensitive = flags.contains(PatternFlag.CASE_INSENSITIVE);
+            this.dotAll = flags.contains(PatternFlag.DOT_ALL);
+        }
+
+        private First first(RegexNode node) {
+            if (node instanceof LiteralNode) {
+                String value = ((LiteralNode) node).getValue();
+                if (value.isEmpty()) {
+                    return First.EMPTY;
+                }
+                CharSet charSet = CharSet.of(value.codePointAt(0));
+                return new First(caseInsensitive ? charSet.withAsciiCaseFolding() : charSet, false);
+            } else if (node instanceof CharacterClassNode) {
+                CharSet charSet = CharClassParser.parse(((CharacterClassNode) node).getRegex(), caseInsensitive, dotAll);
+                return charSet != null ? new First(charSet, false) : null;
+            } else if (node instanceof SequenceNode) {
+                return firstOfSequence((SequenceNode) node);
+            } else if (node instanceof AlternationNode) {
+                CharSet characters = CharSet.EMPTY;
+                boolean canBeEmpty = false;
+                for (RegexNode alternative : node.children()) {
+                    First first = first(alternative);
+                    if (first == null) {
+                        return null;
+                    }
+                    characters = characters.union(first.characters);
+                    canBeEmpty |= first.canBeEmpty;
+                }
+                return new First(characters, canBeEmpty);
+            } else if (node instanceof GroupNode) {
+                GroupNode group = (GroupNode) node;
+                return group.getType().isLookaround() ? First.EMPTY : first(group.getChild());
+            } else if (node instanceof QuantifierNode) {
+                QuantifierNode quantifier = (QuantifierNode) node;
+                if (quantifier.getMax() == 0) {
+                    return First.EMPTY;
+                }
+                First first = first(quantifier.getChild());
+                return first == null || quantifier.getMin() > 0 ? first : new First(first.characters, true);
+            } else if (node instanceof AnchorNode) {
+                return First.EMPTY;
+            }
+            return null;
+        }
+
+        private First firstOfSequence(SequenceNode node) {
+            CharSet characters = CharSet.EMPTY;
+            for (RegexNode child : node.children()) {
+                First first = first(child);
+                if (first == null) {
+                    return null;
+                }
+                characters = characters.union(first.characters);
+                if (!first.canBeEmpty) {
+                    return new First(characters, false);
+                }
+            }
+            return new First(characters, true);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package io.github.ricoapon.readableregex.internal.engine;
+
+import io.github.ricoapon.readableregex.PatternFlag;
+import io.github.ricoapon.readableregex.internal.ast.CharacterClassNode;
+import io.github.ricoapon.readableregex.internal.ast.LiteralNode;
+import io.github.ricoapon.readableregex.internal.ast.RawRegexNode;
+import io.github.ricoapon.readableregex.internal.ast.RegexNode;
+
+import java.util.Set;
+
+/**
+ * Determines whether an expression only matches within a single line: no part of the expression, including lookarounds,
+ * can match a line feed. A text can then be split into chunks after line feeds, and every chunk can be matched on its
+ * own, while still finding exactly the same matches as in the full text.
+ * <p>
+ * Trees that contain a regular expression added as a string are not supported, because the expression can match
+ * anything. This includes {@link io.github.ricoapon.readableregex.SyntacticSugarBuilder#lineBreak()}.
+ */
+public final class LineOrientation {
+    private LineOrientation() {
+    }
+
+    /**
+     * @param rootNode The root of the tree.
+     * @param flags    The flags that the pattern is compiled with.
+     * @return Whether no part of the tree can match a line feed.
+     */
+    public static boolean isLineOriented(RegexNode rootNode, Set<PatternFlag> flags) {
+        return isLineOriented(rootNode, flags.contains(PatternFlag.CASE_INSENSITIVE), flags.contains(PatternFlag.DOT_ALL));
+    }
+
+    private static boolean isLineOriented(RegexNode node, boolean caseInsensitive, boolean dotAll) {
+        if (node instanceof RawRegexNode) {
+            return false;
+        } else if (node instanceof LiteralNode) {
+            return ((LiteralNode) node).getValue().indexOf('\n') < 0;
+        } else if (node instanceof CharacterClassNode) {
+            CharSet charSet = CharClassParser.parse(((CharacterClassNode) node).getRegex(), caseInsensitive, dotAll);
+            return charSet != null && !charSet.contains('\n');
+        }
+        return node.children().stream().allMatch(child -> isLineOriented(child, caseInsensitive, dotAll));
+    }
+}
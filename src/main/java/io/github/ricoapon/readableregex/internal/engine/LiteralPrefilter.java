@@ -0,0 +1,258 @@
+package io.github.ricoapon.readableregex.internal.engine;
+
+import io.github.ricoapon.readableregex.PatternFlag;
+import io.github.ricoapon.readableregex.internal.ast.AnchorNode;
+import io.github.ricoapon.readableregex.internal.ast.GroupNode;
+import io.github.ricoapon.readableregex.internal.ast.LiteralNode;
+import io.github.ricoapon.readableregex.internal.ast.QuantifierNode;
+import io.github.ricoapon.readableregex.internal.ast.RawRegexNode;
+import io.github.ricoapon.readableregex.internal.ast.RegexNode;
+import io.github.ricoapon.readableregex.internal.ast.SequenceNode;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Searches for a literal that every match of the expression contains, such as {@code ://} in an URL. If the text does
+ * not contain the literal, it cannot contain a match either, so the engine does not have to be used at all. Searching
+ * for a literal is much faster than trying to match the expression at every position.
+ * <p>
+ * The literal is taken from the parts of the tree that every match must pass: sequences, groups and quantifiers with a
+ * minimum of at least one. Alternatives and lookarounds are skipped. Trees that contain a regular expression added as a
+ * string are not supported at all, because the expression can change the meaning of the nodes around it, for example by
+ * starting with a quantifier.
+ * <p>
+ * With {@link PatternFlag#CASE_INSENSITIVE}, {@link java.util.regex.Pattern} only ignores the case of the 26 ASCII
+ * letters. The literal and the characters of the text are then folded to lower case using a table of 128 entries, and
+ * all other characters are compared as they are.
+ */
+public final class LiteralPrefilter {
+    /** The size of the table with shifts. Characters are mapped to the table using their lowest bits. */
+    private static final int TABLE_SIZE = 256;
+
+    /** Maps every ASCII character to its lower case. */
+    private static final char[] ASCII_LOWER_CASE = new char[128];
+
+    static {
+        for (char c = 0; c < ASCII_LOWER_CASE.length; c++) {
+            ASCII_LOWER_CASE[c] = c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+    }
+
+    private final String literal;
+
+    /** Whether the case of ASCII letters is ignored. The literal is then in lower case. */
+    private final boolean asciiIgnoreCase;
+
+    /**
+     * The number of positions the literal can be shifted when the last compared character of the text is mapped to
+     * the index. If multiple characters map to the same index, the smallest shift is used.
+     */
+    private final int[] shifts;
+
+    private LiteralPrefilter(String literal, boolean asciiIgnoreCase) {
+        this.literal = asciiIgnoreCase ? toAsciiLowerCase(literal) : literal;
+        this.asciiIgnoreCase = asciiIgnoreCase;
+        this.shifts = new int[TABLE_SIZE];
+        int last = literal.length() - 1;
+        Arrays.fill(shifts, literal.length());
+        for (int i = 0; i < last; i++) {
+            shifts[this.literal.charAt(i) & (TABLE_SIZE - 1)] = last - i;
+        }
+    }
+
+    private static String toAsciiLowerCase(String literal) {
+        char[] result = literal.toCharArray();
+        for (int i = 0; i < result.length; i++) {
+            result[i] = toAsciiLowerCase(result[i]);
+        }
+        return new String(result);
+    }
+
+    /**
+     * @param c The character.
+     * @return The lower case of the character if it is an ASCII letter, otherwise the character itself.
+     */
+    private static char toAsciiLowerCase(char c) {
+        return c < ASCII_LOWER_CASE.length ? ASCII_LOWER_CASE[c] : c;
+    }
+
+    /**
+     * @param rootNode The root of the tree.
+     * @param flags    The flags that the pattern is compiled with.
+     * @return The prefilter, or {@code null} if the tree does not contain a literal that every match contains.
+     */
+    public static LiteralPrefilter create(RegexNode rootNode, Set<PatternFlag> flags) {
+        if (containsRawRegex(rootNode)) {
+            return null;
+        }
+        String literal = requiredLiteral(rootNode);
+        if (literal.isEmpty()) {
+            return null;
+        }
+        return new LiteralPrefilter(literal, flags.contains(PatternFlag.CASE_INSENSITIVE) && hasAsciiLetter(literal));
+    }
+
+    /**
+     * @param literal The literal to search for. Must not be empty.
+     * @return The prefilter that searches for the literal.
+     */
+    static LiteralPrefilter of(String literal) {
+        return new LiteralPrefilter(literal, false);
+    }
+
+    private static boolean containsRawRegex(RegexNode node) {
+        return node instanceof RawRegexNode || node.children().stream().anyMatch(LiteralPrefilter::containsRawRegex);
+    }
+
+    /**
+     * @param literal The literal.
+     * @return Whether the literal contains an ASCII letter, which matches another character when case is ignored.
+     */
+    private static boolean hasAsciiLetter(String literal) {
+        return literal.chars().anyMatch(c -> (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z'));
+    }
+
+    /**
+     * @param node The node.
+     * @return The longest literal that every match of the node contains, or an empty string if there is none.
+     */
+    static String requiredLiteral(RegexNode node) {
+        String exact = exactLiteral(node);
+        if (exact != null) {
+            return exact;
+        } else if (node instanceof SequenceNode) {
+            return requiredLiteralOfSequence((SequenceNode) node);
+        } else if (node instanceof GroupNode && !((GroupNode) node).getType().isLookaround()) {
+            return requiredLiteral(((GroupNode) node).getChild());
+        } else if (node instanceof QuantifierNode && ((QuantifierNode) node).getMin() >= 1) {
+            return requiredLiteral(((QuantifierNode) node).getChild());
+        }
+        return "";
+    }
+
+    private static String requiredLiteralOfSequence(SequenceNode node) {
+        String best = "";
+        // Consecutive children that always match the same text, together always match the concatenated text.
+        StringBuilder run = new StringBuilder();
+        for (RegexNode child : node.children()) {
+            String exact = exactLiteral(child);
+            if (exact != null) {
+                run.append(exact);
+                continue;
+            }
+            best = longest(best, run.toString());
+            run.setLength(0);
+            best = longest(best, requiredLiteral(child));
+        }
+        return longest(best, run.toString());
+    }
+
+    private static String longest(String a, String b) {
+        return b.length() > a.length() ? b : a;
+    }
+
+    /**
+     * @param node The node.
+     * @return The text that the node always matches, or {@code null} if it can match different texts. Anchors always
+     * match the empty text.
+     */
+    private static String exactLiteral(RegexNode node) {
+        if (node instanceof LiteralNode) {
+            return ((LiteralNode) node).getValue();
+        } else if (node instanceof AnchorNode) {
+            return "";
+        } else if (node instanceof GroupNode && !((GroupNode) node).getType().isLookaround()) {
+            return exactLiteral(((GroupNode) node).getChild());
+        } else if (node instanceof SequenceNode) {
+            StringBuilder result = new StringBuilder();
+            for (RegexNode child : node.children()) {
+                String exact = exactLiteral(child);
+                if (exact == null) {
+                    return null;
+                }
+                result.append(exact);
+            }
+            return result.toString();
+        }
+        return null;
+    }
+
+    /**
+     * @return The literal that every match contains. If the case of ASCII letters is ignored, it is in lower case.
+     */
+    public String getLiteral() {
+        return literal;
+    }
+
+    /**
+     * @param text The text.
+     * @param from The index to start searching from.
+     * @return The index of the first occurrence of the literal at or after {@code from}, or {@code -1} if there is none.
+     */
+    public int indexIn(CharSequence text, int from) {
+        if (asciiIgnoreCase) {
+            return indexIgnoringCaseIn(text, from);
+        } else if (text instanceof String) {
+            // The JDK has an optimized implementation for strings.
+            return ((String) text).indexOf(literal, from);
+        }
+
+        // Boyer-Moore-Horspool: compare from the end of the literal and skip ahead based on the last character.
+        int last = literal.length() - 1;
+        char lastChar = literal.charAt(last);
+        int end = text.length() - last;
+        for (int i = Math.max(from, 0); i < end; ) {
+            char c = text.charAt(i + last);
+            if (c == lastChar && matchesAt(text, i, last)) {
+                return i;
+            }
+            i += shifts[c & (TABLE_SIZE - 1)];
+        }
+        return -1;
+    }
+
+    /**
+     * @param text   The text.
+     * @param index  The index in the text.
+     * @param length The number of characters to compare.
+     * @return Whether the first characters of the literal occur in the text at the index.
+     */
+    private boolean matchesAt(CharSequence text, int index, int length) {
+        for (int j = 0; j < length; j++) {
+            if (text.charAt(index + j) != literal.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Same as {@link #indexIn(CharSequence, int)}, but compares the lower case of the ASCII letters of the text.
+     * @param text The text.
+     * @param from The index to start searching from.
+     * @return The index of the first occurrence of the literal at or after {@code from}, or {@code -1} if there is none.
+     */
+    private int indexIgnoringCaseIn(CharSequence text, int from) {
+        int last = literal.length() - 1;
+        char lastChar = literal.charAt(last);
+        int end = text.length() - last;
+        for (int i = Math.max(from, 0); i < end; ) {
+            char c = toAsciiLowerCase(text.charAt(i + last));
+            if (c == lastChar && matchesIgnoringCaseAt(text, i, last)) {
+                return i;
+            }
+            i += shifts[c & (TABLE_SIZE - 1)];
+        }
+        return -1;
+    }
+
+    private boolean matchesIgnoringCaseAt(CharSequence text, int index, int length) {
+        for (int j = 0; j < length; j++) {
+            if (toAsciiLowerCase(text.charAt(index + j)) != literal.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,132 @@
+package io.github.ricoapon.readableregex.internal.engine;
+
+import io.github.ricoapon.readableregex.PatternFlag;
+import io.github.ricoapon.readableregex.internal.ast.AlternationNode;
+import io.github.ricoapon.readableregex.internal.ast.AnchorNode;
+import io.github.ricoapon.readableregex.internal.ast.CharacterClassNode;
+import io.github.ricoapon.readableregex.internal.ast.GroupNode;
+import io.github.ricoapon.readableregex.internal.ast.LiteralNode;
+import io.github.ricoapon.readableregex.internal.ast.QuantifierNode;
+import io.github.ricoapon.readableregex.internal.ast.RawRegexNode;
+import io.github.ricoapon.readableregex.internal.ast.RegexNode;
+import io.github.ricoapon.readableregex.internal.ast.SequenceNode;
+
+import java.util.Set;
+
+/**
+ * The minimum and maximum length of the texts that an expression can match, counted in {@code char}s like
+ * {@link CharSequence#length()}. A text with a length outside these bounds can never match exactly, so it can be rejected
+ * without using an engine.
+ * <p>
+ * A character class matches a single code point, which is one or two {@code char}s. If the tree contains a regular
+ * expression added as a string, nothing is known: such an expression can even change the meaning of the nodes around
+ * it, for example by starting with a quantifier.
+ */
+public final class MatchLength {
+    /** The maximum length of expressions that can match texts of any length. */
+    public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    private static final MatchLength UNKNOWN = new MatchLength(0, UNBOUNDED);
+    private static final MatchLength EMPTY = new MatchLength(0, 0);
+
+    private final int min;
+    private final int max;
+
+    private MatchLength(int min, int max) {
+        this.min = min;
+        this.max = max;
+    }
+
+    /**
+     * @param rootNode The root of the tree.
+     * @param flags    The flags that the pattern is compiled with.
+     * @return The bounds of the length of the texts that the tree can match.
+     */
+    public static MatchLength of(RegexNode rootNode, Set<PatternFlag> flags) {
+        if (containsRawRegex(rootNode)) {
+            return UNKNOWN;
+        }
+        return of(rootNode, flags.contains(PatternFlag.CASE_INSENSITIVE), flags.contains(PatternFlag.DOT_ALL));
+    }
+
+    private static boolean containsRawRegex(RegexNode node) {
+        return node instanceof RawRegexNode || node.children().stream().anyMatch(MatchLength::containsRawRegex);
+    }
+
+    private static MatchLength of(RegexNode node, boolean caseInsensitive, boolean dotAll) {
+        if (node instanceof LiteralNode) {
+            int length = ((LiteralNode) node).getValue().length();
+            return new MatchLength(length, length);
+        } else if (node instanceof CharacterClassNode) {
+            return ofCharacterClass((CharacterClassNode) node, caseInsensitive, dotAll);
+        } else if (node instanceof SequenceNode) {
+            MatchLength result = EMPTY;
+            for (RegexNode child : node.children()) {
+                MatchLength childLength = of(child, caseInsensitive, dotAll);
+                result = new MatchLength(add(result.min, childLength.min), add(result.max, childLength.max));
+            }
+            return result;
+        } else if (node instanceof AlternationNode) {
+            MatchLength result = new MatchLength(UNBOUNDED, 0);
+            for (RegexNode alternative : node.children()) {
+                MatchLength alternativeLength = of(alternative, caseInsensitive, dotAll);
+                result = new MatchLength(Math.min(result.min, alternativeLength.min), Math.max(result.max, alternativeLength.max));
+            }
+            return result;
+        } else if (node instanceof GroupNode) {
+            GroupNode group = (GroupNode) node;
+            return group.getType().isLookaround() ? EMPTY : of(group.getChild(), caseInsensitive, dotAll);
+        } else if (node instanceof QuantifierNode) {
+            QuantifierNode quantifier = (QuantifierNode) node;
+            MatchLength childLength = of(quantifier.getChild(), caseInsensitive, dotAll);
+            return new MatchLength(multiply(childLength.min, quantifier.getMin()), multiply(childLength.max, quantifier.getMax()));
+        } else if (node instanceof AnchorNode) {
+            return EMPTY;
+        }
+        return UNKNOWN;
+    }
+
+    private static MatchLength ofCharacterClass(CharacterClassNode node, boolean caseInsensitive, boolean dotAll) {
+        CharSet charSet = CharClassParser.parse(node.getRegex(), caseInsensitive, dotAll);
+        if (charSet == null || charSet.isEmpty()) {
+            // Classes that cannot be parsed, such as \R, match at most two chars as well.
+            return new MatchLength(1, 2);
+        }
+        boolean containsBmp = charSet.rangeStart(0) < Character.MIN_SUPPLEMENTARY_CODE_POINT;
+        boolean containsSupplementary = charSet.rangeEnd(charSet.nrOfRanges() - 1) >= Character.MIN_SUPPLEMENTARY_CODE_POINT;
+        return new MatchLength(containsBmp ? 1 : 2, containsSupplementary ? 2 : 1);
+    }
+
+    private static int add(int a, int b) {
+        return (int) Math.min((long) a + b, UNBOUNDED);
+    }
+
+    private static int multiply(int a, int b) {
+        if (a == 0 || b == 0) {
+            return 0;
+        }
+        return (int) Math.min((long) a * b, UNBOUNDED);
+    }
+
+    /**
+     * @return The minimum length of the texts that can be matched.
+     */
+    public int getMin() {
+        return min;
+    }
+
+    /**
+     * @return The maximum length of the texts that can be matched, or {@link #UNBOUNDED}.
+     */
+    public int getMax() {
+        return max;
+    }
+
+    /**
+     * @param length The length of a text.
+     * @return Whether a text of this length can match.
+     */
+    public boolean allows(int length) {
+        return length >= min && length <= max;
+    }
+}
@@ -0,0 +1,208 @@
+package io.github.ricoapon.readableregex.internal.engine;
+
+import io.github.ricoapon.readableregex.internal.ast.AnchorNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Nondeterministic finite automaton that is compiled from a tree of {@link io.github.ricoapon.readableregex.internal.ast.RegexNode}s.
+ * <p>
+ * Every state has a type and at most two successors. States that do not consume a character are followed immediately.
+ * When a state has two successors, the first one is the preferred one: this is the order in which a backtracking
+ * engine would try them.
+ */
+public final class Nfa {
+    /** State that consumes one character that is in {@link #charSet(int)} and continues with {@link #next1(int)}. */
+    public static final int CHAR = 0;
+
+    /** State that continues with both {@link #next1(int)} and {@link #next2(int)}. */
+    public static final int SPLIT = 1;
+
+    /** State that saves the current position in slot {@link #slot(int)} and continues with {@link #next1(int)}. */
+    public static final int SAVE = 2;
+
+    /** State that continues with {@link #next1(int)} if the anchor {@link #anchor(int)} holds at the current position. */
+    public static final int ASSERT = 3;
+
+    /**
+     * State that accepts the text. An automaton that is compiled from several trees has a match state per tree, see
+     * {@link #pattern(int)}.
+     */
+    public static final int MATCH = 4;
+
+    private final int[] types;
+    private final int[] nexts1;
+    private final int[] nexts2;
+
+    /** The slot of a {@link #SAVE} state or the pattern of a {@link #MATCH} state. */
+    private final int[] slots;
+    private final List<CharSet> charSets;
+    private final List<AnchorNode.Type> anchors;
+    private final int startState;
+    private final int nrOfGroups;
+
+    private Nfa(Builder builder, int startState, int nrOfGroups) {
+        int size = builder.types.size();
+        this.types = new int[size];
+        this.nexts1 = new int[size];
+        this.nexts2 = new int[size];
+        this.slots = new int[size];
+        for (int i = 0; i < size; i++) {
+            types[i] = builder.types.get(i);
+            nexts1[i] = builder.nexts1.get(i);
+            nexts2[i] = builder.nexts2.get(i);
+            slots[i] = builder.slots.get(i);
+        }
+        this.charSets = new ArrayList<>(builder.charSets);
+        this.anchors = new ArrayList<>(builder.anchors);
+        this.startState = startState;
+        this.nrOfGroups = nrOfGroups;
+    }
+
+    /**
+     * @return The number of states.
+     */
+    public int size() {
+        return types.length;
+    }
+
+    /**
+     * @return The state to start with.
+     */
+    public int startState() {
+        return startState;
+    }
+
+    /**
+     * @return The number of capturing groups. The positions of group {@code i} are saved in the slots {@code 2i} and
+     * {@code 2i + 1}, where group 0 is the full match.
+     */
+    public int nrOfGroups() {
+        return nrOfGroups;
+    }
+
+    /**
+     * @param state The state.
+     * @return The type of the state, for example {@link #CHAR}.
+     */
+    public int type(int state) {
+        return types[state];
+    }
+
+    /**
+     * @param state The state.
+     * @return The first (preferred) successor.
+     */
+    public int next1(int state) {
+        return nexts1[state];
+    }
+
+    /**
+     * @param state The state.
+     * @return The second successor of a {@link #SPLIT} state.
+     */
+    public int next2(int state) {
+        return nexts2[state];
+    }
+
+    /**
+     * @param state The state.
+     * @return The slot of a {@link #SAVE} state.
+     */
+    public int slot(int state) {
+        return slots[state];
+    }
+
+    /**
+     * @param state The state.
+     * @return The index of the tree that is accepted by a {@link #MATCH} state.
+     */
+    public int pattern(int state) {
+        return slots[state];
+    }
+
+    /**
+     * @param state The state.
+     * @return The characters that are accepted by a {@link #CHAR} state.
+     */
+    public CharSet charSet(int state) {
+        return charSets.get(state);
+    }
+
+    /**
+     * @param state The state.
+     * @return The anchor of an {@link #ASSERT} state.
+     */
+    public AnchorNode.Type anchor(int state) {
+        return anchors.get(state);
+    }
+
+    /**
+     * Builder for {@link Nfa} that allows successors to be set after the state is created, so that loops can be made.
+     */
+    static final class Builder {
+        private final List<Integer> types = new ArrayList<>();
+        private final List<Integer> nexts1 = new ArrayList<>();
+        private final List<Integer> nexts2 = new ArrayList<>();
+        private final List<Integer> slots = new ArrayList<>();
+        private final List<CharSet> charSets = new ArrayList<>();
+        private final List<AnchorNode.Type> anchors = new ArrayList<>();
+
+        int size() {
+            return types.size();
+        }
+
+        private int add(int type, int next1, int next2, int slot, CharSet charSet, AnchorNode.Type anchor) {
+            types.add(type);
+            nexts1.add(next1);
+            nexts2.add(next2);
+            slots.add(slot);
+            charSets.add(charSet);
+            anchors.add(anchor);
+            return types.size() - 1;
+        }
+
+        int addChar(CharSet charSet, int next) {
+            return add(CHAR, next, -1, -1, charSet, null);
+        }
+
+        int addSplit(int next1, int next2) {
+            return add(SPLIT, next1, next2, -1, null, null);
+        }
+
+        int addSave(int slot, int next) {
+            return add(SAVE, next, -1, slot, null, null);
+        }
+
+        int addAssert(AnchorNode.Type anchor, int next) {
+            return add(ASSERT, next, -1, -1, null, anchor);
+        }
+
+        int addMatch(int pattern) {
+            return add(MATCH, -1, -1, pattern, null, null);
+        }
+
+        /**
+         * Removes the states that were added after the builder had the size.
+         * @param size The size.
+         */
+        void truncate(int size) {
+            types.subList(size, types.size()).clear();
+            nexts1.subList(size, nexts1.size()).clear();
+            nexts2.subList(size, nexts2.size()).clear();
+            slots.subList(size, slots.size()).clear();
+            charSets.subList(size, charSets.size()).clear();
+            anchors.subList(size, anchors.size()).clear();
+        }
+
+        void setNexts(int state, int next1, int next2) {
+            nexts1.set(state, next1);
+            nexts2.set(state, next2);
+        }
+
+        Nfa build(int startState, int nrOfGroups) {
+            return new Nfa(this, startState, nrOfGroups);
+        }
+    }
+}
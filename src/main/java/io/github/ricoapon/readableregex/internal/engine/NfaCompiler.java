@@ -0,0 +1,316 @@
+package io.github.ricoapon.readableregex.internal.engine;
+
+import io.github.ricoapon.readableregex.PatternFlag;
+import io.github.ricoapon.readableregex.internal.ast.AlternationNode;
+import io.github.ricoapon.readableregex.internal.ast.AnchorNode;
+import io.github.ricoapon.readableregex.internal.ast.CharacterClassNode;
+import io.github.ricoapon.readableregex.internal.ast.GroupNode;
+import io.github.ricoapon.readableregex.internal.ast.LiteralNode;
+import io.github.ricoapon.readableregex.internal.ast.QuantifierNode;
+import io.github.ricoapon.readableregex.internal.ast.RegexNode;
+import io.github.ricoapon.readableregex.internal.ast.RegexNodes;
+import io.github.ricoapon.readableregex.internal.ast.SequenceNode;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compiles a tree of {@link RegexNode}s into an {@link Nfa}.
+ * <p>
+ * Not every tree can be compiled: raw regular expressions, lookarounds and possessive quantifiers cannot be expressed
+ * as a finite automaton, or at least not with the same meaning as the JDK gives them. Quantifiers with a maximum are
+ * expanded, so trees that would result in too many states are not compiled either.
+ */
+public final class NfaCompiler {
+    /** The maximum number of states of the automaton of a single tree. */
+    static final int MAXIMUM_NR_OF_STATES = 10_000;
+
+    private final Nfa.Builder builder;
+
+    /** The number of states the builder had before this compiler added states to it. */
+    private final int initialSize;
+    private final boolean caseInsensitive;
+    private final boolean dotAll;
+
+    /** Whether the automaton must find the same groups as the JDK. See {@link #compileForSubmatches(RegexNode, Set)}. */
+    private final boolean forSubmatches;
+
+    /** Whether the automaton consumes bytes of UTF-8 instead of code points. See {@link #compileForUtf8Submatches(RegexNode, Set)}. */
+    private final boolean utf8;
+
+    /** The number of quantifiers that can repeat more than once around the node that is compiled. */
+    private int repetitionDepth;
+
+    private NfaCompiler(Nfa.Builder builder, Set<PatternFlag> flags, boolean forSubmatches, boolean utf8) {
+        this.builder = builder;
+        this.initialSize = builder.size();
+        this.caseInsensitive = flags.contains(PatternFlag.CASE_INSENSITIVE);
+        this.dotAll = flags.contains(PatternFlag.DOT_ALL);
+        this.forSubmatches = forSubmatches;
+        this.utf8 = utf8;
+    }
+
+    /**
+     * Compiles the tree into an automaton that can be used to check whether a text matches.
+     * @param rootNode The root of the tree.
+     * @param flags    The flags that the pattern is compiled with.
+     * @return The automaton, or {@code null} if the tree cannot be compiled.
+     */
+    public static Nfa compile(RegexNode rootNode, Set<PatternFlag> flags) {
+        return compile(rootNode, flags, false, false);
+    }
+
+    /**
+     * Compiles the tree into an automaton that can be used to find the same match and groups as the JDK does.
+     * <p>
+     * Besides the trees that {@link #compile(RegexNode, Set)} does not support, the following is not supported:
+     * <ul>
+     *     <li>Quantifiers that can repeat a child that matches the empty text, such as {@code (a?)*}. The JDK stops
+     *     repeating after the child matched the empty text, which results in other groups and sometimes even another
+     *     match.</li>
+     *     <li>Capturing groups inside quantifiers that can repeat more than once, such as {@code (?:(a)b)+}. When the JDK
+     *     backtracks into such a quantifier, it does not always restore the groups it has set before.</li>
+     * </ul>
+     * @param rootNode The root of the tree.
+     * @param flags    The flags that the pattern is compiled with.
+     * @return The automaton, or {@code null} if the tree cannot be compiled.
+     */
+    public static Nfa compileForSubmatches(RegexNode rootNode, Set<PatternFlag> flags) {
+        return compile(rootNode, flags, true, false);
+    }
+
+    /**
+     * Compiles the tree into an automaton like {@link #compileForSubmatches(RegexNode, Set)} does, but of which the
+     * {@link Nfa#CHAR} states consume single bytes of UTF-8 instead of code points. Every set of code points is compiled
+     * into the sequences of byte ranges that encode them, so the text does not have to be decoded. The positions of the
+     * groups are then the positions of the bytes. Bytes that are not valid UTF-8 are not accepted by any state.
+     * @param rootNode The root of the tree.
+     * @param flags    The flags that the pattern is compiled with.
+     * @return The automaton, or {@code null} if the tree cannot be compiled.
+     */
+    public static Nfa compileForUtf8Submatches(RegexNode rootNode, Set<PatternFlag> flags) {
+        return compile(rootNode, flags, true, true);
+    }
+
+    /**
+     * Compiles the trees into a single automaton that can be used to check which of the trees match a text. The
+     * {@link Nfa#MATCH} state of the tree at index {@code i} has pattern {@code i}.
+     * @param rootNodes The roots of the trees. There must be at least one.
+     * @param flags     The flags that every tree is compiled with.
+     * @return The automaton, or {@code null} if any of the trees cannot be compiled.
+     */
+    public static Nfa compileAll(List<RegexNode> rootNodes, List<Set<PatternFlag>> flags) {
+        BitSet unsupported = new BitSet();
+        Nfa nfa = compileAll(rootNodes, flags, unsupported);
+        return unsupported.isEmpty() ? nfa : null;
+    }
+
+    /**
+     * Same as {@link #compileAll(List, List)}, but the trees that cannot be compiled are left out. Their pattern then
+     * never matches.
+     * @param rootNodes   The roots of the trees. There must be at least one.
+     * @param flags       The flags that every tree is compiled with.
+     * @param unsupported The set to which the indices of the trees that cannot be compiled are added.
+     * @return The automaton, or {@code null} if none of the trees can be compiled.
+     */
+    public static Nfa compileAll(List<RegexNode> rootNodes, List<Set<PatternFlag>> flags, BitSet unsupported) {
+        Nfa.Builder builder = new Nfa.Builder();
+        int start = -1;
+        for (int i = rootNodes.size() - 1; i >= 0; i--) {
+            int size = builder.size();
+            try {
+                NfaCompiler compiler = new NfaCompiler(builder, flags.get(i), false, false);
+                int patternStart = compiler.compile(rootNodes.get(i), 1, builder.addMatch(i));
+                start = start < 0 ? patternStart : builder.addSplit(patternStart, start);
+            } catch (UnsupportedNode e) {
+                // Nothing refers to the states of the tree yet.
+                builder.truncate(size);
+                unsupported.set(i);
+            }
+        }
+        return start < 0 ? null : builder.build(start, 1);
+    }
+
+    private static Nfa compile(RegexNode rootNode, Set<PatternFlag> flags, boolean forSubmatches, boolean utf8) {
+        NfaCompiler compiler = new NfaCompiler(new Nfa.Builder(), flags, forSubmatches, utf8);
+        try {
+            int end = compiler.builder.addSave(1, compiler.builder.addMatch(0));
+            int start = compiler.builder.addSave(0, compiler.compile(rootNode, 1, end));
+            return compiler.builder.build(start, RegexNodes.capturingGroupNames(rootNode).size() + 1);
+        } catch (UnsupportedNode e) {
+            return null;
+        }
+    }
+
+    private void checkSize() {
+        if (builder.size() - initialSize > MAXIMUM_NR_OF_STATES) {
+            throw new UnsupportedNode();
+        }
+    }
+
+    /**
+     * @param node       The node to compile.
+     * @param firstGroup The index of the first capturing group inside the node.
+     * @param next       The state that follows after the node has matched.
+     * @return The first state of the node.
+     */
+    private int compile(RegexNode node, int firstGroup, int next) {
+        checkSize();
+        if (node instanceof LiteralNode) {
+            return compileLiteral((LiteralNode) node, next);
+        } else if (node instanceof CharacterClassNode) {
+            CharSet charSet = CharClassParser.parse(((CharacterClassNode) node).getRegex(), caseInsensitive, dotAll);
+            if (charSet == null) {
+                throw new UnsupportedNode();
+            }
+            return addChar(charSet, next);
+        } else if (node instanceof SequenceNode) {
+            return compileSequence(((SequenceNode) node).children(), firstGroup, next);
+        } else if (node instanceof AlternationNode) {
+            return compileAlternation(((AlternationNode) node).children(), firstGroup, next);
+        } else if (node instanceof GroupNode) {
+            return compileGroup((GroupNode) node, firstGroup, next);
+        } else if (node instanceof QuantifierNode) {
+            return compileQuantifier((QuantifierNode) node, firstGroup, next);
+        } else if (node instanceof AnchorNode) {
+            return builder.addAssert(((AnchorNode) node).getType(), next);
+        }
+        throw new UnsupportedNode();
+    }
+
+    private int compileLiteral(LiteralNode node, int next) {
+        String value = node.getValue();
+        int state = next;
+        for (int i = value.length(); i > 0; i -= Character.charCount(value.codePointBefore(i))) {
+            CharSet charSet = CharSet.of(value.codePointBefore(i));
+            state = addChar(caseInsensitive ? charSet.withAsciiCaseFolding() : charSet, state);
+        }
+        return state;
+    }
+
+    /**
+     * @param charSet The code points to consume.
+     * @param next    The state that follows after a code point has been consumed.
+     * @return The first state that consumes one of the code points.
+     */
+    private int addChar(CharSet charSet, int next) {
+        if (!utf8) {
+            return builder.addChar(charSet, next);
+        }
+
+        // The sequences often end with the same byte ranges, such as the continuation bytes, so those states are shared.
+        Map<Long, Integer> sharedStates = new HashMap<>();
+        int start = -1;
+        for (int[] sequence : Utf8.byteRanges(charSet)) {
+            int state = next;
+            for (int i = sequence.length - 2; i >= 0; i -= 2) {
+                long key = (long) state << 16 | sequence[i] << 8 | sequence[i + 1];
+                Integer sharedState = sharedStates.get(key);
+                if (sharedState == null) {
+                    sharedState = builder.addChar(CharSet.range(sequence[i], sequence[i + 1]), state);
+                    sharedStates.put(key, sharedState);
+                }
+                state = sharedState;
+            }
+            // The sequences never encode the same code point, so their order does not matter.
+            start = start < 0 ? state : builder.addSplit(state, start);
+        }
+        return start >= 0 ? start : builder.addChar(CharSet.EMPTY, next);
+    }
+
+    private int compileSequence(List<RegexNode> children, int firstGroup, int next) {
+        int[] firstGroups = new int[children.size()];
+        int group = firstGroup;
+        for (int i = 0; i < children.size(); i++) {
+            firstGroups[i] = group;
+            group += RegexNodes.capturingGroupNames(children.get(i)).size();
+        }
+
+        int state = next;
+        for (int i = children.size() - 1; i >= 0; i--) {
+            state = compile(children.get(i), firstGroups[i], state);
+        }
+        return state;
+    }
+
+    private int compileAlternation(List<RegexNode> alternatives, int firstGroup, int next) {
+        int[] starts = new int[alternatives.size()];
+        int group = firstGroup;
+        for (int i = 0; i < alternatives.size(); i++) {
+            starts[i] = compile(alternatives.get(i), group, next);
+            group += RegexNodes.capturingGroupNames(alternatives.get(i)).size();
+        }
+
+        int state = starts[starts.length - 1];
+        for (int i = starts.length - 2; i >= 0; i--) {
+            state = builder.addSplit(starts[i], state);
+        }
+        return state;
+    }
+
+    private int compileGroup(GroupNode node, int firstGroup, int next) {
+        switch (node.getType()) {
+            case NON_CAPTURING:
+                return compile(node.getChild(), firstGroup, next);
+            case CAPTURING:
+                if (forSubmatches && repetitionDepth > 0) {
+                    throw new UnsupportedNode();
+                }
+                int end = builder.addSave(2 * firstGroup + 1, next);
+                return builder.addSave(2 * firstGroup, compile(node.getChild(), firstGroup + 1, end));
+            default:
+                throw new UnsupportedNode();
+        }
+    }
+
+    private int compileQuantifier(QuantifierNode node, int firstGroup, int next) {
+        if (node.getType() == QuantifierNode.Type.POSSESSIVE
+                || (forSubmatches && node.getMax() > 1 && RegexNodes.canMatchEmpty(node.getChild()))) {
+            throw new UnsupportedNode();
+        }
+        if (node.getMax() > 1) {
+            repetitionDepth++;
+        }
+        try {
+            return compileRepetitions(node, firstGroup, next);
+        } finally {
+            if (node.getMax() > 1) {
+                repetitionDepth--;
+            }
+        }
+    }
+
+    private int compileRepetitions(QuantifierNode node, int firstGroup, int next) {
+        boolean greedy = node.getType() == QuantifierNode.Type.GREEDY;
+
+        int state;
+        if (node.isUnbounded()) {
+            // The loop state is created first, so that the child can continue with it.
+            int loop = builder.addSplit(-1, -1);
+            int child = compile(node.getChild(), firstGroup, loop);
+            builder.setNexts(loop, greedy ? child : next, greedy ? next : child);
+            state = loop;
+        } else {
+            state = next;
+            for (int i = node.getMin(); i < node.getMax(); i++) {
+                int child = compile(node.getChild(), firstGroup, state);
+                state = greedy ? builder.addSplit(child, next) : builder.addSplit(next, child);
+            }
+        }
+
+        for (int i = 0; i < node.getMin(); i++) {
+            state = compile(node.getChild(), firstGroup, state);
+        }
+        return state;
+    }
+
+    /**
+     * Thrown when a node cannot be compiled.
+     */
+    private static final class UnsupportedNode extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+    }
+}
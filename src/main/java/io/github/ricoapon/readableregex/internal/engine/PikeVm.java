@@ -0,0 +1,528 @@
+package io.github.ricoapon.readableregex.internal.engine;
+
+import io.github.ricoapon.readableregex.internal.ast.AnchorNode;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.regex.Pattern;
+
+/**
+ * Simulates an {@link Nfa} on all the possible paths at the same time, also known as the Pike VM. Every character of
+ * the text is handled once for every state, so matching takes time that is linear in the length of the text.
+ * <p>
+ * Every path (thread) keeps track of the positions of the groups. The threads are ordered by the priority a
+ * backtracking engine would give them, so the match and the groups that are found are the same as the JDK finds.
+ * This only holds if the automaton was compiled with {@link NfaCompiler#compileForSubmatches}.
+ * <p>
+ * Anchors are evaluated like the JDK does with {@link java.util.regex.Pattern#MULTILINE}, which is always enabled when
+ * the builder contains a line anchor.
+ * <p>
+ * An automaton that was compiled with {@link NfaCompiler#compileForUtf8Submatches} matches the bytes of a UTF-8 text,
+ * given as a {@link CharSequence} with one {@code char} per byte. Matches then only start at the first byte of a code
+ * point, and the anchors decode the code points around the position.
+ * <p>
+ * In a text of {@code char}s, the JDK also tries to start a match at the low surrogate of a pair, unless the pattern
+ * contains a character class with surrogates or supplementary code points other than {@code .}. Such a match can only
+ * be found if {@code \B} holds between the surrogates, so these positions are only tried if the automaton contains
+ * {@code \B} and the JDK tries them as well.
+ */
+public final class PikeVm {
+    private final Nfa nfa;
+
+    /** The number of slots per thread: the start and end of every group. */
+    private final int nrOfSlots;
+
+    /** Whether the text consists of the bytes of UTF-8. */
+    private final boolean utf8;
+    private final Anchors anchors;
+
+    /** The characters a match can start with, or {@code null} if a match can also start with an anchor or be empty. */
+    private final CharSet firstCharacters;
+
+    /** Search for the literal that every match starts with, or {@code null} if there is no such literal. */
+    private final LiteralPrefilter prefix;
+
+    /** Whether a match can also start at the low surrogate of a pair. */
+    private final boolean startsInsideSurrogatePairs;
+
+    /** The memory that is needed for matching, per thread. */
+    private final ThreadLocal<Threads[]> threadLists;
+
+    /**
+     * Constructor.
+     * @param nfa The automaton.
+     */
+    public PikeVm(Nfa nfa) {
+        this(nfa, false);
+    }
+
+    /**
+     * Constructor.
+     * @param nfa  The automaton.
+     * @param utf8 Whether the automaton was compiled with {@link NfaCompiler#compileForUtf8Submatches} and matches the
+     *             bytes of a UTF-8 text.
+     */
+    public PikeVm(Nfa nfa, boolean utf8) {
+        this.nfa = nfa;
+        this.utf8 = utf8;
+        this.anchors = utf8 ? Anchors.UTF8 : Anchors.UTF16;
+        this.firstCharacters = firstCharacters(nfa);
+        this.prefix = firstCharacters != null ? prefix(nfa) : null;
+        this.startsInsideSurrogatePairs = !utf8 && startsInsideSurrogatePairs(nfa);
+        this.nrOfSlots = 2 * nfa.nrOfGroups();
+        int nrOfStates = nfa.size();
+        int slotsPerThread = nrOfSlots;
+        this.threadLists = ThreadLocal.withInitial(() ->
+                new Threads[]{new Threads(nrOfStates, slotsPerThread), new Threads(nrOfStates, slotsPerThread),
+                        new Threads(nrOfStates, slotsPerThread)});
+    }
+
+    /**
+     * @param text The text.
+     * @return The start and end of every group if the full text matches, else {@code null}. The start and end of group
+     * {@code i} are at the indices {@code 2i} and {@code 2i + 1}, or {@code -1} if the group did not match anything.
+     */
+    public int[] matchExactly(CharSequence text) {
+        return run(text, 0, true);
+    }
+
+    /**
+     * @param text The text.
+     * @param from The index to start searching from.
+     * @return The start and end of every group of the first match, or {@code null} if there is no match. See
+     * {@link #matchExactly(CharSequence)} for the format.
+     */
+    public int[] find(CharSequence text, int from) {
+        return run(text, from, false);
+    }
+
+    /**
+     * @param nfa The automaton.
+     * @return The union of the {@link Nfa#CHAR} states that can be reached from the start state without consuming a
+     * character, or {@code null} if an {@link Nfa#ASSERT} or {@link Nfa#MATCH} state can be reached as well.
+     */
+    private static CharSet firstCharacters(Nfa nfa) {
+        CharSet result = CharSet.EMPTY;
+        boolean[] visited = new boolean[nfa.size()];
+        Deque<Integer> stack = new ArrayDeque<>();
+        stack.push(nfa.startState());
+        while (!stack.isEmpty()) {
+            int state = stack.pop();
+            if (visited[state]) {
+                continue;
+            }
+            visited[state] = true;
+            switch (nfa.type(state)) {
+                case Nfa.SPLIT:
+                    stack.push(nfa.next2(state));
+                    stack.push(nfa.next1(state));
+                    break;
+                case Nfa.SAVE:
+                    stack.push(nfa.next1(state));
+                    break;
+                case Nfa.CHAR:
+                    result = result.union(nfa.charSet(state));
+                    break;
+                default:
+                    return null;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param nfa The automaton.
+     * @return Search for the literal of at least two characters that every match starts with, or {@code null}.
+     */
+    private static LiteralPrefilter prefix(Nfa nfa) {
+        StringBuilder literal = new StringBuilder();
+        int state = nfa.startState();
+        while (nfa.type(state) == Nfa.SAVE || (nfa.type(state) == Nfa.CHAR && nfa.charSet(state).nrOfRanges() == 1
+                && nfa.charSet(state).rangeStart(0) == nfa.charSet(state).rangeEnd(0))) {
+            if (nfa.type(state) == Nfa.CHAR) {
+                literal.appendCodePoint(nfa.charSet(state).rangeStart(0));
+            }
+            state = nfa.next1(state);
+        }
+        return literal.length() >= 2 ? LiteralPrefilter.of(literal.toString()) : null;
+    }
+
+    /**
+     * @param nfa The automaton of a text of {@code char}s.
+     * @return Whether the JDK tries to start a match at the low surrogate of a pair and this can result in a match.
+     */
+    private static boolean startsInsideSurrogatePairs(Nfa nfa) {
+        CharSet surrogatesAndSupplementary = CharSet.range(Character.MIN_SURROGATE, Character.MAX_SURROGATE)
+                .union(CharSet.range(Character.MIN_SUPPLEMENTARY_CODE_POINT, CharSet.MAX_CODE_POINT));
+        boolean nonWordBoundary = false;
+        for (int state = 0; state < nfa.size(); state++) {
+            if (nfa.type(state) == Nfa.ASSERT && nfa.anchor(state) == AnchorNode.Type.NON_WORD_BOUNDARY) {
+                nonWordBoundary = true;
+            } else if (nfa.type(state) == Nfa.CHAR) {
+                CharSet charSet = nfa.charSet(state);
+                // The JDK then skips the low surrogates, except for the character class of the dot.
+                if (!charSet.intersection(surrogatesAndSupplementary).isEmpty()
+                        && !charSet.equals(CharSet.DOT) && !charSet.equals(CharSet.ALL)) {
+                    return false;
+                }
+            }
+        }
+        return nonWordBoundary;
+    }
+
+    /**
+     * @return The first position at or after the given position where a match can start, or the length of the text.
+     */
+    private int skipToPossibleStart(CharSequence text, int position) {
+        if (prefix != null) {
+            int index = prefix.indexIn(text, position);
+            return index >= 0 ? index : text.length();
+        }
+        int next = position;
+        // In UTF-8, the first characters are bytes that start a code point, so a match can only start there.
+        while (next < text.length() && !firstCharacters.contains(utf8 ? text.charAt(next) : Character.codePointAt(text, next))) {
+            next++;
+        }
+        return next;
+    }
+
+    private int[] run(CharSequence text, int from, boolean exact) {
+        Threads[] lists = threadLists.get();
+        Threads current = lists[0];
+        Threads next = lists[1];
+        current.clear();
+        int[] startSlots = current.startSlots;
+        int[] match = null;
+
+        for (int position = from; ; ) {
+            if (match == null && current.size == 0 && !exact && firstCharacters != null) {
+                // No match is in progress, so the positions where a match cannot start are skipped.
+                position = skipToPossibleStart(text, position);
+            }
+            if (match == null && (position == from || !exact) && isStartOfCodePoint(text, position)) {
+                Arrays.fill(startSlots, -1);
+                addThread(current, nfa.startState(), text, position, startSlots);
+            }
+            // Without threads, only an unanchored search can continue: in UTF-8 at the first byte of the next code point.
+            if (current.size == 0 && (match != null || exact)) {
+                break;
+            }
+
+            int codePoint = position < text.length() ? Character.codePointAt(text, position) : -1;
+            int nextPosition = codePoint < 0 ? position : position + Character.charCount(codePoint);
+            next.clear();
+            for (int i = 0; i < current.size; i++) {
+                int state = current.states[i];
+                if (nfa.type(state) == Nfa.MATCH) {
+                    if (!exact || position == text.length()) {
+                        // Threads with a lower priority can never result in a better match.
+                        match = Arrays.copyOfRange(current.slots, state * nrOfSlots, (state + 1) * nrOfSlots);
+                        break;
+                    }
+                } else if (nfa.type(state) == Nfa.CHAR && codePoint >= 0 && nfa.charSet(state).contains(codePoint)) {
+                    System.arraycopy(current.slots, state * nrOfSlots, current.scratchSlots, 0, nrOfSlots);
+                    addThread(next, nfa.next1(state), text, nextPosition, current.scratchSlots);
+                }
+            }
+            if (match == null && !exact && startsInsideSurrogatePairs && nextPosition - position == 2) {
+                match = startAtLowSurrogate(lists[2], next, text, position + 1);
+            }
+
+            if (codePoint < 0) {
+                break;
+            }
+            Threads swap = current;
+            current = next;
+            next = swap;
+            position = nextPosition;
+        }
+
+        current.clear();
+        next.clear();
+        return match;
+    }
+
+    /**
+     * Starts a match at the low surrogate of a pair. The threads have a lower priority than all threads that started
+     * before the pair.
+     * @param inside   The list to use for the threads at the low surrogate.
+     * @param next     The list of threads after the pair.
+     * @param text     The text.
+     * @param position The position of the low surrogate.
+     * @return The slots of the match at the low surrogate, or {@code null} if there is none.
+     */
+    private int[] startAtLowSurrogate(Threads inside, Threads next, CharSequence text, int position) {
+        inside.clear();
+        Arrays.fill(inside.startSlots, -1);
+        addThread(inside, nfa.startState(), text, position, inside.startSlots);
+        int[] match = null;
+        for (int i = 0; i < inside.size; i++) {
+            int state = inside.states[i];
+            if (nfa.type(state) == Nfa.MATCH) {
+                match = Arrays.copyOfRange(inside.slots, state * nrOfSlots, (state + 1) * nrOfSlots);
+                break;
+            } else if (nfa.type(state) == Nfa.CHAR && nfa.charSet(state).contains(text.charAt(position))) {
+                System.arraycopy(inside.slots, state * nrOfSlots, inside.scratchSlots, 0, nrOfSlots);
+                addThread(next, nfa.next1(state), text, position + 1, inside.scratchSlots);
+            }
+        }
+        inside.clear();
+        return match;
+    }
+
+    private boolean isStartOfCodePoint(CharSequence text, int position) {
+        return !utf8 || position == text.length() || !Utf8.isContinuation(text.charAt(position));
+    }
+
+    /**
+     * Adds the state and all the states that can be reached without consuming a character to the list, in the order of
+     * their priority.
+     * @param list     The list of threads.
+     * @param state    The state.
+     * @param text     The text.
+     * @param position The current position in the text.
+     * @param slots    The slots of the thread. The array is changed while adding, but restored at the end.
+     */
+    private void addThread(Threads list, int state, CharSequence text, int position, int[] slots) {
+        // Negative values on the stack mean that the slot -(value + 1) must be restored to the value in restoreValues.
+        int[] stack = list.stack;
+        int[] restoreValues = list.restoreValues;
+        int stackSize = 0;
+        stack[stackSize++] = state;
+
+        while (stackSize > 0) {
+            int current = stack[--stackSize];
+            if (current < 0) {
+                slots[-(current + 1)] = restoreValues[stackSize];
+                continue;
+            }
+            if (!list.add(current)) {
+                continue;
+            }
+
+            switch (nfa.type(current)) {
+                case Nfa.SPLIT:
+                    stack[stackSize++] = nfa.next2(current);
+                    stack[stackSize++] = nfa.next1(current);
+                    break;
+                case Nfa.SAVE:
+                    int slot = nfa.slot(current);
+                    restoreValues[stackSize] = slots[slot];
+                    stack[stackSize++] = -(slot + 1);
+                    slots[slot] = position;
+                    stack[stackSize++] = nfa.next1(current);
+                    break;
+                case Nfa.ASSERT:
+                    if (anchors.holds(nfa.anchor(current), text, position)) {
+                        stack[stackSize++] = nfa.next1(current);
+                    }
+                    break;
+                default:
+                    System.arraycopy(slots, 0, list.slots, current * nrOfSlots, nrOfSlots);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Ordered set of states with the slots of every state. This class does not refer to the {@link PikeVm}, so that
+     * the thread does not keep the {@link PikeVm} alive after it is no longer used.
+     */
+    private static final class Threads {
+        private final int[] states;
+        private final int[] indices;
+        private final int[] slots;
+
+        /** Array that is used to pass the slots of a single state. */
+        private final int[] scratchSlots;
+
+        /** Array that is used to pass the slots of a thread that starts a match. */
+        private final int[] startSlots;
+
+        private final int[] stack;
+        private final int[] restoreValues;
+        private int size;
+
+        private Threads(int nrOfStates, int nrOfSlots) {
+            this.states = new int[nrOfStates];
+            this.indices = new int[nrOfStates];
+            this.slots = new int[nrOfStates * nrOfSlots];
+            this.scratchSlots = new int[nrOfSlots];
+            this.startSlots = new int[nrOfSlots];
+            // Every state is explored at most once and every SAVE state adds one extra entry.
+            this.stack = new int[2 * nrOfStates + 1];
+            this.restoreValues = new int[2 * nrOfStates + 1];
+        }
+
+        private boolean contains(int state) {
+            int index = indices[state];
+            return index < size && states[index] == state;
+        }
+
+        /**
+         * @param state The state.
+         * @return Whether the state was added. If it was already in the list, it is not added again.
+         */
+        private boolean add(int state) {
+            if (contains(state)) {
+                return false;
+            }
+            indices[state] = size;
+            states[size++] = state;
+            return true;
+        }
+
+        private void clear() {
+            size = 0;
+        }
+    }
+
+    /**
+     * Evaluates anchors the same way as the JDK does. The code points around the position are read from UTF-16, like a
+     * {@link String}, or from the bytes of UTF-8.
+     * <p>
+     * Up to JDK 18, the JDK counts all letters and digits as word characters for {@code \b}. Since JDK 19, it only
+     * counts {@code [a-zA-Z0-9_]}, unless {@link java.util.regex.Pattern#UNICODE_CHARACTER_CLASS} is enabled. The rule
+     * of the running JDK is found out once, by matching {@code \b} against a letter that is not ASCII.
+     */
+    static class Anchors {
+        /** Whether the running JDK counts letters and digits that are not ASCII as word characters. */
+        static final boolean UNICODE_WORD_CHARACTERS = Pattern.compile("\\b").matcher("\u00e9").find();
+
+        /** The anchors of a text of {@code char}s. */
+        static final Anchors UTF16 = new Anchors(UNICODE_WORD_CHARACTERS);
+
+        /** The anchors of a text of bytes of UTF-8, with one {@code char} per byte. */
+        static final Anchors UTF8 = new Anchors(UNICODE_WORD_CHARACTERS) {
+            @Override
+            int codePointAt(CharSequence text, int index) {
+                return Utf8.codePointAt(text, index);
+            }
+
+            @Override
+            int codePointBefore(CharSequence text, int index) {
+                return Utf8.codePointAt(text, Utf8.previousIndex(text, index));
+            }
+
+            @Override
+            int previousIndex(CharSequence text, int index) {
+                return Utf8.previousIndex(text, index);
+            }
+        };
+
+        /** Whether letters and digits that are not ASCII are word characters. */
+        private final boolean unicodeWordCharacters;
+
+        Anchors(boolean unicodeWordCharacters) {
+            this.unicodeWordCharacters = unicodeWordCharacters;
+        }
+
+        int codePointAt(CharSequence text, int index) {
+            return Character.codePointAt(text, index);
+        }
+
+        int codePointBefore(CharSequence text, int index) {
+            return Character.codePointBefore(text, index);
+        }
+
+        /**
+         * @return The index before the index, where the JDK looks for the base character of a non-spacing mark.
+         */
+        int previousIndex(CharSequence text, int index) {
+            return index - 1;
+        }
+
+        /**
+         * @param anchor   The anchor.
+         * @param text     The text.
+         * @param position The position in the text.
+         * @return Whether the anchor holds at the position.
+         */
+        boolean holds(AnchorNode.Type anchor, CharSequence text, int position) {
+            switch (anchor) {
+                case START_OF_INPUT:
+                    return position == 0;
+                case END_OF_INPUT:
+                    return position == text.length();
+                case START_OF_LINE:
+                    return isStartOfLine(text, position);
+                case END_OF_LINE:
+                    return isEndOfLine(text, position);
+                case WORD_BOUNDARY:
+                    return isWordBoundary(text, position);
+                case NON_WORD_BOUNDARY:
+                    return !isWordBoundary(text, position);
+                default:
+                    throw new IllegalArgumentException("Unknown anchor " + anchor);
+            }
+        }
+
+        private static boolean isLineTerminator(int c) {
+            return c == '\n' || c == '\r' || c == 0x85 || (c | 1) == 0x2029;
+        }
+
+        private boolean isStartOfLine(CharSequence text, int position) {
+            // Just like Perl, the JDK never matches ^ at the end of the text, not even after a line terminator.
+            if (position == text.length()) {
+                return false;
+            } else if (position == 0) {
+                return true;
+            }
+            int previous = codePointBefore(text, position);
+            return isLineTerminator(previous) && !(previous == '\r' && text.charAt(position) == '\n');
+        }
+
+        private boolean isEndOfLine(CharSequence text, int position) {
+            if (position == text.length()) {
+                return true;
+            }
+            int c = codePointAt(text, position);
+            if (c == '\n') {
+                return position == 0 || text.charAt(position - 1) != '\r';
+            }
+            return isLineTerminator(c);
+        }
+
+        private boolean isWord(int codePoint) {
+            if (unicodeWordCharacters) {
+                return Character.isLetterOrDigit(codePoint) || codePoint == '_';
+            }
+            return (codePoint >= 'a' && codePoint <= 'z') || (codePoint >= 'A' && codePoint <= 'Z')
+                    || (codePoint >= '0' && codePoint <= '9') || codePoint == '_';
+        }
+
+        /**
+         * @param text  The text.
+         * @param index The index of a non-spacing mark.
+         * @return Whether the mark belongs to a letter or digit.
+         */
+        private boolean hasBaseCharacter(CharSequence text, int index) {
+            for (int i = index; i >= 0; i = i > 0 ? previousIndex(text, i) : -1) {
+                int codePoint = codePointAt(text, i);
+                if (Character.isLetterOrDigit(codePoint)) {
+                    return true;
+                } else if (Character.getType(codePoint) != Character.NON_SPACING_MARK) {
+                    return false;
+                }
+            }
+            return false;
+        }
+
+        private boolean isWordBoundary(CharSequence text, int position) {
+            boolean left = false;
+            boolean right = false;
+            if (position > 0) {
+                int codePoint = codePointBefore(text, position);
+                left = isWord(codePoint) || (Character.getType(codePoint) == Character.NON_SPACING_MARK
+                        && hasBaseCharacter(text, previousIndex(text, position)));
+            }
+            if (position < text.length()) {
+                int codePoint = codePointAt(text, position);
+                right = isWord(codePoint) || (Character.getType(codePoint) == Character.NON_SPACING_MARK
+                        && hasBaseCharacter(text, position));
+            }
+            return left ^ right;
+        }
+    }
+}
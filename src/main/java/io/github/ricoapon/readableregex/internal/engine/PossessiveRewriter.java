@@ -0,0 +1,187 @@
+package io.github.ricoapon.readableregex.internal.engine;
+
+import io.github.ricoapon.readableregex.PatternFlag;
+import io.github.ricoapon.readableregex.internal.ast.AlternationNode;
+import io.github.ricoapon.readableregex.internal.ast.AnchorNode;
+import io.github.ricoapon.readableregex.internal.ast.CharacterClassNode;
+import io.github.ricoapon.readableregex.internal.ast.GroupNode;
+import io.github.ricoapon.readableregex.internal.ast.LiteralNode;
+import io.github.ricoapon.readableregex.internal.ast.QuantifierNode;
+import io.github.ricoapon.readableregex.internal.ast.RegexNode;
+import io.github.ricoapon.readableregex.internal.ast.SequenceNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Makes greedy quantifiers possessive where this does not change what the expression matches, so that the JDK engine
+ * does not backtrack into them. The quantifiers are put inside an atomic group, which has the same meaning.
+ * <p>
+ * A greedy quantifier of a single character, such as {@code \d+}, only has to give back characters if the part that
+ * follows can start with one of the characters it matched. If the characters that can follow are disjoint from the
+ * repeated characters, every attempt with fewer repetitions fails as well, so the quantifier can be possessive. Only
+ * single characters are rewritten: when a larger block is repeated, backtracking inside a repetition can still lead to
+ * a match.
+ * <p>
+ * Anything of which the first character is unknown, such as a lookaround, a word boundary or a regular expression added
+ * as a string, is assumed to be able to start with any character.
+ */
+public final class PossessiveRewriter {
+    private final boolean caseInsensitive;
+    private final boolean dotAll;
+
+    private PossessiveRewriter(Set<PatternFlag> flags) {
+        this.caseInsensitive = flags.contains(PatternFlag.CASE_INSENSITIVE);
+        this.dotAll = flags.contains(PatternFlag.DOT_ALL);
+    }
+
+    /**
+     * @param rootNode The root of the tree.
+     * @param flags    The flags that the pattern is compiled with.
+     * @return The root of the rewritten tree. The given tree is not modified.
+     */
+    public static RegexNode rewrite(RegexNode rootNode, Set<PatternFlag> flags) {
+        return new PossessiveRewriter(flags).rewrite(rootNode, Start.EMPTY);
+    }
+
+    /**
+     * @param node   The node.
+     * @param follow The start of what can follow after the node.
+     * @return The rewritten node.
+     */
+    private RegexNode rewrite(RegexNode node, Start follow) {
+        if (node instanceof SequenceNode) {
+            List<RegexNode> children = new ArrayList<>(node.children());
+            Start current = follow;
+            for (int i = children.size() - 1; i >= 0; i--) {
+                RegexNode child = children.get(i);
+                children.set(i, rewrite(child, current));
+                current = start(child).followedBy(current);
+            }
+            return new SequenceNode(children);
+        } else if (node instanceof AlternationNode) {
+            return new AlternationNode(node.children().stream()
+                    .map(alternative -> rewrite(alternative, follow))
+                    .collect(Collectors.toList()));
+        } else if (node instanceof GroupNode) {
+            GroupNode group = (GroupNode) node;
+            // The JDK matches lookarounds separately, so they are left alone.
+            return group.getType().isLookaround() ? node
+                    : new GroupNode(group.getType(), group.getName(), rewrite(group.getChild(), follow));
+        } else if (node instanceof QuantifierNode) {
+            return rewriteQuantifier((QuantifierNode) node, follow);
+        }
+        return node;
+    }
+
+    private RegexNode rewriteQuantifier(QuantifierNode node, Start follow) {
+        // Every repetition can be followed by another repetition, or by what follows the quantifier.
+        Start childFollow = node.getMax() > 1 ? start(node.getChild()).or(follow) : follow;
+        RegexNode child = rewrite(node.getChild(), childFollow);
+
+        RegexNode result = new QuantifierNode(child, node.getMin(), node.getMax(), node.getType());
+        CharSet repeatedCharacters = singleCharacter(child);
+        if (node.getType() == QuantifierNode.Type.GREEDY && node.getMax() > node.getMin() && repeatedCharacters != null
+                && !follow.unknown && repeatedCharacters.intersection(follow.characters).isEmpty()) {
+            // An atomic group has the same meaning as a possessive quantifier. Since Java 9, the JDK uses a faster loop
+            // for greedy quantifiers of a single character, which is not used for possessive quantifiers.
+            result = new GroupNode(GroupNode.Type.ATOMIC, null, result);
+        }
+        return result;
+    }
+
+    private CharSet fold(CharSet charSet) {
+        return caseInsensitive ? charSet.withAsciiCaseFolding() : charSet;
+    }
+
+    /**
+     * @param node The node.
+     * @return The characters the node matches if it always matches exactly one character, else {@code null}.
+     */
+    private CharSet singleCharacter(RegexNode node) {
+        if (node instanceof LiteralNode) {
+            String value = ((LiteralNode) node).getValue();
+            return !value.isEmpty() && value.offsetByCodePoints(0, 1) == value.length()
+                    ? fold(CharSet.of(value.codePointAt(0))) : null;
+        } else if (node instanceof CharacterClassNode) {
+            return CharClassParser.parse(((CharacterClassNode) node).getRegex(), caseInsensitive, dotAll);
+        }
+        return null;
+    }
+
+    /**
+     * @param node The node.
+     * @return The characters the node can start with.
+     */
+    private Start start(RegexNode node) {
+        if (node instanceof LiteralNode) {
+            String value = ((LiteralNode) node).getValue();
+            return value.isEmpty() ? Start.EMPTY : new Start(fold(CharSet.of(value.codePointAt(0))), false, false);
+        } else if (node instanceof CharacterClassNode) {
+            CharSet charSet = singleCharacter(node);
+            return charSet != null ? new Start(charSet, false, false) : Start.UNKNOWN;
+        } else if (node instanceof SequenceNode) {
+            List<RegexNode> children = node.children();
+            Start result = Start.EMPTY;
+            for (int i = children.size() - 1; i >= 0; i--) {
+                result = start(children.get(i)).followedBy(result);
+            }
+            return result;
+        } else if (node instanceof AlternationNode) {
+            Start result = new Start(CharSet.EMPTY, false, false);
+            for (RegexNode alternative : node.children()) {
+                result = result.or(start(alternative));
+            }
+            return result;
+        } else if (node instanceof GroupNode) {
+            GroupNode group = (GroupNode) node;
+            return group.getType().isLookaround() ? Start.UNKNOWN : start(group.getChild());
+        } else if (node instanceof QuantifierNode) {
+            QuantifierNode quantifier = (QuantifierNode) node;
+            Start childStart = start(quantifier.getChild());
+            return quantifier.getMin() == 0 ? childStart.or(Start.EMPTY) : childStart;
+        } else if (node instanceof AnchorNode && ((AnchorNode) node).getType() == AnchorNode.Type.END_OF_INPUT) {
+            // The end of the input never holds when a character follows, so it does not influence the result.
+            return Start.EMPTY;
+        }
+        return Start.UNKNOWN;
+    }
+
+    /**
+     * The characters that a part of the expression can start with.
+     */
+    private static final class Start {
+        /** The start of something that only matches the empty text. */
+        private static final Start EMPTY = new Start(CharSet.EMPTY, true, false);
+
+        /** The start of something that can start with anything. */
+        private static final Start UNKNOWN = new Start(CharSet.ALL, true, true);
+
+        private final CharSet characters;
+
+        /** Whether the part can match the empty text, so that whatever follows can also be the start. */
+        private final boolean canBeEmpty;
+
+        /** Whether the start is unknown. */
+        private final boolean unknown;
+
+        private Start(CharSet characters, boolean canBeEmpty, boolean unknown) {
+            this.characters = characters;
+            this.canBeEmpty = canBeEmpty;
+            this.unknown = unknown;
+        }
+
+        private Start or(Start other) {
+            return new Start(characters.union(other.characters), canBeEmpty || other.canBeEmpty, unknown || other.unknown);
+        }
+
+        private Start followedBy(Start next) {
+            if (unknown || !canBeEmpty) {
+                return this;
+            }
+            return new Start(characters.union(next.characters), next.canBeEmpty, next.unknown);
+        }
+    }
+}
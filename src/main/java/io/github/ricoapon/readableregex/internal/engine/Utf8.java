@@ -0,0 +1,169 @@
+package io.github.ricoapon.readableregex.internal.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Encoding and decoding of UTF-8. The bytes of a UTF-8 text are given as a {@link CharSequence} with one {@code char}
+ * per byte, from {@code 0} up to and including {@code 255}.
+ */
+final class Utf8 {
+    /** The highest code point that is encoded with one, two and three bytes. */
+    private static final int[] MAX_CODE_POINTS = {0x7F, 0x7FF, 0xFFFF};
+
+    private static final int REPLACEMENT_CHARACTER = 0xFFFD;
+
+    private Utf8() {
+    }
+
+    /**
+     * Splits the set into sequences of byte ranges. Every code point of the set is encoded by exactly one sequence,
+     * where each byte of the encoding is inside the range at the same index. Surrogates are left out, since they cannot
+     * be encoded in UTF-8.
+     * @param charSet The set.
+     * @return The sequences, where every sequence is stored as {@code [first0, last0, first1, last1, ...]}.
+     */
+    static List<int[]> byteRanges(CharSet charSet) {
+        List<int[]> result = new ArrayList<>();
+        for (int i = 0; i < charSet.nrOfRanges(); i++) {
+            addByteRanges(charSet.rangeStart(i), charSet.rangeEnd(i), result);
+        }
+        return result;
+    }
+
+    /**
+     * Splits the range until the encodings of all the code points in a range have the same length and only differ in
+     * the bytes where the encodings of the first and last code point differ.
+     */
+    private static void addByteRanges(int start, int end, List<int[]> result) {
+        if (start > end) {
+            return;
+        }
+        if (start <= Character.MAX_SURROGATE && end >= Character.MIN_SURROGATE) {
+            addByteRanges(start, Character.MIN_SURROGATE - 1, result);
+            addByteRanges(Character.MAX_SURROGATE + 1, end, result);
+            return;
+        }
+        for (int max : MAX_CODE_POINTS) {
+            if (start <= max && max < end) {
+                addByteRanges(start, max, result);
+                addByteRanges(max + 1, end, result);
+                return;
+            }
+        }
+
+        int length = encodedLength(start);
+        for (int i = 1; i < length; i++) {
+            // The lowest 6 * i bits are encoded in the last i bytes.
+            int mask = (1 << (6 * i)) - 1;
+            if ((start & ~mask) != (end & ~mask)) {
+                if ((start & mask) != 0) {
+                    addByteRanges(start, start | mask, result);
+                    addByteRanges((start | mask) + 1, end, result);
+                    return;
+                } else if ((end & mask) != mask) {
+                    addByteRanges(start, (end & ~mask) - 1, result);
+                    addByteRanges(end & ~mask, end, result);
+                    return;
+                }
+            }
+        }
+
+        int[] first = encode(start);
+        int[] last = encode(end);
+        int[] sequence = new int[2 * length];
+        for (int i = 0; i < length; i++) {
+            sequence[2 * i] = first[i];
+            sequence[2 * i + 1] = last[i];
+        }
+        result.add(sequence);
+    }
+
+    private static int encodedLength(int codePoint) {
+        int length = 1;
+        while (length <= MAX_CODE_POINTS.length && codePoint > MAX_CODE_POINTS[length - 1]) {
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * @param codePoint The code point. It must not be a surrogate.
+     * @return The bytes of the encoding.
+     */
+    static int[] encode(int codePoint) {
+        int length = encodedLength(codePoint);
+        if (length == 1) {
+            return new int[]{codePoint};
+        }
+        int[] bytes = new int[length];
+        int remaining = codePoint;
+        for (int i = length - 1; i > 0; i--) {
+            bytes[i] = 0x80 | (remaining & 0x3F);
+            remaining >>>= 6;
+        }
+        // The first byte starts with as many ones as there are bytes, followed by a zero.
+        bytes[0] = (0xFF00 >>> length) & 0xFF | remaining;
+        return bytes;
+    }
+
+    /**
+     * @param b The byte.
+     * @return Whether the byte is not the first byte of an encoded code point.
+     */
+    static boolean isContinuation(int b) {
+        return (b & 0xC0) == 0x80;
+    }
+
+    /**
+     * @param bytes The bytes.
+     * @param index The index of the first byte.
+     * @return The code point shifted left by three, combined with the number of bytes it is encoded with. Bytes that are
+     * not valid UTF-8 are decoded as {@code U+FFFD}, one code point per byte.
+     */
+    private static int decode(CharSequence bytes, int index) {
+        int b0 = bytes.charAt(index);
+        if (b0 < 0x80) {
+            return b0 << 3 | 1;
+        }
+        int length = b0 >= 0xC2 && b0 <= 0xDF ? 2 : b0 >= 0xE0 && b0 <= 0xEF ? 3 : b0 >= 0xF0 && b0 <= 0xF4 ? 4 : 0;
+        if (length == 0 || index + length > bytes.length()) {
+            return REPLACEMENT_CHARACTER << 3 | 1;
+        }
+        int codePoint = b0 & (0x7F >>> length);
+        for (int i = 1; i < length; i++) {
+            int b = bytes.charAt(index + i);
+            if (!isContinuation(b)) {
+                return REPLACEMENT_CHARACTER << 3 | 1;
+            }
+            codePoint = codePoint << 6 | (b & 0x3F);
+        }
+        // Overlong encodings, surrogates and code points above U+10FFFF are not valid.
+        boolean valid = encodedLength(codePoint) == length && codePoint <= Character.MAX_CODE_POINT
+                && (codePoint < Character.MIN_SURROGATE || codePoint > Character.MAX_SURROGATE);
+        return valid ? codePoint << 3 | length : REPLACEMENT_CHARACTER << 3 | 1;
+    }
+
+    /**
+     * @param bytes The bytes.
+     * @param index The index of the first byte of the code point.
+     * @return The code point.
+     */
+    static int codePointAt(CharSequence bytes, int index) {
+        return decode(bytes, index) >>> 3;
+    }
+
+    /**
+     * @param bytes The bytes.
+     * @param index The index after the last byte of the code point. Must be larger than {@code 0}.
+     * @return The index of the first byte of the code point. A byte that does not continue a valid sequence always
+     * starts a code point, so this finds the same code points as decoding forwards.
+     */
+    static int previousIndex(CharSequence bytes, int index) {
+        int start = index - 1;
+        while (start > index - 4 && start > 0 && isContinuation(bytes.charAt(start))) {
+            start--;
+        }
+        return (decode(bytes, start) & 7) == index - start ? start : index - 1;
+    }
+}
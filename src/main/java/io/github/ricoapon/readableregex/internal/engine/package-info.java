@@ -0,0 +1,6 @@
+/**
+ * Matching engine that guarantees a matching time that is linear in the length of the text, for the patterns that do
+ * not need backtracking. Also contains the analyses that use the character classes and automata of this engine to
+ * reason about the backtracking of the JDK engine, and the prefilters that avoid running an engine at all.
+ */
+package io.github.ricoapon.readableregex.internal.engine;
@@ -2,6 +2,7 @@ package io.github.ricoapon.readableregex.internal.instantiation;
 
 import com.thoughtworks.paranamer.BytecodeReadingParanamer;
 import com.thoughtworks.paranamer.Paranamer;
+import io.github.ricoapon.readableregex.ReadableMatchResult;
 import io.github.ricoapon.readableregex.ReadableRegexPattern;
 import io.github.ricoapon.readableregex.RegexObjectInstantiation;
 import io.github.ricoapon.readableregex.RegexObjectInstantiationException;
@@ -12,7 +13,6 @@ import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.regex.Matcher;
 import java.util.stream.Collectors;
 
 /**
@@ -21,18 +21,18 @@ import java.util.stream.Collectors;
  */
 public class RegexObjectInstantiationImpl<T> implements RegexObjectInstantiation {
     /**
-     * See {@link RegexObjectInstantiation#instantiateObject(ReadableRegexPattern, String, Class)}.
+     * See {@link RegexObjectInstantiation#instantiateObject(ReadableRegexPattern, CharSequence, Class)}.
      * @param pattern The pattern.
      * @param data    The data.
      * @param clazz   The class of the object to instantiate.
      * @return Instance of {@link T}.
      */
-    public T constructObject(ReadableRegexPattern pattern, String data, Class<T> clazz) {
+    public T constructObject(ReadableRegexPattern pattern, CharSequence data, Class<T> clazz) {
         Constructor<?> constructor = determineConstructorForInjection(clazz);
         List<ParameterInfo> parameterInfoList = determineParameterNamesAndTypes(constructor);
         checkThatPatternHaveANamedGroupForEachParameter(pattern, clazz, parameterInfoList);
-        Matcher matcher = createExactMatcher(pattern, data);
-        Object[] constructorArgs = createConstructorArgs(parameterInfoList, matcher);
+        ReadableMatchResult matchResult = createExactMatch(pattern, data);
+        Object[] constructorArgs = createConstructorArgs(parameterInfoList, matchResult);
         return createNewInstance(constructor, constructorArgs);
     }
 
@@ -104,33 +104,30 @@ public class RegexObjectInstantiationImpl<T> implements RegexObjectInstantiation
     }
 
     /**
-     * Creates a {@link Matcher} based on the given pattern and data.
+     * Matches the given data with the given pattern.
      * @param pattern The pattern.
      * @param data    The data.
-     * @return {@link Matcher} for which {@link Matcher#matches()} is already called and returns {@code true}.
+     * @return {@link ReadableMatchResult} of the full data.
      * @throws RegexObjectInstantiationException If there is no exact match.
      */
-    private Matcher createExactMatcher(ReadableRegexPattern pattern, String data) throws RegexObjectInstantiationException {
-        Matcher matcher = pattern.matches(data);
-        if (!matcher.matches()) {
-            throw new RegexObjectInstantiationException("The given pattern does not match the given string. Make sure to write your pattern " +
-                    "in such a way that you match the COMPLETE string.");
-        }
-        return matcher;
+    private ReadableMatchResult createExactMatch(ReadableRegexPattern pattern, CharSequence data) throws RegexObjectInstantiationException {
+        return pattern.exactMatch(data).orElseThrow(() ->
+                new RegexObjectInstantiationException("The given pattern does not match the given string. Make sure to write your pattern " +
+                        "in such a way that you match the COMPLETE string."));
     }
 
     /**
      * Creates an array of objects that can be used to call the constructor.
      * @param parameterInfoList The information about the parameters of the constructor.
-     * @param matcher           The matcher containing the parameter values.
+     * @param matchResult       The match containing the parameter values.
      * @return Constructor arguments.
      */
-    private Object[] createConstructorArgs(List<ParameterInfo> parameterInfoList, Matcher matcher) {
+    private Object[] createConstructorArgs(List<ParameterInfo> parameterInfoList, ReadableMatchResult matchResult) {
         Object[] constructorArgs = new Object[parameterInfoList.size()];
         int index = 0;
 
         for (ParameterInfo parameterInfo : parameterInfoList) {
-            String argAsString = matcher.group(parameterInfo.getName());
+            String argAsString = matchResult.group(parameterInfo.getName());
             constructorArgs[index] = StringConverter.convertStringTo(parameterInfo.getType(), argAsString);
             index++;
         }
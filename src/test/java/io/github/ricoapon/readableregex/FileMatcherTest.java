@@ -0,0 +1,66 @@
+package io.github.ricoapon.readableregex;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FileMatcherTest {
+    @TempDir
+    Path directory;
+
+    private static List<String> findAll(FileMatcher matcher) {
+        List<String> result = new ArrayList<>();
+        while (matcher.find()) {
+            result.add(matcher.start() + "-" + matcher.end() + ":" + matcher.group());
+        }
+        return result;
+    }
+
+    @Test
+    void offsetsArePositionsOfBytes() throws IOException {
+        Path file = directory.resolve("log.txt");
+        Files.write(file, "caf\u00e9 ERROR 42\n\u20ac ERROR 7".getBytes(StandardCharsets.UTF_8));
+        ReadableRegexPattern pattern = regex().literal("ERROR ").group("code", regex().digit().oneOrMore()).build();
+
+        FileMatcher matcher = pattern.fileMatcher(file, StandardCharsets.UTF_8);
+        assertThat(matcher.find(), equalTo(true));
+        assertThat(matcher.group("code"), equalTo("42"));
+        assertThat(Arrays.asList(matcher.start(), matcher.start("code"), matcher.end(1)), contains(6L, 12L, 14L));
+        assertThat(matcher.find(), equalTo(true));
+        assertThat(Arrays.asList(matcher.start(), matcher.end()), contains(19L, 26L));
+        assertThat(matcher.find(), equalTo(false));
+        assertThrows(IllegalStateException.class, matcher::start);
+    }
+
+    @Test
+    void singleByteCharsetsAreSupported() throws IOException {
+        Path file = directory.resolve("latin1.txt");
+        Files.write(file, "\u00e9t\u00e9 \u00e9".getBytes(StandardCharsets.ISO_8859_1));
+        ReadableRegexPattern pattern = regex().anyCharacterOf("\u00e9").build();
+
+        assertThat(findAll(pattern.fileMatcher(file, StandardCharsets.ISO_8859_1)), contains("0-1:\u00e9", "2-3:\u00e9", "4-5:\u00e9"));
+        assertThat(findAll(pattern.fileMatcher(file, StandardCharsets.US_ASCII)).size(), equalTo(0));
+    }
+
+    @Test
+    void emptyFilesAndUnsupportedCharsets() throws IOException {
+        Path file = Files.createFile(directory.resolve("empty.txt"));
+        ReadableRegexPattern pattern = regex().literal("a").optional().build();
+
+        assertThat(findAll(pattern.fileMatcher(file, StandardCharsets.UTF_8)), contains("0-0:"));
+        assertThrows(IllegalArgumentException.class, () -> pattern.fileMatcher(file, StandardCharsets.UTF_16));
+    }
+}
@@ -0,0 +1,111 @@
+package io.github.ricoapon.readableregex;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.regex.Matcher;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class MatchBudgetTest {
+    private static String repeat(char c, int times) {
+        StringBuilder sb = new StringBuilder(times);
+        for (int i = 0; i < times; i++) {
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    @Test
+    void resultsAreTheSameWithinTheBudget() {
+        MatchBudget budget = MatchBudget.ofSteps(1000).withTimeout(Duration.ofMinutes(1));
+        ReadableRegexPattern pattern = regex().group("number", regex().digit().oneOrMore()).build();
+
+        assertThat(pattern.matchesTextExactly("123", budget), equalTo(true));
+        assertThat(pattern.matchesTextExactly("12a", budget), equalTo(false));
+        assertThat(pattern.containsMatch("a12b", budget), equalTo(true));
+        assertThat(pattern.containsMatch("ab", budget), equalTo(false));
+        assertThat(pattern.firstMatch("a12b", budget).map(r -> r.group("number")).orElse(null), equalTo("12"));
+
+        Matcher matcher = pattern.matches("1a22", budget);
+        assertThat(matcher.find(), equalTo(true));
+        assertThat(matcher.group(), equalTo("1"));
+        assertThat(matcher.find(), equalTo(true));
+        assertThat(matcher.group("number"), equalTo("22"));
+        assertThat(matcher.find(), equalTo(false));
+    }
+
+    @Test
+    void exceedingTheStepsThrows() {
+        MatchBudget budget = MatchBudget.ofSteps(100);
+        ReadableRegexPattern pattern = regex().literal("b").build();
+        String text = repeat('a', 1000);
+
+        MatchBudgetExceededException e = assertThrows(MatchBudgetExceededException.class, () -> pattern.containsMatch(text, budget));
+        assertThat(e.getMessage(), containsString("100 steps"));
+        assertThrows(MatchBudgetExceededException.class, () -> pattern.matches(text, budget).find());
+
+        // Every call gets the full budget and the pattern can still be used afterwards.
+        assertThat(pattern.containsMatch(repeat('a', 50), budget), equalTo(false));
+        assertThat(pattern.containsMatch(text), equalTo(false));
+    }
+
+    @Test
+    void theBudgetIsSharedByAllOperationsOnTheMatcher() {
+        ReadableRegexPattern pattern = regex().digit().build();
+        Matcher matcher = pattern.matches("1234", MatchBudget.ofSteps(3));
+
+        assertThat(matcher.find(), equalTo(true));
+        assertThat(matcher.find(), equalTo(true));
+        assertThat(matcher.find(), equalTo(true));
+        assertThrows(MatchBudgetExceededException.class, matcher::find);
+    }
+
+    @Test
+    void exceedingTheTimeoutThrows() {
+        // Without an x after the digits, every split of the digits over the three repetitions is tried at every position.
+        ReadableRegexPattern pattern = regex().digit().oneOrMore().digit().oneOrMore().digit().oneOrMore().literal("x")
+                .build();
+        String text = "x" + repeat('1', 5000);
+
+        MatchBudget budget = MatchBudget.ofTimeout(Duration.ofMillis(50));
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            MatchBudgetExceededException e = assertThrows(MatchBudgetExceededException.class, () -> pattern.containsMatch(text, budget));
+            assertThat(e.getMessage(), containsString("50 ms"));
+        });
+    }
+
+    @Test
+    void budgetIsAlsoUsedByOtherEngines() {
+        MatchBudget budget = MatchBudget.ofSteps(100);
+        String text = repeat('a', 1000);
+
+        ReadableRegexPattern dfaPattern = regex().literal("a").zeroOrMore().literal("b")
+                .buildWithFlags(PatternFlag.DFA_ENGINE);
+        assertThrows(MatchBudgetExceededException.class, () -> dfaPattern.containsMatch(text, budget));
+        assertThrows(MatchBudgetExceededException.class, () -> dfaPattern.matchesTextExactly(text, budget));
+
+        ReadableRegexPattern pikeVmPattern = regex().group(regex().literal("b")).buildWithFlags(PatternFlag.PIKE_VM_ENGINE);
+        assertThrows(MatchBudgetExceededException.class, () -> pikeVmPattern.firstMatch(text, budget));
+        assertThat(pikeVmPattern.firstMatch("ab", budget).map(r -> r.group(1)).orElse(null), equalTo("b"));
+    }
+
+    @Test
+    void budgetIsValidated() {
+        assertThrows(IllegalArgumentException.class, () -> MatchBudget.ofSteps(0));
+        assertThrows(IllegalArgumentException.class, () -> MatchBudget.ofTimeout(Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> MatchBudget.ofSteps(1).withTimeout(Duration.ofSeconds(-1)));
+
+        MatchBudget budget = MatchBudget.ofSteps(10);
+        assertThat(budget.getMaxSteps(), equalTo(10L));
+        assertThat(budget.getTimeout(), nullValue());
+        assertThat(MatchBudget.ofTimeout(Duration.ofSeconds(1)).getMaxSteps(), equalTo(Long.MAX_VALUE));
+        assertThat(budget.withTimeout(Duration.ofSeconds(1)).getTimeout(), equalTo(Duration.ofSeconds(1)));
+    }
+}
@@ -0,0 +1,102 @@
+package io.github.ricoapon.readableregex;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+class PatternCacheTest {
+    @AfterEach
+    void tearDown() {
+        PatternCache.disable();
+    }
+
+    @Test
+    void cacheIsDisabledByDefault() {
+        assertThat(PatternCache.isEnabled(), equalTo(false));
+        assertThat(regex().digit().build(), not(sameInstance(regex().digit().build())));
+
+        PatternCacheStatistics statistics = PatternCache.statistics();
+        assertThat(statistics.getHitCount() + statistics.getMissCount() + statistics.getEvictionCount() + statistics.getSize(),
+                equalTo(0L));
+        assertThat(statistics.getHitRate(), equalTo(1.0));
+    }
+
+    @Test
+    void samePatternIsReturnedWhenEnabled() {
+        PatternCache.enable(10);
+
+        ReadableRegexPattern pattern = regex().literal("a").digit().build();
+        assertThat(regex().literal("a").digit().build(), sameInstance(pattern));
+        // The same regular expression, constructed differently.
+        assertThat(regex().add(regex().literal("a")).digit().build(), sameInstance(pattern));
+
+        PatternCacheStatistics statistics = PatternCache.statistics();
+        assertThat(statistics.getHitCount(), equalTo(2L));
+        assertThat(statistics.getMissCount(), equalTo(1L));
+        assertThat(statistics.getSize(), equalTo(1));
+        assertThat(statistics.getHitRate(), equalTo(2.0 / 3));
+        assertThat(statistics.toString(), equalTo("PatternCacheStatistics{hitCount=2, missCount=1, evictionCount=0, size=1}"));
+    }
+
+    @Test
+    void flagsAndGroupsArePartOfTheKey() {
+        PatternCache.enable(10);
+
+        ReadableRegexPattern pattern = regex().regexFromString("(?<a>b)").build();
+        ReadableRegexPattern withFlag = regex().regexFromString("(?<a>b)").buildWithFlags(PatternFlag.CASE_INSENSITIVE);
+        ReadableRegexPattern withGroup = regex().group("a", regex().literal("b")).build();
+
+        assertThat(withFlag, not(sameInstance(pattern)));
+        assertThat(withFlag.enabledFlags(), contains(PatternFlag.CASE_INSENSITIVE));
+        assertThat(withGroup, not(sameInstance(pattern)));
+        assertThat(withGroup.groups(), contains("a"));
+        assertThat(PatternCache.statistics().getMissCount(), equalTo(3L));
+    }
+
+    @Test
+    void treesThatRenderTheSameAreNotShared() {
+        PatternCache.enable(10);
+
+        ReadableRegexPattern fromString = regex("(?>\\d+)").buildWithFlags(PatternFlag.AUTO_POSSESSIVE);
+        ReadableRegexPattern fromBuilder = regex().digit().oneOrMore().buildWithFlags(PatternFlag.AUTO_POSSESSIVE);
+        assertThat(fromBuilder.toString(), equalTo(fromString.toString()));
+        assertThat(fromBuilder, not(sameInstance(fromString)));
+        // The quantifier of the builder is not possessive anymore when something follows that it may have to give back.
+        assertThat(regex().add(fromBuilder).digit().build().matchesTextExactly("12"), equalTo(true));
+        assertThat(regex().add(fromString).digit().build().matchesTextExactly("12"), equalTo(false));
+
+        ReadableRegexPattern nestedFromString = regex("(?:a+)+").build();
+        ReadableRegexPattern nestedFromBuilder = regex().add(regex().literal("a").oneOrMore()).oneOrMore().build();
+        assertThat(nestedFromBuilder.toString(), equalTo(nestedFromString.toString()));
+        assertThat(nestedFromString.backtrackingComplexity(), equalTo(BacktrackingComplexity.UNKNOWN));
+        assertThat(nestedFromBuilder.backtrackingComplexity(), equalTo(BacktrackingComplexity.EXPONENTIAL));
+    }
+
+    @Test
+    void patternsAreEvictedWhenCacheIsFull() {
+        PatternCache.enable(1);
+
+        regex().digit().build();
+        regex().whitespace().build();
+
+        assertThat(PatternCache.statistics().getEvictionCount(), equalTo(1L));
+        assertThat(PatternCache.statistics().getSize(), equalTo(1));
+    }
+
+    @Test
+    void clearRemovesAllPatterns() {
+        PatternCache.clear();
+        PatternCache.enable(10);
+        ReadableRegexPattern pattern = regex().digit().build();
+        PatternCache.clear();
+
+        assertThat(regex().digit().build(), not(sameInstance(pattern)));
+        assertThat(PatternCache.statistics().getMissCount(), equalTo(2L));
+    }
+}
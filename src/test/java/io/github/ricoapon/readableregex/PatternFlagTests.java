@@ -2,11 +2,16 @@ package io.github.ricoapon.readableregex;
 
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+
 import static io.github.ricoapon.readableregex.ReadableRegex.regex;
 import static io.github.ricoapon.readableregex.matchers.PatternMatchMatcher.*;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 
 /**
  * Tests related to enabling specific pattern flags.
@@ -57,4 +62,45 @@ public class PatternFlagTests {
         pattern = regex().regexFromString("^a").buildWithFlags(PatternFlag.MULTILINE);
         assertThat(pattern, matchesSomethingFrom("\na"));
     }
+
+    @Test
+    void dfaEngineWorks() {
+        ReadableRegexPattern pattern = regex().oneOf(regex().literal("a"), regex().literal("aa")).oneOrMore().literal("b")
+                .buildWithFlags(PatternFlag.DFA_ENGINE);
+        assertThat(pattern.enabledFlags(), containsInAnyOrder(PatternFlag.DFA_ENGINE));
+        assertThat(pattern, matchesExactly("aaab"));
+        assertThat(pattern, matchesSomethingFrom("caabc"));
+
+        // The backtracking engine would take very long to find out that this text does not match.
+        String text = new String(new char[50]).replace('\0', 'a') + "c";
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            assertThat(pattern.matchesTextExactly(text), equalTo(false));
+            assertThat(pattern.containsMatch(text), equalTo(false));
+        });
+    }
+
+    @Test
+    void pikeVmEngineWorks() {
+        ReadableRegexPattern pattern = regex().group("a", regex().oneOf(regex().literal("a"), regex().literal("aa")).oneOrMore())
+                .literal("b").buildWithFlags(PatternFlag.PIKE_VM_ENGINE);
+        assertThat(pattern.enabledFlags(), containsInAnyOrder(PatternFlag.PIKE_VM_ENGINE));
+        assertThat(pattern.exactMatch("aaab").map(result -> result.group("a")).orElse(null), equalTo("aaa"));
+
+        // The backtracking engine would take very long to find out that this text does not match.
+        String text = new String(new char[50]).replace('\0', 'a') + "c";
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            assertThat(pattern.exactMatch(text).isPresent(), equalTo(false));
+            assertThat(pattern.firstMatch(text).isPresent(), equalTo(false));
+        });
+    }
+
+    @Test
+    void rejectExponentialBacktrackingWorks() {
+        assertThrows(IncorrectConstructionException.class, () -> regex().add(regex().wordCharacter().oneOrMore()).oneOrMore()
+                .buildWithFlags(PatternFlag.REJECT_EXPONENTIAL_BACKTRACKING));
+
+        ReadableRegexPattern pattern = regex().word().buildWithFlags(PatternFlag.REJECT_EXPONENTIAL_BACKTRACKING);
+        assertThat(pattern.enabledFlags(), containsInAnyOrder(PatternFlag.REJECT_EXPONENTIAL_BACKTRACKING));
+        assertThat(pattern, matchesExactly("abc"));
+    }
 }
@@ -0,0 +1,164 @@
+package io.github.ricoapon.readableregex;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReadableRegexLexerTest {
+    private static final ReadableRegexLexer LEXER = ReadableRegexLexer.builder()
+            .token("IF", regex().literal("if"))
+            .token("IDENTIFIER", regex().wordCharacter().oneOrMore())
+            .token("GREATER", regex().literal(">"))
+            .token("GREATER_OR_EQUAL", regex().literal(">="))
+            .token("WHITESPACE", regex().whitespace().oneOrMore())
+            .build();
+
+    private static List<String> describe(ReadableRegexLexer lexer, String text) {
+        ReadableRegexLexer.Tokens tokens = lexer.tokenize(text);
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            result.add(tokens.name(i) + ":" + text.substring(tokens.start(i), tokens.end(i)));
+        }
+        return result;
+    }
+
+    @Test
+    void longestMatchWinsAndThenTheFirstToken() {
+        assertThat(describe(LEXER, "if iffy>=x>y"), contains("IF:if", "WHITESPACE: ", "IDENTIFIER:iffy",
+                "GREATER_OR_EQUAL:>=", "IDENTIFIER:x", "GREATER:>", "IDENTIFIER:y"));
+    }
+
+    @Test
+    void charactersThatNoTokenMatchesAreUnknown() {
+        ReadableRegexLexer.Tokens tokens = LEXER.tokenize("a+-" + new String(Character.toChars(0x1F600)));
+
+        assertThat(tokens.size(), equalTo(4));
+        assertThat(tokens.type(1), equalTo(ReadableRegexLexer.UNKNOWN_TOKEN));
+        assertThat(tokens.name(1), equalTo(null));
+        assertThat(tokens.start(3), equalTo(3));
+        assertThat(tokens.end(3), equalTo(5));
+    }
+
+    @Test
+    void tokenizerReadsTokensOneByOne() {
+        ReadableRegexLexer.Tokenizer tokenizer = LEXER.tokenizer("if x");
+
+        assertThat(tokenizer.next(), equalTo(true));
+        assertThat(Arrays.asList(tokenizer.type(), tokenizer.start(), tokenizer.end()), contains(0, 0, 2));
+        assertThat(tokenizer.next(), equalTo(true));
+        assertThat(tokenizer.next(), equalTo(true));
+        assertThat(LEXER.tokenName(tokenizer.type()), equalTo("IDENTIFIER"));
+        assertThat(tokenizer.next(), equalTo(false));
+    }
+
+    @Test
+    void flagsAndAnchorsOfThePatternsAreUsed() {
+        ReadableRegexLexer lexer = ReadableRegexLexer.builder()
+                .token("SELECT", regex().literal("select").buildWithFlags(PatternFlag.CASE_INSENSITIVE))
+                .token("FIRST", regex().startOfInput().literal("x"))
+                .token("LAST", regex().literal("y").endOfInput())
+                .token("OTHER", regex().anyCharacter())
+                .build();
+
+        assertThat(describe(lexer, "xSeLeCtxyy"), contains("FIRST:x", "SELECT:SeLeCt", "OTHER:x", "OTHER:y", "LAST:y"));
+        assertThat(lexer.tokenize("").size(), equalTo(0));
+    }
+
+    @Test
+    void incorrectTokensAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> ReadableRegexLexer.builder().token("A", regex().literal("a")).token("A", regex().literal("b")));
+        assertThrows(IllegalArgumentException.class, () -> ReadableRegexLexer.builder().token("A", regex().wordBoundary()).build());
+        assertThrows(NullPointerException.class, () -> ReadableRegexLexer.builder().token(null, regex().literal("a")));
+        assertThrows(IndexOutOfBoundsException.class, () -> LEXER.tokenize("a").start(1));
+    }
+
+    @Test
+    void ownImplementationsOfThePatternAreRejected() {
+        Pattern digit = Pattern.compile("\\d");
+        ReadableRegexPattern pattern = new ReadableRegexPattern() {
+            @Override
+            public Matcher matches(String text) {
+                return digit.matcher(text);
+            }
+
+            @Override
+            public Set<PatternFlag> enabledFlags() {
+                return Collections.emptySet();
+            }
+
+            @Override
+            public List<String> groups() {
+                return Collections.emptyList();
+            }
+
+            @Override
+            public Pattern getUnderlyingPattern() {
+                return digit;
+            }
+        };
+
+        assertThrows(IllegalArgumentException.class, () -> ReadableRegexLexer.builder().token("DIGIT", pattern));
+    }
+
+    @Test
+    void randomTextsGiveTheSameTokensAsTryingEveryPattern() {
+        List<ReadableRegexPattern> patterns = Arrays.asList(
+                regex().literal("ab").build(),
+                regex().literal("a").anyCharacterOf("ab").zeroOrMore().build(),
+                regex().digit().oneOrMore().literal(".").digit().zeroOrMore().build(),
+                regex().digit().oneOrMore().build(),
+                regex().literal("b").optional().build());
+        ReadableRegexLexer.Builder builder = ReadableRegexLexer.builder();
+        for (int i = 0; i < patterns.size(); i++) {
+            builder.token("T" + i, patterns.get(i));
+        }
+        ReadableRegexLexer lexer = builder.build();
+
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(12);
+            for (int j = 0; j < length; j++) {
+                text.append("ab1.x".charAt(random.nextInt(5)));
+            }
+            assertThat(text.toString(), describe(lexer, text.toString()), equalTo(tokenizeNaively(lexer, patterns, text.toString())));
+        }
+    }
+
+    /**
+     * Tries every pattern at every position, using the longest text that a pattern can match at the position.
+     */
+    private static List<String> tokenizeNaively(ReadableRegexLexer lexer, List<ReadableRegexPattern> patterns, String text) {
+        List<String> result = new ArrayList<>();
+        int position = 0;
+        while (position < text.length()) {
+            int bestEnd = position + 1;
+            String bestName = null;
+            for (int i = 0; i < patterns.size(); i++) {
+                for (int end = text.length(); end > position; end--) {
+                    Matcher matcher = patterns.get(i).matches(text).region(position, end);
+                    if (matcher.matches() && end > bestEnd - (bestName == null ? 1 : 0)) {
+                        bestEnd = end;
+                        bestName = lexer.tokenName(i);
+                    }
+                }
+            }
+            result.add(bestName + ":" + text.substring(position, bestEnd));
+            position = bestEnd;
+        }
+        return result;
+    }
+}
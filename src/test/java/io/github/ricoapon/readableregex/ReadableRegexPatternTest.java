@@ -1,11 +1,32 @@
 package io.github.ricoapon.readableregex;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import static io.github.ricoapon.readableregex.ReadableRegex.regex;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class ReadableRegexPatternTest {
     @Test
@@ -27,4 +48,252 @@ class ReadableRegexPatternTest {
         assertThat(pattern.groups(), contains("first", null, "third"));
         assertThat(pattern.nrOfGroups(), equalTo(3));
     }
+
+    @Test
+    void groupsOfAddedBuildersAndPatternsAreRecorded() {
+        ReadableRegexPattern nested = regex().group("second", regex().digit()).build();
+        ReadableRegexPattern pattern = regex()
+                .add(regex().group("first", regex().digit()))
+                .add(nested)
+                .oneOf(regex().group(regex().digit()), regex().group("fourth", regex().digit()))
+                .build();
+
+        assertThat(pattern.groups(), contains("first", "second", null, "fourth"));
+        Matcher matcher = pattern.matches("123");
+        assertThat(matcher.matches(), equalTo(true));
+        assertThat(matcher.group("second"), equalTo("2"));
+    }
+
+    @Test
+    void containsMatchAndCountMatchesWork() {
+        ReadableRegexPattern pattern = regex().digit().oneOrMore().build();
+
+        assertThat(pattern.containsMatch("a12b"), equalTo(true));
+        assertThat(pattern.containsMatch("ab"), equalTo(false));
+        assertThat(pattern.countMatches("1a23b456"), equalTo(3));
+        assertThat(pattern.countMatches(""), equalTo(0));
+    }
+
+    @Test
+    void reusableMatcherIsReusedOnTheSameThreadAndReset() throws Exception {
+        ReadableRegexPattern pattern = regex().digit().build();
+
+        Matcher matcher = pattern.reusableMatcher("a1");
+        assertThat(matcher.find(), equalTo(true));
+        matcher.usePattern(Pattern.compile("a")).region(1, 2).useTransparentBounds(true).useAnchoringBounds(false);
+
+        assertThat(pattern.reusableMatcher("2"), sameInstance(matcher));
+        assertThat(matcher.pattern(), sameInstance(pattern.getUnderlyingPattern()));
+        assertThat(matcher.hasTransparentBounds(), equalTo(false));
+        assertThat(matcher.hasAnchoringBounds(), equalTo(true));
+        assertThat(matcher.matches(), equalTo(true));
+
+        // Other threads get their own matcher.
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            assertThat(executorService.submit(() -> pattern.reusableMatcher("3")).get(), not(sameInstance(matcher)));
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    void methodsWithoutMatcherDoNotChangeTheReusableMatcher() {
+        ReadableRegexPattern pattern = regex().digit().build();
+
+        Matcher matcher = pattern.reusableMatcher("1");
+        assertThat(pattern.matchesTextExactly("a"), equalTo(false));
+        assertThat(pattern.containsMatch("a"), equalTo(false));
+        assertThat(pattern.countMatches("a"), equalTo(0));
+        assertThat(matcher.matches(), equalTo(true));
+    }
+
+    @Test
+    void textCanBeAnyCharSequence() {
+        ReadableRegexPattern pattern = regex().digit().build();
+        CharSequence text = CharBuffer.wrap("a1b2c3").subSequence(1, 4);
+
+        assertThat(pattern.matches(new StringBuilder("1")).matches(), equalTo(true));
+        assertThat(pattern.reusableMatcher(text).find(), equalTo(true));
+        assertThat(pattern.matchesTextExactly(text), equalTo(false));
+        assertThat(pattern.containsMatch(text), equalTo(true));
+        assertThat(pattern.countMatches(text), equalTo(2));
+    }
+
+    /**
+     * @return Pattern of digits that only implements the methods that have no default.
+     */
+    private static ReadableRegexPattern ownImplementation() {
+        Pattern digit = Pattern.compile("\\d");
+        return new ReadableRegexPattern() {
+            @Override
+            public Matcher matches(String text) {
+                return digit.matcher(text);
+            }
+
+            @Override
+            public Set<PatternFlag> enabledFlags() {
+                return Collections.emptySet();
+            }
+
+            @Override
+            public List<String> groups() {
+                return Collections.emptyList();
+            }
+
+            @Override
+            public Pattern getUnderlyingPattern() {
+                return digit;
+            }
+        };
+    }
+
+    @Test
+    void ownImplementationsOnlyHaveToMatchStrings() {
+        ReadableRegexPattern pattern = ownImplementation();
+
+        assertThat(pattern.matchesTextExactly(new StringBuilder("1")), equalTo(true));
+        assertThat(pattern.containsMatch(CharBuffer.wrap("a1")), equalTo(true));
+        assertThat(pattern.countMatches("1a2"), equalTo(2));
+        assertThat(pattern.exactMatch("1").map(ReadableMatchResult::group), equalTo(Optional.of("1")));
+        assertThat(pattern.exactMatch("1a").isPresent(), equalTo(false));
+        assertThat(pattern.firstMatch("a2b3").map(ReadableMatchResult::start), equalTo(Optional.of(1)));
+        assertThat(pattern.findAll("1a2").map(ReadableMatchResult::group).collect(Collectors.toList()), contains("1", "2"));
+        List<Integer> starts = new ArrayList<>();
+        pattern.forEachMatch("1a2", match -> starts.add(match.start()));
+        assertThat(starts, contains(0, 2));
+    }
+
+    @Test
+    void ownImplementationsCanUseParallelFindAll(@TempDir Path directory) throws IOException {
+        ReadableRegexPattern pattern = ownImplementation();
+
+        assertThat(pattern.parallelFindAll("1a2\n3").stream().map(ReadableMatchResult::start).collect(Collectors.toList()),
+                contains(0, 2, 4));
+
+        Path file = directory.resolve("digits.txt");
+        Files.write(file, "\u00e91\n2".getBytes(StandardCharsets.UTF_8));
+        List<FileMatchResult> matches = pattern.parallelFindAll(file, StandardCharsets.UTF_8);
+        assertThat(matches.stream().map(FileMatchResult::start).collect(Collectors.toList()), contains(2L, 4L));
+        assertThat(matches.stream().map(FileMatchResult::group).collect(Collectors.toList()), contains("1", "2"));
+    }
+
+    @Test
+    void exactMatchAndFirstMatchReturnTheGroups() {
+        for (PatternFlag[] flags : new PatternFlag[][]{{}, {PatternFlag.PIKE_VM_ENGINE}, {PatternFlag.PIKE_VM_ENGINE, PatternFlag.DFA_ENGINE}}) {
+            ReadableRegexPattern pattern = regex().group("key", regex().wordCharacter().oneOrMore())
+                    .literal("=").group(regex().digit().oneOrMore()).buildWithFlags(flags);
+
+            ReadableMatchResult exactMatch = pattern.exactMatch("id=15").orElseThrow(AssertionError::new);
+            assertThat(exactMatch.group("key"), equalTo("id"));
+            assertThat(exactMatch.group(2), equalTo("15"));
+            assertThat(exactMatch.start("key"), equalTo(0));
+            assertThat(exactMatch.end(2), equalTo(5));
+            assertThat(exactMatch.groupCount(), equalTo(2));
+            assertThrows(IllegalArgumentException.class, () -> exactMatch.group("unknown"));
+            assertThat(pattern.exactMatch("id=15;").isPresent(), equalTo(false));
+
+            ReadableMatchResult firstMatch = pattern.firstMatch("a, id=15; b=2").orElseThrow(AssertionError::new);
+            assertThat(firstMatch.group(), equalTo("id=15"));
+            assertThat(firstMatch.start(), equalTo(3));
+            assertThat(firstMatch.group("key"), equalTo("id"));
+            assertThat(pattern.firstMatch("a, b").isPresent(), equalTo(false));
+        }
+    }
+
+    @Test
+    void textsWithoutTheRequiredLiteralAreSkippedWithTheSameResults() {
+        // Every match contains "ERROR", but it does not start with it.
+        assertTextsWithoutTheRequiredLiteralAreSkipped(regex().digit().oneOrMore().literal(" ERROR ")
+                .group(regex().wordCharacter().oneOrMore()).build());
+        assertTextsWithoutTheRequiredLiteralAreSkipped(regex().digit().oneOrMore().literal(" ERROR ")
+                .group(regex().wordCharacter().oneOrMore()).buildWithFlags(PatternFlag.CASE_INSENSITIVE));
+    }
+
+    private static void assertTextsWithoutTheRequiredLiteralAreSkipped(ReadableRegexPattern pattern) {
+        Pattern jdkPattern = pattern.getUnderlyingPattern();
+
+        for (String text : new String[]{"", "1 ERROR a", "1 INFO a", "ERROR 1 ERROR x 2 ERROR y", "1 ERROR 2 ERROR ", "x ERROR y",
+                "1 error a", "1 eRrOr a 2 Error b", "1 \u00c9RROR a", "1 ERR\u00d6R a"}) {
+            for (CharSequence sequence : new CharSequence[]{text, CharBuffer.wrap(text)}) {
+                Matcher matcher = jdkPattern.matcher(text);
+                boolean found = matcher.find();
+                assertThat(text, pattern.containsMatch(sequence), equalTo(found));
+                assertThat(text, pattern.firstMatch(sequence).map(ReadableMatchResult::group).orElse(null),
+                        equalTo(found ? matcher.group() : null));
+
+                int count = found ? 1 : 0;
+                while (matcher.find()) {
+                    count++;
+                }
+                assertThat(text, pattern.countMatches(sequence), equalTo(count));
+            }
+        }
+    }
+
+    @Test
+    void searchingLongTextsWithManyOrFewPossibleStartsFindsTheSameMatches() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            sb.append(i % 37 == 0 ? "ab1 x-9 " : "word ");
+        }
+        String text = sb.toString();
+
+        ReadableRegex<?>[] regexes = {
+                regex().anyCharacterOf("a-z").exactlyNTimes(2).digit(),
+                regex().wordBoundary().anyCharacterOf("a-z").oneOrMore().digit(),
+                regex().positiveLookbehind(regex().literal("-")).digit(),
+                regex().startOfLine().literal("word")
+        };
+        for (ReadableRegex<?> regex : regexes) {
+            ReadableRegexPattern pattern = regex.build();
+            Matcher matcher = pattern.getUnderlyingPattern().matcher(text);
+            int count = 0;
+            while (matcher.find()) {
+                count++;
+            }
+            assertThat(pattern.toString(), pattern.countMatches(text), equalTo(count));
+            assertThat(pattern.toString(), pattern.containsMatch(text), equalTo(count > 0));
+        }
+    }
+
+    @Test
+    void findAllReturnsTheMatchesLazily() {
+        ReadableRegexPattern pattern = regex().group("key", regex().wordCharacter().oneOrMore()).literal("=").digit().build();
+        String text = "a=1 b=x c=3 d=4";
+
+        assertThat(pattern.findAll(text).map(result -> result.group("key")).collect(Collectors.toList()), contains("a", "c", "d"));
+        assertThat(pattern.findAll(text).map(ReadableMatchResult::start).findFirst().orElse(-1), equalTo(0));
+        assertThat(pattern.findAll("").count(), equalTo(0L));
+    }
+
+    @Test
+    void findAllInParallelReturnsTheMatchesInOrder() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            sb.append("line ").append(i).append(i % 3 == 0 ? " ERROR " : " INFO ").append(i % 7).append('\n');
+        }
+        String text = sb.toString();
+        ReadableRegexPattern pattern = regex().literal("ERROR ").group(regex().digit()).build();
+
+        List<String> expected = pattern.findAll(text).map(result -> result.start() + result.group(1)).collect(Collectors.toList());
+        assertThat(expected.size(), equalTo(6667));
+        assertThat(pattern.findAll(text).parallel().map(result -> result.start() + result.group(1)).collect(Collectors.toList()),
+                equalTo(expected));
+    }
+
+    @Test
+    void forEachMatchReusesTheResult() {
+        ReadableRegexPattern pattern = regex().group("key", regex().wordCharacter().oneOrMore()).literal("=").digit().build();
+        List<String> keys = new ArrayList<>();
+        Set<ReadableMatchResult> results = new HashSet<>();
+
+        pattern.forEachMatch("a=1 b=x c=3", result -> {
+            keys.add(result.group("key") + result.end());
+            results.add(result);
+        });
+
+        assertThat(keys, contains("a3", "c11"));
+        assertThat(results.size(), equalTo(1));
+    }
 }
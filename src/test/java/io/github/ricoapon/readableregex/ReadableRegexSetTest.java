@@ -0,0 +1,102 @@
+package io.github.ricoapon.readableregex;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class ReadableRegexSetTest {
+    private static void assertSameAsPatterns(ReadableRegexSet set, String text) {
+        BitSet expectedMatching = new BitSet();
+        BitSet expectedExactlyMatching = new BitSet();
+        for (int i = 0; i < set.size(); i++) {
+            expectedMatching.set(i, set.getPattern(i).containsMatch(text));
+            expectedExactlyMatching.set(i, set.getPattern(i).matchesTextExactly(text));
+        }
+        assertThat(text, set.matchingIndices(text), equalTo(expectedMatching));
+        assertThat(text, set.exactlyMatchingIndices(text), equalTo(expectedExactlyMatching));
+        assertThat(text, set.anyMatch(text), equalTo(!expectedMatching.isEmpty()));
+    }
+
+    @Test
+    void indicesOfMatchingPatternsAreReturned() {
+        ReadableRegexSet set = ReadableRegexSet.of(
+                regex().literal("error"),
+                regex().startOfInput().digit().oneOrMore(),
+                regex().literal("timeout").whitespace().optional().endOfInput(),
+                regex().literal("err").anyCharacter().oneOrMore());
+
+        assertThat(set.size(), equalTo(4));
+        assertThat(set.matchingIndices("error: timeout"), equalTo(BitSet.valueOf(new long[]{0b1101})));
+        assertThat(set.exactlyMatchingIndices("error: timeout"), equalTo(BitSet.valueOf(new long[]{0b1000})));
+        assertThat(set.matchingIndices("42 ok"), equalTo(BitSet.valueOf(new long[]{0b0010})));
+        assertThat(set.anyMatch("ok"), equalTo(false));
+    }
+
+    @Test
+    void unsupportedPatternsAreMatchedOneByOne() {
+        ReadableRegexSet set = ReadableRegexSet.of(
+                regex().wordBoundary().literal("id").wordBoundary(),
+                regex().literal("a").positiveLookahead(regex().digit()),
+                regex().regexFromString("(x)\\1"),
+                regex().literal("ab").startOfLine(),
+                regex().digit().exactlyNTimes(2));
+
+        for (String text : Arrays.asList("", "id", "valid", "a1", "ab", "xx", "12", "a ID 12", "ab\nxx")) {
+            assertSameAsPatterns(set, text);
+        }
+    }
+
+    @Test
+    void flagsApplyToAllPatterns() {
+        ReadableRegexSet set = ReadableRegexSet.of(Arrays.asList(regex().literal("abc"), regex().literal("a").anyCharacter()),
+                PatternFlag.CASE_INSENSITIVE, PatternFlag.DOT_ALL);
+
+        assertThat(set.matchingIndices("ABC"), equalTo(BitSet.valueOf(new long[]{0b11})));
+        assertThat(set.exactlyMatchingIndices("a\n"), equalTo(BitSet.valueOf(new long[]{0b10})));
+    }
+
+    @Test
+    void emptySetMatchesNothing() {
+        ReadableRegexSet set = ReadableRegexSet.of();
+
+        assertThat(set.matchingIndices("abc").isEmpty(), equalTo(true));
+        assertThat(set.anyMatch(""), equalTo(false));
+    }
+
+    @Test
+    void manyPatternsGiveTheSameResultsAsMatchingThemOneByOne() {
+        List<ReadableRegex<?>> regexes = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            switch (i % 4) {
+                case 0:
+                    regexes.add(regex().literal("user" + i).whitespace().digit().oneOrMore());
+                    break;
+                case 1:
+                    regexes.add(regex().startOfInput().literal(Integer.toString(i)));
+                    break;
+                case 2:
+                    regexes.add(regex().oneOf(regex().literal("GET /" + i), regex().literal("POST /" + i)).endOfInput());
+                    break;
+                default:
+                    regexes.add(regex().wordBoundary().literal("id" + i).wordBoundary());
+                    break;
+            }
+        }
+        ReadableRegexSet set = ReadableRegexSet.of(regexes);
+
+        List<String> texts = new ArrayList<>(Arrays.asList("", "user4 12", "5 user8 1 and user12 9", "GET /6", "POST /10 id11",
+                "id11x", "nothing to see here"));
+        texts.add(String.join(" ", Collections.nCopies(100, "user400 1")));
+        for (String text : texts) {
+            assertSameAsPatterns(set, text);
+        }
+    }
+}
@@ -2,18 +2,35 @@ package io.github.ricoapon.readableregex;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.github.ricoapon.readableregex.matchers.PatternMatchMatcher;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import javax.inject.Inject;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import static io.github.ricoapon.readableregex.ReadableRegex.regex;
 import static io.github.ricoapon.readableregex.RegexObjectInstantiation.instantiateObject;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  * All the code in the README should be identical to the code in this file. This way, we make sure that the code in the
@@ -43,8 +60,8 @@ class ReadmeTests {
             // The matchesText will return a boolean whether we have an *exact* match or not!
             assertThat(pattern.matchesTextExactly("https://www.github.com"), equalTo(true));
 
-            // toString() method will return the underlying pattern. Not really readable though, that is why we have this library!
-            assertThat(pattern.toString(), equalTo("(?:\\Qhttp\\E)(?:\\Qs\\E)?(?:\\Q://\\E)[^ ]*"));
+            // toString() method will return the underlying pattern. Groups and escape characters are only added where they are needed.
+            assertThat(pattern.toString(), equalTo("https?://[^ ]*"));
         }
 
         @Test
@@ -136,6 +153,15 @@ class ReadmeTests {
             matcher = possessivePattern.matches(text);
             assertThat(matcher.find(), equalTo(false));
         }
+
+        @Test
+        void example2() {
+            ReadableRegexPattern pattern = regex().digit().oneOrMore().literal("-").digit().oneOrMore()
+                    .buildWithFlags(PatternFlag.AUTO_POSSESSIVE);
+
+            // A dash can never be matched by a digit, so giving back digits is useless. (?>...) has the same meaning as possessive.
+            assertThat(pattern.toString(), equalTo("(?>\\d+)-(?>\\d+)"));
+        }
     }
 
     @Nested
@@ -231,4 +257,173 @@ class ReadmeTests {
             assertThat(myPojo.id, equalTo(15));
         }
     }
+
+    @Nested
+    class CachingPatterns {
+        @AfterEach
+        void tearDown() {
+            PatternCache.disable();
+        }
+
+        @Test
+        void example() {
+            PatternCache.enable(1000); // At most 1000 patterns are kept. The least recently used pattern is removed first.
+
+            ReadableRegexPattern pattern = regex().literal("id=").digit().oneOrMore().build();
+            assertThat(regex().literal("id=").digit().oneOrMore().build(), sameInstance(pattern));
+            assertThat(PatternCache.statistics().getHitCount(), equalTo(1L));
+        }
+    }
+
+    @Nested
+    class LinearTimeMatching {
+        @Test
+        void example() {
+            ReadableRegexPattern pattern = regex().oneOf(regex().literal("a"), regex().literal("aa")).oneOrMore().literal("b")
+                    .buildWithFlags(PatternFlag.DFA_ENGINE);
+
+            // The JDK engine tries every way to split the a's, before finding out that the b is missing.
+            assertThat(pattern.matchesTextExactly("aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaac"), equalTo(false));
+        }
+
+        @Test
+        void groups() {
+            ReadableRegexPattern pattern = regex().group("key", regex().wordCharacter().oneOrMore())
+                    .literal("=").group("value", regex().digit().oneOrMore())
+                    .buildWithFlags(PatternFlag.PIKE_VM_ENGINE);
+
+            Optional<ReadableMatchResult> result = pattern.firstMatch("size=42");
+            assertThat(result.map(r -> r.group("value")).orElse(null), equalTo("42"));
+        }
+
+        @Test
+        void manyLiterals() {
+            ReadableRegexPattern pattern = regex().oneOfLiterals(Arrays.asList("spam", "scam", "phishing")).build();
+
+            assertThat(pattern.countMatches("no spam, no scam"), equalTo(2));
+        }
+    }
+
+    @Nested
+    class DetectingCatastrophicBacktracking {
+        @Test
+        void example() {
+            // A word is already a repetition of word characters, so "abc" can be matched as "abc", "ab" + "c", "a" + "bc", etc.
+            ReadableRegexPattern pattern = regex().add(regex().word()).oneOrMore().build();
+            assertThat(pattern.backtrackingComplexity(), equalTo(BacktrackingComplexity.EXPONENTIAL));
+
+            assertThrows(IncorrectConstructionException.class, () ->
+                    regex().add(regex().word()).oneOrMore().buildWithFlags(PatternFlag.REJECT_EXPONENTIAL_BACKTRACKING));
+        }
+    }
+
+    @Nested
+    class LimitingTheMatchingTime {
+        @Test
+        void example() {
+            // Without an x after the digits, every split of the digits over the two repetitions is tried at every position.
+            ReadableRegexPattern pattern = regex().digit().oneOrMore().digit().oneOrMore().literal("x").build();
+            MatchBudget budget = MatchBudget.ofSteps(10_000).withTimeout(Duration.ofMillis(100));
+
+            assertThat(pattern.containsMatch("12x", budget), equalTo(true));
+            String text = "x" + String.join("", Collections.nCopies(1000, "1"));
+            assertThrows(MatchBudgetExceededException.class, () -> pattern.containsMatch(text, budget));
+        }
+    }
+
+    @Nested
+    class MatchingManyPatternsAtOnce {
+        @Test
+        void example() {
+            ReadableRegexSet rules = ReadableRegexSet.of(
+                    regex().literal("ERROR"),
+                    regex().literal("timeout after ").digit().oneOrMore().literal("ms"),
+                    regex().startOfInput().literal("DEBUG"));
+
+            BitSet matchingRules = rules.matchingIndices("ERROR: timeout after 300ms");
+            assertThat(matchingRules.stream().boxed().collect(Collectors.toList()), contains(0, 1));
+            assertThat(rules.exactlyMatchingIndices("ERROR").get(0), equalTo(true));
+        }
+    }
+
+    @Nested
+    class TokenizingAText {
+        @Test
+        void example() {
+            ReadableRegexLexer lexer = ReadableRegexLexer.builder()
+                    .token("IF", regex().literal("if"))
+                    .token("IDENTIFIER", regex().wordCharacter().oneOrMore())
+                    .token("GREATER", regex().literal(">"))
+                    .token("GREATER_OR_EQUAL", regex().literal(">="))
+                    .build();
+
+            ReadableRegexLexer.Tokens tokens = lexer.tokenize("if iffy>=1");
+            assertThat(tokens.name(0), equalTo("IF"));
+            assertThat(tokens.type(1), equalTo(ReadableRegexLexer.UNKNOWN_TOKEN));
+            assertThat(tokens.name(2), equalTo("IDENTIFIER"));
+            assertThat(tokens.name(3), equalTo("GREATER_OR_EQUAL"));
+            assertThat(tokens.end(4), equalTo(10));
+        }
+    }
+
+    @Nested
+    class ScanningLargeTexts {
+        @Test
+        void example() throws IOException {
+            ReadableRegexPattern pattern = regex().literal("ERROR ").group("code", regex().digit().oneOrMore()).build();
+            Reader reader = new StringReader("INFO started\nERROR 42\nERROR 7\n");
+
+            List<String> codes = new ArrayList<>();
+            try (StreamMatcher matcher = pattern.streamMatcher(reader)) {
+                while (matcher.find()) {
+                    codes.add(matcher.group("code") + "@" + matcher.start());
+                }
+            }
+            assertThat(codes, contains("42@13", "7@22"));
+        }
+
+        @Test
+        void mappedFile() throws IOException {
+            ReadableRegexPattern pattern = regex().literal("ERROR ").group("code", regex().digit().oneOrMore()).build();
+            Path file = Files.createTempFile("app", ".log");
+            Files.write(file, "INFO caf\u00e9 opened\nERROR 42\n".getBytes(StandardCharsets.UTF_8));
+
+            FileMatcher matcher = pattern.fileMatcher(file, StandardCharsets.UTF_8);
+            assertThat(matcher.find(), equalTo(true));
+            assertThat(matcher.start(), equalTo(18L));
+            Files.delete(file);
+        }
+
+        @Test
+        void utf8Bytes() {
+            ReadableRegexPattern pattern = regex().literal("ERROR ").group("code", regex().digit().oneOrMore()).build();
+            byte[] message = "caf\u00e9 ERROR 42".getBytes(StandardCharsets.UTF_8);
+
+            Utf8Matcher matcher = pattern.utf8Matcher(message);
+            assertThat(matcher.find(), equalTo(true));
+            assertThat(matcher.start("code"), equalTo(12));
+        }
+
+        @Test
+        void parallel() {
+            ReadableRegexPattern pattern = regex().literal("ERROR ").group("code", regex().digit().oneOrMore()).build();
+            assertThat(pattern.isLineOriented(), equalTo(true));
+
+            List<ReadableMatchResult> matches = pattern.parallelFindAll("INFO started\nERROR 42\nERROR 7\n");
+            assertThat(matches.get(1).group("code"), equalTo("7"));
+        }
+
+        @Test
+        void stream() {
+            ReadableRegexPattern pattern = regex().literal("ERROR ").group("code", regex().digit().oneOrMore()).build();
+            String log = "INFO started\nERROR 42\nERROR 7\n";
+
+            List<String> codes = pattern.findAll(log).parallel().map(m -> m.group("code")).collect(Collectors.toList());
+            assertThat(codes, contains("42", "7"));
+
+            StringBuilder summary = new StringBuilder();
+            pattern.forEachMatch(log, m -> summary.append(m.group("code")).append('@').append(m.start()).append(' '));
+            assertThat(summary.toString(), equalTo("42@13 7@22 "));
+        }
+    }
 }
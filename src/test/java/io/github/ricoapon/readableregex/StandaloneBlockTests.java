@@ -4,11 +4,16 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
 import static io.github.ricoapon.readableregex.Constants.*;
 import static io.github.ricoapon.readableregex.ReadableRegex.regex;
 import static io.github.ricoapon.readableregex.matchers.PatternMatchMatcher.*;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
@@ -32,6 +37,37 @@ class StandaloneBlockTests {
             assertThat(pattern, doesntMatchExactly("aaabbb"));
             assertThat(pattern, doesntMatchAnythingFrom("a"));
         }
+
+        @Test
+        void previousBlockIsNotMergedWithInput() {
+            ReadableRegexPattern pattern = regex().literal("ab").regexFromString("+").build();
+
+            assertThat(pattern, matchesExactly("ababab"));
+            assertThat(pattern, doesntMatchExactly("abbb"));
+        }
+
+        @Test
+        void quantifierAppliesToTheBlockBeforeIt() {
+            ReadableRegexPattern literals = regex().literal("a").literal("b").regexFromString("+").build();
+            assertThat(literals, matchesExactly("abb"));
+            assertThat(literals, doesntMatchExactly("abab"));
+
+            ReadableRegexPattern added = regex().add(regex().literal("a").digit()).regexFromString("+").build();
+            assertThat(added, matchesExactly("a1a1"));
+            assertThat(added, doesntMatchExactly("a11"));
+
+            ReadableRegexPattern group = regex().startUnnamedGroup().literal("a").digit().endGroup().regexFromString("{2}").build();
+            assertThat(group, matchesExactly("a1a2"));
+            assertThat(group, doesntMatchExactly("a12"));
+        }
+
+        @Test
+        void literalsAreNotChangedByCommentsMode() {
+            ReadableRegexPattern pattern = regex().regexFromString("(?x)").literal("a b #c\t\n").build();
+
+            assertThat(pattern, matchesExactly("a b #c\t\n"));
+            assertThat(pattern, doesntMatchExactly("ab"));
+        }
     }
 
     @Nested
@@ -90,6 +126,14 @@ class StandaloneBlockTests {
             assertThat(pattern, matchesExactly("a.()[]\\/|?.+*"));
         }
 
+        @Test
+        void adjacentLiteralsAreStandaloneBlocks() {
+            ReadableRegexPattern pattern = regex().literal("a").literal("bc").oneOrMore().literal("{2}").build();
+
+            assertThat(pattern, matchesExactly("abcbc{2}"));
+            assertThat(pattern, doesntMatchExactly("abcc{2}"));
+        }
+
         @Test
         void literalCanBeCombinedWithMetaCharacters() {
             ReadableRegexPattern pattern = regex()
@@ -166,6 +210,36 @@ class StandaloneBlockTests {
         }
     }
 
+    @Nested
+    class OneOfLiterals {
+        @Test
+        void throwWhenArgumentIsNullOrEmpty() {
+            assertThrows(NullPointerException.class, () -> regex().oneOfLiterals(null));
+            assertThrows(NullPointerException.class, () -> regex().oneOfLiterals(Arrays.asList("a", null)));
+            assertThrows(IllegalArgumentException.class, () -> regex().oneOfLiterals(Collections.emptyList()));
+        }
+
+        @Test
+        void literalsAreEscapedAndTriedInOrder() {
+            ReadableRegexPattern pattern = regex().oneOfLiterals(Arrays.asList("a.c", "a", "ab")).build();
+
+            assertThat(pattern, matchesExactly("a.c"));
+            assertThat(pattern, matchesExactly("ab"));
+            assertThat(pattern, doesntMatchExactly("abc"));
+            assertThat(pattern.firstMatch("xab").map(ReadableMatchResult::group), equalTo(Optional.of("a")));
+            assertThat(pattern.countMatches("a.cabab"), equalTo(3));
+        }
+
+        @Test
+        void oneOfLiteralsAreStandaloneBlocks() {
+            ReadableRegexPattern pattern = regex().literal("a").oneOfLiterals(Arrays.asList("b", "cd")).optional().build();
+
+            assertThat(pattern, matchesExactly("a"));
+            assertThat(pattern, matchesExactly("acd"));
+            assertThat(pattern, doesntMatchExactly("ac"));
+        }
+    }
+
     @Nested
     class RangeAndNotInRange {
         @Test
@@ -0,0 +1,190 @@
+package io.github.ricoapon.readableregex;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StreamMatcherTest {
+    /**
+     * Reader that returns at most a few characters per call, like a reader of a network connection.
+     */
+    private static final class SlowReader extends FilterReader {
+        private final int maxCharacters;
+
+        SlowReader(String text, int maxCharacters) {
+            super(new StringReader(text));
+            this.maxCharacters = maxCharacters;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            return super.read(cbuf, off, Math.min(len, maxCharacters));
+        }
+    }
+
+    private static List<String> findAll(StreamMatcher matcher) throws IOException {
+        List<String> result = new ArrayList<>();
+        while (matcher.find()) {
+            result.add(matcher.start() + "-" + matcher.end() + ":" + matcher.group());
+        }
+        return result;
+    }
+
+    private static List<String> findAll(Matcher matcher) {
+        List<String> result = new ArrayList<>();
+        while (matcher.find()) {
+            result.add(matcher.start() + "-" + matcher.end() + ":" + matcher.group());
+        }
+        return result;
+    }
+
+    @Test
+    void matchesThatSpanRefillsAreFound() throws IOException {
+        ReadableRegexPattern pattern = regex().group("number", regex().digit().oneOrMore()).build();
+        StreamMatcher matcher = pattern.streamMatcher(new SlowReader("ab12345cd6789", 3), 16);
+
+        assertThat(matcher.find(), equalTo(true));
+        assertThat(matcher.group("number"), equalTo("12345"));
+        assertThat(Arrays.asList(matcher.start(1), matcher.end("number")), contains(2L, 7L));
+        assertThat(matcher.find(), equalTo(true));
+        assertThat(matcher.group(), equalTo("6789"));
+        assertThat(matcher.find(), equalTo(false));
+        assertThrows(IllegalStateException.class, matcher::group);
+    }
+
+    @Test
+    void resultsAreTheSameAsMatchingTheFullText() throws IOException {
+        List<ReadableRegexPattern> patterns = Arrays.asList(
+                regex().literal("ab").build(),
+                regex().literal("a").zeroOrMore().build(),
+                regex().wordBoundary().literal("b").oneOrMore().wordBoundary().build(),
+                regex().startOfLine().literal("a").build(),
+                regex().literal("b").endOfLine().build(),
+                regex().startOfInput().literal("a").oneOrMore().build(),
+                regex().literal("b").endOfInput().build(),
+                regex().literal("a").anyCharacter().betweenNAndMTimes(1, 10).literal("b").build(),
+                regex().positiveLookbehind(regex().literal("b")).literal("a").build(),
+                regex().anyCharacter().buildWithFlags(PatternFlag.DOT_ALL),
+                regex().startOfLine().anyCharacterOf("ab").buildWithFlags(PatternFlag.MULTILINE));
+        String smiley = new String(Character.toChars(0x1F600));
+
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(200);
+            for (int j = 0; j < length; j++) {
+                text.append(Arrays.asList("a", "b", " ", "\n", smiley).get(random.nextInt(5)));
+            }
+            ReadableRegexPattern pattern = patterns.get(i % patterns.size());
+            StreamMatcher matcher = pattern.streamMatcher(new SlowReader(text.toString(), 1 + random.nextInt(20)), 32);
+
+            assertThat(pattern + " on " + text, findAll(matcher), equalTo(findAll(pattern.matches(text))));
+        }
+    }
+
+    @Test
+    void memoryIsBounded() throws IOException {
+        ReadableRegexPattern pattern = regex().literal("needle").build();
+        Reader reader = new Reader() {
+            private long remaining = 10_000_000;
+
+            @Override
+            public int read(char[] cbuf, int off, int len) {
+                if (remaining == 0) {
+                    return -1;
+                }
+                int read = (int) Math.min(len, remaining);
+                Arrays.fill(cbuf, off, off + read, 'x');
+                if (remaining == 5_000_003) {
+                    "needle".getChars(0, 6, cbuf, off);
+                }
+                remaining -= read;
+                return read;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        StreamMatcher matcher = pattern.streamMatcher(reader, 16);
+
+        assertThat(findAll(matcher), contains("4999997-5000003:needle"));
+    }
+
+    @Test
+    void matchesLongerThanHalfTheBufferThrowAnException() throws IOException {
+        ReadableRegexPattern pattern = regex().literal("a").digit().oneOrMore().literal("b").build();
+        String text = "a123b xxxxxxxxxxxxxxxx a12345678b";
+
+        StreamMatcher matcher = pattern.streamMatcher(new SlowReader(text, 4), 16);
+        assertThat(matcher.find(), equalTo(true));
+        assertThat(matcher.group(), equalTo("a123b"));
+        IllegalStateException exception = assertThrows(IllegalStateException.class, matcher::find);
+        assertThat(exception.getMessage(), containsString("offset 23"));
+        assertThrows(IllegalStateException.class, matcher::find);
+
+        assertThat(findAll(pattern.streamMatcher(new SlowReader(text, 4), 32)), contains("0-5:a123b", "23-33:a12345678b"));
+    }
+
+    @Test
+    void shorterMatchesAreNotReportedInsteadOfALongMatch() {
+        ReadableRegexPattern pattern = regex().regexFromString("(?:(?:.{2})*|.)\\B[^a1]").buildWithFlags(PatternFlag.DOT_ALL);
+        String text = "-\ud83d\ude00\u00e9aa.\ud83d\ude00B";
+        assertThat(findAll(pattern.matches(text)), contains("0-9:" + text.substring(0, 9)));
+
+        assertThrows(IllegalStateException.class, () -> findAll(pattern.streamMatcher(new StringReader(text), 16)));
+    }
+
+    @Test
+    void surrogatePairBeforeThePositionIsKept() throws IOException {
+        String smiley = "\ud83d\ude00";
+        // After a smiley is matched, the next match is searched right after it and looks back at it.
+        ReadableRegexPattern pattern = regex().oneOf(regex().literal(smiley),
+                regex().positiveLookbehind(regex().literal(smiley)).literal("a")).build();
+        Random random = new Random(20);
+        for (int i = 0; i < 500; i++) {
+            StringBuilder text = new StringBuilder();
+            for (int j = random.nextInt(100); j > 0; j--) {
+                text.append(Arrays.asList("a", "b", smiley).get(random.nextInt(3)));
+            }
+            StreamMatcher matcher = pattern.streamMatcher(new SlowReader(text.toString(), 1 + random.nextInt(10)), 16);
+
+            assertThat(text.toString(), findAll(matcher), equalTo(findAll(pattern.matches(text))));
+        }
+    }
+
+    @Test
+    void bytesAreDecodedWithTheCharset() throws IOException {
+        String text = "caf\u00e9 \u00e9t\u00e9";
+        ReadableRegexPattern pattern = regex().anyCharacterOf("\u00e9").build();
+        StreamMatcher matcher = pattern.streamMatcher(Channels.newChannel(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8))), StandardCharsets.UTF_8);
+
+        assertThat(findAll(matcher), contains("3-4:\u00e9", "5-6:\u00e9", "7-8:\u00e9"));
+    }
+
+    @Test
+    void incorrectBufferSizesAreRejected() {
+        ReadableRegexPattern pattern = regex().literal("a").build();
+
+        assertThrows(IllegalArgumentException.class, () -> pattern.streamMatcher(new StringReader("a"), 15));
+        assertThrows(NullPointerException.class, () -> pattern.streamMatcher((Reader) null));
+    }
+}
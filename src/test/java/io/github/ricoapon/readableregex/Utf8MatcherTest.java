@@ -0,0 +1,151 @@
+package io.github.ricoapon.readableregex;
+
+import io.github.ricoapon.readableregex.internal.ReadableRegexPatternImpl;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class Utf8MatcherTest {
+    private static List<String> findAll(Utf8Matcher matcher) {
+        List<String> result = new ArrayList<>();
+        while (matcher.find()) {
+            StringBuilder match = new StringBuilder();
+            for (int group = 0; group <= matcher.groupCount(); group++) {
+                match.append(matcher.start(group)).append('-').append(matcher.end(group)).append(':').append(matcher.group(group)).append(' ');
+            }
+            result.add(match.toString());
+        }
+        return result;
+    }
+
+    /**
+     * @return The matches that {@link Matcher} finds in the text, with the offsets converted to positions of bytes.
+     */
+    private static List<String> findAllInText(ReadableRegexPattern pattern, String text) {
+        List<String> result = new ArrayList<>();
+        Matcher matcher = pattern.matches(text);
+        while (matcher.find()) {
+            StringBuilder match = new StringBuilder();
+            for (int group = 0; group <= matcher.groupCount(); group++) {
+                int start = matcher.start(group);
+                int end = matcher.end(group);
+                match.append(start < 0 ? -1 : text.substring(0, start).getBytes(StandardCharsets.UTF_8).length).append('-')
+                        .append(end < 0 ? -1 : text.substring(0, end).getBytes(StandardCharsets.UTF_8).length).append(':')
+                        .append(matcher.group(group)).append(' ');
+            }
+            result.add(match.toString());
+        }
+        return result;
+    }
+
+    @Test
+    void offsetsArePositionsOfBytes() {
+        byte[] bytes = "caf\u00e9 ERROR 42\n\u20ac ERROR 7".getBytes(StandardCharsets.UTF_8);
+        ReadableRegexPattern pattern = regex().literal("ERROR ").group("code", regex().digit().oneOrMore()).build();
+
+        Utf8Matcher matcher = pattern.utf8Matcher(bytes);
+        assertThat(matcher.find(), equalTo(true));
+        assertThat(matcher.group("code"), equalTo("42"));
+        assertThat(Arrays.asList(matcher.start(), matcher.start("code"), matcher.end(1)), contains(6, 12, 14));
+        assertThat(matcher.find(), equalTo(true));
+        assertThat(Arrays.asList(matcher.start(), matcher.end()), contains(19, 26));
+        assertThat(matcher.find(), equalTo(false));
+        assertThrows(IllegalStateException.class, matcher::start);
+    }
+
+    @Test
+    void characterClassesMatchMultiByteCharacters() {
+        byte[] bytes = "a\u00e9\u20ac\ud83d\ude00b".getBytes(StandardCharsets.UTF_8);
+
+        assertThat(findAll(regex().anyCharacter().build().utf8Matcher(bytes)),
+                contains("0-1:a ", "1-3:\u00e9 ", "3-6:\u20ac ", "6-10:\ud83d\ude00 ", "10-11:b "));
+        assertThat(findAll(regex().anyCharacterExcept("a\u20ac").oneOrMore().build().utf8Matcher(bytes)),
+                contains("1-3:\u00e9 ", "6-11:\ud83d\ude00b "));
+        assertThat(findAll(regex().range('\u00e0', '\u00ff', '\u2000', '\u20ff').build().utf8Matcher(bytes)),
+                contains("1-3:\u00e9 ", "3-6:\u20ac "));
+    }
+
+    @Test
+    void bufferIsMatchedFromItsPosition() {
+        ByteBuffer buffer = ByteBuffer.wrap("xx a1 b2".getBytes(StandardCharsets.UTF_8));
+        buffer.position(3);
+
+        assertThat(findAll(regex().wordCharacter().digit().build().utf8Matcher(buffer)), contains("0-2:a1 ", "3-5:b2 "));
+        assertThat(buffer.position(), equalTo(3));
+    }
+
+    @Test
+    void emptyMatchesAdvanceByCodePoint() {
+        byte[] bytes = "\u00e9a".getBytes(StandardCharsets.UTF_8);
+
+        assertThat(findAll(regex().literal("a").optional().build().utf8Matcher(bytes)), contains("0-0: ", "2-3:a ", "3-3: "));
+    }
+
+    @Test
+    void unsupportedPatternsAreMatchedOnDecodedCharacters() {
+        ReadableRegexPattern pattern = regex().group(regex().wordCharacter().oneOrMore()).positiveLookahead(regex().literal("\u20ac")).build();
+        byte[] bytes = "\u00e9 12\u20ac ab\u20ac".getBytes(StandardCharsets.UTF_8);
+
+        assertThat(((ReadableRegexPatternImpl) pattern).utf8PikeVm(), nullValue());
+        assertThat(findAll(pattern.utf8Matcher(bytes)), contains("3-5:12 3-5:12 ", "9-11:ab 9-11:ab "));
+    }
+
+    @Test
+    void groupsAndNamesAreChecked() {
+        Utf8Matcher matcher = regex().group("a", regex().digit()).optional().literal("x").build().utf8Matcher("x".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(matcher.find(), equalTo(true));
+        assertThat(Arrays.asList(matcher.start("a"), matcher.end(1)), contains(-1, -1));
+        assertThat(matcher.group(1), nullValue());
+        assertThrows(IllegalArgumentException.class, () -> matcher.group("b"));
+        assertThrows(IndexOutOfBoundsException.class, () -> matcher.group(2));
+    }
+
+    @Test
+    void matchesAreTheSameAsTheMatchesInTheDecodedText() {
+        List<ReadableRegexPattern> patterns = Arrays.asList(
+                regex().wordCharacter().oneOrMore().build(),
+                regex().anyCharacter().build(),
+                regex().anyCharacter().zeroOrMore().build(),
+                regex().anyCharacterExcept("a\u00e9").oneOrMore().build(),
+                regex().whitespace().zeroOrMore().build(),
+                regex().group(regex().digit().oneOrMore()).literal("\u20ac").optional().build(),
+                regex().wordBoundary().anyCharacter().build(),
+                regex().nonWordBoundary().build(),
+                regex().startOfLine().group(regex().anyCharacter().zeroOrMore()).endOfLine().build(),
+                regex().literal("\u00c9").build(),
+                regex().literal("A\u00e9").buildWithFlags(PatternFlag.CASE_INSENSITIVE),
+                regex().oneOf(regex().literal("ab"), regex().literal("a").group(regex().literal("b").oneOrMore())).build(),
+                regex().range('a', 'b', '\u00e0', '\u2100').oneOrMore().reluctant().group(regex().literal("1")).build(),
+                regex().startOfInput().anyCharacter().build(),
+                regex().anyCharacter().endOfInput().build());
+        Random random = new Random(23);
+        String alphabet = "ab1 _\n\r\t\u00e9\u00c9\u0301\u0085\u20ac\u2028";
+
+        for (ReadableRegexPattern pattern : patterns) {
+            assertThat(pattern.toString(), ((ReadableRegexPatternImpl) pattern).utf8PikeVm(), notNullValue());
+            for (int i = 0; i < 200; i++) {
+                StringBuilder text = new StringBuilder();
+                for (int j = random.nextInt(20); j > 0; j--) {
+                    text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+                byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+                assertThat(pattern + " in " + text, findAll(pattern.utf8Matcher(bytes)), equalTo(findAllInText(pattern, text.toString())));
+            }
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package io.github.ricoapon.readableregex.instantiation;
 
+import io.github.ricoapon.readableregex.PatternFlag;
 import io.github.ricoapon.readableregex.ReadableRegexPattern;
 import io.github.ricoapon.readableregex.RegexObjectInstantiation;
 import io.github.ricoapon.readableregex.RegexObjectInstantiationException;
 import org.junit.jupiter.api.Test;
 
 import java.lang.reflect.Constructor;
+import java.nio.CharBuffer;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import static io.github.ricoapon.readableregex.ReadableRegex.regex;
@@ -65,6 +70,53 @@ class RegexObjectInstantiationTest {
         assertThat(primitiveAndBoxedPrimitiveTypesAndString.string, equalTo("abc"));
     }
 
+    @Test
+    void dataCanBeAnyCharSequence() {
+        ReadableRegexPattern pattern = regex().group("n", regex().digit()).build();
+
+        assertDoesNotThrow(() -> instantiateObject(pattern, new StringBuilder("1"), SingleConstructorWithoutInjectAnnotation.class));
+        assertDoesNotThrow(() -> instantiateObject(pattern, CharBuffer.wrap("a2").subSequence(1, 2), SingleConstructorWithoutInjectAnnotation.class));
+        CharSequence noMatch = CharBuffer.wrap("a2");
+        assertThrows(RegexObjectInstantiationException.class, () -> instantiateObject(pattern, noMatch, SingleConstructorWithoutInjectAnnotation.class));
+    }
+
+    @Test
+    void ownImplementationsOfThePatternCanBeUsed() {
+        ReadableRegexPattern builtPattern = regex().group("n", regex().digit()).build();
+        ReadableRegexPattern pattern = new ReadableRegexPattern() {
+            @Override
+            public Matcher matches(String text) {
+                return builtPattern.matches(text);
+            }
+
+            @Override
+            public Set<PatternFlag> enabledFlags() {
+                return builtPattern.enabledFlags();
+            }
+
+            @Override
+            public List<String> groups() {
+                return builtPattern.groups();
+            }
+
+            @Override
+            public Pattern getUnderlyingPattern() {
+                return builtPattern.getUnderlyingPattern();
+            }
+        };
+
+        assertDoesNotThrow(() -> instantiateObject(pattern, "1", SingleConstructorWithoutInjectAnnotation.class));
+        assertThrows(RegexObjectInstantiationException.class, () -> instantiateObject(pattern, "a", SingleConstructorWithoutInjectAnnotation.class));
+    }
+
+    @Test
+    void pikeVmEngineCanBeUsed() {
+        ReadableRegexPattern pattern = regex().literal("n=").group("n", regex().digit()).buildWithFlags(PatternFlag.PIKE_VM_ENGINE);
+
+        assertDoesNotThrow(() -> instantiateObject(pattern, "n=1", SingleConstructorWithoutInjectAnnotation.class));
+        assertThrows(RegexObjectInstantiationException.class, () -> instantiateObject(pattern, "n=12", SingleConstructorWithoutInjectAnnotation.class));
+    }
+
     @Test
     void throwIfConstructorIsNotValid() {
         ReadableRegexPattern pattern = regex().group("n", regex().digit()).build();
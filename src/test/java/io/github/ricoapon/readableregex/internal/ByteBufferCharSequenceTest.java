@@ -0,0 +1,79 @@
+package io.github.ricoapon.readableregex.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ByteBufferCharSequenceTest {
+    private static final int[] CODE_POINTS = {'a', ' ', '\n', 0xE9, 0x20AC, 0xFFFD, 0x1F600, 0x10FFFF};
+
+    private static ByteBuffer bytes(int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        return ByteBuffer.wrap(bytes);
+    }
+
+    @Test
+    void utf8IsDecodedWhenReadInAnyOrder() {
+        Random random = new Random(42);
+        for (int i = 0; i < 50; i++) {
+            StringBuilder sb = new StringBuilder();
+            int length = random.nextInt(5000);
+            for (int j = 0; j < length; j++) {
+                sb.appendCodePoint(CODE_POINTS[random.nextInt(CODE_POINTS.length)]);
+            }
+            String text = sb.toString();
+            ByteBufferCharSequence sequence = ByteBufferCharSequence.of(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+
+            assertThat(sequence.length(), equalTo(text.length()));
+            for (int j = 0; j < 200 && !text.isEmpty(); j++) {
+                // Jump around, and read a few characters backwards and forwards like a backtracking engine does.
+                int index = random.nextInt(text.length());
+                for (int k = Math.max(index - 5, 0); k < Math.min(index + 5, text.length()); k++) {
+                    assertThat(sequence.charAt(k), equalTo(text.charAt(k)));
+                }
+                for (int k = index; k >= Math.max(index - 5, 0); k--) {
+                    assertThat(sequence.charAt(k), equalTo(text.charAt(k)));
+                }
+                if (!Character.isLowSurrogate(text.charAt(index))) {
+                    assertThat(sequence.byteOffset(index), equalTo(text.substring(0, index).getBytes(StandardCharsets.UTF_8).length));
+                }
+            }
+            assertThat(sequence.toString(), equalTo(text));
+            assertThat(sequence.byteOffset(text.length()), equalTo(text.getBytes(StandardCharsets.UTF_8).length));
+        }
+    }
+
+    @Test
+    void invalidUtf8BytesAreReplacedOneByOne() {
+        ByteBuffer bytes = bytes('a', 0xC3, '(', 0xE2, 0x82, 0xF0, 0x9F, 0x98, 0x80, 0x80, 0xED, 0xA0, 0x80, 0xC0, 0xAF, 0xE2);
+        String expected = "a\uFFFD(\uFFFD\uFFFD" + new String(Character.toChars(0x1F600)) + "\uFFFD\uFFFD\uFFFD\uFFFD\uFFFD\uFFFD\uFFFD";
+        ByteBufferCharSequence sequence = ByteBufferCharSequence.of(bytes, StandardCharsets.UTF_8);
+
+        assertThat(sequence.toString(), equalTo(expected));
+        for (int i = expected.length() - 1; i >= 0; i--) {
+            assertThat(sequence.charAt(i), equalTo(expected.charAt(i)));
+        }
+        assertThat(sequence.byteOffset(7), equalTo(9));
+    }
+
+    @Test
+    void singleByteCharsetsUseTheIndexOfTheByte() {
+        ByteBuffer bytes = bytes('x', 'a', 0xE9, 'b');
+        bytes.position(1);
+
+        assertThat(ByteBufferCharSequence.of(bytes, StandardCharsets.ISO_8859_1).toString(), equalTo("a\u00e9b"));
+        assertThat(ByteBufferCharSequence.of(bytes, StandardCharsets.US_ASCII).toString(), equalTo("a\uFFFDb"));
+        assertThat(ByteBufferCharSequence.of(bytes, StandardCharsets.US_ASCII).byteOffset(2), equalTo(2));
+        assertThat(ByteBufferCharSequence.of(bytes, StandardCharsets.US_ASCII).subSequence(1, 3).toString(), equalTo("\uFFFDb"));
+        assertThrows(IllegalArgumentException.class, () -> ByteBufferCharSequence.of(bytes, StandardCharsets.UTF_16));
+    }
+}
@@ -0,0 +1,109 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.PatternFlag;
+import io.github.ricoapon.readableregex.ReadableMatchResult;
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.regex.Matcher;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+class MatchSpliteratorTest {
+    private static final List<ReadableRegexPattern> PATTERNS = Arrays.asList(
+            regex().literal("ab").build(),
+            regex().literal("a").zeroOrMore().build(),
+            regex().wordBoundary().literal("b").oneOrMore().wordBoundary().build(),
+            regex().startOfLine().literal("a").build(),
+            regex().literal("b").endOfLine().build(),
+            regex().startOfInput().literal("a").oneOrMore().build(),
+            regex().literal("b").endOfInput().build(),
+            regex().group("first", regex().literal("a")).anything().group("last", regex().literal("b")).build(),
+            regex().positiveLookbehind(regex().literal("b")).literal("a").build(),
+            regex().startOfLine().anyCharacterOf("ab").endOfLine().buildWithFlags(PatternFlag.MULTILINE),
+            // Not line-oriented, so it is never split.
+            regex().literal("b").lineBreak().literal("a").build());
+
+    private static String randomText(Random random) {
+        StringBuilder text = new StringBuilder();
+        int length = random.nextInt(300);
+        for (int j = 0; j < length; j++) {
+            text.append(Arrays.asList("a", "b", " ", "\n", "\u00e9", "\r\n").get(random.nextInt(6)));
+        }
+        return text.toString();
+    }
+
+    private static String describe(ReadableMatchResult match) {
+        StringBuilder result = new StringBuilder();
+        for (int group = 0; group <= match.groupCount(); group++) {
+            result.append(match.start(group)).append('-').append(match.end(group)).append(':').append(match.group(group)).append(' ');
+        }
+        return result.toString();
+    }
+
+    private static List<String> describe(Matcher matcher) {
+        List<String> result = new ArrayList<>();
+        while (matcher.find()) {
+            result.add(describe(new MatcherMatchResult(matcher)));
+        }
+        return result;
+    }
+
+    /**
+     * Consumes a random number of matches, then splits the spliterator and continues with both parts, until nothing can
+     * be split anymore.
+     */
+    private static void consumeWithSplits(Spliterator<ReadableMatchResult> spliterator, Random random, List<String> result) {
+        for (int i = random.nextInt(3); i > 0; i--) {
+            if (!spliterator.tryAdvance(match -> result.add(describe(match)))) {
+                return;
+            }
+        }
+        Spliterator<ReadableMatchResult> firstPart = spliterator.trySplit();
+        if (firstPart != null) {
+            consumeWithSplits(firstPart, random, result);
+            consumeWithSplits(spliterator, random, result);
+        } else {
+            spliterator.forEachRemaining(match -> result.add(describe(match)));
+        }
+    }
+
+    @Test
+    void splitPartsFindTheSameMatchesAsMatcher() {
+        Random random = new Random(25);
+        for (ReadableRegexPattern pattern : PATTERNS) {
+            for (int i = 0; i < 100; i++) {
+                String text = randomText(random);
+                List<String> result = new ArrayList<>();
+                consumeWithSplits(new MatchSpliterator(pattern, text, 0, text.length(), 8), random, result);
+
+                assertThat(pattern + " in " + text, result, equalTo(describe(pattern.matches(text))));
+            }
+        }
+    }
+
+    @Test
+    void onlyLineOrientedPatternsAreSplitAfterALineFeed() {
+        String text = "a\nb\nab\nba\n";
+        MatchSpliterator spliterator = new MatchSpliterator(regex().literal("a").build(), text, 0, text.length(), 1);
+        Spliterator<ReadableMatchResult> firstPart = spliterator.trySplit();
+
+        assertThat(firstPart, notNullValue());
+        assertThat(StreamSupport.stream(firstPart, false).map(ReadableMatchResult::start).collect(Collectors.toList()), contains(0, 4));
+        assertThat(StreamSupport.stream(spliterator, false).map(ReadableMatchResult::start).collect(Collectors.toList()), contains(8));
+        assertThat(new MatchSpliterator(regex().anyCharacter().zeroOrMore().buildWithFlags(PatternFlag.DOT_ALL), text, 0,
+                text.length(), 1).trySplit(), nullValue());
+    }
+}
@@ -0,0 +1,111 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.FileMatchResult;
+import io.github.ricoapon.readableregex.FileMatcher;
+import io.github.ricoapon.readableregex.PatternFlag;
+import io.github.ricoapon.readableregex.ReadableMatchResult;
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+
+class ParallelScannerTest {
+    private static final List<ReadableRegexPattern> PATTERNS = Arrays.asList(
+            regex().literal("ab").build(),
+            regex().literal("a").zeroOrMore().build(),
+            regex().wordBoundary().literal("b").oneOrMore().wordBoundary().build(),
+            regex().startOfLine().literal("a").build(),
+            regex().literal("b").endOfLine().build(),
+            regex().startOfInput().literal("a").oneOrMore().build(),
+            regex().literal("b").endOfInput().build(),
+            regex().group("first", regex().literal("a")).anything().group("last", regex().literal("b")).build(),
+            regex().positiveLookbehind(regex().literal("b")).literal("a").build(),
+            regex().startOfLine().anyCharacterOf("ab").endOfLine().buildWithFlags(PatternFlag.MULTILINE),
+            // Not line-oriented, so it is matched as a single chunk.
+            regex().literal("b").lineBreak().literal("a").build());
+
+    @TempDir
+    Path directory;
+
+    private static String randomText(Random random) {
+        StringBuilder text = new StringBuilder();
+        int length = random.nextInt(300);
+        for (int j = 0; j < length; j++) {
+            text.append(Arrays.asList("a", "b", " ", "\n", "\u00e9", "\r\n").get(random.nextInt(6)));
+        }
+        return text.toString();
+    }
+
+    private static List<String> describe(Matcher matcher) {
+        List<String> result = new ArrayList<>();
+        while (matcher.find()) {
+            result.add(matcher.start() + "-" + matcher.end() + ":" + matcher.group());
+        }
+        return result;
+    }
+
+    @Test
+    void resultsAreTheSameAsMatchingTheFullText() {
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            String text = randomText(random);
+            ReadableRegexPattern pattern = PATTERNS.get(i % PATTERNS.size());
+
+            List<String> results = new ArrayList<>();
+            for (ReadableMatchResult result : ParallelScanner.findAll(pattern, text, 1 + random.nextInt(20))) {
+                results.add(result.start() + "-" + result.end() + ":" + result.group());
+            }
+            assertThat(pattern + " on " + text, results, equalTo(describe(pattern.matches(text))));
+        }
+    }
+
+    @Test
+    void resultsInFilesAreTheSameAsMatchingTheFullFile() throws IOException {
+        Random random = new Random(42);
+        Path file = directory.resolve("text.txt");
+        for (int i = 0; i < 300; i++) {
+            Files.write(file, randomText(random).getBytes(StandardCharsets.UTF_8));
+            ReadableRegexPattern pattern = PATTERNS.get(i % PATTERNS.size());
+
+            List<String> expected = new ArrayList<>();
+            FileMatcher matcher = pattern.fileMatcher(file, StandardCharsets.UTF_8);
+            while (matcher.find()) {
+                expected.add(matcher.start() + "-" + matcher.end() + ":" + matcher.group());
+            }
+            List<String> results = new ArrayList<>();
+            for (FileMatchResult result : ParallelScanner.findAll(pattern, file, StandardCharsets.UTF_8, 1 + random.nextInt(20))) {
+                results.add(result.start() + "-" + result.end() + ":" + result.group());
+            }
+            assertThat(pattern + " on " + new String(Files.readAllBytes(file), StandardCharsets.UTF_8), results, equalTo(expected));
+        }
+    }
+
+    @Test
+    void groupsAreStoredInTheResults() throws IOException {
+        ReadableRegexPattern pattern = regex().literal("id=").group("id", regex().digit().oneOrMore())
+                .literal(" ").group("name", regex().word()).optional().build();
+        Path file = directory.resolve("ids.txt");
+        Files.write(file, "id=1 x\n\u00e9 id=22 \nid=333 abc\n".getBytes(StandardCharsets.UTF_8));
+
+        List<FileMatchResult> results = ParallelScanner.findAll(pattern, file, StandardCharsets.UTF_8, 4);
+        assertThat(results.size(), equalTo(3));
+        assertThat(results.get(1).group("id"), equalTo("22"));
+        assertThat(Arrays.asList(results.get(1).start("id"), results.get(1).end(1)), contains(13L, 15L));
+        assertThat(Arrays.asList(results.get(1).start("name"), results.get(1).group(2)), contains(-1L, null));
+        assertThat(results.get(2).group("name"), equalTo("abc"));
+    }
+}
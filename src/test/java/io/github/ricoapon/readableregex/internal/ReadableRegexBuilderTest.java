@@ -0,0 +1,115 @@
+package io.github.ricoapon.readableregex.internal;
+
+import io.github.ricoapon.readableregex.IncorrectConstructionException;
+import io.github.ricoapon.readableregex.PatternFlag;
+import io.github.ricoapon.readableregex.ReadableRegex;
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for the parts of {@link ReadableRegexBuilder} that cannot be reached through the public API, such as the checks
+ * that are normally already done by {@link MethodOrderChecker}.
+ */
+class ReadableRegexBuilderTest {
+    /** Order checker that allows everything, so that the builder itself is tested. */
+    private static class AllowEverythingOrderChecker extends MethodOrderChecker {
+        @Override
+        public void checkCallingMethod(Method method) {
+        }
+    }
+
+    /** Pattern that is not created by this library. */
+    private static class OtherPattern implements ReadableRegexPattern {
+        private final Pattern pattern = Pattern.compile("a|b");
+
+        @Override
+        public Matcher matches(String text) {
+            return pattern.matcher(text);
+        }
+
+        @Override
+        public Set<PatternFlag> enabledFlags() {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public List<String> groups() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Pattern getUnderlyingPattern() {
+            return pattern;
+        }
+
+        @Override
+        public String toString() {
+            return pattern.toString();
+        }
+    }
+
+    private ReadableRegexOrderChecker<?> builder;
+
+    @BeforeEach
+    void setUp() {
+        builder = new ReadableRegexOrderChecker<>(new AllowEverythingOrderChecker());
+    }
+
+    @Test
+    void quantifierWithoutBlockThrows() {
+        assertThrows(IncorrectConstructionException.class, () -> builder.oneOrMore());
+    }
+
+    @Test
+    void reluctantOrPossessiveWithoutQuantifierThrows() {
+        assertThrows(IncorrectConstructionException.class, () -> builder.reluctant());
+        assertThrows(IncorrectConstructionException.class, () -> builder.digit().possessive());
+    }
+
+    @Test
+    void endingGroupThatHasNotStartedThrows() {
+        assertThrows(IncorrectConstructionException.class, () -> builder.endGroup());
+    }
+
+    @Test
+    void buildingWithOpenGroupsThrows() {
+        assertThrows(IncorrectConstructionException.class, () -> builder.startGroup().build());
+    }
+
+    @Test
+    void patternsNotCreatedByThisLibraryAreAddedAsRegex() {
+        ReadableRegex<?> otherBuilder = (ReadableRegex<?>) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{ReadableRegex.class}, (proxy, method, args) -> new OtherPattern());
+
+        assertThat(regex().add(new OtherPattern()).oneOrMore().build().toString(), equalTo("(?:a|b)+"));
+        assertThat(regex().literal("c").oneOf(otherBuilder).build().toString(), equalTo("c(?:a|b)"));
+    }
+
+    @Test
+    void dfaIsOnlyUsedWhenEnabledAndSupported() {
+        assertThat(((ReadableRegexPatternImpl) regex().digit().oneOrMore().buildWithFlags(PatternFlag.DFA_ENGINE)).usesDfa(), equalTo(true));
+        assertThat(((ReadableRegexPatternImpl) regex().digit().oneOrMore().build()).usesDfa(), equalTo(false));
+        assertThat(((ReadableRegexPatternImpl) regex().regexFromString("\\d+").buildWithFlags(PatternFlag.DFA_ENGINE)).usesDfa(), equalTo(false));
+        assertThat(((ReadableRegexPatternImpl) regex().wordBoundary().buildWithFlags(PatternFlag.DFA_ENGINE)).usesDfa(), equalTo(false));
+    }
+
+    @Test
+    void pikeVmIsOnlyUsedWhenEnabledAndSupported() {
+        assertThat(((ReadableRegexPatternImpl) regex().group(regex().digit()).wordBoundary().buildWithFlags(PatternFlag.PIKE_VM_ENGINE)).usesPikeVm(), equalTo(true));
+        assertThat(((ReadableRegexPatternImpl) regex().group(regex().digit()).build()).usesPikeVm(), equalTo(false));
+        assertThat(((ReadableRegexPatternImpl) regex().group(regex().digit()).oneOrMore().buildWithFlags(PatternFlag.PIKE_VM_ENGINE)).usesPikeVm(), equalTo(false));
+    }
+}
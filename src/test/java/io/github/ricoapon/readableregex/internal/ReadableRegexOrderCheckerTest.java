@@ -43,6 +43,15 @@ class ReadableRegexOrderCheckerTest {
         assertThat(dummyOrderChecker.calledMethod, equalTo(FINISH));
     }
 
+    @Test
+    void addingToOtherBuilder_Finish() {
+        regex().add(readableRegexOrderChecker);
+        assertThat(dummyOrderChecker.calledMethod, equalTo(FINISH));
+
+        regex().oneOf(readableRegexOrderChecker);
+        assertThat(dummyOrderChecker.calledMethod, equalTo(FINISH));
+    }
+
     @Test
     void regexFromString_StandaloneBlock() {
         readableRegexOrderChecker.regexFromString("");
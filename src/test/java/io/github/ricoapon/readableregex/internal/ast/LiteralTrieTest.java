@@ -0,0 +1,92 @@
+package io.github.ricoapon.readableregex.internal.ast;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class LiteralTrieTest {
+    private static final String EMOJI = new String(Character.toChars(0x1F600));
+    private static final String OTHER_EMOJI = new String(Character.toChars(0x1F601));
+
+    private static String render(String... values) {
+        return RegexRenderer.render(new AlternationNode(Arrays.stream(values).map(LiteralNode::new).collect(Collectors.toList())));
+    }
+
+    @Test
+    void commonPrefixesAreFactoredOut() {
+        assertThat(render("foo", "fob", "bar"), equalTo("fo(?:o|b)|bar"));
+        assertThat(render("abc", "abd", "abde", "x.y", "x.z"), equalTo("ab(?:c|de??)|x\\.(?:y|z)"));
+        assertThat(render(EMOJI, OTHER_EMOJI), equalTo(EMOJI + "|" + OTHER_EMOJI));
+    }
+
+    @Test
+    void orderOfLiteralsThatCanMatchAtTheSamePositionIsKept() {
+        // The shorter literal is preferred if it comes first.
+        assertThat(render("a", "ab"), equalTo("ab??"));
+        assertThat(render("ab", "a"), equalTo("ab?"));
+        assertThat(render("ab", "a", "ac"), equalTo("a(?:b||c)"));
+        // When the case is ignored, "Ab" can match at the same position as "ab" and "ac".
+        assertThat(render("ab", "Ab", "ac"), equalTo("ab|Ab|ac"));
+    }
+
+    @Test
+    void duplicatesAreRemoved() {
+        assertThat(render("ab", "ab"), equalTo("ab"));
+        assertThat(render("a", "ab", "a"), equalTo("ab??"));
+    }
+
+    @Test
+    void alternationsWithoutCommonPrefixAreNotChanged() {
+        assertThat(render("a", "b", ""), equalTo("a|b|"));
+    }
+
+    @Test
+    void randomAlternationsFindTheSameMatchesAndGroupsAsTheUnfactoredAlternation() {
+        Random random = new Random(42);
+        for (int i = 0; i < 300; i++) {
+            List<String> literals = new ArrayList<>();
+            int nrOfLiterals = 2 + random.nextInt(6);
+            for (int j = 0; j < nrOfLiterals; j++) {
+                literals.add(randomText(random, random.nextInt(4)));
+            }
+            int flags = random.nextBoolean() ? Pattern.CASE_INSENSITIVE : 0;
+            String suffix = "(a|Ab)?";
+            String factored = RegexRenderer.render(new AlternationNode(literals.stream().map(LiteralNode::new).collect(Collectors.toList())));
+            Pattern factoredPattern = Pattern.compile("(" + factored + ")" + suffix, flags);
+            Pattern flatPattern = Pattern.compile("(" + literals.stream().map(Pattern::quote).collect(Collectors.joining("|")) + ")" + suffix, flags);
+
+            for (int j = 0; j < 30; j++) {
+                String text = randomText(random, random.nextInt(8));
+                String reason = flatPattern + " and " + factoredPattern + " on \"" + text + "\"";
+                assertThat(reason, matchesOf(factoredPattern, text), equalTo(matchesOf(flatPattern, text)));
+            }
+        }
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            sb.append("abAB".charAt(random.nextInt(4)));
+        }
+        return sb.toString();
+    }
+
+    private static List<List<Integer>> matchesOf(Pattern pattern, String text) {
+        List<List<Integer>> matches = new ArrayList<>();
+        Matcher matcher = pattern.matcher(text);
+        while (matcher.find()) {
+            matches.add(Arrays.asList(matcher.start(), matcher.end(), matcher.end(1), matcher.start(2)));
+        }
+        matches.add(Arrays.asList(matcher.matches() ? 1 : 0));
+        return matches;
+    }
+}
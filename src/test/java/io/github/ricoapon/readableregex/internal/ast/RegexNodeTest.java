@@ -0,0 +1,79 @@
+package io.github.ricoapon.readableregex.internal.ast;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RegexNodeTest {
+    private static final RegexNode DIGIT = new CharacterClassNode("\\d");
+
+    @Test
+    void nodesWithTheSameContentAreEqual() {
+        assertThat(new SequenceNode(Collections.singletonList(DIGIT)), equalTo(new SequenceNode(Collections.singletonList(DIGIT))));
+        assertThat(new AlternationNode(Collections.singletonList(DIGIT)), equalTo(new AlternationNode(Collections.singletonList(DIGIT))));
+        assertThat(new LiteralNode("a"), equalTo(new LiteralNode("a")));
+        assertThat(new CharacterClassNode("\\d"), equalTo(DIGIT));
+        assertThat(new RawRegexNode("a"), equalTo(new RawRegexNode("a")));
+        assertThat(new AnchorNode(AnchorNode.Type.WORD_BOUNDARY), equalTo(new AnchorNode(AnchorNode.Type.WORD_BOUNDARY)));
+        assertThat(new GroupNode(GroupNode.Type.CAPTURING, "a", DIGIT), equalTo(new GroupNode(GroupNode.Type.CAPTURING, "a", DIGIT)));
+        assertThat(new QuantifierNode(DIGIT, 1, 2, QuantifierNode.Type.GREEDY), equalTo(new QuantifierNode(DIGIT, 1, 2, QuantifierNode.Type.GREEDY)));
+
+        assertThat(new SequenceNode(Collections.singletonList(DIGIT)).hashCode(), equalTo(new SequenceNode(Collections.singletonList(DIGIT)).hashCode()));
+        assertThat(new GroupNode(GroupNode.Type.CAPTURING, "a", DIGIT).hashCode(), equalTo(new GroupNode(GroupNode.Type.CAPTURING, "a", DIGIT).hashCode()));
+    }
+
+    @Test
+    void nodesWithDifferentContentAreNotEqual() {
+        assertThat(new SequenceNode(Collections.singletonList(DIGIT)), not(equalTo(new SequenceNode(Collections.emptyList()))));
+        assertThat(new SequenceNode(Collections.emptyList()), not(equalTo(new AlternationNode(Collections.emptyList()))));
+        assertThat(new LiteralNode("a"), not(equalTo(new LiteralNode("b"))));
+        assertThat(new LiteralNode("a"), not(equalTo(new RawRegexNode("a"))));
+        assertThat(new GroupNode(GroupNode.Type.CAPTURING, "a", DIGIT), not(equalTo(new GroupNode(GroupNode.Type.CAPTURING, "b", DIGIT))));
+        assertThat(new GroupNode(GroupNode.Type.CAPTURING, null, DIGIT), not(equalTo(new GroupNode(GroupNode.Type.NON_CAPTURING, null, DIGIT))));
+        assertThat(new QuantifierNode(DIGIT, 1, 2, QuantifierNode.Type.GREEDY), not(equalTo(new QuantifierNode(DIGIT, 1, 3, QuantifierNode.Type.GREEDY))));
+        assertThat(new QuantifierNode(DIGIT, 1, 2, QuantifierNode.Type.GREEDY), not(equalTo(new QuantifierNode(DIGIT, 1, 2, QuantifierNode.Type.RELUCTANT))));
+        assertThat(new AnchorNode(AnchorNode.Type.WORD_BOUNDARY), not(equalTo(null)));
+    }
+
+    @Test
+    void childrenAreExposed() {
+        assertThat(new SequenceNode(Arrays.asList(DIGIT, DIGIT)).children(), contains(DIGIT, DIGIT));
+        assertThat(new GroupNode(GroupNode.Type.CAPTURING, null, DIGIT).children(), contains(DIGIT));
+        assertThat(new QuantifierNode(DIGIT, 0, 1, QuantifierNode.Type.GREEDY).children(), contains(DIGIT));
+        assertThat(new LiteralNode("a").children(), empty());
+        assertThat(new AnchorNode(AnchorNode.Type.END_OF_INPUT).children(), empty());
+    }
+
+    @Test
+    void invalidNodesCannotBeCreated() {
+        assertThrows(IllegalArgumentException.class, () -> new GroupNode(GroupNode.Type.NON_CAPTURING, "a", DIGIT));
+        assertThrows(IllegalArgumentException.class, () -> new QuantifierNode(DIGIT, -1, 2, QuantifierNode.Type.GREEDY));
+        assertThrows(IllegalArgumentException.class, () -> new QuantifierNode(DIGIT, 3, 2, QuantifierNode.Type.GREEDY));
+    }
+
+    @Test
+    void capturingGroupNamesAreCollectedInOrder() {
+        RegexNode node = new SequenceNode(Arrays.asList(
+                new GroupNode(GroupNode.Type.CAPTURING, "outer", new GroupNode(GroupNode.Type.CAPTURING, null, DIGIT)),
+                new GroupNode(GroupNode.Type.NON_CAPTURING, null, new GroupNode(GroupNode.Type.CAPTURING, "last", DIGIT))));
+
+        assertThat(RegexNodes.capturingGroupNames(node), contains("outer", null, "last"));
+    }
+
+    @Test
+    void lineAnchorsAreFound() {
+        RegexNode withLineAnchor = new GroupNode(GroupNode.Type.NON_CAPTURING, null, new AnchorNode(AnchorNode.Type.END_OF_LINE));
+        RegexNode withoutLineAnchor = new SequenceNode(Arrays.asList(DIGIT, new AnchorNode(AnchorNode.Type.END_OF_INPUT)));
+
+        assertThat(RegexNodes.containsLineAnchor(withLineAnchor), equalTo(true));
+        assertThat(RegexNodes.containsLineAnchor(withoutLineAnchor), equalTo(false));
+    }
+}
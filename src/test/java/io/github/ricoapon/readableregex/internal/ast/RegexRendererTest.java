@@ -0,0 +1,108 @@
+package io.github.ricoapon.readableregex.internal.ast;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class RegexRendererTest {
+    private static final RegexNode DIGIT = new CharacterClassNode("\\d");
+
+    private static QuantifierNode quantifier(int min, int max, QuantifierNode.Type type) {
+        return new QuantifierNode(DIGIT, min, max, type);
+    }
+
+    @Test
+    void sequencesAreConcatenated() {
+        RegexNode node = new SequenceNode(Arrays.asList(new RawRegexNode("a"), DIGIT, new RawRegexNode("b")));
+
+        assertThat(RegexRenderer.render(node), equalTo("a\\db"));
+        assertThat(RegexRenderer.render(new SequenceNode(Collections.emptyList())), equalTo(""));
+    }
+
+    @Test
+    void literalsAreEscaped() {
+        assertThat(RegexRenderer.render(new LiteralNode("a.b")), equalTo("a\\.b"));
+        assertThat(RegexRenderer.render(new LiteralNode("\\^$.|?*+()[]{}-")), equalTo("\\\\\\^\\$\\.\\|\\?\\*\\+\\(\\)\\[\\]\\{\\}-"));
+        // These characters are ignored or start a comment when comments are enabled with (?x).
+        assertThat(RegexRenderer.render(new LiteralNode("a b#c\t\n\u000B\f\r")), equalTo("a\\ b\\#c\\t\\n\\x0B\\f\\r"));
+    }
+
+    @Test
+    void alternativesAreSeparated() {
+        RegexNode node = new AlternationNode(Arrays.asList(new RawRegexNode("a"), DIGIT));
+
+        assertThat(RegexRenderer.render(node), equalTo("a|\\d"));
+        assertThat(RegexRenderer.render(new AlternationNode(Collections.emptyList())), equalTo(""));
+    }
+
+    @Test
+    void alternationInsideSequenceIsSurroundedWithUnnamedGroup() {
+        RegexNode alternation = new AlternationNode(Arrays.asList(new LiteralNode("a"), DIGIT));
+
+        assertThat(RegexRenderer.render(new SequenceNode(Arrays.asList(alternation, DIGIT))), equalTo("(?:a|\\d)\\d"));
+        assertThat(RegexRenderer.render(new GroupNode(GroupNode.Type.CAPTURING, null, new SequenceNode(Collections.singletonList(alternation)))),
+                equalTo("(a|\\d)"));
+    }
+
+    @Test
+    void quantifiedBlocksAreSurroundedWithUnnamedGroupWhenNeeded() {
+        QuantifierNode.Type greedy = QuantifierNode.Type.GREEDY;
+        assertThat(RegexRenderer.render(new QuantifierNode(new LiteralNode("a"), 0, 1, greedy)), equalTo("a?"));
+        assertThat(RegexRenderer.render(new QuantifierNode(new LiteralNode("\uD83D\uDE00"), 0, 1, greedy)), equalTo("\uD83D\uDE00?"));
+        assertThat(RegexRenderer.render(new QuantifierNode(new LiteralNode("ab"), 0, 1, greedy)), equalTo("(?:ab)?"));
+        assertThat(RegexRenderer.render(new QuantifierNode(new LiteralNode(""), 0, 1, greedy)), equalTo("(?:)?"));
+        assertThat(RegexRenderer.render(new QuantifierNode(new AnchorNode(AnchorNode.Type.START_OF_LINE), 0, 1, greedy)), equalTo("(?:^)?"));
+        assertThat(RegexRenderer.render(new QuantifierNode(quantifier(0, 1, greedy), 0, 1, greedy)), equalTo("(?:\\d?)?"));
+        assertThat(RegexRenderer.render(new QuantifierNode(new GroupNode(GroupNode.Type.CAPTURING, null, DIGIT), 0, 1, greedy)),
+                equalTo("(\\d)?"));
+        assertThat(RegexRenderer.render(new QuantifierNode(new SequenceNode(Collections.singletonList(DIGIT)), 0, 1, greedy)),
+                equalTo("\\d?"));
+        assertThat(RegexRenderer.render(new QuantifierNode(new SequenceNode(Arrays.asList(DIGIT, DIGIT)), 0, 1, greedy)),
+                equalTo("(?:\\d\\d)?"));
+    }
+
+    @Test
+    void rawRegexIsSeparatedFromThePreviousNode() {
+        RegexNode node = new SequenceNode(Arrays.asList(new LiteralNode("ab"), new RawRegexNode("+"), DIGIT, new RawRegexNode("?")));
+
+        assertThat(RegexRenderer.render(node), equalTo("(?:ab)+\\d?"));
+    }
+
+    @Test
+    void groupsHaveTheCorrectPrefix() {
+        assertThat(RegexRenderer.render(new GroupNode(GroupNode.Type.CAPTURING, null, DIGIT)), equalTo("(\\d)"));
+        assertThat(RegexRenderer.render(new GroupNode(GroupNode.Type.CAPTURING, "name", DIGIT)), equalTo("(?<name>\\d)"));
+        assertThat(RegexRenderer.render(new GroupNode(GroupNode.Type.NON_CAPTURING, null, DIGIT)), equalTo("(?:\\d)"));
+        assertThat(RegexRenderer.render(new GroupNode(GroupNode.Type.POSITIVE_LOOKBEHIND, null, DIGIT)), equalTo("(?<=\\d)"));
+        assertThat(RegexRenderer.render(new GroupNode(GroupNode.Type.NEGATIVE_LOOKBEHIND, null, DIGIT)), equalTo("(?<!\\d)"));
+        assertThat(RegexRenderer.render(new GroupNode(GroupNode.Type.POSITIVE_LOOKAHEAD, null, DIGIT)), equalTo("(?=\\d)"));
+        assertThat(RegexRenderer.render(new GroupNode(GroupNode.Type.NEGATIVE_LOOKAHEAD, null, DIGIT)), equalTo("(?!\\d)"));
+    }
+
+    @Test
+    void quantifiersUseTheShortestNotation() {
+        QuantifierNode.Type greedy = QuantifierNode.Type.GREEDY;
+        assertThat(RegexRenderer.render(quantifier(0, 1, greedy)), equalTo("\\d?"));
+        assertThat(RegexRenderer.render(quantifier(0, QuantifierNode.UNBOUNDED, greedy)), equalTo("\\d*"));
+        assertThat(RegexRenderer.render(quantifier(1, QuantifierNode.UNBOUNDED, greedy)), equalTo("\\d+"));
+        assertThat(RegexRenderer.render(quantifier(2, QuantifierNode.UNBOUNDED, greedy)), equalTo("\\d{2,}"));
+        assertThat(RegexRenderer.render(quantifier(2, 3, greedy)), equalTo("\\d{2,3}"));
+        assertThat(RegexRenderer.render(quantifier(2, 2, greedy)), equalTo("\\d{2}"));
+        assertThat(RegexRenderer.render(quantifier(1, 2, QuantifierNode.Type.RELUCTANT)), equalTo("\\d{1,2}?"));
+        assertThat(RegexRenderer.render(quantifier(1, 2, QuantifierNode.Type.POSSESSIVE)), equalTo("\\d{1,2}+"));
+    }
+
+    @Test
+    void anchorsAreRendered() {
+        assertThat(RegexRenderer.render(new AnchorNode(AnchorNode.Type.START_OF_LINE)), equalTo("^"));
+        assertThat(RegexRenderer.render(new AnchorNode(AnchorNode.Type.END_OF_LINE)), equalTo("$"));
+        assertThat(RegexRenderer.render(new AnchorNode(AnchorNode.Type.START_OF_INPUT)), equalTo("\\A"));
+        assertThat(RegexRenderer.render(new AnchorNode(AnchorNode.Type.END_OF_INPUT)), equalTo("\\z"));
+        assertThat(RegexRenderer.render(new AnchorNode(AnchorNode.Type.WORD_BOUNDARY)), equalTo("\\b"));
+        assertThat(RegexRenderer.render(new AnchorNode(AnchorNode.Type.NON_WORD_BOUNDARY)), equalTo("\\B"));
+    }
+}
@@ -0,0 +1,86 @@
+package io.github.ricoapon.readableregex.internal.ast;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static io.github.ricoapon.readableregex.internal.ast.RegexTrees.sequence;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class RegexSimplifierTest {
+    private static final RegexNode DIGIT = new CharacterClassNode("\\d");
+
+    private static RegexNode unnamedGroup(RegexNode child) {
+        return new GroupNode(GroupNode.Type.NON_CAPTURING, null, child);
+    }
+
+    @Test
+    void adjacentLiteralsAreMerged() {
+        RegexNode node = sequence(new LiteralNode("a"), new LiteralNode(""), new LiteralNode("b"), DIGIT, new LiteralNode("c"));
+
+        assertThat(RegexSimplifier.simplify(node), equalTo(sequence(new LiteralNode("ab"), DIGIT, new LiteralNode("c"))));
+    }
+
+    @Test
+    void unnamedGroupsAndNestedSequencesAreRemoved() {
+        RegexNode node = sequence(new LiteralNode("a"), unnamedGroup(sequence(new LiteralNode("b"), DIGIT)));
+
+        assertThat(RegexSimplifier.simplify(node), equalTo(sequence(new LiteralNode("ab"), DIGIT)));
+        assertThat(RegexSimplifier.simplify(sequence(unnamedGroup(DIGIT))), equalTo(DIGIT));
+    }
+
+    @Test
+    void unnamedGroupsAroundRawRegexAreKept() {
+        RegexNode group = unnamedGroup(new RawRegexNode("a|b"));
+        RegexNode node = sequence(new LiteralNode("a"), group, new LiteralNode("b"));
+
+        assertThat(RegexSimplifier.simplify(node), equalTo(node));
+    }
+
+    @Test
+    void nodeBeforeRawRegexIsKeptAsSeparateBlock() {
+        RawRegexNode plus = new RawRegexNode("+");
+        RegexNode literals = sequence(new LiteralNode("a"), new LiteralNode("b"), plus);
+        RegexNode group = sequence(new LiteralNode("c"), unnamedGroup(sequence(new LiteralNode("a"), DIGIT)), plus);
+
+        assertThat(RegexSimplifier.simplify(literals), equalTo(literals));
+        assertThat(RegexSimplifier.simplify(group), equalTo(sequence(new LiteralNode("c"), sequence(new LiteralNode("a"), DIGIT), plus)));
+    }
+
+    @Test
+    void otherGroupsAreKept() {
+        RegexNode node = new GroupNode(GroupNode.Type.CAPTURING, "name", sequence(unnamedGroup(DIGIT)));
+
+        assertThat(RegexSimplifier.simplify(node), equalTo(new GroupNode(GroupNode.Type.CAPTURING, "name", DIGIT)));
+    }
+
+    @Test
+    void quantifiersThatRepeatExactlyOnceAreRemoved() {
+        RegexNode node = new QuantifierNode(unnamedGroup(DIGIT), 1, 1, QuantifierNode.Type.GREEDY);
+        RegexNode possessive = new QuantifierNode(DIGIT, 1, 1, QuantifierNode.Type.POSSESSIVE);
+        RegexNode optional = new QuantifierNode(unnamedGroup(DIGIT), 0, 1, QuantifierNode.Type.GREEDY);
+
+        assertThat(RegexSimplifier.simplify(node), equalTo(DIGIT));
+        assertThat(RegexSimplifier.simplify(possessive), equalTo(possessive));
+        assertThat(RegexSimplifier.simplify(optional), equalTo(new QuantifierNode(DIGIT, 0, 1, QuantifierNode.Type.GREEDY)));
+    }
+
+    @Test
+    void alternationsWithOneAlternativeAreRemoved() {
+        RegexNode raw = new AlternationNode(Collections.singletonList(new RawRegexNode("a")));
+        RegexNode node = new AlternationNode(Arrays.asList(sequence(unnamedGroup(DIGIT)), new LiteralNode("a")));
+
+        assertThat(RegexSimplifier.simplify(new AlternationNode(Collections.singletonList(DIGIT))), equalTo(DIGIT));
+        assertThat(RegexSimplifier.simplify(raw), equalTo(raw));
+        assertThat(RegexSimplifier.simplify(node), equalTo(new AlternationNode(Arrays.asList(DIGIT, new LiteralNode("a")))));
+    }
+
+    @Test
+    void anchorsAreKept() {
+        RegexNode node = new AnchorNode(AnchorNode.Type.START_OF_LINE);
+
+        assertThat(RegexSimplifier.simplify(node), equalTo(node));
+    }
+}
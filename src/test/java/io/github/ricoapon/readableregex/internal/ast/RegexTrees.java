@@ -0,0 +1,82 @@
+package io.github.ricoapon.readableregex.internal.ast;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Trees and texts that are used in test cases. Random trees are matched against all short texts, to compare the
+ * engines and rewrites with what the JDK matches. The texts consist of the same characters as the literals of the
+ * random trees.
+ */
+public final class RegexTrees {
+    /** The characters of {@link #allTexts(int)}. */
+    public static final String CHARACTERS = "aA1\n ";
+
+    private RegexTrees() {
+    }
+
+    public static RegexNode sequence(RegexNode... nodes) {
+        return new SequenceNode(Arrays.asList(nodes));
+    }
+
+    public static RegexNode literal(String value) {
+        return new LiteralNode(value);
+    }
+
+    public static RegexNode group(RegexNode child) {
+        return new GroupNode(GroupNode.Type.CAPTURING, null, child);
+    }
+
+    /**
+     * @param maximumLength The maximum length of the texts.
+     * @return All texts up to the length over {@link #CHARACTERS}, shortest first.
+     */
+    public static List<String> allTexts(int maximumLength) {
+        List<String> texts = new ArrayList<>(Collections.singletonList(""));
+        for (int i = 0; i < texts.size(); i++) {
+            if (texts.get(i).length() < maximumLength) {
+                for (char c : CHARACTERS.toCharArray()) {
+                    texts.add(texts.get(i) + c);
+                }
+            }
+        }
+        return texts;
+    }
+
+    /**
+     * @param random The source of randomness.
+     * @param depth  The maximum depth of the tree. A depth of zero results in a literal, character class or anchor.
+     * @return A random tree with every kind of node, except regular expressions added as a string. Some of them, such
+     * as lookbehinds without a maximum length, cannot be compiled by the JDK.
+     */
+    public static RegexNode randomNode(Random random, int depth) {
+        int choice = random.nextInt(depth <= 0 ? 3 : 10);
+        switch (choice) {
+            case 0:
+                return new LiteralNode(Arrays.asList("a", "A", "1", " ", "a1").get(random.nextInt(5)));
+            case 1:
+                return new CharacterClassNode(Arrays.asList(".", "\\d", "[aA]", "\\s", "\\w", "[^a]").get(random.nextInt(6)));
+            case 2:
+                return new AnchorNode(AnchorNode.Type.values()[random.nextInt(AnchorNode.Type.values().length)]);
+            case 3:
+            case 4:
+                return new SequenceNode(Arrays.asList(randomNode(random, depth - 1), randomNode(random, depth - 1)));
+            case 5:
+                return new AlternationNode(Arrays.asList(randomNode(random, depth - 1), randomNode(random, depth - 1)));
+            case 6:
+                return new GroupNode(GroupNode.Type.CAPTURING, null, randomNode(random, depth - 1));
+            case 7:
+                GroupNode.Type lookaround = Arrays.asList(GroupNode.Type.POSITIVE_LOOKAHEAD, GroupNode.Type.NEGATIVE_LOOKBEHIND)
+                        .get(random.nextInt(2));
+                return new GroupNode(lookaround, null, randomNode(random, depth - 1));
+            default:
+                int min = random.nextInt(3);
+                int max = random.nextBoolean() ? QuantifierNode.UNBOUNDED : min + random.nextInt(3);
+                QuantifierNode.Type type = QuantifierNode.Type.values()[random.nextInt(QuantifierNode.Type.values().length)];
+                return new QuantifierNode(randomNode(random, depth - 1), min, max, type);
+        }
+    }
+}
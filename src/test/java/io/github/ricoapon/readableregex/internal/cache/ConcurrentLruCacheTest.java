@@ -0,0 +1,95 @@
+package io.github.ricoapon.readableregex.internal.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConcurrentLruCacheTest {
+    private static final Function<Integer, String> LOADER = String::valueOf;
+
+    @Test
+    void maximumSizeMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentLruCache<>(0));
+    }
+
+    @Test
+    void valuesAreLoadedOnceAndCounted() {
+        ConcurrentLruCache<Integer, String> cache = new ConcurrentLruCache<>(10);
+
+        String value = cache.get(1, LOADER);
+        assertThat(cache.get(1, LOADER), sameInstance(value));
+        cache.get(2, LOADER);
+
+        assertThat(cache.hitCount(), equalTo(1L));
+        assertThat(cache.missCount(), equalTo(2L));
+        assertThat(cache.evictionCount(), equalTo(0L));
+        assertThat(cache.size(), equalTo(2));
+    }
+
+    @Test
+    void leastRecentlyUsedValueIsEvicted() {
+        // A single segment is used, so the order of the entries is exactly known.
+        ConcurrentLruCache<Integer, String> cache = new ConcurrentLruCache<>(1);
+        cache.get(1, LOADER);
+        cache.get(2, LOADER);
+
+        assertThat(cache.size(), equalTo(1));
+        assertThat(cache.evictionCount(), equalTo(1L));
+
+        cache.get(2, LOADER);
+        assertThat(cache.hitCount(), equalTo(1L));
+    }
+
+    @Test
+    void sizeNeverExceedsMaximumSize() {
+        ConcurrentLruCache<Integer, String> cache = new ConcurrentLruCache<>(20);
+        for (int i = 0; i < 1000; i++) {
+            cache.get(i, LOADER);
+        }
+
+        assertThat(cache.size() <= 20, equalTo(true));
+        assertThat(cache.evictionCount(), equalTo(1000L - cache.size()));
+    }
+
+    @Test
+    void clearRemovesAllValues() {
+        ConcurrentLruCache<Integer, String> cache = new ConcurrentLruCache<>(10);
+        cache.get(1, LOADER);
+        cache.clear();
+
+        assertThat(cache.size(), equalTo(0));
+        assertThat(cache.missCount(), equalTo(1L));
+    }
+
+    @Test
+    void allThreadsReturnTheSameValue() throws Exception {
+        ConcurrentLruCache<Integer, Object> cache = new ConcurrentLruCache<>(10);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                futures.add(executorService.submit(() -> cache.get(1, key -> new Object())));
+            }
+
+            Object value = cache.get(1, key -> new Object());
+            for (Future<Object> future : futures) {
+                assertThat(future.get(), sameInstance(value));
+            }
+            assertThat(cache.hitCount() + cache.missCount(), equalTo(101L));
+        } finally {
+            executorService.shutdown();
+            executorService.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+}
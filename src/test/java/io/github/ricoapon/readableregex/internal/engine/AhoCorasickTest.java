@@ -0,0 +1,107 @@
+package io.github.ricoapon.readableregex.internal.engine;
+
+import io.github.ricoapon.readableregex.PatternFlag;
+import io.github.ricoapon.readableregex.ReadableMatchResult;
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import io.github.ricoapon.readableregex.internal.ast.AlternationNode;
+import io.github.ricoapon.readableregex.internal.ast.LiteralNode;
+import io.github.ricoapon.readableregex.internal.ast.RegexNode;
+import io.github.ricoapon.readableregex.internal.ast.SequenceNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+class AhoCorasickTest {
+    private static final Set<PatternFlag> NO_FLAGS = EnumSet.noneOf(PatternFlag.class);
+
+    private static RegexNode alternation(String... values) {
+        return new AlternationNode(Arrays.stream(values).map(LiteralNode::new).collect(Collectors.toList()));
+    }
+
+    @Test
+    void firstLiteralInTheAlternationWinsAtTheSamePosition() {
+        AhoCorasick ahoCorasick = AhoCorasick.create(alternation("he", "hers", "she", "his"), NO_FLAGS);
+
+        assertThat(ahoCorasick, notNullValue());
+        assertThat(ahoCorasick.find("ushers", 0), equalTo(new int[]{1, 4}));
+        assertThat(ahoCorasick.find("ushers", 2), equalTo(new int[]{2, 4}));
+        assertThat(ahoCorasick.find("hershe", 0), equalTo(new int[]{0, 2}));
+        assertThat(ahoCorasick.find("xyz", 0), nullValue());
+        assertThat(ahoCorasick.matchesExactly("hers"), equalTo(true));
+        assertThat(ahoCorasick.matchesExactly("her"), equalTo(false));
+    }
+
+    @Test
+    void caseIsIgnoredWhenEnabled() {
+        AhoCorasick ahoCorasick = AhoCorasick.create(alternation("Error", "WARN"), EnumSet.of(PatternFlag.CASE_INSENSITIVE));
+
+        assertThat(ahoCorasick.find("an ERROR occurred", 0), equalTo(new int[]{3, 8}));
+        assertThat(ahoCorasick.matchesExactly("warn"), equalTo(true));
+    }
+
+    @Test
+    void automatonIsOnlyCreatedForAlternationsOfLiterals() {
+        assertThat(AhoCorasick.create(new LiteralNode("a"), NO_FLAGS), nullValue());
+        assertThat(AhoCorasick.create(alternation("a", ""), NO_FLAGS), nullValue());
+        assertThat(AhoCorasick.create(new AlternationNode(Arrays.asList(new LiteralNode("a"),
+                new SequenceNode(Arrays.asList(new LiteralNode("b"), new LiteralNode("c"))))), NO_FLAGS), nullValue());
+        assertThat(AhoCorasick.create(alternation("a", new String(Character.toChars(0x1F600))), NO_FLAGS), nullValue());
+    }
+
+    @Test
+    void randomDictionariesFindTheSameMatchesAsTheJdk() {
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            List<String> literals = new ArrayList<>();
+            int nrOfLiterals = 2 + random.nextInt(20);
+            for (int j = 0; j < nrOfLiterals; j++) {
+                literals.add(randomText(random, 1 + random.nextInt(4)));
+            }
+            ReadableRegexPattern pattern = random.nextBoolean() ? regex().oneOfLiterals(literals).build()
+                    : regex().oneOfLiterals(literals).buildWithFlags(PatternFlag.CASE_INSENSITIVE);
+            Pattern jdkPattern = pattern.getUnderlyingPattern();
+
+            for (int j = 0; j < 50; j++) {
+                String text = randomText(random, random.nextInt(12));
+                String reason = jdkPattern + " on \"" + text + "\"";
+                Matcher matcher = jdkPattern.matcher(text);
+                List<List<Integer>> matches = new ArrayList<>();
+                while (matcher.find()) {
+                    matches.add(Arrays.asList(matcher.start(), matcher.end()));
+                }
+                assertThat(reason, pattern.containsMatch(text), equalTo(!matches.isEmpty()));
+                assertThat(reason, pattern.countMatches(text), equalTo(matches.size()));
+                assertThat(reason, pattern.firstMatch(text).map(AhoCorasickTest::positionOf).orElse(null),
+                        equalTo(matches.isEmpty() ? null : matches.get(0)));
+                assertThat(reason, pattern.matchesTextExactly(text), equalTo(jdkPattern.matcher(text).matches()));
+                assertThat(reason, pattern.exactMatch(text).isPresent(), equalTo(jdkPattern.matcher(text).matches()));
+            }
+        }
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            sb.append("abAB".charAt(random.nextInt(4)));
+        }
+        return sb.toString();
+    }
+
+    private static List<Integer> positionOf(ReadableMatchResult result) {
+        return Arrays.asList(result.start(), result.end());
+    }
+}
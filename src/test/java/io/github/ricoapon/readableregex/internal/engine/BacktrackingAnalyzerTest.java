@@ -0,0 +1,98 @@
+package io.github.ricoapon.readableregex.internal.engine;
+
+import io.github.ricoapon.readableregex.BacktrackingComplexity;
+import io.github.ricoapon.readableregex.PatternFlag;
+import io.github.ricoapon.readableregex.ReadableRegex;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+
+class BacktrackingAnalyzerTest {
+    private static BacktrackingComplexity complexity(ReadableRegex<?> regex, PatternFlag... flags) {
+        return regex.buildWithFlags(flags).backtrackingComplexity();
+    }
+
+    @Test
+    void expressionsWithoutAmbiguityAreLinear() {
+        assertThat(complexity(regex().anyCharacterOf("a-z").oneOrMore().literal("@").anyCharacterOf("a-z").oneOrMore()),
+                equalTo(BacktrackingComplexity.LINEAR));
+        assertThat(complexity(regex().add(regex().wordCharacter().oneOrMore().literal(" ")).zeroOrMore().literal("x")),
+                equalTo(BacktrackingComplexity.LINEAR));
+        // Both alternatives start with an a, but only one of them can continue.
+        assertThat(complexity(regex().oneOf(regex().literal("ab"), regex().literal("ac")).oneOrMore()),
+                equalTo(BacktrackingComplexity.LINEAR));
+        // Repetitions with a maximum only add a constant factor.
+        assertThat(complexity(regex().literal("a").betweenNAndMTimes(1, 500)), equalTo(BacktrackingComplexity.LINEAR));
+        assertThat(complexity(regex().literal("abc")), equalTo(BacktrackingComplexity.LINEAR));
+    }
+
+    @Test
+    void adjacentRepetitionsThatOverlapArePolynomial() {
+        assertThat(complexity(regex().wordCharacter().oneOrMore().digit().oneOrMore()), equalTo(BacktrackingComplexity.POLYNOMIAL));
+        assertThat(complexity(regex().literal("a").zeroOrMore().literal("a").zeroOrMore().literal("b")),
+                equalTo(BacktrackingComplexity.POLYNOMIAL));
+        assertThat(complexity(regex().add(regex().wordCharacter().oneOrMore().whitespace().optional()).exactlyNTimes(3)),
+                equalTo(BacktrackingComplexity.POLYNOMIAL));
+        // Without DOT_ALL, the dot does not match the line break, so the repetitions cannot overlap.
+        assertThat(complexity(regex().anyCharacter().oneOrMore().literal("\n").anyCharacter().oneOrMore()),
+                equalTo(BacktrackingComplexity.LINEAR));
+        assertThat(complexity(regex().anyCharacter().oneOrMore().literal("\n").anyCharacter().oneOrMore(), PatternFlag.DOT_ALL),
+                equalTo(BacktrackingComplexity.POLYNOMIAL));
+    }
+
+    @Test
+    void repetitionsThatCanMatchTheSameTextInMultipleWaysAreExponential() {
+        assertThat(complexity(regex().add(regex().word()).oneOrMore()), equalTo(BacktrackingComplexity.EXPONENTIAL));
+        assertThat(complexity(regex().oneOf(regex().literal("a"), regex().literal("aa")).oneOrMore().literal("b")),
+                equalTo(BacktrackingComplexity.EXPONENTIAL));
+        assertThat(complexity(regex().add(regex().wordCharacter().oneOrMore().digit().optional()).oneOrMore()),
+                equalTo(BacktrackingComplexity.EXPONENTIAL));
+        assertThat(complexity(regex().add(regex().literal("a").betweenNAndMTimes(1, 3)).oneOrMore()),
+                equalTo(BacktrackingComplexity.EXPONENTIAL));
+        assertThat(complexity(regex().group(regex().literal("a").zeroOrMore()).zeroOrMore()),
+                equalTo(BacktrackingComplexity.EXPONENTIAL));
+    }
+
+    @Test
+    void duplicateAlternativesThatAreNotRenderedAreIgnored() {
+        assertThat(complexity(regex().oneOf(regex().literal("a"), regex().literal("a")).oneOrMore()),
+                equalTo(BacktrackingComplexity.LINEAR));
+        assertThat(complexity(regex().oneOfLiterals(Arrays.asList("ab", "ab")).oneOrMore()), equalTo(BacktrackingComplexity.LINEAR));
+        assertThat(complexity(regex().oneOfLiterals(Arrays.asList("ab", "ab")).oneOrMore(), PatternFlag.REJECT_EXPONENTIAL_BACKTRACKING),
+                equalTo(BacktrackingComplexity.LINEAR));
+    }
+
+    @Test
+    void caseInsensitivityIsTakenIntoAccount() {
+        ReadableRegex<?> regex = regex().oneOf(regex().literal("a"), regex().literal("A")).oneOrMore();
+        assertThat(complexity(regex), equalTo(BacktrackingComplexity.LINEAR));
+        assertThat(complexity(regex, PatternFlag.CASE_INSENSITIVE), equalTo(BacktrackingComplexity.EXPONENTIAL));
+    }
+
+    @Test
+    void unsupportedOrLargeExpressionsAreUnknown() {
+        assertThat(complexity(regex().literal("a").startPositiveLookahead().literal("b").endGroup()),
+                equalTo(BacktrackingComplexity.UNKNOWN));
+        assertThat(complexity(regex().regexFromString("(a+)+")), equalTo(BacktrackingComplexity.UNKNOWN));
+        assertThat(complexity(regex().literal("a").oneOrMore().possessive()), equalTo(BacktrackingComplexity.UNKNOWN));
+        assertThat(complexity(regex().add(regex().anyCharacter().betweenNAndMTimes(1, 200).literal("x")).betweenNAndMTimes(1, 40)),
+                equalTo(BacktrackingComplexity.UNKNOWN));
+        assertThat(complexity(regex().digit().betweenNAndMTimes(1, 200).literal("x")), not(equalTo(BacktrackingComplexity.UNKNOWN)));
+    }
+
+    @Test
+    void stronglyConnectedComponentsAreFound() {
+        // 0 -> 1 -> 2 -> 1, 2 -> 3, 3 -> 3, 4 -> 0
+        List<int[]> edges = Arrays.asList(new int[]{1}, new int[]{2}, new int[]{1, 3}, new int[]{3}, new int[]{0});
+        int[] components = BacktrackingAnalyzer.stronglyConnectedComponents(edges);
+
+        assertThat(components[1], equalTo(components[2]));
+        assertThat(Arrays.stream(components).distinct().count(), equalTo(4L));
+    }
+}
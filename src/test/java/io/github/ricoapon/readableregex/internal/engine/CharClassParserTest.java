@@ -0,0 +1,60 @@
+package io.github.ricoapon.readableregex.internal.engine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.regex.Pattern;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+class CharClassParserTest {
+    /** Characters that are checked against the JDK: all ASCII characters and some special ones. */
+    private static final int[] CODE_POINTS_TO_CHECK = {0x85, 0xE9, 0xC9, 0x2028, 0x2029, 0x20AC, 0x1F600};
+
+    private static void assertSameAsJdk(String regex, boolean caseInsensitive, boolean dotAll) {
+        CharSet charSet = CharClassParser.parse(regex, caseInsensitive, dotAll);
+        Pattern pattern = Pattern.compile(regex, (caseInsensitive ? Pattern.CASE_INSENSITIVE : 0) | (dotAll ? Pattern.DOTALL : 0));
+
+        for (int codePoint = 0; codePoint < 128; codePoint++) {
+            assertSameAsJdk(charSet, pattern, codePoint);
+        }
+        for (int codePoint : CODE_POINTS_TO_CHECK) {
+            assertSameAsJdk(charSet, pattern, codePoint);
+        }
+    }
+
+    private static void assertSameAsJdk(CharSet charSet, Pattern pattern, int codePoint) {
+        String text = new String(Character.toChars(codePoint));
+        assertThat(pattern + " with " + Integer.toHexString(codePoint), charSet.contains(codePoint),
+                equalTo(pattern.matcher(text).matches()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {".", "\\d", "\\D", "\\s", "\\S", "\\w", "\\W", "\\t", "\\.", "[a-z]", "[^a-z]", "[a-zA-Z_]",
+            "[]a]", "[^]]", "[-a]", "[a-]", "[\\d-z]", "[\\[\\]]", "[^ ]", "[a-c\\n]", "[\\t-\\r]", "[^aB]", "[A-z]", "[\u20AC\uD83D\uDE00]"})
+    void classesMatchTheSameAsTheJdk(String regex) {
+        assertSameAsJdk(regex, false, false);
+        assertSameAsJdk(regex, true, false);
+        assertSameAsJdk(regex, false, true);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"[a[b]]", "[a-z&&[^c]]", "\\p{L}", "[\\x41]", "[b-a]", "\\b", "[a", "[]", "\\dx"})
+    void unsupportedSyntaxIsNotParsed(String regex) {
+        assertThat(CharClassParser.parse(regex, false, false), nullValue());
+    }
+
+    @Test
+    void charSetOperationsWork() {
+        CharSet set = CharSet.ofRanges('d', 'f', 'a', 'b', 'c', 'c');
+
+        assertThat(set, equalTo(CharSet.range('a', 'f')));
+        assertThat(set.complement().complement(), equalTo(set));
+        assertThat(set.intersection(CharSet.range('e', 'z')), equalTo(CharSet.range('e', 'f')));
+        assertThat(CharSet.range('a', 'b').withAsciiCaseFolding(), equalTo(CharSet.ofRanges('a', 'b', 'A', 'B')));
+        assertThat(CharSet.ALL.complement().isEmpty(), equalTo(true));
+    }
+}
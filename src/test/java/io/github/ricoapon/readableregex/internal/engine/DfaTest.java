@@ -0,0 +1,176 @@
+package io.github.ricoapon.readableregex.internal.engine;
+
+import io.github.ricoapon.readableregex.PatternFlag;
+import io.github.ricoapon.readableregex.internal.ast.AlternationNode;
+import io.github.ricoapon.readableregex.internal.ast.AnchorNode;
+import io.github.ricoapon.readableregex.internal.ast.CharacterClassNode;
+import io.github.ricoapon.readableregex.internal.ast.GroupNode;
+import io.github.ricoapon.readableregex.internal.ast.QuantifierNode;
+import io.github.ricoapon.readableregex.internal.ast.RawRegexNode;
+import io.github.ricoapon.readableregex.internal.ast.RegexNode;
+import io.github.ricoapon.readableregex.internal.ast.RegexRenderer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static io.github.ricoapon.readableregex.internal.ast.RegexTrees.allTexts;
+import static io.github.ricoapon.readableregex.internal.ast.RegexTrees.group;
+import static io.github.ricoapon.readableregex.internal.ast.RegexTrees.literal;
+import static io.github.ricoapon.readableregex.internal.ast.RegexTrees.sequence;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+class DfaTest {
+    private static final List<String> TEXTS = allTexts(5);
+
+    private static RegexNode oneOf(RegexNode... nodes) {
+        return new AlternationNode(Arrays.asList(nodes));
+    }
+
+    private static RegexNode charClass(String regex) {
+        return new CharacterClassNode(regex);
+    }
+
+    private static RegexNode repeat(RegexNode child, int min, int max, QuantifierNode.Type type) {
+        return new QuantifierNode(child, min, max, type);
+    }
+
+    private static void assertSameAsJdk(RegexNode node, PatternFlag... patternFlags) {
+        Set<PatternFlag> flags = EnumSet.noneOf(PatternFlag.class);
+        flags.addAll(Arrays.asList(patternFlags));
+        int jdkFlags = flags.stream().mapToInt(PatternFlag::getJdkPatternFlagCode).reduce(0, (a, b) -> a | b);
+        Pattern pattern = Pattern.compile(RegexRenderer.render(node), jdkFlags);
+        Nfa nfa = NfaCompiler.compile(node, flags);
+        assertThat(pattern.pattern(), nfa, notNullValue());
+        Dfa dfa = Dfa.create(nfa);
+        assertThat(pattern.pattern(), dfa, notNullValue());
+
+        for (String text : TEXTS) {
+            String reason = pattern.pattern() + " on \"" + text + "\"";
+            assertThat(reason, dfa.matchesExactly(text), equalTo(pattern.matcher(text).matches()));
+            assertThat(reason, dfa.containsMatch(text), equalTo(pattern.matcher(text).find()));
+        }
+    }
+
+    @Test
+    void literalsAndClassesMatchTheSameAsTheJdk() {
+        assertSameAsJdk(literal("a1"));
+        assertSameAsJdk(literal("a1"), PatternFlag.CASE_INSENSITIVE);
+        assertSameAsJdk(literal(""));
+        assertSameAsJdk(sequence(charClass("\\w"), charClass("."), charClass("[^a]")));
+        assertSameAsJdk(sequence(charClass("\\w"), charClass("."), charClass("[^a]")), PatternFlag.DOT_ALL, PatternFlag.CASE_INSENSITIVE);
+    }
+
+    @Test
+    void quantifiersAndAlternationsMatchTheSameAsTheJdk() {
+        for (QuantifierNode.Type type : Arrays.asList(QuantifierNode.Type.GREEDY, QuantifierNode.Type.RELUCTANT)) {
+            assertSameAsJdk(repeat(literal("a"), 0, QuantifierNode.UNBOUNDED, type));
+            assertSameAsJdk(repeat(literal("a"), 2, QuantifierNode.UNBOUNDED, type));
+            assertSameAsJdk(repeat(literal("a"), 1, 3, type));
+            assertSameAsJdk(repeat(literal("a"), 0, 0, type));
+            assertSameAsJdk(sequence(repeat(charClass("\\d"), 0, 1, type), literal("a")));
+            assertSameAsJdk(repeat(oneOf(literal("a"), literal("1 ")), 0, QuantifierNode.UNBOUNDED, type));
+            assertSameAsJdk(repeat(repeat(literal("a"), 0, QuantifierNode.UNBOUNDED, type), 0, QuantifierNode.UNBOUNDED, type));
+        }
+        assertSameAsJdk(sequence(group(oneOf(literal("a"), literal("aA"))), group(literal("1"))));
+    }
+
+    @Test
+    void startAndEndOfInputMatchTheSameAsTheJdk() {
+        RegexNode start = new AnchorNode(AnchorNode.Type.START_OF_INPUT);
+        RegexNode end = new AnchorNode(AnchorNode.Type.END_OF_INPUT);
+
+        assertSameAsJdk(sequence(start, literal("a")));
+        assertSameAsJdk(sequence(literal("a"), end));
+        assertSameAsJdk(sequence(start, end));
+        assertSameAsJdk(sequence(end, start));
+        assertSameAsJdk(oneOf(sequence(literal("a"), end), literal("1")));
+    }
+
+    @Test
+    void severalTreesAreMatchedInOnePass() {
+        List<RegexNode> nodes = Arrays.asList(
+                literal("a1"),
+                sequence(new AnchorNode(AnchorNode.Type.START_OF_INPUT), literal("A")),
+                sequence(literal(" "), new AnchorNode(AnchorNode.Type.END_OF_INPUT)),
+                repeat(charClass("\\d"), 2, QuantifierNode.UNBOUNDED, QuantifierNode.Type.GREEDY),
+                repeat(literal("a"), 0, 1, QuantifierNode.Type.GREEDY),
+                literal("a1"));
+        List<Set<PatternFlag>> flags = new ArrayList<>(Collections.nCopies(nodes.size(), EnumSet.noneOf(PatternFlag.class)));
+        flags.set(0, EnumSet.of(PatternFlag.CASE_INSENSITIVE));
+        Dfa dfa = Dfa.create(NfaCompiler.compileAll(nodes, flags));
+
+        for (String text : TEXTS) {
+            BitSet expectedMatching = new BitSet();
+            BitSet expectedExactlyMatching = new BitSet();
+            for (int i = 0; i < nodes.size(); i++) {
+                int jdkFlags = flags.get(i).stream().mapToInt(PatternFlag::getJdkPatternFlagCode).reduce(0, (a, b) -> a | b);
+                Pattern pattern = Pattern.compile(RegexRenderer.render(nodes.get(i)), jdkFlags);
+                expectedMatching.set(i, pattern.matcher(text).find());
+                expectedExactlyMatching.set(i, pattern.matcher(text).matches());
+            }
+            assertThat(text, dfa.matchingPatterns(text), equalTo(expectedMatching));
+            assertThat(text, dfa.exactlyMatchingPatterns(text), equalTo(expectedExactlyMatching));
+            assertThat(text, dfa.containsMatch(text), equalTo(!expectedMatching.isEmpty()));
+        }
+    }
+
+    @Test
+    void treesThatCannotBeCompiledAreLeftOut() {
+        List<RegexNode> nodes = Arrays.asList(
+                literal("a"),
+                new GroupNode(GroupNode.Type.POSITIVE_LOOKAHEAD, null, literal("1")),
+                literal("1"),
+                new RawRegexNode("A"));
+        List<Set<PatternFlag>> flags = Collections.nCopies(nodes.size(), EnumSet.noneOf(PatternFlag.class));
+        BitSet unsupported = new BitSet();
+        Dfa dfa = Dfa.create(NfaCompiler.compileAll(nodes, flags, unsupported));
+
+        assertThat(unsupported, equalTo(BitSet.valueOf(new long[]{0b1010})));
+        assertThat(dfa.matchingPatterns("1aA"), equalTo(BitSet.valueOf(new long[]{0b0101})));
+        assertThat(dfa.matchingPatterns("A1"), equalTo(BitSet.valueOf(new long[]{0b0100})));
+        assertThat(NfaCompiler.compileAll(nodes, flags), nullValue());
+        assertThat(NfaCompiler.compileAll(nodes.subList(1, 2), flags, new BitSet()), nullValue());
+        assertThat(Dfa.supportsAnchorsOf(sequence(new AnchorNode(AnchorNode.Type.START_OF_INPUT), group(literal("a")))), equalTo(true));
+        assertThat(Dfa.supportsAnchorsOf(sequence(literal("a"), group(new AnchorNode(AnchorNode.Type.WORD_BOUNDARY)))), equalTo(false));
+    }
+
+    @Test
+    void unsupportedNodesAreNotCompiled() {
+        Set<PatternFlag> flags = EnumSet.noneOf(PatternFlag.class);
+
+        assertThat(NfaCompiler.compile(new RawRegexNode("a"), flags), nullValue());
+        assertThat(NfaCompiler.compile(repeat(literal("a"), 0, 1, QuantifierNode.Type.POSSESSIVE), flags), nullValue());
+        assertThat(NfaCompiler.compile(new GroupNode(GroupNode.Type.POSITIVE_LOOKAHEAD, null, literal("a")), flags), nullValue());
+        assertThat(NfaCompiler.compile(repeat(literal("a"), 0, 100_000, QuantifierNode.Type.GREEDY), flags), nullValue());
+        assertThat(Dfa.create(NfaCompiler.compile(new AnchorNode(AnchorNode.Type.WORD_BOUNDARY), flags)), nullValue());
+    }
+
+    @Test
+    void matchingStillWorksWhenTheCacheIsFull() {
+        // (a|1)*a(a|1){10} needs 2^11 states, which is more than can be cached.
+        RegexNode aOr1 = oneOf(literal("a"), literal("1"));
+        RegexNode node = sequence(repeat(aOr1, 0, QuantifierNode.UNBOUNDED, QuantifierNode.Type.GREEDY), literal("a"),
+                repeat(aOr1, 10, 10, QuantifierNode.Type.GREEDY));
+        Dfa dfa = Dfa.create(NfaCompiler.compile(node, EnumSet.noneOf(PatternFlag.class)));
+        Pattern pattern = Pattern.compile(RegexRenderer.render(node));
+
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 1500; i++) {
+            text.append(Integer.bitCount(i * 7919) % 2 == 0 ? 'a' : '1');
+        }
+        for (int length = 0; length < text.length(); length += 37) {
+            String subText = text.substring(0, length);
+            assertThat(dfa.matchesExactly(subText), equalTo(pattern.matcher(subText).matches()));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package io.github.ricoapon.readableregex.internal.engine;
+
+import io.github.ricoapon.readableregex.PatternFlag;
+import io.github.ricoapon.readableregex.ReadableMatchResult;
+import io.github.ricoapon.readableregex.internal.ReadableRegexPatternImpl;
+import io.github.ricoapon.readableregex.internal.ast.AlternationNode;
+import io.github.ricoapon.readableregex.internal.ast.AnchorNode;
+import io.github.ricoapon.readableregex.internal.ast.CharacterClassNode;
+import io.github.ricoapon.readableregex.internal.ast.GroupNode;
+import io.github.ricoapon.readableregex.internal.ast.LiteralNode;
+import io.github.ricoapon.readableregex.internal.ast.QuantifierNode;
+import io.github.ricoapon.readableregex.internal.ast.RawRegexNode;
+import io.github.ricoapon.readableregex.internal.ast.RegexNode;
+import io.github.ricoapon.readableregex.internal.ast.RegexNodes;
+import io.github.ricoapon.readableregex.internal.ast.RegexRenderer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import static io.github.ricoapon.readableregex.internal.ast.RegexTrees.allTexts;
+import static io.github.ricoapon.readableregex.internal.ast.RegexTrees.randomNode;
+import static io.github.ricoapon.readableregex.internal.ast.RegexTrees.sequence;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+class FirstCharacterFilterTest {
+    private static final List<String> TEXTS = allTexts(4);
+    private static final Set<PatternFlag> NO_FLAGS = EnumSet.noneOf(PatternFlag.class);
+    private static final String EMOJI = new String(Character.toChars(0x1F600));
+    private static final String OTHER_EMOJI = new String(Character.toChars(0x1F601));
+
+    private static RegexNode optional(RegexNode child) {
+        return new QuantifierNode(child, 0, 1, QuantifierNode.Type.GREEDY);
+    }
+
+    @Test
+    void firstCharactersAreDetermined() {
+        FirstCharacterFilter filter = FirstCharacterFilter.create(sequence(
+                new AnchorNode(AnchorNode.Type.WORD_BOUNDARY),
+                new GroupNode(GroupNode.Type.NEGATIVE_LOOKBEHIND, null, new LiteralNode("x")),
+                optional(new LiteralNode("-")),
+                new AlternationNode(Arrays.asList(new CharacterClassNode("\\d"), new LiteralNode(EMOJI))),
+                new LiteralNode("b")), NO_FLAGS);
+
+        assertThat(filter, notNullValue());
+        assertThat(filter.indexIn("ab-c5", 0), equalTo(2));
+        assertThat(filter.indexIn("ab-c5", 3), equalTo(4));
+        assertThat(filter.indexIn("abc", 0), equalTo(-1));
+        assertThat(filter.indexIn("a" + EMOJI, 0), equalTo(1));
+        assertThat(filter.canStartAt(OTHER_EMOJI, 0), equalTo(false));
+    }
+
+    @Test
+    void caseIsIgnoredWhenEnabled() {
+        FirstCharacterFilter filter = FirstCharacterFilter.create(new LiteralNode("id"), EnumSet.of(PatternFlag.CASE_INSENSITIVE));
+        assertThat(filter.indexIn("xID", 0), equalTo(1));
+    }
+
+    @Test
+    void filterIsNotCreatedWhenEveryPositionHasToBeTried() {
+        // Can match the empty text.
+        assertThat(FirstCharacterFilter.create(optional(new LiteralNode("a")), NO_FLAGS), nullValue());
+        // Too many characters.
+        assertThat(FirstCharacterFilter.create(new CharacterClassNode("\\w"), NO_FLAGS), nullValue());
+        assertThat(FirstCharacterFilter.create(new CharacterClassNode("[^a]"), NO_FLAGS), nullValue());
+        // The raw regex makes the literal before it optional.
+        assertThat(FirstCharacterFilter.create(sequence(new LiteralNode("a"), new RawRegexNode("?"), new LiteralNode("b")),
+                NO_FLAGS), nullValue());
+    }
+
+    @Test
+    void searchingRandomTreesFindsTheSameMatchesAsTheJdk() {
+        Random random = new Random(42);
+        for (int i = 0; i < 400; i++) {
+            RegexNode node = randomNode(random, 4);
+            Set<PatternFlag> flags = EnumSet.noneOf(PatternFlag.class);
+            if (RegexNodes.containsLineAnchor(node)) {
+                flags.add(PatternFlag.MULTILINE);
+            }
+            if (random.nextBoolean()) {
+                flags.add(random.nextBoolean() ? PatternFlag.CASE_INSENSITIVE : PatternFlag.DOT_ALL);
+            }
+            int jdkFlags = flags.stream().mapToInt(PatternFlag::getJdkPatternFlagCode).reduce(0, (a, b) -> a | b);
+            Pattern jdkPattern;
+            try {
+                jdkPattern = Pattern.compile(RegexRenderer.render(node), jdkFlags);
+            } catch (PatternSyntaxException e) {
+                // For example a lookbehind without a maximum length.
+                continue;
+            }
+            ReadableRegexPatternImpl pattern = new ReadableRegexPatternImpl(jdkPattern, flags,
+                    RegexNodes.capturingGroupNames(node), node);
+
+            for (String text : TEXTS) {
+                String reason = jdkPattern + " on \"" + text + "\"";
+                Matcher matcher = jdkPattern.matcher(text);
+                int count = 0;
+                List<Integer> firstMatch = null;
+                while (matcher.find()) {
+                    if (count++ == 0) {
+                        firstMatch = Arrays.asList(matcher.start(), matcher.end());
+                    }
+                }
+                assertThat(reason, pattern.containsMatch(text), equalTo(count > 0));
+                assertThat(reason, pattern.countMatches(text), equalTo(count));
+                assertThat(reason, pattern.firstMatch(text).map(FirstCharacterFilterTest::positionOf).orElse(null),
+                        equalTo(firstMatch));
+                assertThat(reason, pattern.matchesTextExactly(text), equalTo(matcher.matches()));
+            }
+        }
+    }
+
+    private static List<Integer> positionOf(ReadableMatchResult result) {
+        return Arrays.asList(result.start(), result.end());
+    }
+}
@@ -0,0 +1,28 @@
+package io.github.ricoapon.readableregex.internal.engine;
+
+import io.github.ricoapon.readableregex.PatternFlag;
+import org.junit.jupiter.api.Test;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class LineOrientationTest {
+    @Test
+    void patternsThatCannotMatchALineFeedAreLineOriented() {
+        assertThat(regex().literal("ERROR ").digit().oneOrMore().build().isLineOriented(), equalTo(true));
+        assertThat(regex().startOfLine().anything().endOfLine().build().isLineOriented(), equalTo(true));
+        assertThat(regex().literal("a").positiveLookahead(regex().word()).wordBoundary().build().isLineOriented(), equalTo(true));
+        assertThat(regex().anyCharacterExcept("\n").oneOrMore().build().isLineOriented(), equalTo(true));
+    }
+
+    @Test
+    void patternsThatCanMatchALineFeedAreNotLineOriented() {
+        assertThat(regex().literal("a").lineBreak().build().isLineOriented(), equalTo(false));
+        assertThat(regex().anything().buildWithFlags(PatternFlag.DOT_ALL).isLineOriented(), equalTo(false));
+        assertThat(regex().whitespace().build().isLineOriented(), equalTo(false));
+        assertThat(regex().literal("a\nb").build().isLineOriented(), equalTo(false));
+        assertThat(regex().literal("a").negativeLookahead(regex().literal("\n")).build().isLineOriented(), equalTo(false));
+        assertThat(regex().regexFromString("a").build().isLineOriented(), equalTo(false));
+    }
+}
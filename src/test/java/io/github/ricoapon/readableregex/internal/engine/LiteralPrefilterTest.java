@@ -0,0 +1,124 @@
+package io.github.ricoapon.readableregex.internal.engine;
+
+import io.github.ricoapon.readableregex.PatternFlag;
+import io.github.ricoapon.readableregex.internal.ast.AlternationNode;
+import io.github.ricoapon.readableregex.internal.ast.AnchorNode;
+import io.github.ricoapon.readableregex.internal.ast.CharacterClassNode;
+import io.github.ricoapon.readableregex.internal.ast.GroupNode;
+import io.github.ricoapon.readableregex.internal.ast.QuantifierNode;
+import io.github.ricoapon.readableregex.internal.ast.RawRegexNode;
+import io.github.ricoapon.readableregex.internal.ast.RegexNode;
+import org.junit.jupiter.api.Test;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static io.github.ricoapon.readableregex.internal.ast.RegexTrees.group;
+import static io.github.ricoapon.readableregex.internal.ast.RegexTrees.literal;
+import static io.github.ricoapon.readableregex.internal.ast.RegexTrees.sequence;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+class LiteralPrefilterTest {
+    private static RegexNode digits() {
+        return new QuantifierNode(new CharacterClassNode("\\d"), 1, QuantifierNode.UNBOUNDED, QuantifierNode.Type.GREEDY);
+    }
+
+    @Test
+    void longestRequiredLiteralIsFound() {
+        assertThat(LiteralPrefilter.requiredLiteral(sequence(digits(), literal("ERROR"), digits(), literal(":"))), equalTo("ERROR"));
+        // Groups and anchors do not interrupt the literal.
+        assertThat(LiteralPrefilter.requiredLiteral(sequence(digits(), literal("a"), group(literal("bc")),
+                new AnchorNode(AnchorNode.Type.WORD_BOUNDARY), literal("d"), digits())), equalTo("abcd"));
+        // Literals inside a repetition are required once, if the minimum is at least one.
+        assertThat(LiteralPrefilter.requiredLiteral(sequence(digits(),
+                new QuantifierNode(sequence(literal("://"), digits()), 2, 3, QuantifierNode.Type.GREEDY))), equalTo("://"));
+    }
+
+    @Test
+    void optionalPartsAreSkipped() {
+        assertThat(LiteralPrefilter.requiredLiteral(sequence(digits(),
+                new QuantifierNode(literal("abc"), 0, 1, QuantifierNode.Type.GREEDY), literal("x"))), equalTo("x"));
+        assertThat(LiteralPrefilter.requiredLiteral(new AlternationNode(Arrays.asList(literal("abc"), literal("abd")))),
+                equalTo(""));
+        assertThat(LiteralPrefilter.requiredLiteral(sequence(digits(),
+                new GroupNode(GroupNode.Type.POSITIVE_LOOKAHEAD, null, literal("abc")), literal("x"))), equalTo("x"));
+    }
+
+    @Test
+    void prefilterIsNotCreatedWhenItCannotBeUsed() {
+        EnumSet<PatternFlag> noFlags = EnumSet.noneOf(PatternFlag.class);
+        assertThat(LiteralPrefilter.create(digits(), noFlags), nullValue());
+        // The raw regex makes the literal before it optional.
+        assertThat(LiteralPrefilter.create(sequence(literal("abc"), new RawRegexNode("?")), noFlags), nullValue());
+    }
+
+    @Test
+    void caseInsensitiveLiteralIsFoldedToLowerCase() {
+        EnumSet<PatternFlag> caseInsensitive = EnumSet.of(PatternFlag.CASE_INSENSITIVE);
+        assertThat(LiteralPrefilter.create(sequence(digits(), literal("://")), caseInsensitive).getLiteral(), equalTo("://"));
+        assertThat(LiteralPrefilter.create(sequence(digits(), literal("aBc")), caseInsensitive).getLiteral(), equalTo("abc"));
+        // Only ASCII letters are folded, just like Pattern does without UNICODE_CASE.
+        assertThat(LiteralPrefilter.create(sequence(digits(), literal("\u00c9A")), caseInsensitive).getLiteral(),
+                equalTo("\u00c9a"));
+    }
+
+    @Test
+    void caseInsensitiveSearchFindsTheSameIndexAsPattern() {
+        Random random = new Random(24);
+        for (int i = 0; i < 2000; i++) {
+            String literal = randomCaseText(random, 1 + random.nextInt(4));
+            String text = randomCaseText(random, random.nextInt(40));
+            LiteralPrefilter prefilter = LiteralPrefilter.create(sequence(digits(), literal(literal)),
+                    EnumSet.of(PatternFlag.CASE_INSENSITIVE));
+            Matcher matcher = Pattern.compile(Pattern.quote(literal), Pattern.CASE_INSENSITIVE).matcher(text);
+            for (int from = 0; from <= text.length(); from++) {
+                int expected = matcher.find(from) ? matcher.start() : -1;
+                assertThat(literal + " in " + text, prefilter.indexIn(text, from), equalTo(expected));
+                assertThat(literal + " in " + text, prefilter.indexIn(CharBuffer.wrap(text), from), equalTo(expected));
+            }
+        }
+    }
+
+    @Test
+    void searchFindsTheSameIndexAsString() {
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            String literal = randomText(random, 1 + random.nextInt(4));
+            String text = randomText(random, random.nextInt(40));
+            LiteralPrefilter prefilter = LiteralPrefilter.create(sequence(digits(), literal(literal)),
+                    Collections.emptySet());
+            for (int from = 0; from <= text.length(); from++) {
+                assertThat(literal + " in " + text, prefilter.indexIn(CharBuffer.wrap(text), from),
+                        equalTo(text.indexOf(literal, from)));
+            }
+        }
+    }
+
+    private static String randomText(Random random, int length) {
+        // A character that maps to the same index in the table of shifts as 'a' is included on purpose.
+        String characters = "abc\u0161";
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            sb.append(characters.charAt(random.nextInt(characters.length())));
+        }
+        return sb.toString();
+    }
+
+    private static String randomCaseText(Random random, int length) {
+        // Characters next to the letters must not be folded. The letters outside ASCII have a case, or a lower case that
+        // is an ASCII letter, but Pattern does not fold them. The last one also maps to the same index as 'a'.
+        String characters = "abkAK@[`{\u00e1\u00c1\u212a\u0161";
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            sb.append(characters.charAt(random.nextInt(characters.length())));
+        }
+        return sb.toString();
+    }
+}
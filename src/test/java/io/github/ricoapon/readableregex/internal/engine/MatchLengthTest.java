@@ -0,0 +1,62 @@
+package io.github.ricoapon.readableregex.internal.engine;
+
+import io.github.ricoapon.readableregex.ReadableRegex;
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import org.junit.jupiter.api.Test;
+
+import java.util.OptionalInt;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class MatchLengthTest {
+    private static void assertLength(ReadableRegex<?> regex, int min, OptionalInt max) {
+        ReadableRegexPattern pattern = regex.build();
+        assertThat(pattern.toString(), pattern.minimumMatchLength(), equalTo(min));
+        assertThat(pattern.toString(), pattern.maximumMatchLength(), equalTo(max));
+    }
+
+    @Test
+    void lengthOfFixedPartsIsAdded() {
+        assertLength(regex().literal("id=").digit().exactlyNTimes(4), 7, OptionalInt.of(7));
+        assertLength(regex().startOfInput().literal("a").wordBoundary().literal("b").endOfInput(), 2, OptionalInt.of(2));
+        assertLength(regex().literal("a").positiveLookahead(regex().literal("bcd")), 1, OptionalInt.of(1));
+    }
+
+    @Test
+    void quantifiersAndAlternativesGiveARange() {
+        assertLength(regex().digit().betweenNAndMTimes(2, 4).literal("-").optional(), 2, OptionalInt.of(5));
+        assertLength(regex().oneOf(regex().literal("ab"), regex().literal("cdef")), 2, OptionalInt.of(4));
+        assertLength(regex().literal("x").digit().oneOrMore(), 2, OptionalInt.empty());
+        assertLength(regex().add(regex().digit().optional()).oneOrMore(), 0, OptionalInt.empty());
+        // Two chars are needed for code points outside the Basic Multilingual Plane.
+        assertLength(regex().anyCharacter(), 1, OptionalInt.of(2));
+        assertLength(regex().anyCharacterExcept("a"), 1, OptionalInt.of(2));
+    }
+
+    @Test
+    void largeRepetitionsDoNotOverflow() {
+        assertLength(regex().add(regex().literal("abc").atLeastNTimes(1_000_000_000)).atLeastNTimes(1_000_000_000),
+                MatchLength.UNBOUNDED, OptionalInt.empty());
+        assertLength(regex().literal("abc").betweenNAndMTimes(1, 1_000_000_000), 3, OptionalInt.empty());
+    }
+
+    @Test
+    void nothingIsKnownAboutRegularExpressionsAddedAsString() {
+        // The quantifier applies to the literal in front of it.
+        assertLength(regex().literal("abc").regexFromString("?"), 0, OptionalInt.empty());
+    }
+
+    @Test
+    void textsOfAnotherLengthAreRejected() {
+        ReadableRegexPattern pattern = regex().digit().exactlyNTimes(4).literal("-").digit().exactlyNTimes(2).build();
+
+        assertThat(pattern.matchesTextExactly("2020-11"), equalTo(true));
+        assertThat(pattern.matchesTextExactly("2020-1"), equalTo(false));
+        assertThat(pattern.matchesTextExactly("2020-111"), equalTo(false));
+        assertThat(pattern.exactMatch("2020-111").isPresent(), equalTo(false));
+        assertThat(pattern.containsMatch("2020-"), equalTo(false));
+        assertThat(pattern.containsMatch("x2020-111"), equalTo(true));
+    }
+}
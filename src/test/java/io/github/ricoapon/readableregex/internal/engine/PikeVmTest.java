@@ -0,0 +1,156 @@
+package io.github.ricoapon.readableregex.internal.engine;
+
+import io.github.ricoapon.readableregex.PatternFlag;
+import io.github.ricoapon.readableregex.internal.ast.AlternationNode;
+import io.github.ricoapon.readableregex.internal.ast.AnchorNode;
+import io.github.ricoapon.readableregex.internal.ast.CharacterClassNode;
+import io.github.ricoapon.readableregex.internal.ast.GroupNode;
+import io.github.ricoapon.readableregex.internal.ast.LiteralNode;
+import io.github.ricoapon.readableregex.internal.ast.QuantifierNode;
+import io.github.ricoapon.readableregex.internal.ast.RegexNode;
+import io.github.ricoapon.readableregex.internal.ast.RegexNodes;
+import io.github.ricoapon.readableregex.internal.ast.RegexRenderer;
+import io.github.ricoapon.readableregex.internal.ast.SequenceNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+import static io.github.ricoapon.readableregex.internal.ast.RegexTrees.allTexts;
+import static io.github.ricoapon.readableregex.internal.ast.RegexTrees.randomNode;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+class PikeVmTest {
+    private static final List<String> TEXTS = allTexts(4);
+
+    private static int[] slotsOf(Matcher matcher) {
+        int[] slots = new int[2 * matcher.groupCount() + 2];
+        for (int group = 0; group <= matcher.groupCount(); group++) {
+            slots[2 * group] = matcher.start(group);
+            slots[2 * group + 1] = matcher.end(group);
+        }
+        return slots;
+    }
+
+    private static void assertSameAsJdk(RegexNode node, Set<PatternFlag> flags) {
+        int jdkFlags = flags.stream().mapToInt(PatternFlag::getJdkPatternFlagCode).reduce(0, (a, b) -> a | b);
+        Pattern pattern = Pattern.compile(RegexRenderer.render(node), jdkFlags);
+        Nfa nfa = NfaCompiler.compileForSubmatches(node, flags);
+        assertThat(pattern.pattern(), nfa, notNullValue());
+        PikeVm pikeVm = new PikeVm(nfa);
+
+        for (String text : TEXTS) {
+            String reason = pattern.pattern() + " on \"" + text + "\"";
+            Matcher matcher = pattern.matcher(text);
+            assertThat(reason, pikeVm.matchExactly(text), equalTo(matcher.matches() ? slotsOf(matcher) : null));
+            assertThat(reason, pikeVm.find(text, 0), equalTo(matcher.find(0) ? slotsOf(matcher) : null));
+        }
+    }
+
+    @Test
+    void randomTreesFindTheSameMatchAndGroupsAsTheJdk() {
+        Random random = new Random(42);
+        int nrOfTestedTrees = 0;
+        while (nrOfTestedTrees < 300) {
+            RegexNode node = randomNode(random, 4);
+            Set<PatternFlag> flags = EnumSet.noneOf(PatternFlag.class);
+            if (RegexNodes.containsLineAnchor(node)) {
+                flags.add(PatternFlag.MULTILINE);
+            }
+            // Lookarounds and possessive quantifiers are not supported.
+            if (NfaCompiler.compileForSubmatches(node, flags) != null) {
+                assertSameAsJdk(node, flags);
+                nrOfTestedTrees++;
+            }
+        }
+    }
+
+    @Test
+    void findStartsAtTheGivenIndex() {
+        PikeVm pikeVm = new PikeVm(NfaCompiler.compileForSubmatches(new LiteralNode("ab"), EnumSet.noneOf(PatternFlag.class)));
+
+        assertThat(pikeVm.find("ab ab", 1), equalTo(new int[]{3, 5}));
+        assertThat(pikeVm.find("ab ab", 4), nullValue());
+    }
+
+    @Test
+    void wordBoundariesAroundLettersThatAreNotAsciiAreTheSameAsTheJdk() {
+        Pattern pattern = Pattern.compile("\\b");
+        PikeVm pikeVm = new PikeVm(NfaCompiler.compileForSubmatches(new AnchorNode(AnchorNode.Type.WORD_BOUNDARY),
+                EnumSet.noneOf(PatternFlag.class)));
+
+        for (String text : Arrays.asList("\u00e9", "a\u00e9b", "\u00e9\u0301 x", "_1\u0661", "\ud835\udc00a")) {
+            for (int i = 0; i <= text.length(); i++) {
+                Matcher matcher = pattern.matcher(text);
+                assertThat(text + " at " + i, pikeVm.find(text, i), equalTo(matcher.find(i) ? slotsOf(matcher) : null));
+            }
+        }
+    }
+
+    @Test
+    void matchesStartAtLowSurrogatesIfTheJdkStartsThere() {
+        RegexNode nonWordBoundary = new AnchorNode(AnchorNode.Type.NON_WORD_BOUNDARY);
+        // The JDK only skips the low surrogates for the last two patterns.
+        List<RegexNode> nodes = Arrays.asList(nonWordBoundary,
+                new SequenceNode(Arrays.asList(nonWordBoundary, new CharacterClassNode("."))),
+                new AlternationNode(Arrays.asList(new LiteralNode("a"), nonWordBoundary)),
+                new SequenceNode(Arrays.asList(nonWordBoundary, new CharacterClassNode("\\W"))),
+                new AlternationNode(Arrays.asList(new CharacterClassNode("[^a]"), nonWordBoundary)));
+
+        for (RegexNode node : nodes) {
+            Pattern pattern = Pattern.compile(RegexRenderer.render(node));
+            PikeVm pikeVm = new PikeVm(NfaCompiler.compileForSubmatches(node, EnumSet.noneOf(PatternFlag.class)));
+            for (String text : Arrays.asList("a\uD83D\uDE00a", "\uD83D\uDE00", "\uD83D\uDE00\uD83D\uDE00", " \uD83D\uDE00 ")) {
+                for (int i = 0; i <= text.length(); i++) {
+                    Matcher matcher = pattern.matcher(text);
+                    assertThat(pattern.pattern() + " on " + text + " at " + i, pikeVm.find(text, i),
+                            equalTo(matcher.find(i) ? slotsOf(matcher) : null));
+                }
+            }
+        }
+
+        assertThat(regex().nonWordBoundary().buildWithFlags(PatternFlag.PIKE_VM_ENGINE).containsMatch("a\uD83D\uDE00a"),
+                equalTo(true));
+    }
+
+    @Test
+    void wordCharactersAreOnlyAsciiIfTheJdkSaysSo() {
+        PikeVm.Anchors ascii = new PikeVm.Anchors(false);
+        PikeVm.Anchors unicode = new PikeVm.Anchors(true);
+
+        assertThat(ascii.holds(AnchorNode.Type.WORD_BOUNDARY, "\u00e9", 0), equalTo(false));
+        assertThat(ascii.holds(AnchorNode.Type.WORD_BOUNDARY, "a\u00e9", 1), equalTo(true));
+        assertThat(ascii.holds(AnchorNode.Type.NON_WORD_BOUNDARY, "a_1", 2), equalTo(true));
+        assertThat(unicode.holds(AnchorNode.Type.WORD_BOUNDARY, "\u00e9", 0), equalTo(true));
+        assertThat(unicode.holds(AnchorNode.Type.WORD_BOUNDARY, "a\u00e9", 1), equalTo(false));
+    }
+
+    @Test
+    void groupsInsideRepetitionsAreNotSupported() {
+        Set<PatternFlag> flags = EnumSet.noneOf(PatternFlag.class);
+        RegexNode groupA = new GroupNode(GroupNode.Type.CAPTURING, null, new LiteralNode("a"));
+
+        assertThat(NfaCompiler.compileForSubmatches(new QuantifierNode(groupA, 1, 2, QuantifierNode.Type.GREEDY), flags), nullValue());
+        assertThat(NfaCompiler.compileForSubmatches(new QuantifierNode(groupA, 0, 1, QuantifierNode.Type.GREEDY), flags), notNullValue());
+        assertThat(NfaCompiler.compile(new QuantifierNode(groupA, 1, 2, QuantifierNode.Type.GREEDY), flags), notNullValue());
+    }
+
+    @Test
+    void repeatingWhatCanMatchTheEmptyTextIsNotSupported() {
+        Set<PatternFlag> flags = EnumSet.noneOf(PatternFlag.class);
+        RegexNode optionalA = new QuantifierNode(new LiteralNode("a"), 0, 1, QuantifierNode.Type.GREEDY);
+
+        assertThat(NfaCompiler.compileForSubmatches(new QuantifierNode(optionalA, 0, QuantifierNode.UNBOUNDED, QuantifierNode.Type.GREEDY), flags), nullValue());
+        assertThat(NfaCompiler.compileForSubmatches(new QuantifierNode(optionalA, 0, 1, QuantifierNode.Type.GREEDY), flags), notNullValue());
+        assertThat(NfaCompiler.compile(new QuantifierNode(optionalA, 0, QuantifierNode.UNBOUNDED, QuantifierNode.Type.GREEDY), flags), notNullValue());
+    }
+}
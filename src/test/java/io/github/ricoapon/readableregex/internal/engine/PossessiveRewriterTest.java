@@ -0,0 +1,142 @@
+package io.github.ricoapon.readableregex.internal.engine;
+
+import io.github.ricoapon.readableregex.PatternFlag;
+import io.github.ricoapon.readableregex.ReadableRegex;
+import io.github.ricoapon.readableregex.ReadableRegexPattern;
+import io.github.ricoapon.readableregex.internal.ast.QuantifierNode;
+import io.github.ricoapon.readableregex.internal.ast.RegexNode;
+import io.github.ricoapon.readableregex.internal.ast.RegexNodes;
+import io.github.ricoapon.readableregex.internal.ast.RegexRenderer;
+import io.github.ricoapon.readableregex.internal.ast.SequenceNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import static io.github.ricoapon.readableregex.ReadableRegex.regex;
+import static io.github.ricoapon.readableregex.internal.ast.RegexTrees.allTexts;
+import static io.github.ricoapon.readableregex.internal.ast.RegexTrees.randomNode;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class PossessiveRewriterTest {
+    private static final List<String> TEXTS = allTexts(4);
+
+    private static String rewritten(ReadableRegex<?> regex, PatternFlag... flags) {
+        return regex.buildWithFlags(EnumSet.of(PatternFlag.AUTO_POSSESSIVE, flags).toArray(new PatternFlag[0])).toString();
+    }
+
+    @Test
+    void quantifiersFollowedByOtherCharactersBecomeAtomic() {
+        assertThat(rewritten(regex().digit().oneOrMore().literal("-")), equalTo("(?>\\d+)-"));
+        assertThat(rewritten(regex().anyCharacterOf("a-z").oneOrMore().literal("@").anyCharacterOf("a-z").oneOrMore()),
+                equalTo("(?>[a-z]+)@(?>[a-z]+)"));
+        assertThat(rewritten(regex().literal("a").optional().literal("b")), equalTo("(?>a?)b"));
+        assertThat(rewritten(regex().add(regex().digit().oneOrMore().literal(",")).oneOrMore()), equalTo("(?:(?>\\d+),)+"));
+        assertThat(rewritten(regex().digit().betweenNAndMTimes(1, 3).endOfInput()), equalTo("(?>\\d{1,3})\\z"));
+    }
+
+    @Test
+    void quantifiersThatMayHaveToGiveBackStayGreedy() {
+        assertThat(rewritten(regex().wordCharacter().oneOrMore().digit()), equalTo("\\w+\\d"));
+        assertThat(rewritten(regex().add(regex().digit().oneOrMore().literal(",").optional()).oneOrMore()), equalTo("(?:\\d+(?>,?))+"));
+        assertThat(rewritten(regex().literal("a").oneOrMore().literal("A"), PatternFlag.CASE_INSENSITIVE), equalTo("a+A"));
+        assertThat(rewritten(regex().anyCharacter().oneOrMore().literal("\n"), PatternFlag.DOT_ALL), equalTo(".+\\n"));
+        assertThat(rewritten(regex().wordCharacter().oneOrMore().wordBoundary()), equalTo("\\w+\\b"));
+        assertThat(rewritten(regex().digit().oneOrMore().regexFromString("x")), equalTo("(?:\\d+)x"));
+        assertThat(rewritten(regex().digit().oneOrMore().reluctant().literal("-")), equalTo("\\d+?-"));
+        assertThat(rewritten(regex().digit().exactlyNTimes(3).literal("-")), equalTo("\\d{3}-"));
+        // Only repetitions of a single character are rewritten.
+        assertThat(rewritten(regex().add(regex().literal("ab")).oneOrMore().literal("c")), equalTo("(?:ab)+c"));
+        // A repeated block can be followed by another repetition or by what comes after the quantifier.
+        assertThat(rewritten(regex().add(regex().literal("a").digit().optional()).zeroOrMore().reluctant().digit()),
+                equalTo("(?:a\\d?)*?\\d"));
+        assertThat(rewritten(regex().add(regex().wordCharacter().whitespace().optional()).oneOrMore().whitespace()),
+                equalTo("(?:\\w\\s?)+\\s"));
+    }
+
+    @Test
+    void quantifiersInsideARepeatedBlockFollowedByMorePatternMatchTheSame() {
+        ReadableRegexPattern reluctant = regex().add(regex().literal("a").digit().optional()).zeroOrMore().reluctant().digit()
+                .buildWithFlags(PatternFlag.AUTO_POSSESSIVE);
+        assertThat(reluctant.matchesTextExactly("a1"), equalTo(true));
+
+        ReadableRegexPattern greedy = regex().add(regex().wordCharacter().whitespace().optional()).oneOrMore().whitespace()
+                .buildWithFlags(PatternFlag.AUTO_POSSESSIVE);
+        assertThat(greedy.containsMatch("1\n_"), equalTo(true));
+    }
+
+    @Test
+    void withoutTheFlagNothingIsRewritten() {
+        assertThat(regex().digit().oneOrMore().literal("-").build().toString(), equalTo("\\d+-"));
+    }
+
+    private static List<Integer> groupsOf(Matcher matcher) {
+        List<Integer> positions = new ArrayList<>();
+        for (int group = 0; group <= matcher.groupCount(); group++) {
+            positions.add(matcher.start(group));
+            positions.add(matcher.end(group));
+        }
+        return positions;
+    }
+
+    /**
+     * A quantified block followed by more pattern, so that the quantifiers inside the block can be followed both by
+     * another repetition and by what comes after the block.
+     */
+    private static RegexNode repeatedBlockFollowedByMore(Random random) {
+        RegexNode block = new SequenceNode(Arrays.asList(randomNode(random, 1), randomNode(random, 2)));
+        QuantifierNode.Type type = QuantifierNode.Type.values()[random.nextInt(QuantifierNode.Type.values().length)];
+        RegexNode repeated = new QuantifierNode(block, random.nextInt(2), QuantifierNode.UNBOUNDED, type);
+        return new SequenceNode(Arrays.asList(repeated, randomNode(random, 1)));
+    }
+
+    @Test
+    void rewrittenRandomTreesMatchTheSameAsTheOriginal() {
+        Random random = new Random(42);
+        for (int i = 0; i < 400; i++) {
+            RegexNode node = i % 2 == 0 ? randomNode(random, 4) : repeatedBlockFollowedByMore(random);
+            Set<PatternFlag> flags = EnumSet.noneOf(PatternFlag.class);
+            if (RegexNodes.containsLineAnchor(node)) {
+                flags.add(PatternFlag.MULTILINE);
+            }
+            if (random.nextBoolean()) {
+                flags.add(random.nextBoolean() ? PatternFlag.CASE_INSENSITIVE : PatternFlag.DOT_ALL);
+            }
+            int jdkFlags = flags.stream().mapToInt(PatternFlag::getJdkPatternFlagCode).reduce(0, (a, b) -> a | b);
+            Pattern original;
+            try {
+                original = Pattern.compile(RegexRenderer.render(node), jdkFlags);
+            } catch (PatternSyntaxException e) {
+                // For example a lookbehind without a maximum length.
+                continue;
+            }
+            Pattern rewritten = Pattern.compile(RegexRenderer.render(PossessiveRewriter.rewrite(node, flags)), jdkFlags);
+
+            for (String text : TEXTS) {
+                String reason = original + " and " + rewritten + " on \"" + text + "\"";
+                Matcher originalMatcher = original.matcher(text);
+                Matcher rewrittenMatcher = rewritten.matcher(text);
+                boolean matches = originalMatcher.matches();
+                assertThat(reason, rewrittenMatcher.matches(), equalTo(matches));
+                if (matches) {
+                    assertThat(reason, groupsOf(rewrittenMatcher), equalTo(groupsOf(originalMatcher)));
+                }
+                originalMatcher.reset();
+                rewrittenMatcher.reset();
+                while (originalMatcher.find()) {
+                    assertThat(reason, rewrittenMatcher.find(), equalTo(true));
+                    assertThat(reason, groupsOf(rewrittenMatcher), equalTo(groupsOf(originalMatcher)));
+                }
+                assertThat(reason, rewrittenMatcher.find(), equalTo(false));
+            }
+        }
+    }
+}
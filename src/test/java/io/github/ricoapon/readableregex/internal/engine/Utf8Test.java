@@ -0,0 +1,88 @@
+package io.github.ricoapon.readableregex.internal.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+
+class Utf8Test {
+    /** The bytes as a text with one char per byte. */
+    private static String bytesOf(String text) {
+        return new String(text.getBytes(StandardCharsets.UTF_8), StandardCharsets.ISO_8859_1);
+    }
+
+    private static int nrOfMatchingSequences(List<int[]> sequences, int[] bytes) {
+        int count = 0;
+        for (int[] sequence : sequences) {
+            boolean matches = sequence.length == 2 * bytes.length;
+            for (int i = 0; matches && i < bytes.length; i++) {
+                matches = sequence[2 * i] <= bytes[i] && bytes[i] <= sequence[2 * i + 1];
+            }
+            count += matches ? 1 : 0;
+        }
+        return count;
+    }
+
+    @Test
+    void encodeIsTheSameAsTheJdk() {
+        for (int codePoint : new int[]{0, 'a', 0x7F, 0x80, 0xE9, 0x7FF, 0x800, 0x20AC, 0xFFFF, 0x10000, 0x1F600, 0x10FFFF}) {
+            int[] expected = bytesOf(new String(Character.toChars(codePoint))).chars().toArray();
+            assertThat(Integer.toHexString(codePoint), Utf8.encode(codePoint), equalTo(expected));
+        }
+    }
+
+    @Test
+    void everyCodePointOfTheSetIsEncodedByExactlyOneSequence() {
+        List<CharSet> charSets = Arrays.asList(CharSet.ALL, CharSet.DOT, CharSet.WORD, CharSet.EMPTY,
+                CharSet.ofRanges('a', 'z', 0xE0, 0x7FF, 0x801, 0xFFFD, 0x10001, 0x10FFFE),
+                CharSet.ofRanges(0xD000, 0xE000, 0x1F600, 0x1F64F));
+
+        for (CharSet charSet : charSets) {
+            List<int[]> sequences = Utf8.byteRanges(charSet);
+            for (int codePoint = 0; codePoint <= CharSet.MAX_CODE_POINT; codePoint++) {
+                if (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE) {
+                    continue;
+                }
+                int expected = charSet.contains(codePoint) ? 1 : 0;
+                int actual = nrOfMatchingSequences(sequences, Utf8.encode(codePoint));
+                if (actual != expected) {
+                    // Only build the message when the assertion fails, since there are over a million code points.
+                    assertThat(charSet + " " + Integer.toHexString(codePoint), actual, equalTo(expected));
+                }
+            }
+        }
+        assertThat(Utf8.byteRanges(CharSet.ALL).size(), equalTo(9));
+    }
+
+    @Test
+    void surrogatesAreNotEncoded() {
+        assertThat(Utf8.byteRanges(CharSet.range(Character.MIN_SURROGATE, Character.MAX_SURROGATE)).size(), equalTo(0));
+    }
+
+    @Test
+    void decodeForwardsAndBackwards() {
+        String bytes = bytesOf("a\u00e9\u20ac\ud83d\ude00");
+
+        assertThat(Arrays.asList(Utf8.codePointAt(bytes, 0), Utf8.codePointAt(bytes, 1), Utf8.codePointAt(bytes, 3), Utf8.codePointAt(bytes, 6)),
+                contains((int) 'a', 0xE9, 0x20AC, 0x1F600));
+        assertThat(Arrays.asList(Utf8.previousIndex(bytes, 10), Utf8.previousIndex(bytes, 6), Utf8.previousIndex(bytes, 3), Utf8.previousIndex(bytes, 1)),
+                contains(6, 3, 1, 0));
+    }
+
+    @Test
+    void invalidBytesAreDecodedAsSingleReplacementCharacters() {
+        // A continuation byte without a start, a truncated sequence, an overlong encoding and an encoded surrogate.
+        String bytes = "a\u0080\u00e2\u0082b\u00c0\u00af\u00ed\u00a0\u0080";
+
+        assertThat(Utf8.codePointAt(bytes, 1), equalTo(0xFFFD));
+        assertThat(Utf8.codePointAt(bytes, 2), equalTo(0xFFFD));
+        assertThat(Utf8.codePointAt(bytes, 5), equalTo(0xFFFD));
+        assertThat(Utf8.codePointAt(bytes, 7), equalTo(0xFFFD));
+        assertThat(Arrays.asList(Utf8.previousIndex(bytes, 4), Utf8.previousIndex(bytes, 10), Utf8.previousIndex(bytes, 2)), contains(3, 9, 1));
+    }
+}